@@ -0,0 +1,126 @@
+package core.controller;
+
+import core.server.mock.StubHttpExchange;
+import io.github.renatompf.ember.annotations.content.Produces;
+import io.github.renatompf.ember.annotations.controller.Controller;
+import io.github.renatompf.ember.annotations.http.Get;
+import io.github.renatompf.ember.annotations.middleware.WithMiddleware;
+import io.github.renatompf.ember.annotations.parameters.PathParameter;
+import io.github.renatompf.ember.annotations.parameters.QueryParameter;
+import io.github.renatompf.ember.core.controller.HandlerPlan;
+import io.github.renatompf.ember.core.parameter.ContentNegotiationManager;
+import io.github.renatompf.ember.core.parameter.ParameterBinder;
+import io.github.renatompf.ember.core.parameter.ParameterResolver;
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.core.server.Middleware;
+import io.github.renatompf.ember.enums.MediaType;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request reflective dispatch previously done by the ControllerMapper with
+ * the precompiled {@link HandlerPlan}.
+ * <p>
+ * Both benchmarks run content negotiation, middleware, parameter binding and the controller
+ * call; validation and response serialization are left out as they are identical in both paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerInvocationBenchmark {
+
+    private final ParameterResolver parameterResolver = new ParameterResolver();
+    private final ContentNegotiationManager contentNegotiationManager = new ContentNegotiationManager();
+
+    private BenchmarkController controller;
+    private Method method;
+    private HandlerPlan plan;
+    private Context context;
+
+    @Setup
+    public void setUp() throws Exception {
+        controller = new BenchmarkController();
+        method = BenchmarkController.class.getMethod("find", String.class, int.class, Context.class);
+
+        Parameter[] parameters = method.getParameters();
+        ParameterBinder[] binders = new ParameterBinder[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            binders[i] = parameterResolver.binderFor(parameters[i]);
+        }
+
+        List<Middleware> middleware = new ArrayList<>();
+        for (Class<? extends Middleware> middlewareClass : method.getAnnotation(WithMiddleware.class).value()) {
+            middleware.add(middlewareClass.getDeclaredConstructor().newInstance());
+        }
+
+        plan = new HandlerPlan(
+                controller,
+                method,
+                binders,
+                contentNegotiationManager.supportedConsumes(method),
+                contentNegotiationManager.supportedProduces(method),
+                middleware
+        );
+
+        StubHttpExchange exchange = new StubHttpExchange("GET", "/users/42?limit=10", new byte[0])
+                .header("Accept", MediaType.APPLICATION_JSON.getType());
+        context = new Context(exchange, "limit=10", "", MediaType.APPLICATION_JSON.getType(), Map.of("id", "42"));
+    }
+
+    @Benchmark
+    public Object reflective() throws Exception {
+        contentNegotiationManager.validateContentType(context, method);
+        contentNegotiationManager.negotiateResponseType(context, method);
+
+        Class<? extends Middleware>[] methodMiddleware = method.isAnnotationPresent(WithMiddleware.class)
+                ? method.getAnnotation(WithMiddleware.class).value()
+                : new Class[0];
+        for (Class<? extends Middleware> middlewareClass : methodMiddleware) {
+            middlewareClass.getDeclaredConstructor().newInstance().handle(context);
+        }
+
+        Parameter[] parameters = method.getParameters();
+        Object[] args = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            args[i] = parameterResolver.resolveParameter(parameters[i], context);
+        }
+        return method.invoke(controller, args);
+    }
+
+    @Benchmark
+    public Object plan() throws Throwable {
+        contentNegotiationManager.validateContentType(context, plan.consumes());
+        contentNegotiationManager.negotiateResponseType(context, plan.produces());
+
+        for (Middleware middleware : plan.middleware()) {
+            middleware.handle(context);
+        }
+
+        return plan.invoke(plan.bindArguments(context));
+    }
+
+    @Controller("/users")
+    public static class BenchmarkController {
+        @Get("/:id")
+        @Produces(MediaType.APPLICATION_JSON)
+        @WithMiddleware(NoopMiddleware.class)
+        public String find(@PathParameter("id") String id, @QueryParameter("limit") int limit, Context context) {
+            return id;
+        }
+    }
+
+    public static class NoopMiddleware implements Middleware {
+        @Override
+        public void handle(Context context) {
+        }
+    }
+}
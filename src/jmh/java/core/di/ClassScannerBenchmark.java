@@ -0,0 +1,197 @@
+package core.di;
+
+import io.github.renatompf.ember.annotations.controller.Controller;
+import io.github.renatompf.ember.annotations.exceptions.GlobalHandler;
+import io.github.renatompf.ember.annotations.service.Service;
+import io.github.renatompf.ember.core.di.ClassScanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Measures discovering the components of a synthetic classpath of 10,000 classes, in a directory
+ * or a jar, of which 1% are services and 0.2% controllers.
+ * <p>
+ * Every iteration scans through a new class loader, so that classes are loaded as on a cold
+ * start. `reflectionPerAnnotation` scans once per stereotype, loading every class, as the
+ * container used to; `reflectionSinglePass` looks for all stereotypes through
+ * {@link ClassScanner#scan}, still loading every class; `bytecode` reads the class files in
+ * parallel and loads only the components.
+ * </p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClassScannerBenchmark {
+    private static final String PACKAGE = "bench";
+    private static final int PACKAGES = 100;
+    private static final int CLASSES_PER_PACKAGE = 100;
+    private static final List<Class<? extends Annotation>> STEREOTYPES =
+            List.of(Service.class, Controller.class, GlobalHandler.class);
+
+    @Param({"directory", "jar"})
+    public String layout;
+
+    private Path root;
+    private URL classpath;
+    private ClassLoader classLoader;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        root = Files.createTempDirectory("scanner");
+        if (layout.equals("jar")) {
+            Path jar = root.resolve("classes.jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+                // Directory entries let the class loader find the package, as in jars built by tools
+                Set<String> directories = new HashSet<>();
+                forEachClass((name, bytes) -> {
+                    for (int slash = name.indexOf('/'); slash >= 0; slash = name.indexOf('/', slash + 1)) {
+                        if (directories.add(name.substring(0, slash + 1))) {
+                            out.putNextEntry(new JarEntry(name.substring(0, slash + 1)));
+                            out.closeEntry();
+                        }
+                    }
+                    out.putNextEntry(new JarEntry(name + ".class"));
+                    out.write(bytes);
+                    out.closeEntry();
+                });
+            }
+            classpath = jar.toUri().toURL();
+        } else {
+            Path classes = root.resolve("classes");
+            forEachClass((name, bytes) -> {
+                Path file = classes.resolve(name + ".class");
+                Files.createDirectories(file.getParent());
+                Files.write(file, bytes);
+            });
+            classpath = classes.toUri().toURL();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void newClassLoader() {
+        classLoader = new URLClassLoader(new URL[]{classpath}, ClassScannerBenchmark.class.getClassLoader());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int reflectionPerAnnotation() throws Exception {
+        Thread.currentThread().setContextClassLoader(classLoader);
+        ClassScanner scanner = new ClassScanner(ClassScanner.Mode.REFLECTION);
+        int found = 0;
+        for (Class<? extends Annotation> stereotype : STEREOTYPES) {
+            found += scanner.findAnnotatedClasses(PACKAGE, stereotype).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public Map<Class<? extends Annotation>, List<Class<?>>> reflectionSinglePass() throws Exception {
+        Thread.currentThread().setContextClassLoader(classLoader);
+        return new ClassScanner(ClassScanner.Mode.REFLECTION).scan(PACKAGE, STEREOTYPES);
+    }
+
+    @Benchmark
+    public Map<Class<? extends Annotation>, List<Class<?>>> bytecode() throws Exception {
+        Thread.currentThread().setContextClassLoader(classLoader);
+        return new ClassScanner(ClassScanner.Mode.BYTECODE).scan(PACKAGE, STEREOTYPES);
+    }
+
+    private interface ClassConsumer {
+        void accept(String name, byte[] bytes) throws IOException;
+    }
+
+    private static void forEachClass(ClassConsumer consumer) throws IOException {
+        for (int p = 0; p < PACKAGES; p++) {
+            for (int c = 0; c < CLASSES_PER_PACKAGE; c++) {
+                int index = p * CLASSES_PER_PACKAGE + c;
+                String name = PACKAGE + "/p" + p + "/Class" + c;
+                Class<? extends Annotation> annotation = index % 500 == 0 ? Controller.class
+                        : index % 100 == 0 ? Service.class
+                        : null;
+                consumer.accept(name, classFile(name, annotation));
+            }
+        }
+    }
+
+    /**
+     * Writes a class file extending `Object`, with constants standing for the names and
+     * descriptors of a few members, and optionally annotated.
+     */
+    private static byte[] classFile(String name, Class<? extends Annotation> annotation) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(52);
+
+        int fillers = 24;
+        int count = 5 + fillers + (annotation != null ? 2 : 0);
+        out.writeShort(count);
+        utf8(out, name);
+        out.writeByte(7);
+        out.writeShort(1);
+        utf8(out, "java/lang/Object");
+        out.writeByte(7);
+        out.writeShort(3);
+        for (int i = 0; i < fillers; i++) {
+            utf8(out, i % 2 == 0 ? "member" + i : "(Ljava/lang/String;I)Ljava/util/List;");
+        }
+        if (annotation != null) {
+            utf8(out, "RuntimeVisibleAnnotations");
+            utf8(out, "L" + annotation.getName().replace('.', '/') + ";");
+        }
+
+        // Public, super, this class, super class, no interfaces, fields or methods
+        out.writeShort(0x0021);
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(0);
+        if (annotation != null) {
+            out.writeShort(1);
+            out.writeShort(count - 2);
+            out.writeInt(6);
+            out.writeShort(1);
+            out.writeShort(count - 1);
+            out.writeShort(0);
+        } else {
+            out.writeShort(0);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void utf8(DataOutputStream out, String value) throws IOException {
+        out.writeByte(1);
+        out.writeUTF(value);
+    }
+}
@@ -0,0 +1,99 @@
+package core.parameter;
+
+import core.server.mock.StubHttpExchange;
+import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.core.http.ResponseHandler;
+import io.github.renatompf.ember.core.http.SerializerRegistry;
+import io.github.renatompf.ember.core.parameter.BodyManager;
+import io.github.renatompf.ember.core.server.engine.JdkServerExchange;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import io.github.renatompf.ember.enums.MediaType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a request body with the {@link BodyManager} and serializing a response body
+ * with the {@link ResponseHandler}, for JSON and XML.
+ * <p>
+ * The payload is a small object with a nested object and a list, typical of a CRUD API. The
+ * request body to parse is the serialized payload itself, so both directions handle the same
+ * bytes.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BodyBenchmark {
+
+    @Param({"application/json", "application/xml"})
+    public String contentType;
+
+    private final SerializerRegistry serializers = SerializerRegistry.defaults();
+
+    private MediaType mediaType;
+    private User user;
+    private byte[] body;
+    private ServerExchange exchange;
+
+    @Setup
+    public void setUp() throws Exception {
+        mediaType = MediaType.fromString(contentType);
+        user = new User();
+        user.id = 42;
+        user.name = "Ada Lovelace";
+        user.email = "ada@example.com";
+        user.roles = List.of("admin", "author", "reviewer");
+        user.address = new Address();
+        user.address.street = "12 St James's Square";
+        user.address.city = "London";
+
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        serializers.get(mediaType).write(user, serialized);
+        body = serialized.toByteArray();
+
+        StubHttpExchange stub = new StubHttpExchange("GET", "/users/42", new byte[0]);
+        // The response handler closes the body once written; keep discarding across invocations
+        stub.setStreams(null, new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+        exchange = new JdkServerExchange(stub);
+    }
+
+    @Benchmark
+    public User parse() {
+        return new BodyManager(new ByteArrayInputStream(body), contentType).parseBodyAs(User.class);
+    }
+
+    @Benchmark
+    public void serialize() {
+        new ResponseHandler(exchange, serializers).handleResponse(
+                Response.ok().contentType(mediaType).body(user).build());
+    }
+
+    public static class User {
+        public long id;
+        public String name;
+        public String email;
+        public List<String> roles;
+        public Address address;
+    }
+
+    public static class Address {
+        public String street;
+        public String city;
+    }
+}
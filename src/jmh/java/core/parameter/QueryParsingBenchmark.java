@@ -0,0 +1,139 @@
+package core.parameter;
+
+import core.server.mock.StubHttpExchange;
+import io.github.renatompf.ember.annotations.parameters.QueryParameter;
+import io.github.renatompf.ember.core.parameter.ParameterBinder;
+import io.github.renatompf.ember.core.parameter.ParameterResolver;
+import io.github.renatompf.ember.core.parameter.QueryParameterManager;
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.core.server.engine.JdkServerExchange;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import io.github.renatompf.ember.enums.MediaType;
+import io.github.renatompf.ember.utils.TypeConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures query string handling: parsing with the {@link QueryParameterManager}, converting a
+ * single value with the {@link TypeConverter}, and binding the query parameters of a handler
+ * method through the binders of the {@link ParameterResolver}.
+ * <p>
+ * `short` is a typical query of three parameters, while `long` has twenty parameters, some of
+ * them percent-encoded, of which the handler only reads three. `analytics` mimics the URLs of
+ * tracked links: campaign and click identifiers, an encoded landing page and a repeated `event`
+ * key, about sixty parameters in all. `eager` is the previous parser, splitting and decoding the
+ * whole query into a map up front, kept as a baseline for `parse`.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryParsingBenchmark {
+
+    private static final Map<String, String> QUERIES = Map.of(
+            "short", "limit=10&offset=20&sort=name",
+            "long", longQuery(),
+            "analytics", analyticsQuery()
+    );
+
+    @Param({"short", "long", "analytics"})
+    public String shape;
+
+    private String query;
+    private ServerExchange exchange;
+    private ParameterBinder[] binders;
+
+    @Setup
+    public void setUp() throws Exception {
+        query = QUERIES.get(shape);
+        exchange = new JdkServerExchange(new StubHttpExchange("GET", "/users?" + query, new byte[0]));
+
+        ParameterResolver parameterResolver = new ParameterResolver();
+        Method method = QueryController.class.getMethod("list", int.class, int.class, String.class, List.class);
+        Parameter[] parameters = method.getParameters();
+        binders = new ParameterBinder[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            binders[i] = parameterResolver.binderFor(parameters[i]);
+        }
+    }
+
+    @Benchmark
+    public String parse() {
+        return new QueryParameterManager(query).queryParam("sort");
+    }
+
+    @Benchmark
+    public String eager() {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : query.split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            String key = URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8);
+            String value = keyValue.length > 1 ? URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8) : "";
+            params.put(key, value);
+        }
+        return params.get("sort");
+    }
+
+    @Benchmark
+    public List<String> values() {
+        return new QueryParameterManager(query).queryParamValues("event");
+    }
+
+    @Benchmark
+    public Integer convert() {
+        return TypeConverter.convert("10", int.class);
+    }
+
+    @Benchmark
+    public void bind(Blackhole blackhole) {
+        Context context = new Context(exchange, query, MediaType.APPLICATION_JSON.getType(), Map.of());
+        for (ParameterBinder binder : binders) {
+            blackhole.consume(binder.bind(context));
+        }
+    }
+
+    private static String longQuery() {
+        StringBuilder query = new StringBuilder("limit=10&offset=20&sort=name");
+        for (int i = 0; i < 17; i++) {
+            query.append("&filter").append(i).append(i % 2 == 0 ? "=plain" : "=caf%C3%A9+au+lait");
+        }
+        return query.toString();
+    }
+
+    private static String analyticsQuery() {
+        StringBuilder query = new StringBuilder()
+                .append("utm_source=newsletter&utm_medium=email&utm_campaign=autumn_sale_2026")
+                .append("&utm_term=running+shoes&utm_content=hero_banner_v2")
+                .append("&gclid=EAIaIQobChMI8t3Qz5y7hAMVh5KDBx0XyQ2aEAAYASAAEgKz4fD_BwE")
+                .append("&fbclid=IwAR2x7Kf9Lq0aZ3mN5pQ8rS1tU4vW6yB9cD2eF5gH7jK0lM3nO6pQ9rS2tU5")
+                .append("&landing=https%3A%2F%2Fshop.example.com%2Fcatalog%2Fshoes%3Fcolor%3Dblue%26size%3D42")
+                .append("&limit=10&offset=20&sort=name");
+        for (int i = 0; i < 25; i++) {
+            query.append("&event=").append(i % 3 == 0 ? "page_view" : i % 3 == 1 ? "scroll%3A50" : "click");
+            query.append("&ts").append(i).append('=').append(1_792_000_000_000L + i * 1_250L);
+        }
+        query.append("&screen=1920x1080&lang=pt-PT&tz=Europe%2FLisbon&session=9f8e7d6c5b4a");
+        return query.toString();
+    }
+
+    public static class QueryController {
+        public String list(@QueryParameter("limit") int limit,
+                           @QueryParameter("offset") int offset,
+                           @QueryParameter("sort") String sort,
+                           @QueryParameter("event") List<String> events) {
+            return sort;
+        }
+    }
+}
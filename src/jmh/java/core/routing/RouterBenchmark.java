@@ -0,0 +1,67 @@
+package core.routing;
+
+import io.github.renatompf.ember.core.routing.RouteMatchResult;
+import io.github.renatompf.ember.core.routing.RoutePattern;
+import io.github.renatompf.ember.core.routing.Router;
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.enums.HttpMethod;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures route lookup in a {@link Router} holding 10, 100 or 1000 resources, each with a
+ * static and a parameterized route.
+ * <p>
+ * Lookups target the last registered resource, so a router scanning its routes in order pays
+ * for all of them. `pattern` matches a single {@link RoutePattern} and extracts its parameters.
+ * Misses are left out, as the router logs each of them.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouterBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int routes;
+
+    private Router router;
+    private RoutePattern routePattern;
+    private String staticPath;
+    private String parameterizedPath;
+
+    @Setup
+    public void setUp() {
+        Consumer<Context> handler = ctx -> {};
+        router = new Router();
+        for (int i = 0; i < routes; i++) {
+            router.register(HttpMethod.GET, "/api/resource" + i + "/list", handler);
+            router.register(HttpMethod.GET, "/api/resource" + i + "/:id/items/:itemId", handler);
+        }
+        int last = routes - 1;
+        staticPath = "/api/resource" + last + "/list";
+        parameterizedPath = "/api/resource" + last + "/42/items/7";
+        routePattern = new RoutePattern("/api/resource" + last + "/:id/items/:itemId");
+    }
+
+    @Benchmark
+    public RouteMatchResult staticRoute() {
+        return router.getRoute(HttpMethod.GET, staticPath);
+    }
+
+    @Benchmark
+    public RouteMatchResult parameterizedRoute() {
+        return router.getRoute(HttpMethod.GET, parameterizedPath);
+    }
+
+    @Benchmark
+    public Map<String, String> pattern() {
+        return routePattern.matches(parameterizedPath) ? routePattern.extractParameters(parameterizedPath) : null;
+    }
+}
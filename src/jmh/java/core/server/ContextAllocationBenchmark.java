@@ -0,0 +1,81 @@
+package core.server;
+
+import core.server.mock.StubHttpExchange;
+import io.github.renatompf.ember.core.http.SerializerRegistry;
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.core.server.ContextPool;
+import io.github.renatompf.ember.core.server.engine.JdkServerExchange;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import io.github.renatompf.ember.enums.MediaType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of setting up a {@link Context} for a request whose handler reads a path
+ * parameter and a request header, with and without a {@link ContextPool}.
+ * <p>
+ * `allManagers` touches every manager and shows what each request paid when they were created
+ * eagerly. Run with `-prof gc` to compare the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextAllocationBenchmark {
+
+    private static final String CONTENT_TYPE = MediaType.APPLICATION_JSON.getType();
+    private static final Map<String, String> PATH_PARAMS = Map.of("id", "42");
+
+    private ServerExchange exchange;
+    private ContextPool pool;
+
+    @Setup
+    public void setUp() {
+        exchange = new JdkServerExchange(new StubHttpExchange("GET", "/users/42?limit=10", new byte[0])
+                .header("Accept", CONTENT_TYPE));
+        pool = new ContextPool(64, 0);
+    }
+
+    @Benchmark
+    public void fresh(Blackhole blackhole) {
+        Context context = new Context(exchange, "limit=10", CONTENT_TYPE, Map.of());
+        handle(context, blackhole);
+    }
+
+    @Benchmark
+    public void pooled(Blackhole blackhole) {
+        Context context = pool.acquire(exchange, "limit=10", CONTENT_TYPE, SerializerRegistry.defaults());
+        try {
+            handle(context, blackhole);
+        } finally {
+            pool.release(context);
+        }
+    }
+
+    @Benchmark
+    public Object allManagers() {
+        Context context = new Context(exchange, "limit=10", CONTENT_TYPE, Map.of());
+        context.setPathParams(PATH_PARAMS);
+        context.headers();
+        context.pathParams();
+        context.queryParams();
+        context.body();
+        context.cookies();
+        context.response();
+        context.session();
+        return context;
+    }
+
+    private void handle(Context context, Blackhole blackhole) {
+        context.setPathParams(PATH_PARAMS);
+        blackhole.consume(context.pathParams().pathParam("id"));
+        blackhole.consume(context.headers().header("Accept"));
+        // The server hands the context to the middleware chain, so it always escapes
+        blackhole.consume(context);
+    }
+}
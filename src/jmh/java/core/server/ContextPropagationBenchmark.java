@@ -0,0 +1,93 @@
+package core.server;
+
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.core.server.ContextHolder;
+import io.github.renatompf.ember.core.server.ContextMiddleware;
+import io.github.renatompf.ember.core.server.Middleware;
+import io.github.renatompf.ember.core.server.engine.JdkServerExchange;
+import io.github.renatompf.ember.enums.MediaType;
+import core.server.mock.StubHttpExchange;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of making the {@link Context} of a request available through
+ * {@link ContextHolder} for a handler that looks it up a few times.
+ * <p>
+ * `middleware` binds the context through the {@link ContextMiddleware} injected into the
+ * chain, as the server used to, while `scoped` binds it once with
+ * {@link ContextHolder#callWith}, as the server now does. The `VirtualThread` variants run each
+ * request on a new virtual thread, which is where a thread-local binding allocates its map.
+ * Run with `-prof gc` to compare the bytes allocated per operation.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextPropagationBenchmark {
+
+    private static final int LOOKUPS = 4;
+
+    private Context context;
+
+    @Setup
+    public void setUp() {
+        context = new Context(new JdkServerExchange(new StubHttpExchange("GET", "/users/42", new byte[0])),
+                null, MediaType.APPLICATION_JSON.getType(), Map.of());
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public void middleware(Blackhole blackhole) throws Exception {
+        Middleware handler = ctx -> lookUp(blackhole);
+        context.setMiddlewareChain(List.of(new ContextMiddleware(), handler));
+        context.next();
+    }
+
+    @Benchmark
+    public void scoped(Blackhole blackhole) throws Exception {
+        Middleware handler = ctx -> lookUp(blackhole);
+        context.setMiddlewareChain(List.of(handler));
+        ContextHolder.callWith(context, () -> {
+            context.next();
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void middlewareVirtualThread(Blackhole blackhole) throws Exception {
+        Thread thread = Thread.ofVirtual().start(() -> {
+            try {
+                middleware(blackhole);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.join();
+    }
+
+    @Benchmark
+    public void scopedVirtualThread(Blackhole blackhole) throws Exception {
+        Thread thread = Thread.ofVirtual().start(() -> {
+            try {
+                scoped(blackhole);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.join();
+    }
+
+    private static void lookUp(Blackhole blackhole) {
+        for (int i = 0; i < LOOKUPS; i++) {
+            blackhole.consume(ContextHolder.context());
+        }
+    }
+}
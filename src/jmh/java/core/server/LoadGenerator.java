@@ -0,0 +1,217 @@
+package core.server;
+
+import io.github.renatompf.ember.core.metrics.LatencyHistogram;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A minimal HTTP/1.1 load generator sending requests over a keep-alive connection and waiting
+ * for each response before sending the next one, reconnecting when the server closes it.
+ * <p>
+ * It only understands what it needs to pace a closed loop: the status line and a body delimited
+ * by `Content-Length` or chunked transfer encoding, which it reads and discards. Benchmarks open
+ * one generator per thread; {@link #main} runs several of them for a fixed duration against any
+ * server and reports the throughput and latency quantiles.
+ * </p>
+ */
+public final class LoadGenerator implements Closeable {
+    private final InetSocketAddress address;
+    private final StringBuilder line = new StringBuilder(64);
+    private Socket socket;
+    private InputStream in;
+    private OutputStream out;
+
+    /**
+     * Opens a connection to a server.
+     *
+     * @param address The address of the server.
+     * @throws IOException If the connection cannot be opened.
+     */
+    public LoadGenerator(InetSocketAddress address) throws IOException {
+        this.address = address;
+        connect();
+    }
+
+    private void connect() throws IOException {
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(address);
+        in = new BufferedInputStream(socket.getInputStream(), 16 * 1024);
+        out = socket.getOutputStream();
+    }
+
+    /**
+     * Encodes a request to send with {@link #send}.
+     *
+     * @param method      The HTTP method.
+     * @param target      The path and query of the request.
+     * @param contentType The content type of the body, or `null` if there is no body.
+     * @param body        The body, or `null` if there is no body.
+     * @return The encoded request.
+     */
+    public static byte[] request(String method, String target, String contentType, byte[] body) {
+        StringBuilder head = new StringBuilder(128)
+                .append(method).append(' ').append(target).append(" HTTP/1.1\r\n")
+                .append("Host: localhost\r\n")
+                .append("Accept: application/json\r\n");
+        if (body != null) {
+            head.append("Content-Type: ").append(contentType).append("\r\n")
+                    .append("Content-Length: ").append(body.length).append("\r\n");
+        }
+        byte[] headBytes = head.append("\r\n").toString().getBytes(StandardCharsets.US_ASCII);
+        if (body == null) {
+            return headBytes;
+        }
+        byte[] request = new byte[headBytes.length + body.length];
+        System.arraycopy(headBytes, 0, request, 0, headBytes.length);
+        System.arraycopy(body, 0, request, headBytes.length, body.length);
+        return request;
+    }
+
+    /**
+     * Sends a request and reads its whole response, opening a new connection first if the server
+     * closed the previous one.
+     *
+     * @param request The encoded request.
+     * @return The status code of the response.
+     * @throws IOException If the connection fails or the response is malformed.
+     */
+    public int send(byte[] request) throws IOException {
+        if (socket == null) {
+            connect();
+        }
+        out.write(request);
+        out.flush();
+
+        String statusLine = readLine();
+        if (!statusLine.startsWith("HTTP/1.") || statusLine.length() < 12) {
+            throw new IOException("Malformed status line: " + statusLine);
+        }
+        int status = Integer.parseInt(statusLine, 9, 12, 10);
+
+        long contentLength = -1;
+        boolean chunked = false;
+        boolean close = false;
+        for (String header = readLine(); !header.isEmpty(); header = readLine()) {
+            int colon = header.indexOf(':');
+            String name = header.substring(0, colon);
+            String value = header.substring(colon + 1).trim();
+            if (name.equalsIgnoreCase("Content-Length")) {
+                contentLength = Long.parseLong(value);
+            } else if (name.equalsIgnoreCase("Transfer-Encoding") && value.equalsIgnoreCase("chunked")) {
+                chunked = true;
+            } else if (name.equalsIgnoreCase("Connection") && value.equalsIgnoreCase("close")) {
+                close = true;
+            }
+        }
+
+        if (chunked) {
+            for (long size = Long.parseLong(readLine().trim(), 16); size > 0; size = Long.parseLong(readLine().trim(), 16)) {
+                skip(size);
+                readLine();
+            }
+            readLine();
+        } else if (contentLength > 0) {
+            skip(contentLength);
+        }
+        if (close) {
+            close();
+        }
+        return status;
+    }
+
+    private String readLine() throws IOException {
+        line.setLength(0);
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b == -1) {
+                throw new EOFException("Connection closed by the server");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    private void skip(long bytes) throws IOException {
+        while (bytes > 0) {
+            long skipped = in.skip(bytes);
+            if (skipped <= 0) {
+                if (in.read() == -1) {
+                    throw new EOFException("Connection closed by the server");
+                }
+                skipped = 1;
+            }
+            bytes -= skipped;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (socket != null) {
+            socket.close();
+            socket = null;
+        }
+    }
+
+    /**
+     * Runs a closed-loop GET load against a server and prints the throughput and latency quantiles.
+     * <p>
+     * Usage: `LoadGenerator host port target [connections] [seconds]`, such as
+     * `LoadGenerator localhost 8080 /users/42 16 30`.
+     * </p>
+     *
+     * @param args The command line arguments.
+     * @throws Exception If a connection fails.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: LoadGenerator host port target [connections] [seconds]");
+            System.exit(1);
+        }
+        InetSocketAddress address = new InetSocketAddress(args[0], Integer.parseInt(args[1]));
+        byte[] request = request("GET", args[2], null, null);
+        int connections = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+        long durationNanos = (args.length > 4 ? Long.parseLong(args[4]) : 10) * 1_000_000_000L;
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + durationNanos;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            threads.add(Thread.ofPlatform().name("load-" + i).start(() -> {
+                try (LoadGenerator generator = new LoadGenerator(address)) {
+                    for (long start = System.nanoTime(); start < deadline; start = System.nanoTime()) {
+                        if (generator.send(request) >= 500) {
+                            errors.increment();
+                        }
+                        latencies.record(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    System.err.println(Thread.currentThread().getName() + " failed: " + e.getMessage());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] quantiles = latencies.quantiles(0.5, 0.9, 0.99, 0.999);
+        System.out.printf("requests=%d errors=%d throughput=%.0f/s%n",
+                latencies.getCount(), errors.sum(), latencies.getCount() / (durationNanos / 1e9));
+        System.out.printf("p50=%dus p90=%dus p99=%dus p999=%dus%n",
+                quantiles[0] / 1000, quantiles[1] / 1000, quantiles[2] / 1000, quantiles[3] / 1000);
+    }
+}
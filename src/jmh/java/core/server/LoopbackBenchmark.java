@@ -0,0 +1,85 @@
+package core.server;
+
+import core.server.loopback.UserController;
+import io.github.renatompf.ember.EmberApplication;
+import io.github.renatompf.ember.core.server.execution.ExecutionConfig;
+import io.github.renatompf.ember.core.server.engine.NioServerEngine;
+import io.github.renatompf.ember.enums.MediaType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures whole requests served by an {@link EmberApplication} on the NIO engine, sent over the
+ * loopback interface by a {@link LoadGenerator} per benchmark thread.
+ * <p>
+ * The application discovers the {@link UserController} only. `get` binds a path parameter and
+ * serializes a JSON response, and `post` also parses and validates a JSON request body. Each
+ * thread keeps its connection alive and waits for every response before sending the next
+ * request, so the score is the throughput of the server at a concurrency of four connections.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoopbackBenchmark {
+
+    private static final byte[] GET = LoadGenerator.request("GET", "/users/42", null, null);
+    private static final byte[] POST = LoadGenerator.request("POST", "/users", MediaType.APPLICATION_JSON.getType(),
+            "{\"id\":7,\"name\":\"Grace Hopper\",\"email\":\"grace@example.com\",\"roles\":[\"admin\"]}"
+                    .getBytes(StandardCharsets.UTF_8));
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        EmberApplication app;
+        InetSocketAddress address;
+
+        @Setup
+        public void start() {
+            NioServerEngine engine = NioServerEngine.builder().build();
+            app = new EmberApplication(engine, ExecutionConfig.defaults(), UserController.class.getPackageName());
+            app.start(0);
+            address = new InetSocketAddress("127.0.0.1", engine.getLocalAddress().getPort());
+        }
+
+        @TearDown
+        public void stop() {
+            app.stop();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Connection {
+        LoadGenerator generator;
+
+        @Setup
+        public void open(Application application) throws IOException {
+            generator = new LoadGenerator(application.address);
+            // Make sure the scores measure served requests rather than errors
+            if (generator.send(GET) != 200 || generator.send(POST) != 201) {
+                throw new IllegalStateException("The application did not serve the benchmark requests");
+            }
+        }
+
+        @TearDown
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    @Benchmark
+    public int get(Connection connection) throws IOException {
+        return connection.generator.send(GET);
+    }
+
+    @Benchmark
+    public int post(Connection connection) throws IOException {
+        return connection.generator.send(POST);
+    }
+}
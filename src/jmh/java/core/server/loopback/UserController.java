@@ -0,0 +1,49 @@
+package core.server.loopback;
+
+import io.github.renatompf.ember.annotations.content.Consumes;
+import io.github.renatompf.ember.annotations.content.Produces;
+import io.github.renatompf.ember.annotations.controller.Controller;
+import io.github.renatompf.ember.annotations.http.Get;
+import io.github.renatompf.ember.annotations.http.Post;
+import io.github.renatompf.ember.annotations.parameters.PathParameter;
+import io.github.renatompf.ember.annotations.parameters.RequestBody;
+import io.github.renatompf.ember.annotations.parameters.Validated;
+import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.enums.MediaType;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.List;
+
+/**
+ * The controller served by the loopback benchmark, going through parameter binding, validation
+ * and serialization like an application controller.
+ */
+@Controller("/users")
+public class UserController {
+
+    @Get("/:id")
+    @Produces(MediaType.APPLICATION_JSON)
+    public User find(@PathParameter("id") long id) {
+        User user = new User();
+        user.id = id;
+        user.name = "Ada Lovelace";
+        user.email = "ada@example.com";
+        user.roles = List.of("admin", "author");
+        return user;
+    }
+
+    @Post
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response<User> create(@Validated @RequestBody User user) {
+        return Response.<User>created().contentType(MediaType.APPLICATION_JSON).body(user).build();
+    }
+
+    public static class User {
+        public long id;
+        @NotBlank public String name;
+        @NotBlank @Email public String email;
+        public List<String> roles;
+    }
+}
@@ -0,0 +1,124 @@
+package core.session;
+
+import io.github.renatompf.ember.core.session.FileSessionStore;
+import io.github.renatompf.ember.core.session.InMemorySessionStore;
+import io.github.renatompf.ember.core.session.OffHeapSessionStore;
+import io.github.renatompf.ember.core.session.Session;
+import io.github.renatompf.ember.core.session.SessionStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up and saving sessions in each of the bundled stores, and reports the heap and
+ * off-heap memory a stored session takes.
+ * <p>
+ * Each store is filled with sessions holding a user ID, a list of roles, a counter and a token,
+ * about what an authenticated web session keeps. The footprint is measured after a garbage
+ * collection, from the used heap and the direct and mapped buffer pools, and printed once the
+ * store is filled: `offheap` keeps only its index on the heap, while `file` counts its mapped
+ * segments off the heap. `find` reads one attribute of a random session; `save` also changes it
+ * and saves the session back.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionStoreBenchmark {
+    private static final long MAX_BYTES = 1L << 30;
+
+    @Param({"memory", "offheap", "file"})
+    public String store;
+
+    @Param({"100000"})
+    public int sessions;
+
+    private SessionStore sessionStore;
+    private Path file;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // The IDs are kept by the benchmark, so they are not counted
+        ids = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            ids[i] = Session.generateId();
+        }
+        long heapBefore = usedHeap();
+        long offHeapBefore = offHeap();
+        sessionStore = switch (store) {
+            case "memory" -> InMemorySessionStore.builder().maxSessions(sessions).maxBytes(MAX_BYTES).build();
+            case "offheap" -> OffHeapSessionStore.builder().maxSessions(sessions).maxBytes(MAX_BYTES).build();
+            case "file" -> {
+                file = Files.createTempFile("sessions", ".db");
+                Files.delete(file);
+                yield FileSessionStore.builder(file).maxSessions(sessions).maxBytes(MAX_BYTES).build();
+            }
+            default -> throw new IllegalArgumentException("Unknown store: " + store);
+        };
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < sessions; i++) {
+            Session session = new Session(ids[i], System.currentTimeMillis());
+            byte[] token = new byte[32];
+            random.nextBytes(token);
+            session.setAttribute("userId", "user-" + i);
+            session.setAttribute("roles", List.of("customer", "beta"));
+            session.setAttribute("cartItems", random.nextInt(10));
+            session.setAttribute("csrf", token);
+            sessionStore.save(session);
+        }
+
+        long heap = usedHeap() - heapBefore;
+        long offHeap = offHeap() - offHeapBefore;
+        System.out.printf("%n%s: %d sessions, heap=%d B/session, off-heap=%d B/session%n",
+                store, sessions, heap / sessions, offHeap / sessions);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sessionStore.close();
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public Object find() {
+        Session session = sessionStore.find(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+        return session.attribute("userId");
+    }
+
+    @Benchmark
+    public Session save() {
+        Session session = sessionStore.find(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+        session.setAttribute("cartItems", ThreadLocalRandom.current().nextInt(10));
+        sessionStore.save(session);
+        return session;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long offHeap() {
+        long used = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            used += pool.getMemoryUsed();
+        }
+        return used;
+    }
+}
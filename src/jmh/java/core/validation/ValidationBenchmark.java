@@ -0,0 +1,76 @@
+package core.validation;
+
+import io.github.renatompf.ember.annotations.parameters.Validated;
+import io.github.renatompf.ember.core.validation.ValidationManager;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the validation of a handler's arguments by the {@link ValidationManager}: a
+ * constrained path parameter and a `@Validated` body, either valid or violating two constraints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private final ValidationManager validationManager = new ValidationManager();
+    private final ValidatedController controller = new ValidatedController();
+
+    private Method method;
+    private Parameter[] parameters;
+    private Object[] validArgs;
+    private Object[] invalidArgs;
+
+    @Setup
+    public void setUp() throws Exception {
+        method = ValidatedController.class.getMethod("update", long.class, UserRequest.class);
+        parameters = method.getParameters();
+
+        UserRequest valid = new UserRequest();
+        valid.name = "Ada Lovelace";
+        valid.email = "ada@example.com";
+        validArgs = new Object[]{42L, valid};
+
+        UserRequest invalid = new UserRequest();
+        invalid.name = "";
+        invalid.email = "not an email";
+        invalidArgs = new Object[]{42L, invalid};
+    }
+
+    @Benchmark
+    public void valid() {
+        validationManager.validateMethodParameters(controller, method, parameters, validArgs);
+    }
+
+    @Benchmark
+    public int invalid() {
+        try {
+            validationManager.validateMethodParameters(controller, method, parameters, invalidArgs);
+            return 0;
+        } catch (ConstraintViolationException e) {
+            return e.getConstraintViolations().size();
+        }
+    }
+
+    public static class ValidatedController {
+        public void update(@Min(1) long id, @Validated UserRequest request) {
+        }
+    }
+
+    public static class UserRequest {
+        @NotBlank @Size(max = 64) public String name;
+        @NotBlank @Email public String email;
+    }
+}
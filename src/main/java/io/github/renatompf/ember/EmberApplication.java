@@ -1,12 +1,26 @@
 package io.github.renatompf.ember;
 
+import io.github.renatompf.ember.core.accesslog.AccessLog;
 import io.github.renatompf.ember.core.di.DIContainer;
+import io.github.renatompf.ember.core.http.ResponseSerializer;
+import io.github.renatompf.ember.core.http.SerializerRegistry;
+import io.github.renatompf.ember.core.metrics.MetricsRegistry;
 import io.github.renatompf.ember.core.routing.Router;
 import io.github.renatompf.ember.core.server.Context;
 import io.github.renatompf.ember.core.server.Middleware;
 import io.github.renatompf.ember.core.server.Server;
+import io.github.renatompf.ember.core.server.engine.JdkServerEngine;
+import io.github.renatompf.ember.core.server.engine.ServerEngine;
+import io.github.renatompf.ember.core.server.execution.ExecutionConfig;
+import io.github.renatompf.ember.core.session.SessionCookie;
+import io.github.renatompf.ember.core.session.SessionStore;
+import io.github.renatompf.ember.core.tracing.Tracer;
 import io.github.renatompf.ember.enums.HttpMethod;
+import io.github.renatompf.ember.enums.MediaType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
@@ -16,23 +30,63 @@ import java.util.function.Consumer;
  * It acts as the main entry point for building and running the application.
  */
 public class EmberApplication {
+    private static final Logger logger = LoggerFactory.getLogger(EmberApplication.class);
+
     // Router instance to manage route registrations and matching
     private final Router router = new Router();
 
     // Dependency Injection container for managing service instances
-    private final DIContainer diContainer = new DIContainer();
+    private final DIContainer diContainer;
 
     // List of global middleware applied to all routes
     private final List<Middleware> middleware = new ArrayList<>();
 
+    // Serializers used to write response bodies, frozen when the application starts
+    private final SerializerRegistry.Builder serializers = SerializerRegistry.builder();
+
     // Server instance to handle HTTP requests
-    private final Server server = new Server(router, middleware);
+    private final Server server;
 
     /**
      * Constructs a new `EmberApplication` instance.
-     * Initializes the router, DI container, and server.
+     * Initializes the router, DI container, and server, using the JDK's built-in HTTP server.
+     */
+    public EmberApplication() {
+        this(new JdkServerEngine());
+    }
+
+    /**
+     * Constructs a new `EmberApplication` instance served by the given engine.
+     *
+     * @param engine The server engine accepting connections and parsing requests.
+     */
+    public EmberApplication(ServerEngine engine) {
+        this(engine, ExecutionConfig.defaults());
+    }
+
+    /**
+     * Constructs a new `EmberApplication` instance served by the given engine, running route
+     * handlers as described by the execution configuration.
+     *
+     * @param engine          The server engine accepting connections and parsing requests.
+     * @param executionConfig The configuration of the threads handlers run on.
+     */
+    public EmberApplication(ServerEngine engine, ExecutionConfig executionConfig) {
+        this(engine, executionConfig, "");
+    }
+
+    /**
+     * Constructs a new `EmberApplication` instance that only discovers the services, controllers
+     * and handlers of the given package and its subpackages.
+     *
+     * @param engine          The server engine accepting connections and parsing requests.
+     * @param executionConfig The configuration of the threads handlers run on.
+     * @param basePackage     The package scanned for annotated classes, or an empty string for the whole classpath.
      */
-    public EmberApplication() {}
+    public EmberApplication(ServerEngine engine, ExecutionConfig executionConfig, String basePackage) {
+        this.diContainer = new DIContainer(basePackage);
+        this.server = new Server(router, middleware, engine, executionConfig);
+    }
 
     /**
      * Registers a GET route with the specified path and handler.
@@ -118,6 +172,157 @@ public class EmberApplication {
         return this;
     }
 
+    /**
+     * Registers a route whose requests run on a named executor.
+     *
+     * @param method   The HTTP method for the route.
+     * @param path     The path for the route.
+     * @param executor The name of an executor declared in the execution configuration.
+     * @param handler  The handler to process requests to this route.
+     * @return The current `EmberApplication` instance for method chaining.
+     * @throws IllegalArgumentException If no executor with the given name has been declared.
+     */
+    public EmberApplication route(HttpMethod method, String path, String executor, Consumer<Context> handler) {
+        if (!server.getRequestExecutor().hasExecutor(executor)) {
+            throw new IllegalArgumentException("Unknown executor '" + executor + "' for route " + method + " " + path);
+        }
+        router.register(method, path, handler, executor);
+        return this;
+    }
+
+    /**
+     * Registers a route whose requests run on a named executor and are bounded by a timeout.
+     *
+     * @param method   The HTTP method for the route.
+     * @param path     The path for the route.
+     * @param executor The name of an executor declared in the execution configuration, or `null` for the default one.
+     * @param timeout  The maximum time requests may take, or `null` for the application's default.
+     * @param handler  The handler to process requests to this route.
+     * @return The current `EmberApplication` instance for method chaining.
+     * @throws IllegalArgumentException If no executor with the given name has been declared, or the timeout is not positive.
+     */
+    public EmberApplication route(HttpMethod method, String path, String executor, Duration timeout,
+                                  Consumer<Context> handler) {
+        if (executor != null && !server.getRequestExecutor().hasExecutor(executor)) {
+            throw new IllegalArgumentException("Unknown executor '" + executor + "' for route " + method + " " + path);
+        }
+        if (timeout != null && (timeout.isZero() || timeout.isNegative())) {
+            throw new IllegalArgumentException("Timeout of route " + method + " " + path + " must be positive");
+        }
+        router.register(method, path, handler, executor, timeout);
+        return this;
+    }
+
+    /**
+     * Registers a serializer writing response bodies of the given media type, replacing the
+     * default one if any. Serializers must be registered before the application is started.
+     *
+     * @param mediaType  The media type produced by the serializer.
+     * @param serializer The serializer.
+     * @return The current `EmberApplication` instance for method chaining.
+     * @throws IllegalArgumentException If a serializer has already been registered for the media type.
+     */
+    public EmberApplication serializer(MediaType mediaType, ResponseSerializer serializer) {
+        serializers.register(mediaType, serializer);
+        return this;
+    }
+
+    /**
+     * Adds global middleware, applied to every request before route-level middleware.
+     * <p>
+     * Global middleware runs in the order it is added, and is initialized when the application
+     * starts and destroyed when it stops.
+     * </p>
+     *
+     * @param middleware The middleware to add.
+     * @return The current `EmberApplication` instance for method chaining.
+     */
+    public EmberApplication use(Middleware middleware) {
+        this.middleware.add(middleware);
+        server.getMiddleware().add(middleware);
+        return this;
+    }
+
+    /**
+     * Records per-route latency, status code and byte count metrics, and serves them in the
+     * Prometheus text format at `/metrics`.
+     *
+     * @return The current `EmberApplication` instance for method chaining.
+     */
+    public EmberApplication metrics() {
+        return metrics("/metrics");
+    }
+
+    /**
+     * Records per-route latency, status code and byte count metrics, and serves them in the
+     * Prometheus text format at the given path.
+     *
+     * @param path The path to serve the metrics at.
+     * @return The current `EmberApplication` instance for method chaining.
+     */
+    public EmberApplication metrics(String path) {
+        MetricsRegistry metrics = new MetricsRegistry();
+        server.setMetrics(metrics);
+        router.register(HttpMethod.GET, path, metrics.handler());
+        return this;
+    }
+
+    /**
+     * Retrieves the registry the metrics of the application are recorded in.
+     *
+     * @return The metrics registry, or `null` if metrics are not enabled.
+     */
+    public MetricsRegistry getMetrics() {
+        return server.getMetrics();
+    }
+
+    /**
+     * Traces the phases of the requests sampled by the given tracer: routing, parameter binding,
+     * validation, the handler itself and serialization.
+     *
+     * @param tracer The tracer deciding which requests are traced and where their traces go.
+     * @return The current `EmberApplication` instance for method chaining.
+     */
+    public EmberApplication tracing(Tracer tracer) {
+        server.setTracer(tracer);
+        return this;
+    }
+
+    /**
+     * Logs completed requests to the given access log, written off the request threads. The
+     * access log is closed when the application stops.
+     *
+     * @param accessLog The access log deciding which requests are logged and where.
+     * @return The current `EmberApplication` instance for method chaining.
+     */
+    public EmberApplication accessLog(AccessLog accessLog) {
+        server.setAccessLog(accessLog);
+        return this;
+    }
+
+    /**
+     * Stores the sessions of requests in the given store instead of the default in-memory one.
+     * The store is closed when the application stops.
+     *
+     * @param sessionStore The session store.
+     * @return The current `EmberApplication` instance for method chaining.
+     */
+    public EmberApplication sessions(SessionStore sessionStore) {
+        server.setSessionStore(sessionStore);
+        return this;
+    }
+
+    /**
+     * Sets the name and attributes of the cookie carrying the session ID.
+     *
+     * @param sessionCookie The settings of the session cookie.
+     * @return The current `EmberApplication` instance for method chaining.
+     */
+    public EmberApplication sessionCookie(SessionCookie sessionCookie) {
+        server.setSessionCookie(sessionCookie);
+        return this;
+    }
+
     /**
      * Retrieves the router instance used by the application.
      *
@@ -139,21 +344,73 @@ public class EmberApplication {
 
     /**
      * Starts the server on the specified port.
+     * <p>
+     * If the application fails to start, the middleware initialized so far is destroyed again.
+     * </p>
      *
      * @param port The port number to start the server on.
      */
     public void start(int port) {
-        // Initialize the DI container
-        // This step discovers all services, controllers, and handlers and resolves their dependencies
-        diContainer.init();
+        int initialized = 0;
+        try {
+            // Initialize the global middleware once, before any request is handled
+            for (Middleware m : middleware) {
+                try {
+                    m.init();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to initialize middleware: " + m.getClass().getName(), e);
+                }
+                initialized++;
+            }
+
+            // Initialize the DI container
+            // This step discovers all services, controllers, and handlers and resolves their dependencies
+            diContainer.init();
 
-        // Map all routes defined in the controllers to the router.
-        // This step binds the routes to their respective handlers in the application.
-        diContainer.mapControllerRoutes(this);
+            // Map all routes defined in the controllers to the router.
+            // This step binds the routes to their respective handlers in the application.
+            diContainer.mapControllerRoutes(this);
 
-        // Start the HTTP server on the specified port.
-        // The server will begin listening for incoming requests.
-        server.start(port);
+            // Freeze the serializers; every request shares the same immutable registry
+            server.setSerializers(serializers.build());
+
+            // Start the HTTP server on the specified port.
+            // The server will begin listening for incoming requests.
+            server.start(port);
+        } catch (RuntimeException e) {
+            diContainer.destroy();
+            destroyMiddleware(initialized);
+            throw e;
+        }
     }
-}
 
+    /**
+     * Stops the server and releases the resources held by the application.
+     * <p>
+     * Middleware is destroyed after the server has stopped accepting requests, route-level
+     * middleware first and global middleware last.
+     * </p>
+     */
+    public void stop() {
+        server.stop();
+        diContainer.destroy();
+        destroyMiddleware(middleware.size());
+    }
+
+    /**
+     * Destroys the first global middleware in reverse order, logging failures so that a failing
+     * middleware does not keep the others from being destroyed.
+     *
+     * @param count The number of middleware to destroy, from the first one.
+     */
+    private void destroyMiddleware(int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            Middleware m = middleware.get(i);
+            try {
+                m.destroy();
+            } catch (RuntimeException e) {
+                logger.error("Failed to destroy middleware: {}", m.getClass().getName(), e);
+            }
+        }
+    }
+}
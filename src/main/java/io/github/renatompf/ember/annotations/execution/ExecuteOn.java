@@ -0,0 +1,42 @@
+package io.github.renatompf.ember.annotations.execution;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to run the routes of a controller or method on a named executor.
+ * <p>
+ * The executor must be declared in the application's
+ * {@link io.github.renatompf.ember.core.server.execution.ExecutionConfig}. An annotation on a
+ * method takes precedence over one on its controller.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * @Controller("/reports")
+ * public class ReportController {
+ *
+ *     @Get("/:id")
+ *     @ExecuteOn("cpu")
+ *     public Response render(@PathParameter("id") String id) {
+ *         // CPU-bound rendering
+ *         return Response.ok().build();
+ *     }
+ * }
+ * }
+ * </pre>
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExecuteOn {
+    /**
+     * The name of the executor.
+     *
+     * @return The name of the executor.
+     */
+    String value();
+}
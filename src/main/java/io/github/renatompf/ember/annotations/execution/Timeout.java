@@ -0,0 +1,55 @@
+package io.github.renatompf.ember.annotations.execution;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Annotation to bound the time the routes of a controller or method may take to produce their result.
+ * <p>
+ * The timeout overrides the default request timeout of the execution configuration. When it
+ * expires, the thread handling the request is interrupted and, unless a response was already
+ * started, the client receives `504 Gateway Timeout`. An asynchronous result, such as a
+ * `CompletableFuture`, that does not complete in time is cancelled. An annotation on a method
+ * takes precedence over one on its controller.
+ * </p>
+ * <p>
+ * The timeout also sets the deadline of the request, which bounds the subtasks forked through
+ * {@link io.github.renatompf.ember.core.server.Context#fanOut()}.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * @Controller("/quotes")
+ * public class QuoteController {
+ *
+ *     @Get("/:symbol")
+ *     @Timeout(value = 500, unit = TimeUnit.MILLISECONDS)
+ *     public CompletableFuture<Quote> quote(@PathParameter("symbol") String symbol) {
+ *         return quoteService.fetch(symbol);
+ *     }
+ * }
+ * }
+ * </pre>
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Timeout {
+    /**
+     * The maximum time, in the given unit.
+     *
+     * @return The timeout.
+     */
+    long value();
+
+    /**
+     * The unit of the timeout.
+     *
+     * @return The time unit, milliseconds by default.
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
@@ -0,0 +1,353 @@
+package io.github.renatompf.ember.core.accesslog;
+
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import io.github.renatompf.ember.enums.RequestHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.invoke.VarHandle;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes a line per request to an access log, off the request threads.
+ * <p>
+ * Request threads only capture the values of a request into a lock-free ring buffer, which a
+ * single background thread drains, formats and writes, so requests never contend on a log
+ * appender. The thread sleeps while the buffer is empty and is woken by the next entry. When the buffer is full, entries are dropped rather than making requests wait, and
+ * counted in {@link #getDroppedTotal()}.
+ * </p>
+ * <p>
+ * Requests are sampled by the class of their status code, so that for instance every error is
+ * logged while only a fraction of successful requests is. Requests matching no route are not
+ * logged one warning at a time: a single warning is logged when more of them than a threshold
+ * arrive within an interval, whatever their sampling.
+ * </p>
+ * <p>
+ * Lines are written to the `ember.access` logger unless an output stream is given.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * AccessLog accessLog = AccessLog.builder()
+ *         .format(AccessLogFormat.JSON)
+ *         .sampleRate(2, 0.01)
+ *         .output(System.out)
+ *         .build();
+ * }
+ * </pre>
+ */
+public class AccessLog implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AccessLog.class);
+    /** The name of the logger lines are written to unless an output stream is given. */
+    public static final String LOGGER_NAME = "ember.access";
+
+    private final AccessLogFormat format;
+    /** The sample rate of each status class, indexed by the first digit of the status code; index 0 is unused. */
+    private final double[] sampleRates;
+    private final AccessLogBuffer buffer;
+    private final Writer output;
+    private final Logger accessLogger = LoggerFactory.getLogger(LOGGER_NAME);
+    private final int notFoundThreshold;
+    private final long notFoundIntervalNanos;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private volatile URI lastNotFound;
+    private final Thread writer;
+    private volatile boolean running = true;
+    /** Whether the writer thread found the buffer empty and is about to sleep or sleeping. */
+    private volatile boolean idle;
+
+    private AccessLog(Builder builder) {
+        this.format = builder.format;
+        this.sampleRates = builder.sampleRates.clone();
+        this.buffer = new AccessLogBuffer(builder.bufferSize);
+        this.output = builder.output != null
+                ? new BufferedWriter(new OutputStreamWriter(builder.output, StandardCharsets.UTF_8))
+                : null;
+        this.notFoundThreshold = builder.notFoundThreshold;
+        this.notFoundIntervalNanos = builder.notFoundInterval.toNanos();
+        this.writer = Thread.ofPlatform().name("ember-access-log").daemon().start(this::drain);
+    }
+
+    /**
+     * Creates a new builder for an access log.
+     *
+     * @return A new {@link Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Records a completed request, if its status class is sampled.
+     *
+     * @param exchange      The exchange of the request.
+     * @param route         The path pattern of the matched route, or `null` if no route matched.
+     * @param status        The status code of the response, or `0` if no response was sent.
+     * @param responseBytes The number of response body bytes written.
+     * @param durationNanos The time taken to handle the request.
+     */
+    public void record(ServerExchange exchange, String route, int status, long responseBytes, long durationNanos) {
+        if (route == null && status == 404) {
+            notFound.increment();
+            lastNotFound = exchange.getRequestURI();
+        }
+        double rate = sampleRates[status >= 100 && status < 600 ? status / 100 : 5];
+        if (rate <= 0 || (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+            return;
+        }
+
+        InetSocketAddress remote = exchange.getRemoteAddress();
+        String target = exchange.getRequestURI().getRawPath();
+        String query = exchange.getRequestURI().getRawQuery();
+        AccessLogEntry entry = new AccessLogEntry(
+                System.currentTimeMillis(),
+                remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : null,
+                exchange.getRequestMethod(),
+                query != null ? target + "?" + query : target,
+                exchange.getRequestProtocol(),
+                route,
+                status,
+                responseBytes,
+                durationNanos,
+                exchange.getRequestHeader(RequestHeader.REFERER.getHeaderName()),
+                exchange.getRequestHeader(RequestHeader.USER_AGENT.getHeaderName()));
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+            return;
+        }
+        // Orders the publication of the entry before reading the flag, as the writer orders setting
+        // the flag before checking the buffer, so that one of them always sees the other
+        VarHandle.fullFence();
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Writes the entries of the buffer until the access log is closed, then writes the remaining ones.
+     */
+    private void drain() {
+        StringBuilder line = new StringBuilder(256);
+        long windowEnd = System.nanoTime() + notFoundIntervalNanos;
+        while (true) {
+            boolean stopping = !running;
+            int written = 0;
+            for (AccessLogEntry entry = buffer.poll(); entry != null; entry = buffer.poll()) {
+                line.setLength(0);
+                format.format(entry, line);
+                write(line);
+                written++;
+            }
+            if (written > 0) {
+                flush();
+            }
+
+            long now = System.nanoTime();
+            if (now - windowEnd >= 0) {
+                warnNotFound(notFound.sumThenReset());
+                windowEnd = now + notFoundIntervalNanos;
+            }
+            if (stopping) {
+                return;
+            }
+            if (written == 0) {
+                // Sleep until an entry is recorded, waking up only to end the window of unmatched requests
+                idle = true;
+                if (running && buffer.isEmpty()) {
+                    LockSupport.parkNanos(this, windowEnd - now);
+                }
+                idle = false;
+            }
+        }
+    }
+
+    private void write(StringBuilder line) {
+        if (output == null) {
+            accessLogger.info(line.toString());
+            return;
+        }
+        try {
+            output.append(line).append('\n');
+        } catch (IOException e) {
+            logger.warn("Failed to write the access log: {}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        if (output == null) {
+            return;
+        }
+        try {
+            output.flush();
+        } catch (IOException e) {
+            logger.warn("Failed to flush the access log: {}", e.getMessage());
+        }
+    }
+
+    private void warnNotFound(long count) {
+        if (count >= notFoundThreshold) {
+            logger.warn("{} requests matched no route in the last {} ms, such as {}",
+                    count, TimeUnit.NANOSECONDS.toMillis(notFoundIntervalNanos), lastNotFound.getRawPath());
+        }
+    }
+
+    /**
+     * @return The number of entries dropped because the buffer was full.
+     */
+    public long getDroppedTotal() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return The format of the lines.
+     */
+    public AccessLogFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Stops the writer thread once it has written the entries recorded so far. The output stream,
+     * if any, is flushed but not closed.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A builder for {@link AccessLog}.
+     */
+    public static class Builder {
+        private AccessLogFormat format = AccessLogFormat.COMMON;
+        private final double[] sampleRates = new double[6];
+        private OutputStream output;
+        private int bufferSize = 8192;
+        private int notFoundThreshold = 100;
+        private Duration notFoundInterval = Duration.ofSeconds(10);
+
+        private Builder() {
+            Arrays.fill(sampleRates, 1.0);
+        }
+
+        /**
+         * Sets the format of the lines. Defaults to {@link AccessLogFormat#COMMON}.
+         *
+         * @param format The format.
+         * @return The builder instance.
+         */
+        public Builder format(AccessLogFormat format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of requests logged, between `0` and `1`, for every status class.
+         * Defaults to `1`, logging every request.
+         *
+         * @param sampleRate The sample rate.
+         * @return The builder instance.
+         */
+        public Builder sampleRate(double sampleRate) {
+            for (int statusClass = 1; statusClass <= 5; statusClass++) {
+                sampleRate(statusClass, sampleRate);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the fraction of requests logged, between `0` and `1`, for a status class. Responses
+         * with an invalid status code, or none at all, count as `5xx`.
+         *
+         * @param statusClass The first digit of the status codes, such as `2` for `2xx`.
+         * @param sampleRate  The sample rate.
+         * @return The builder instance.
+         */
+        public Builder sampleRate(int statusClass, double sampleRate) {
+            if (statusClass < 1 || statusClass > 5) {
+                throw new IllegalArgumentException("statusClass must be between 1 and 5");
+            }
+            if (!(sampleRate >= 0 && sampleRate <= 1)) {
+                throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+            }
+            this.sampleRates[statusClass] = sampleRate;
+            return this;
+        }
+
+        /**
+         * Writes the lines to a stream, encoded in UTF-8, instead of the `ember.access` logger.
+         *
+         * @param output The output stream.
+         * @return The builder instance.
+         */
+        public Builder output(OutputStream output) {
+            this.output = output;
+            return this;
+        }
+
+        /**
+         * Sets the number of entries waiting to be written beyond which new entries are dropped,
+         * rounded up to a power of two. Defaults to `8192`.
+         *
+         * @param bufferSize The buffer size.
+         * @return The builder instance.
+         */
+        public Builder bufferSize(int bufferSize) {
+            if (bufferSize <= 0) {
+                throw new IllegalArgumentException("bufferSize must be positive");
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Sets how many requests matching no route within an interval trigger a warning. At most
+         * one warning is logged per interval. Defaults to `100` requests within `10` seconds.
+         *
+         * @param threshold The number of requests.
+         * @param interval  The interval.
+         * @return The builder instance.
+         */
+        public Builder notFoundWarning(int threshold, Duration interval) {
+            if (threshold <= 0) {
+                throw new IllegalArgumentException("threshold must be positive");
+            }
+            if (interval == null || interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("interval must be positive");
+            }
+            this.notFoundThreshold = threshold;
+            this.notFoundInterval = interval;
+            return this;
+        }
+
+        /**
+         * Builds the access log and starts its writer thread.
+         *
+         * @return A new {@link AccessLog}.
+         */
+        public AccessLog build() {
+            return new AccessLog(this);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.renatompf.ember.core.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free ring buffer handing access log entries from the request threads to the
+ * single thread writing them.
+ * <p>
+ * Every slot carries a sequence number telling whose turn it is: a producer claims the slot of
+ * the next position by moving the shared tail with a CAS, fills it, and publishes it by advancing
+ * its sequence; the consumer takes a slot once published and hands it back to the producers one
+ * lap later. Producers never wait: when the buffer is full, {@link #offer} fails and the entry is
+ * dropped, so a slow log output cannot stall requests.
+ * </p>
+ */
+final class AccessLogBuffer {
+    private final AccessLogEntry[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    /** Only read and written by the consumer. */
+    private long head;
+
+    /**
+     * Constructs a new AccessLogBuffer.
+     *
+     * @param capacity The number of entries the buffer can hold, rounded up to a power of two.
+     */
+    AccessLogBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AccessLogEntry[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an entry, unless the buffer is full. Safe to call from any thread.
+     *
+     * @param entry The entry.
+     * @return `true` if the entry was added, `false` if the buffer is full.
+     */
+    boolean offer(AccessLogEntry entry) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long available = sequences.getAcquire(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = entry;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                // The consumer has not taken the entry of the previous lap yet
+                return false;
+            } else {
+                // Another producer claimed this position
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest entry. Must only be called from the consumer thread.
+     *
+     * @return The entry, or `null` if no entry has been published.
+     */
+    AccessLogEntry poll() {
+        int index = (int) head & mask;
+        if (sequences.getAcquire(index) != head + 1) {
+            return null;
+        }
+        AccessLogEntry entry = slots[index];
+        slots[index] = null;
+        sequences.setRelease(index, head + slots.length);
+        head++;
+        return entry;
+    }
+
+    /**
+     * Checks whether an entry is ready to be taken, with a volatile read so that the check is not
+     * reordered before a preceding volatile write. Must only be called from the consumer thread.
+     *
+     * @return `true` if no entry has been published, `false` otherwise.
+     */
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+
+    /**
+     * @return The number of entries the buffer can hold.
+     */
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.renatompf.ember.core.accesslog;
+
+/**
+ * The raw values of a logged request, captured on the request thread and formatted later by
+ * the thread writing the access log.
+ *
+ * @param timestamp     The time the response completed, in milliseconds since the epoch.
+ * @param remoteAddress The address of the client, or `null` if unknown.
+ * @param method        The HTTP method of the request.
+ * @param target        The path and query of the request, as sent.
+ * @param protocol      The protocol of the request, such as `HTTP/1.1`, or `null` if unknown.
+ * @param route         The path pattern of the matched route, or `null` if no route matched.
+ * @param status        The status code of the response, or `0` if no response was sent.
+ * @param responseBytes The number of response body bytes written.
+ * @param durationNanos The time taken to handle the request.
+ * @param referer       The `Referer` header of the request, or `null` if absent.
+ * @param userAgent     The `User-Agent` header of the request, or `null` if absent.
+ */
+record AccessLogEntry(long timestamp, String remoteAddress, String method, String target, String protocol,
+                      String route, int status, long responseBytes, long durationNanos, String referer, String userAgent) {
+}
@@ -0,0 +1,138 @@
+package io.github.renatompf.ember.core.accesslog;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * The formats an {@link AccessLog} writes its lines in. Timestamps are in UTC.
+ */
+public enum AccessLogFormat {
+    /**
+     * The Common Log Format, such as
+     * `127.0.0.1 - - [16/Oct/2026:04:38:48 +0000] "GET /users/42 HTTP/1.1" 200 112`.
+     */
+    COMMON {
+        @Override
+        void format(AccessLogEntry entry, StringBuilder line) {
+            formatCommon(entry, line);
+        }
+    },
+    /**
+     * The Combined Log Format, which adds the `Referer` and `User-Agent` headers to the common one.
+     */
+    COMBINED {
+        @Override
+        void format(AccessLogEntry entry, StringBuilder line) {
+            formatCommon(entry, line);
+            line.append(' ');
+            appendQuoted(line, entry.referer());
+            line.append(' ');
+            appendQuoted(line, entry.userAgent());
+        }
+    },
+    /**
+     * One JSON object per line, also carrying the matched route and the duration, such as
+     * `{"time":"2026-10-16T04:38:48.123Z","remote":"127.0.0.1","method":"GET","target":"/users/42",
+     * "route":"/users/:id","status":200,"bytes":112,"duration_ms":0.481,"referer":null,"user_agent":"curl/8.5.0"}`.
+     */
+    JSON {
+        @Override
+        void format(AccessLogEntry entry, StringBuilder line) {
+            line.append("{\"time\":\"").append(Instant.ofEpochMilli(entry.timestamp())).append('"');
+            line.append(",\"remote\":");
+            appendJson(line, entry.remoteAddress());
+            line.append(",\"method\":");
+            appendJson(line, entry.method());
+            line.append(",\"target\":");
+            appendJson(line, entry.target());
+            line.append(",\"route\":");
+            appendJson(line, entry.route());
+            line.append(",\"status\":").append(entry.status());
+            line.append(",\"bytes\":").append(entry.responseBytes());
+            long micros = entry.durationNanos() / 1000;
+            line.append(",\"duration_ms\":").append(micros / 1000).append('.');
+            long fraction = micros % 1000;
+            if (fraction < 100) {
+                line.append('0');
+            }
+            if (fraction < 10) {
+                line.append('0');
+            }
+            line.append(fraction);
+            line.append(",\"referer\":");
+            appendJson(line, entry.referer());
+            line.append(",\"user_agent\":");
+            appendJson(line, entry.userAgent());
+            line.append('}');
+        }
+    };
+
+    private static final DateTimeFormatter COMMON_TIME =
+            DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.US).withZone(ZoneOffset.UTC);
+
+    /**
+     * Appends the line of an entry, without a line separator.
+     *
+     * @param entry The entry.
+     * @param line  The line to append to.
+     */
+    abstract void format(AccessLogEntry entry, StringBuilder line);
+
+    private static void formatCommon(AccessLogEntry entry, StringBuilder line) {
+        line.append(entry.remoteAddress() != null ? entry.remoteAddress() : "-").append(" - - [");
+        COMMON_TIME.formatTo(Instant.ofEpochMilli(entry.timestamp()), line);
+        line.append("] \"");
+        appendEscaped(line, entry.method());
+        line.append(' ');
+        appendEscaped(line, entry.target());
+        if (entry.protocol() != null) {
+            line.append(' ');
+            appendEscaped(line, entry.protocol());
+        }
+        line.append("\" ").append(entry.status()).append(' ');
+        if (entry.responseBytes() > 0) {
+            line.append(entry.responseBytes());
+        } else {
+            line.append('-');
+        }
+    }
+
+    private static void appendQuoted(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("\"-\"");
+            return;
+        }
+        line.append('"');
+        appendEscaped(line, value);
+        line.append('"');
+    }
+
+    private static void appendJson(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        appendEscaped(line, value);
+        line.append('"');
+    }
+
+    /**
+     * Appends a value sent by the client, escaping quotes, backslashes and control characters so
+     * that it cannot break the line or forge another entry.
+     */
+    private static void appendEscaped(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20 || c == 0x7f) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+    }
+}
@@ -2,33 +2,61 @@ package io.github.renatompf.ember.core.controller;
 
 import io.github.renatompf.ember.EmberApplication;
 import io.github.renatompf.ember.annotations.controller.Controller;
+import io.github.renatompf.ember.annotations.execution.ExecuteOn;
+import io.github.renatompf.ember.annotations.execution.Timeout;
 import io.github.renatompf.ember.annotations.http.*;
 import io.github.renatompf.ember.annotations.middleware.WithMiddleware;
+import io.github.renatompf.ember.core.di.ComponentRegistry;
 import io.github.renatompf.ember.core.exception.ExceptionHandlerMethod;
 import io.github.renatompf.ember.core.exception.ExceptionHandlerRegistry;
 import io.github.renatompf.ember.core.http.ErrorResponse;
 import io.github.renatompf.ember.core.http.Response;
 import io.github.renatompf.ember.core.parameter.ContentNegotiationManager;
+import io.github.renatompf.ember.core.parameter.ParameterBinder;
 import io.github.renatompf.ember.core.parameter.ParameterResolver;
 import io.github.renatompf.ember.core.server.Context;
 import io.github.renatompf.ember.core.server.Middleware;
+import io.github.renatompf.ember.core.tracing.Phase;
+import io.github.renatompf.ember.core.tracing.RequestTrace;
 import io.github.renatompf.ember.core.validation.ValidationManager;
+import io.github.renatompf.ember.enums.HttpMethod;
 import io.github.renatompf.ember.enums.HttpStatusCode;
 import io.github.renatompf.ember.enums.MediaType;
 import io.github.renatompf.ember.enums.RequestHeader;
+import io.github.renatompf.ember.exceptions.HttpException;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
  * The `ControllerMapper` class is responsible for mapping controller routes to the Ember application.
  * It handles HTTP method annotations, middleware execution, parameter resolution, and exception handling.
+ * <p>
+ * Controller methods may return a `CompletionStage`, such as a `CompletableFuture`, of a body or a
+ * {@link Response}. The request completes once the stage does; a stage completing exceptionally is
+ * handled like an exception thrown by the method, and a stage not completing within the route's
+ * `@Timeout` is cancelled and answered with `504 Gateway Timeout`. A `Flow.Publisher` result is
+ * streamed to the client as its elements are published.
+ * </p>
  */
 public class ControllerMapper {
     private static final Logger logger = LoggerFactory.getLogger(ControllerMapper.class);
@@ -37,19 +65,60 @@ public class ControllerMapper {
     private final ContentNegotiationManager contentNegotiationManager;
     private final ParameterResolver parameterResolver;
     private final ValidationManager validationManager;
+    private final ComponentRegistry componentRegistry;
+    private final RouteTable routeTable;
+    private final Set<Middleware> initializedMiddleware = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Middleware> middlewareInstances = new ArrayList<>();
 
     /**
      * Constructor for ControllerMapper.
+     * <p>
+     * Middleware is created through a registry of its own, so it can only depend on other middleware.
+     * </p>
      *
      * @param exceptionHandlerRegistry Registry for exception handlers
      * @param parameterResolver Parameter resolver for method parameters
      */
     public ControllerMapper(ExceptionHandlerRegistry exceptionHandlerRegistry,
                            ParameterResolver parameterResolver) {
+        this(exceptionHandlerRegistry, parameterResolver, new ComponentRegistry());
+    }
+
+    /**
+     * Constructor for ControllerMapper.
+     *
+     * @param exceptionHandlerRegistry Registry for exception handlers
+     * @param parameterResolver Parameter resolver for method parameters
+     * @param componentRegistry Registry used to create middleware and inject its dependencies
+     */
+    public ControllerMapper(ExceptionHandlerRegistry exceptionHandlerRegistry,
+                           ParameterResolver parameterResolver,
+                           ComponentRegistry componentRegistry) {
+        this(exceptionHandlerRegistry, parameterResolver, componentRegistry, null);
+    }
+
+    /**
+     * Constructor for ControllerMapper.
+     * <p>
+     * Controllers listed in the route table are mapped from it; the methods of the others are
+     * inspected for HTTP annotations.
+     * </p>
+     *
+     * @param exceptionHandlerRegistry Registry for exception handlers
+     * @param parameterResolver Parameter resolver for method parameters
+     * @param componentRegistry Registry used to create middleware and inject its dependencies
+     * @param routeTable The routes computed at build time, or `null` to inspect every controller
+     */
+    public ControllerMapper(ExceptionHandlerRegistry exceptionHandlerRegistry,
+                           ParameterResolver parameterResolver,
+                           ComponentRegistry componentRegistry,
+                           RouteTable routeTable) {
         this.exceptionHandlerRegistry = exceptionHandlerRegistry;
         this.contentNegotiationManager = new ContentNegotiationManager();
         this.validationManager = new ValidationManager();
         this.parameterResolver = parameterResolver;
+        this.componentRegistry = componentRegistry;
+        this.routeTable = routeTable;
     }
 
     /**
@@ -71,9 +140,17 @@ public class ControllerMapper {
 
             Class<?> clazz = controller.getClass();
             if (clazz.isAnnotationPresent(Controller.class)) {
-                String basePath = clazz.getAnnotation(Controller.class).value();
                 logger.info("Mapping routes for controller: {}", clazz.getName());
 
+                List<RouteTable.Route> routes = routeTable != null ? routeTable.routesOf(clazz) : null;
+                if (routes != null) {
+                    for (RouteTable.Route route : routes) {
+                        mapRoute(app, controller, route.method(), route.httpMethod(), route.path(), route.middleware());
+                    }
+                    continue;
+                }
+
+                String basePath = clazz.getAnnotation(Controller.class).value();
                 // Collect controller-level middleware
                 Class<? extends Middleware>[] controllerMiddleware = clazz.isAnnotationPresent(WithMiddleware.class)
                         ? clazz.getAnnotation(WithMiddleware.class).value()
@@ -97,36 +174,214 @@ public class ControllerMapper {
      */
     private void mapHttpMethod(EmberApplication app, Object controller, Method method, String basePath, 
                              Class<? extends Middleware>[] controllerMiddleware) {
-        Consumer<String> registerRoute = null;
+        HttpMethod httpMethod = null;
         String path = null;
         
         if (method.isAnnotationPresent(Get.class)) {
-            path = combinePaths(basePath, method.getAnnotation(Get.class).value());
-            registerRoute = p -> app.get(p, ctx -> handleWithMiddleware(controller, method, ctx, controllerMiddleware));
+            path = method.getAnnotation(Get.class).value();
+            httpMethod = HttpMethod.GET;
         } else if (method.isAnnotationPresent(Post.class)) {
-            path = combinePaths(basePath, method.getAnnotation(Post.class).value());
-            registerRoute = p -> app.post(p, ctx -> handleWithMiddleware(controller, method, ctx, controllerMiddleware));
+            path = method.getAnnotation(Post.class).value();
+            httpMethod = HttpMethod.POST;
         } else if (method.isAnnotationPresent(Put.class)) {
-            path = combinePaths(basePath, method.getAnnotation(Put.class).value());
-            registerRoute = p -> app.put(p, ctx -> handleWithMiddleware(controller, method, ctx, controllerMiddleware));
+            path = method.getAnnotation(Put.class).value();
+            httpMethod = HttpMethod.PUT;
         } else if (method.isAnnotationPresent(Delete.class)) {
-            path = combinePaths(basePath, method.getAnnotation(Delete.class).value());
-            registerRoute = p -> app.delete(p, ctx -> handleWithMiddleware(controller, method, ctx, controllerMiddleware));
+            path = method.getAnnotation(Delete.class).value();
+            httpMethod = HttpMethod.DELETE;
         } else if (method.isAnnotationPresent(Patch.class)) {
-            path = combinePaths(basePath, method.getAnnotation(Patch.class).value());
-            registerRoute = p -> app.patch(p, ctx -> handleWithMiddleware(controller, method, ctx, controllerMiddleware));
+            path = method.getAnnotation(Patch.class).value();
+            httpMethod = HttpMethod.PATCH;
         } else if (method.isAnnotationPresent(Options.class)) {
-            path = combinePaths(basePath, method.getAnnotation(Options.class).value());
-            registerRoute = p -> app.options(p, ctx -> handleWithMiddleware(controller, method, ctx, controllerMiddleware));
+            path = method.getAnnotation(Options.class).value();
+            httpMethod = HttpMethod.OPTIONS;
         } else if (method.isAnnotationPresent(Head.class)) {
-            path = combinePaths(basePath, method.getAnnotation(Head.class).value());
-            registerRoute = p -> app.head(p, ctx -> handleWithMiddleware(controller, method, ctx, controllerMiddleware));
+            path = method.getAnnotation(Head.class).value();
+            httpMethod = HttpMethod.HEAD;
         }
         
-        if (registerRoute != null && path != null) {
-            registerRoute.accept(path);
-            logger.debug("Mapped {} route: {}", method.getName(), path);
+        if (httpMethod != null && path != null) {
+            // Controller-level middleware runs before method-level middleware
+            List<Class<? extends Middleware>> middleware = new ArrayList<>(List.of(controllerMiddleware));
+            if (method.isAnnotationPresent(WithMiddleware.class)) {
+                middleware.addAll(List.of(method.getAnnotation(WithMiddleware.class).value()));
+            }
+            mapRoute(app, controller, method, httpMethod, combinePaths(basePath, path), middleware);
+        }
+    }
+
+    /**
+     * Maps a controller method to an Ember application route.
+     * <p>
+     * A {@link HandlerPlan} is compiled once for every mapped method, so requests to the route
+     * only execute the plan.
+     * </p>
+     *
+     * @param app The Ember application
+     * @param controller The controller instance
+     * @param method The method to map
+     * @param httpMethod The HTTP method of the route
+     * @param path The combined path of the route
+     * @param middlewareClasses The middleware classes of the route, in execution order
+     */
+    private void mapRoute(EmberApplication app, Object controller, Method method, HttpMethod httpMethod, String path,
+                          List<Class<? extends Middleware>> middlewareClasses) {
+        HandlerPlan plan = compilePlan(controller, method, middlewareClasses);
+        Consumer<Context> handler = ctx -> handleWithMiddleware(plan, ctx);
+        String executor = resolveExecutor(controller.getClass(), method);
+        if (plan.timeout() != null) {
+            // Lets the server enforce the deadline even while the handler is blocked
+            app.route(httpMethod, path, executor, plan.timeout(), handler);
+        } else if (executor != null) {
+            app.route(httpMethod, path, executor, handler);
+        } else {
+            registrar(app, httpMethod).accept(path, handler);
+        }
+        logger.debug("Mapped {} route: {}", method.getName(), path);
+    }
+
+    /**
+     * Selects the method registering routes of an HTTP method on the Ember application.
+     *
+     * @param app The Ember application
+     * @param httpMethod The HTTP method
+     * @return The registering method
+     */
+    private BiConsumer<String, Consumer<Context>> registrar(EmberApplication app, HttpMethod httpMethod) {
+        return switch (httpMethod) {
+            case GET -> app::get;
+            case POST -> app::post;
+            case PUT -> app::put;
+            case DELETE -> app::delete;
+            case PATCH -> app::patch;
+            case OPTIONS -> app::options;
+            case HEAD -> app::head;
+        };
+    }
+
+    /**
+     * Resolves the executor a controller method runs on, as declared by `@ExecuteOn`.
+     *
+     * @param controllerClass The controller class
+     * @param method The controller method
+     * @return The executor name, or `null` if the method runs on the default executor
+     */
+    private String resolveExecutor(Class<?> controllerClass, Method method) {
+        if (method.isAnnotationPresent(ExecuteOn.class)) {
+            return method.getAnnotation(ExecuteOn.class).value();
+        }
+        if (controllerClass.isAnnotationPresent(ExecuteOn.class)) {
+            return controllerClass.getAnnotation(ExecuteOn.class).value();
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the timeout of a controller method, as declared by `@Timeout`.
+     *
+     * @param controllerClass The controller class
+     * @param method The controller method
+     * @return The timeout, or `null` if the method has none
+     */
+    private Duration resolveTimeout(Class<?> controllerClass, Method method) {
+        Timeout timeout = method.isAnnotationPresent(Timeout.class)
+                ? method.getAnnotation(Timeout.class)
+                : controllerClass.getAnnotation(Timeout.class);
+        if (timeout == null) {
+            return null;
+        }
+        if (timeout.value() <= 0) {
+            throw new IllegalStateException("Timeout of " + controllerClass.getName() + "." + method.getName()
+                    + " must be positive");
+        }
+        return Duration.of(timeout.value(), timeout.unit().toChronoUnit());
+    }
+
+    /**
+     * Compiles the invocation plan for a controller method.
+     *
+     * @param controller The controller instance
+     * @param method The controller method
+     * @param middlewareClasses The middleware classes of the route, in execution order
+     * @return The compiled handler plan
+     */
+    private HandlerPlan compilePlan(Object controller, Method method, List<Class<? extends Middleware>> middlewareClasses) {
+        logger.debug("Compiling handler plan for method: {}.{}", controller.getClass().getName(), method.getName());
+
+        Parameter[] parameters = method.getParameters();
+        ParameterBinder[] binders = new ParameterBinder[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            binders[i] = parameterResolver.binderFor(parameters[i]);
+        }
+
+        List<Middleware> middleware = new ArrayList<>();
+        for (Class<? extends Middleware> middlewareClass : middlewareClasses) {
+            middleware.add(resolveMiddleware(middlewareClass));
         }
+
+        return new HandlerPlan(
+                controller,
+                method,
+                binders,
+                contentNegotiationManager.supportedConsumes(method),
+                contentNegotiationManager.supportedProduces(method),
+                middleware,
+                resolveTimeout(controller.getClass(), method)
+        );
+    }
+
+    /**
+     * Resolves the singleton instance of a middleware class through the component registry.
+     * <p>
+     * The first time a middleware class is resolved, its instance is created with its constructor
+     * dependencies injected and {@link Middleware#init()} is called. Later routes referring to the
+     * same class share that instance.
+     * </p>
+     *
+     * @param middlewareClass The middleware class
+     * @return The middleware instance
+     * @throws IllegalStateException if the middleware cannot be created or initialized
+     */
+    private synchronized Middleware resolveMiddleware(Class<? extends Middleware> middlewareClass) {
+        Middleware middleware;
+        try {
+            componentRegistry.registerMiddleware(middlewareClass);
+            middleware = componentRegistry.resolve(middlewareClass);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to instantiate middleware: " + middlewareClass.getName(), e);
+        }
+
+        if (initializedMiddleware.add(middleware)) {
+            try {
+                middleware.init();
+            } catch (Exception e) {
+                initializedMiddleware.remove(middleware);
+                throw new IllegalStateException("Failed to initialize middleware: " + middlewareClass.getName(), e);
+            }
+            middlewareInstances.add(middleware);
+            logger.debug("Initialized middleware: {}", middlewareClass.getName());
+        }
+        return middleware;
+    }
+
+    /**
+     * Destroys all middleware created by this mapper, in reverse order of creation.
+     * <p>
+     * Failures are logged and do not prevent the remaining middleware from being destroyed.
+     * </p>
+     */
+    public synchronized void destroyMiddleware() {
+        for (int i = middlewareInstances.size() - 1; i >= 0; i--) {
+            Middleware middleware = middlewareInstances.get(i);
+            try {
+                middleware.destroy();
+                logger.debug("Destroyed middleware: {}", middleware.getClass().getName());
+            } catch (RuntimeException e) {
+                logger.error("Failed to destroy middleware: {}", middleware.getClass().getName(), e);
+            }
+        }
+        middlewareInstances.clear();
+        initializedMiddleware.clear();
     }
 
     /**
@@ -138,57 +393,36 @@ public class ControllerMapper {
      */
     private String combinePaths(String base, String path) {
         logger.debug("Combining paths: {} + {}", base, path);
-        if (base.isEmpty()) {
-            return path.startsWith("/") ? path : "/" + path;
-        }
-        if (base.endsWith("/")) {
-            base = base.substring(0, base.length() - 1);
-        }
-        if (!path.startsWith("/")) {
-            path = "/" + path;
-        }
-        return base + path;
+        return RouteTable.combinePaths(base, path);
     }
 
     /**
      * Handles middleware execution and invokes the controller method.
      *
-     * @param controller The controller instance
-     * @param method The method to invoke
+     * @param plan The handler plan of the route
      * @param context The request context
-     * @param controllerMiddleware Array of controller-level middleware classes
      */
-    private void handleWithMiddleware(Object controller, Method method, Context context,
-                                     Class<? extends Middleware>[] controllerMiddleware) {
+    private void handleWithMiddleware(HandlerPlan plan, Context context) {
         try {
-            logger.debug("Handling middleware for method: {}.{}", controller.getClass().getName(), method.getName());
-            
-            // Collect method-level middleware
-            Class<? extends Middleware>[] methodMiddleware = method.isAnnotationPresent(WithMiddleware.class)
-                    ? method.getAnnotation(WithMiddleware.class).value()
-                    : new Class[0];
+            logger.debug("Handling middleware for method: {}.{}", plan.controller().getClass().getName(), plan.method().getName());
+
+            if (plan.timeout() != null && context.getDeadline() == null) {
+                // Bounds the subtasks the handler fans out to
+                context.setDeadline(Instant.now().plus(plan.timeout()));
+            }
 
             // Validate content type
-            contentNegotiationManager.validateContentType(context, method);
-            MediaType responseType = contentNegotiationManager.negotiateResponseType(context, method);
+            contentNegotiationManager.validateContentType(context, plan.consumes());
+            MediaType responseType = contentNegotiationManager.negotiateResponseType(context, plan.produces());
             context.headers().setHeader(RequestHeader.CONTENT_TYPE.getHeaderName(), responseType.getType());
 
-            // Execute controller-level middleware
-            for (Class<? extends Middleware> middlewareClass : controllerMiddleware) {
-                logger.debug("Executing controller-level middleware: {}", middlewareClass.getName());
-                Middleware middlewareInstance = middlewareClass.getDeclaredConstructor().newInstance();
-                middlewareInstance.handle(context);
-            }
-
-            // Execute method-level middleware
-            for (Class<? extends Middleware> middlewareClass : methodMiddleware) {
-                logger.debug("Executing method-level middleware: {}", middlewareClass.getName());
-                Middleware middlewareInstance = middlewareClass.getDeclaredConstructor().newInstance();
-                middlewareInstance.handle(context);
+            // Execute controller-level and method-level middleware
+            for (Middleware middleware : plan.middleware()) {
+                middleware.handle(context);
             }
 
             // Invoke the controller method
-            invokeControllerMethod(controller, method, context);
+            invokeControllerMethod(plan, context);
         } catch (Exception e) {
             handleException(e, context);
         }
@@ -197,42 +431,97 @@ public class ControllerMapper {
     /**
      * Invokes a controller method with resolved parameters.
      *
-     * @param controller The controller instance
-     * @param method The method to invoke
+     * @param plan The handler plan of the route
      * @param context The request context
      * @return The result of the method invocation
      */
-    private Object invokeControllerMethod(Object controller, Method method, Context context) {
+    private Object invokeControllerMethod(HandlerPlan plan, Context context) {
+        // Only sampled requests carry a trace
+        RequestTrace trace = context.getTrace();
         try {
-            logger.debug("Invoking controller method: {}.{}", controller.getClass().getName(), method.getName());
-            Parameter[] parameters = method.getParameters();
-            Object[] args = new Object[parameters.length];
-
-            for (int i = 0; i < parameters.length; i++) {
-                Parameter parameter = parameters[i];
-                args[i] = parameterResolver.resolveParameter(parameter, context);
-                logger.debug("Resolved parameter {} of method {}.{} to {}", 
-                        i, controller.getClass().getName(), method.getName(), args[i]);
+            logger.debug("Invoking controller method: {}.{}", plan.controller().getClass().getName(), plan.method().getName());
+            if (trace != null) {
+                trace.enter(Phase.BINDING);
             }
+            Object[] args = plan.bindArguments(context);
 
-            validationManager.validateMethodParameters(controller, method, parameters, args);
+            if (trace != null) {
+                trace.enter(Phase.VALIDATION);
+            }
+            validationManager.validateMethodParameters(plan.controller(), plan.method(), plan.parameters(), args);
 
-            try {
-                Object result = method.invoke(controller, args);
-                logger.debug("Controller method {}.{} returned: {}", 
-                        controller.getClass().getName(), method.getName(), result);
-                handleControllerResult(result, context);
-                return result;
-            } catch (InvocationTargetException e) {
-                // Unwrap the actual exception thrown by the method
-                throw e.getCause();
+            if (trace != null) {
+                trace.enter(Phase.HANDLER);
             }
+            Object result = plan.invoke(args);
+            logger.debug("Controller method {}.{} returned: {}",
+                    plan.controller().getClass().getName(), plan.method().getName(), result);
+            Object value = awaitResult(result, plan, context);
+
+            if (trace != null) {
+                trace.enter(Phase.SERIALIZATION);
+            }
+            handleControllerResult(value, context);
+            return result;
         } catch (ConstraintViolationException e){
             throw e;
         } catch (Throwable e) {
             logger.error("Failed to invoke controller method: {}.{} - {}", 
-                    controller.getClass().getName(), method.getName(), e.getMessage());
-            throw new RuntimeException("Failed to invoke controller method: " + method.getName(), e);
+                    plan.controller().getClass().getName(), plan.method().getName(), e.getMessage());
+            throw new RuntimeException("Failed to invoke controller method: " + plan.method().getName(), e);
+        } finally {
+            if (trace != null) {
+                trace.exit();
+            }
+        }
+    }
+
+    /**
+     * Waits for an asynchronous result of a controller method to complete.
+     * <p>
+     * The request thread waits for the result, since the request ends once its handler returns;
+     * with virtual threads, the default, waiting does not hold on to a platform thread.
+     * </p>
+     *
+     * @param result The result of the controller method
+     * @param plan The handler plan of the route
+     * @param context The request context, whose deadline bounds the wait as well
+     * @return The value the result completed with, or the result itself if it is not asynchronous
+     * @throws Throwable The exception the result completed with, or an {@link HttpException} with
+     * status `504` if it did not complete within the route's timeout or was cancelled once the
+     * request's deadline passed
+     */
+    private Object awaitResult(Object result, HandlerPlan plan, Context context) throws Throwable {
+        if (!(result instanceof CompletionStage<?> stage)) {
+            return result;
+        }
+
+        CompletableFuture<?> future = stage.toCompletableFuture();
+        Instant deadline = context.getDeadline();
+        try {
+            Duration timeout = plan.timeout();
+            if (deadline != null) {
+                Duration remaining = Duration.between(Instant.now(), deadline);
+                if (timeout == null || remaining.compareTo(timeout) < 0) {
+                    timeout = remaining;
+                }
+            }
+            return timeout != null ? future.get(timeout.toNanos(), TimeUnit.NANOSECONDS) : future.get();
+        } catch (ExecutionException | CancellationException e) {
+            // A stage depending on a cancelled one fails with the cancellation as its cause
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            if (cause instanceof CancellationException && deadline != null && !Instant.now().isBefore(deadline)) {
+                // Subtasks bounded by the request's deadline, such as those of a fan-out, are cancelled when it passes
+                throw new HttpException(HttpStatusCode.GATEWAY_TIMEOUT, "Request timed out");
+            }
+            throw cause;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HttpException(HttpStatusCode.GATEWAY_TIMEOUT, "Request timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
         }
     }
 
@@ -301,6 +590,14 @@ public class ControllerMapper {
             }
         }
 
+        if (actualException instanceof HttpException httpException) {
+            context.response().handleResponse(
+                    Response.status(httpException.getStatus())
+                            .body(new ErrorResponse(httpException.getStatus(), httpException.getMessage()))
+                            .build());
+            return;
+        }
+
         if (e instanceof ConstraintViolationException) {
             context.response().handleResponse(
                     Response.status(HttpStatusCode.BAD_REQUEST)
@@ -0,0 +1,194 @@
+package io.github.renatompf.ember.core.controller;
+
+import io.github.renatompf.ember.core.parameter.ParameterBinder;
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.core.server.Middleware;
+import io.github.renatompf.ember.enums.MediaType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * An immutable, precompiled invocation plan for a single controller route.
+ * <p>
+ * The plan is built once when the route is mapped and holds everything the request path
+ * needs: the parameter binders, the media types declared through `@Consumes` and `@Produces`,
+ * the middleware instances, and a {@link MethodHandle} bound to the controller instance.
+ * Handling a request then only runs the plan, without inspecting annotations or reflecting
+ * over the method again.
+ * </p>
+ */
+public class HandlerPlan {
+    private final Object controller;
+    private final Method method;
+    private final Parameter[] parameters;
+    private final ParameterBinder[] binders;
+    private final List<MediaType> consumes;
+    private final List<MediaType> produces;
+    private final List<Middleware> middleware;
+    private final MethodHandle invoker;
+    private final Duration timeout;
+
+    /**
+     * Constructs a new HandlerPlan for the given controller method.
+     *
+     * @param controller The controller instance the method is invoked on.
+     * @param method     The controller method.
+     * @param binders    The parameter binders, one per method parameter, in declaration order.
+     * @param consumes   The media types the method can consume, or `null` if it accepts any type.
+     * @param produces   The media types the method can produce, or `null` if it does not declare any.
+     * @param middleware The middleware to execute before the method, in order.
+     * @throws IllegalArgumentException If the number of binders does not match the method parameters.
+     * @throws IllegalStateException    If the method cannot be accessed.
+     */
+    public HandlerPlan(Object controller, Method method, ParameterBinder[] binders,
+                       List<MediaType> consumes, List<MediaType> produces, List<Middleware> middleware) {
+        this(controller, method, binders, consumes, produces, middleware, null);
+    }
+
+    /**
+     * Constructs a new HandlerPlan for the given controller method, whose result must be available
+     * within the given time.
+     *
+     * @param controller The controller instance the method is invoked on.
+     * @param method     The controller method.
+     * @param binders    The parameter binders, one per method parameter, in declaration order.
+     * @param consumes   The media types the method can consume, or `null` if it accepts any type.
+     * @param produces   The media types the method can produce, or `null` if it does not declare any.
+     * @param middleware The middleware to execute before the method, in order.
+     * @param timeout    The maximum time to wait for an asynchronous result, or `null` to wait indefinitely.
+     * @throws IllegalArgumentException If the number of binders does not match the method parameters.
+     * @throws IllegalStateException    If the method cannot be accessed.
+     */
+    public HandlerPlan(Object controller, Method method, ParameterBinder[] binders,
+                       List<MediaType> consumes, List<MediaType> produces, List<Middleware> middleware,
+                       Duration timeout) {
+        if (binders.length != method.getParameterCount()) {
+            throw new IllegalArgumentException("Expected " + method.getParameterCount()
+                    + " parameter binders for method " + method.getName() + " but got " + binders.length);
+        }
+        this.controller = controller;
+        this.method = method;
+        this.parameters = method.getParameters();
+        this.binders = binders.clone();
+        this.consumes = consumes;
+        this.produces = produces;
+        this.middleware = List.copyOf(middleware);
+        this.invoker = createInvoker(controller, method);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Creates a method handle bound to the controller which takes the arguments as an array
+     * and returns the result as an object.
+     *
+     * @param controller The controller instance.
+     * @param method     The controller method.
+     * @return The method handle.
+     */
+    private static MethodHandle createInvoker(Object controller, Method method) {
+        try {
+            method.trySetAccessible();
+            return MethodHandles.lookup()
+                    .unreflect(method)
+                    .bindTo(controller)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access controller method: " + method.getName(), e);
+        }
+    }
+
+    /**
+     * Binds the arguments of the controller method for the given request context.
+     *
+     * @param context The HTTP request context.
+     * @return The bound arguments, in declaration order.
+     */
+    public Object[] bindArguments(Context context) {
+        Object[] args = new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            args[i] = binders[i].bind(context);
+        }
+        return args;
+    }
+
+    /**
+     * Invokes the controller method with the given arguments.
+     *
+     * @param args The arguments, as returned by {@link #bindArguments(Context)}.
+     * @return The result of the method, or `null` if the method returns `void`.
+     * @throws Throwable Any exception thrown by the controller method.
+     */
+    public Object invoke(Object[] args) throws Throwable {
+        return (Object) invoker.invokeExact(args);
+    }
+
+    /**
+     * Gets the controller instance.
+     *
+     * @return The controller instance.
+     */
+    public Object controller() {
+        return controller;
+    }
+
+    /**
+     * Gets the controller method.
+     *
+     * @return The controller method.
+     */
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Gets the parameters of the controller method.
+     *
+     * @return The method parameters.
+     */
+    public Parameter[] parameters() {
+        return parameters;
+    }
+
+    /**
+     * Gets the media types the method can consume.
+     *
+     * @return The supported request media types, or `null` if the method accepts any type.
+     */
+    public List<MediaType> consumes() {
+        return consumes;
+    }
+
+    /**
+     * Gets the media types the method can produce.
+     *
+     * @return The supported response media types, or `null` if the method does not declare any.
+     */
+    public List<MediaType> produces() {
+        return produces;
+    }
+
+    /**
+     * Gets the middleware to execute before the controller method.
+     *
+     * @return An immutable list of middleware, controller-level first.
+     */
+    public List<Middleware> middleware() {
+        return middleware;
+    }
+
+    /**
+     * Gets the maximum time to wait for an asynchronous result of the controller method.
+     *
+     * @return The timeout, or `null` if the method has none.
+     */
+    public Duration timeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.renatompf.ember.core.controller;
+
+import io.github.renatompf.ember.core.server.Middleware;
+import io.github.renatompf.ember.enums.HttpMethod;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The routes of the controllers of an application, computed at build time by the
+ * {@link io.github.renatompf.ember.processor.ComponentIndexProcessor}.
+ * <p>
+ * Each jar or class directory compiled with the processor holds a {@value #LOCATION} file with a
+ * line per route, whose tab-separated fields are the HTTP method, the combined path, the
+ * controller class, the name of the controller method, the names of its parameter types and the
+ * middleware classes of the route, controller-level first, the last two separated by commas.
+ * Reading the table spares checking every method of every controller for HTTP annotations.
+ * </p>
+ */
+public final class RouteTable {
+    /** The resource the table is stored in. */
+    public static final String LOCATION = "META-INF/ember/routes";
+
+    private final Map<String, List<String[]>> routes;
+    private final ClassLoader classLoader;
+
+    private RouteTable(Map<String, List<String[]>> routes, ClassLoader classLoader) {
+        this.routes = routes;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Loads the table from every {@value #LOCATION} resource visible to a class loader.
+     *
+     * @param classLoader The class loader to read the table and load middleware classes with.
+     * @return The table, or `null` if there is none, so that controllers must be inspected.
+     * @throws IOException If a table cannot be read.
+     */
+    public static RouteTable load(ClassLoader classLoader) throws IOException {
+        Enumeration<URL> resources = classLoader.getResources(LOCATION);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+
+        Map<String, List<String[]>> routes = new HashMap<>();
+        while (resources.hasMoreElements()) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] fields = line.split("\t", -1);
+                    if (fields.length != 6) {
+                        throw new IOException("Malformed route in " + LOCATION + ": " + line);
+                    }
+                    routes.computeIfAbsent(fields[2], key -> new ArrayList<>()).add(fields);
+                }
+            }
+        }
+        return new RouteTable(routes, classLoader);
+    }
+
+    /**
+     * Finds the routes of a controller.
+     *
+     * @param controllerClass The controller class.
+     * @return The routes, or `null` if the controller is not in the table.
+     * @throws IllegalStateException If a route no longer matches the controller.
+     */
+    public List<Route> routesOf(Class<?> controllerClass) {
+        List<String[]> entries = routes.get(controllerClass.getName());
+        if (entries == null) {
+            return null;
+        }
+
+        List<Route> result = new ArrayList<>(entries.size());
+        for (String[] fields : entries) {
+            result.add(new Route(
+                    HttpMethod.fromString(fields[0]),
+                    fields[1],
+                    findMethod(controllerClass, fields[3], fields[4]),
+                    loadMiddleware(fields[5])));
+        }
+        return result;
+    }
+
+    private static Method findMethod(Class<?> controllerClass, String name, String parameterTypes) {
+        for (Method method : controllerClass.getDeclaredMethods()) {
+            if (method.getName().equals(name) && parameterTypes.equals(Arrays.stream(method.getParameterTypes())
+                    .map(Class::getName)
+                    .collect(Collectors.joining(",")))) {
+                return method;
+            }
+        }
+        throw new IllegalStateException("Route table refers to missing method " + controllerClass.getName()
+                + "." + name + "(" + parameterTypes + "); rebuild the application");
+    }
+
+    private List<Class<? extends Middleware>> loadMiddleware(String classNames) {
+        if (classNames.isEmpty()) {
+            return List.of();
+        }
+        List<Class<? extends Middleware>> middleware = new ArrayList<>();
+        for (String className : classNames.split(",")) {
+            try {
+                middleware.add(Class.forName(className, false, classLoader).asSubclass(Middleware.class));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Route table refers to missing middleware " + className
+                        + "; rebuild the application", e);
+            }
+        }
+        return middleware;
+    }
+
+    /**
+     * Combines the base path of a controller with the path of one of its methods.
+     *
+     * @param base The base path
+     * @param path The relative path
+     * @return The combined path
+     */
+    public static String combinePaths(String base, String path) {
+        if (base.isEmpty()) {
+            return path.startsWith("/") ? path : "/" + path;
+        }
+        if (base.endsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        return base + path;
+    }
+
+    /**
+     * A route of a controller.
+     *
+     * @param httpMethod The HTTP method of the route
+     * @param path       The combined path of the route
+     * @param method     The controller method handling the route
+     * @param middleware The middleware classes of the route, controller-level first
+     */
+    public record Route(HttpMethod httpMethod, String path, Method method,
+                        List<Class<? extends Middleware>> middleware) {
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.renatompf.ember.core.di;
+
+import java.lang.annotation.Annotation;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds which of a set of annotations a class carries by reading its class file, without loading
+ * the class.
+ * <p>
+ * The constant pool is read first: a class whose constant pool does not mention any of the
+ * annotations, as most classes do not, is rejected there. Otherwise fields and methods are
+ * skipped to reach the attributes of the class, and only its `RuntimeVisibleAnnotations`
+ * attribute is read, so, like {@link Class#isAnnotationPresent(Class)}, only annotations with
+ * runtime retention declared on the class itself are found. Instances are immutable and may be
+ * shared across threads.
+ * </p>
+ */
+final class ClassFileInspector {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final byte[] RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations".getBytes(StandardCharsets.UTF_8);
+
+    /** The descriptors of the annotations, such as `Lcom/example/Service;`. */
+    private final byte[][] descriptors;
+
+    /**
+     * Creates an inspector looking for annotations.
+     *
+     * @param annotations The annotations to look for, at most 64.
+     * @throws IllegalArgumentException If there are more than 64 annotations.
+     */
+    ClassFileInspector(List<Class<? extends Annotation>> annotations) {
+        if (annotations.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " annotations can be looked for at once");
+        }
+        this.descriptors = new byte[annotations.size()][];
+        for (int i = 0; i < descriptors.length; i++) {
+            descriptors[i] = ("L" + annotations.get(i).getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Finds the annotations a class carries.
+     *
+     * @param classFile The content of the class file.
+     * @return A bit set of the annotations found, whose bit `i` stands for the annotation at index
+     * `i` of the list the inspector was created with; `0` if there is none or the file is not a
+     * class file.
+     */
+    long inspect(byte[] classFile) {
+        try {
+            return read(ByteBuffer.wrap(classFile));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            // A truncated or malformed class file, which class loading would reject as well
+            return 0;
+        }
+    }
+
+    private long read(ByteBuffer in) {
+        if (in.getInt() != MAGIC) {
+            return 0;
+        }
+        in.position(in.position() + 4);
+
+        // The annotation each UTF-8 constant names, plus one, and the name of the attribute
+        int count = in.getShort() & 0xFFFF;
+        byte[] annotationOf = null;
+        int attributeName = -1;
+        for (int i = 1; i < count; i++) {
+            int tag = in.get();
+            switch (tag) {
+                case 1 -> {
+                    int length = in.getShort() & 0xFFFF;
+                    int start = in.position();
+                    int match = match(in.array(), start, length);
+                    if (match >= 0) {
+                        if (annotationOf == null) {
+                            annotationOf = new byte[count];
+                        }
+                        annotationOf[i] = (byte) (match + 1);
+                    } else if (Arrays.equals(in.array(), start, start + length,
+                            RUNTIME_VISIBLE_ANNOTATIONS, 0, RUNTIME_VISIBLE_ANNOTATIONS.length)) {
+                        attributeName = i;
+                    }
+                    in.position(start + length);
+                }
+                case 7, 8, 16, 19, 20 -> skip(in, 2);
+                case 15 -> skip(in, 3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> skip(in, 4);
+                case 5, 6 -> {
+                    skip(in, 8);
+                    // Long and double constants take two entries
+                    i++;
+                }
+                default -> {
+                    return 0;
+                }
+            }
+        }
+        if (annotationOf == null || attributeName < 0) {
+            return 0;
+        }
+
+        // Access flags, this class and super class, then the interfaces
+        skip(in, 6);
+        skip(in, 2 * (in.getShort() & 0xFFFF));
+        skipMembers(in);
+        skipMembers(in);
+
+        int attributes = in.getShort() & 0xFFFF;
+        for (int i = 0; i < attributes; i++) {
+            int name = in.getShort() & 0xFFFF;
+            int length = in.getInt();
+            if (name != attributeName) {
+                skip(in, length);
+                continue;
+            }
+            long found = 0;
+            int annotations = in.getShort() & 0xFFFF;
+            for (int j = 0; j < annotations; j++) {
+                int type = in.getShort() & 0xFFFF;
+                if (annotationOf[type] > 0) {
+                    found |= 1L << (annotationOf[type] - 1);
+                }
+                skipPairs(in);
+            }
+            return found;
+        }
+        return 0;
+    }
+
+    private int match(byte[] bytes, int start, int length) {
+        for (int i = 0; i < descriptors.length; i++) {
+            byte[] descriptor = descriptors[i];
+            if (descriptor.length == length && Arrays.equals(bytes, start, start + length, descriptor, 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void skipMembers(ByteBuffer in) {
+        int members = in.getShort() & 0xFFFF;
+        for (int i = 0; i < members; i++) {
+            // Access flags, name and descriptor
+            skip(in, 6);
+            int attributes = in.getShort() & 0xFFFF;
+            for (int j = 0; j < attributes; j++) {
+                skip(in, 2);
+                skip(in, in.getInt());
+            }
+        }
+    }
+
+    private static void skipPairs(ByteBuffer in) {
+        int pairs = in.getShort() & 0xFFFF;
+        for (int i = 0; i < pairs; i++) {
+            skip(in, 2);
+            skipElementValue(in);
+        }
+    }
+
+    private static void skipElementValue(ByteBuffer in) {
+        int tag = in.get();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> skip(in, 2);
+            case 'e' -> skip(in, 4);
+            case '@' -> {
+                skip(in, 2);
+                skipPairs(in);
+            }
+            case '[' -> {
+                int values = in.getShort() & 0xFFFF;
+                for (int i = 0; i < values; i++) {
+                    skipElementValue(in);
+                }
+            }
+            default -> throw new IndexOutOfBoundsException("Unknown element value tag: " + tag);
+        }
+    }
+
+    private static void skip(ByteBuffer in, int length) {
+        in.position(in.position() + length);
+    }
+}
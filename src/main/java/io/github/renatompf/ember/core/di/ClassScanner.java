@@ -5,19 +5,128 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 /**
  * ClassScanner is a utility class that scans the classpath for classes annotated with a specific annotation.
  * It can be used to find classes that are marked with custom annotations, such as @Component or @Service.
+ * <p>
+ * In {@link Mode#REFLECTION} mode, every class of the package is loaded to check its annotations.
+ * In {@link Mode#BYTECODE} mode, class files are read in parallel on a fork-join pool, a task per
+ * jar and per directory, and their annotations are found in the bytecode, so only the classes
+ * carrying one of them are loaded; {@link #scan(String, Collection)} then finds the classes of
+ * several annotations in a single pass.
+ * </p>
  */
 public class ClassScanner {
     private static final Logger logger = LoggerFactory.getLogger(ClassScanner.class);
 
+    /**
+     * How classes are checked for annotations.
+     */
+    public enum Mode {
+        /** Every class is loaded and checked through reflection. */
+        REFLECTION,
+        /** Class files are read in parallel and only the annotated classes are loaded. */
+        BYTECODE
+    }
+
+    private final Mode mode;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a scanner loading every class it scans.
+     */
+    public ClassScanner() {
+        this(Mode.REFLECTION);
+    }
+
+    /**
+     * Creates a scanner in the given mode, reading class files on the common fork-join pool.
+     *
+     * @param mode How classes are checked for annotations.
+     */
+    public ClassScanner(Mode mode) {
+        this(mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a scanner in the given mode.
+     *
+     * @param mode How classes are checked for annotations.
+     * @param pool The pool class files are read on, in {@link Mode#BYTECODE} mode.
+     */
+    public ClassScanner(Mode mode, ForkJoinPool pool) {
+        this.mode = mode;
+        this.pool = pool;
+    }
+
+    /**
+     * Scans the classpath for classes annotated with any of the specified annotations.
+     * <p>
+     * In {@link Mode#BYTECODE} mode the classpath is scanned once for all annotations; in
+     * {@link Mode#REFLECTION} mode, once per annotation.
+     * </p>
+     *
+     * @param basePackage   The base package to scan.
+     * @param annotations   The annotations to look for.
+     * @return The classes annotated with each annotation, in the order of the annotations.
+     * @throws IOException            If an I/O error occurs.
+     * @throws ClassNotFoundException If a class cannot be loaded.
+     */
+    public Map<Class<? extends Annotation>, List<Class<?>>> scan(String basePackage,
+                                                                Collection<Class<? extends Annotation>> annotations)
+            throws IOException, ClassNotFoundException {
+        return scan(basePackage, annotations, resource -> false);
+    }
+
+    /**
+     * Scans the classpath for classes annotated with any of the specified annotations, leaving out
+     * some jars and directories, those holding a {@link ComponentIndex} for example.
+     *
+     * @param basePackage   The base package to scan.
+     * @param annotations   The annotations to look for.
+     * @param skipped       Tells whether a package resource, in a jar or directory, is left out.
+     * @return The classes annotated with each annotation, in the order of the annotations.
+     * @throws IOException            If an I/O error occurs.
+     * @throws ClassNotFoundException If a class cannot be loaded.
+     */
+    public Map<Class<? extends Annotation>, List<Class<?>>> scan(String basePackage,
+                                                                Collection<Class<? extends Annotation>> annotations,
+                                                                Predicate<URL> skipped)
+            throws IOException, ClassNotFoundException {
+        Map<Class<? extends Annotation>, List<Class<?>>> annotatedClasses = new LinkedHashMap<>();
+        if (mode == Mode.BYTECODE) {
+            List<Class<? extends Annotation>> targets = List.copyOf(annotations);
+            List<Candidate> candidates = findCandidates(basePackage, new ClassFileInspector(targets), skipped);
+            for (Class<? extends Annotation> annotation : targets) {
+                annotatedClasses.put(annotation, new ArrayList<>());
+            }
+            loadCandidates(candidates, targets, annotatedClasses);
+        } else {
+            for (Class<? extends Annotation> annotation : annotations) {
+                annotatedClasses.put(annotation, findAnnotatedClasses(basePackage, annotation, skipped));
+            }
+        }
+        return annotatedClasses;
+    }
+
     /**
      * Scans the classpath for classes annotated with the specified annotation.
      *
@@ -29,6 +138,15 @@ public class ClassScanner {
      */
     public List<Class<?>> findAnnotatedClasses(String basePackage, Class<? extends Annotation> annotation)
             throws IOException, ClassNotFoundException {
+        if (mode == Mode.BYTECODE) {
+            return scan(basePackage, List.of(annotation)).get(annotation);
+        }
+        return findAnnotatedClasses(basePackage, annotation, resource -> false);
+    }
+
+    private List<Class<?>> findAnnotatedClasses(String basePackage, Class<? extends Annotation> annotation,
+                                                Predicate<URL> skipped)
+            throws IOException, ClassNotFoundException {
         List<Class<?>> annotatedClasses = new ArrayList<>();
         String path = basePackage.replace('.', '/');
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
@@ -36,6 +154,9 @@ public class ClassScanner {
 
         while (resources.hasMoreElements()) {
             URL resource = resources.nextElement();
+            if (skipped.test(resource)) {
+                continue;
+            }
             if (resource.getProtocol().equals("file")) {
                 File directory = new File(resource.getFile());
                 if (directory.exists() && directory.isDirectory()) {
@@ -111,4 +232,178 @@ public class ClassScanner {
 
         return classes;
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads the class files of a package in parallel, a task per jar and per directory.
+     *
+     * @param basePackage The base package to scan.
+     * @param inspector   The inspector checking class files for the annotations.
+     * @param skipped     Tells whether a package resource is left out.
+     * @return The classes carrying any of the annotations, sorted by name.
+     * @throws IOException If an I/O error occurs.
+     */
+    private List<Candidate> findCandidates(String basePackage, ClassFileInspector inspector, Predicate<URL> skipped)
+            throws IOException {
+        String path = basePackage.replace('.', '/');
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Enumeration<URL> resources = classLoader.getResources(path);
+
+        List<ForkJoinTask<List<Candidate>>> tasks = new ArrayList<>();
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            if (skipped.test(resource)) {
+                continue;
+            }
+            if (resource.getProtocol().equals("file")) {
+                File directory = new File(resource.getFile());
+                if (directory.exists() && directory.isDirectory()) {
+                    tasks.add(pool.submit(new DirectoryTask(directory, basePackage, inspector)));
+                }
+            } else if (resource.getProtocol().equals("jar")) {
+                String jarFilePath = resource.getPath().substring(5, resource.getPath().indexOf("!"));
+                tasks.add(pool.submit(new JarTask(jarFilePath, path, inspector)));
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (ForkJoinTask<List<Candidate>> task : tasks) {
+            try {
+                candidates.addAll(task.join());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        candidates.sort(Comparator.comparing(Candidate::className));
+        return candidates;
+    }
+
+    /**
+     * Loads the classes found in class files, sorting them by annotation.
+     *
+     * @param candidates       The classes found.
+     * @param annotations      The annotations looked for.
+     * @param annotatedClasses The classes of each annotation, added to.
+     * @throws ClassNotFoundException If a class cannot be loaded.
+     */
+    private void loadCandidates(List<Candidate> candidates, List<Class<? extends Annotation>> annotations,
+                                Map<Class<? extends Annotation>, List<Class<?>>> annotatedClasses)
+            throws ClassNotFoundException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        for (Candidate candidate : candidates) {
+            try {
+                var clazz = Class.forName(candidate.className(), false, classLoader);
+                if (clazz.isLocalClass() || clazz.isAnonymousClass()) {
+                    continue;
+                }
+                for (int i = 0; i < annotations.size(); i++) {
+                    if ((candidate.annotations() & (1L << i)) != 0) {
+                        logger.debug("Found class with annotation {}: {}", annotations.get(i).getSimpleName(), clazz.getName());
+                        annotatedClasses.get(annotations.get(i)).add(clazz);
+                    }
+                }
+            } catch (NoClassDefFoundError | UnsupportedClassVersionError ignored) {
+                logger.error("Failed to load class: {}", candidate.className());
+            }
+        }
+    }
+
+    /**
+     * A class whose class file carries some of the annotations looked for.
+     *
+     * @param className   The name of the class.
+     * @param annotations The bit set of the annotations it carries, as returned by {@link ClassFileInspector}.
+     */
+    private record Candidate(String className, long annotations) {
+    }
+
+    /**
+     * Reads the class files of a directory, forking a task per subdirectory.
+     */
+    private static final class DirectoryTask extends RecursiveTask<List<Candidate>> {
+        private final File directory;
+        private final String packageName;
+        private final ClassFileInspector inspector;
+
+        DirectoryTask(File directory, String packageName, ClassFileInspector inspector) {
+            this.directory = directory;
+            this.packageName = packageName;
+            this.inspector = inspector;
+        }
+
+        @Override
+        protected List<Candidate> compute() {
+            List<Candidate> candidates = new ArrayList<>();
+            List<DirectoryTask> subdirectories = new ArrayList<>();
+            File[] files = directory.listFiles();
+
+            if (files != null) {
+                for (File file : files) {
+                    if (file.isDirectory()) {
+                        DirectoryTask task = new DirectoryTask(file, qualify(packageName, file.getName()), inspector);
+                        task.fork();
+                        subdirectories.add(task);
+                    } else if (file.getName().endsWith(".class")) {
+                        long annotations;
+                        try {
+                            annotations = inspector.inspect(Files.readAllBytes(file.toPath()));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        if (annotations != 0) {
+                            String simpleClassName = file.getName().substring(0, file.getName().length() - 6);
+                            candidates.add(new Candidate(qualify(packageName, simpleClassName), annotations));
+                        }
+                    }
+                }
+            }
+
+            for (DirectoryTask task : subdirectories) {
+                candidates.addAll(task.join());
+            }
+            return candidates;
+        }
+
+        private static String qualify(String packageName, String name) {
+            return packageName.isEmpty() ? name : packageName + "." + name;
+        }
+    }
+
+    /**
+     * Reads the class files of a package in a jar.
+     */
+    private static final class JarTask extends RecursiveTask<List<Candidate>> {
+        private final String jarFilePath;
+        private final String path;
+        private final ClassFileInspector inspector;
+
+        JarTask(String jarFilePath, String path, ClassFileInspector inspector) {
+            this.jarFilePath = jarFilePath;
+            this.path = path;
+            this.inspector = inspector;
+        }
+
+        @Override
+        protected List<Candidate> compute() {
+            List<Candidate> candidates = new ArrayList<>();
+            try (var jarFile = new JarFile(jarFilePath)) {
+                var entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    if (entry.getName().startsWith(path) && entry.getName().endsWith(".class")) {
+                        long annotations;
+                        try (var in = jarFile.getInputStream(entry)) {
+                            annotations = inspector.inspect(in.readAllBytes());
+                        }
+                        if (annotations != 0) {
+                            String className = entry.getName().replace('/', '.').substring(0, entry.getName().length() - 6);
+                            candidates.add(new Candidate(className, annotations));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return candidates;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.renatompf.ember.core.di;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event spanning the creation of a component, committed by the {@link ComponentRegistry}.
+ * <p>
+ * Dependencies are created before the components depending on them, so the event spans the
+ * constructor of the component only; independent components may be created at the same time, on
+ * different threads.
+ * </p>
+ */
+@Name("ember.ComponentCreation")
+@Label("Component Creation")
+@Category({"Ember", "Dependency Injection"})
+@Description("Creation of a component through its constructor")
+@Enabled(false)
+@StackTrace(false)
+final class ComponentCreationEvent extends Event {
+    @Label("Component")
+    Class<?> component;
+}
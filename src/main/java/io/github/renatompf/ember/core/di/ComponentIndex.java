@@ -0,0 +1,121 @@
+package io.github.renatompf.ember.core.di;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * The index of the components of an application, written at build time by the
+ * {@link io.github.renatompf.ember.processor.ComponentIndexProcessor}.
+ * <p>
+ * Each jar or class directory compiled with the processor holds a {@value #LOCATION} file mapping
+ * every class annotated with `@Service`, `@Controller` or `@GlobalHandler` to the names of its
+ * annotations, separated by commas. Reading the index loads only the classes it lists, sparing
+ * the classpath scan of {@link ClassScanner} for the jars and directories holding an index. The
+ * others, compiled without the processor, must still be scanned.
+ * </p>
+ */
+public final class ComponentIndex {
+    /** The resource the index is stored in. */
+    public static final String LOCATION = "META-INF/ember/components";
+
+    private final Map<String, Set<String>> components;
+    private final Set<String> codeSources;
+    private final ClassLoader classLoader;
+
+    private ComponentIndex(Map<String, Set<String>> components, Set<String> codeSources, ClassLoader classLoader) {
+        this.components = components;
+        this.codeSources = codeSources;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Loads the index from every {@value #LOCATION} resource visible to a class loader.
+     *
+     * @param classLoader The class loader to read the index and load the classes with.
+     * @return The index, or `null` if there is none, so that the classpath must be scanned.
+     * @throws IOException If an index cannot be read.
+     */
+    public static ComponentIndex load(ClassLoader classLoader) throws IOException {
+        Enumeration<URL> resources = classLoader.getResources(LOCATION);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+
+        Map<String, Set<String>> components = new LinkedHashMap<>();
+        Set<String> codeSources = new HashSet<>();
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            String url = resource.toString();
+            codeSources.add(url.substring(0, url.length() - LOCATION.length()));
+            Properties index = new Properties();
+            try (InputStream in = resource.openStream()) {
+                index.load(in);
+            }
+            for (String className : index.stringPropertyNames()) {
+                components.put(className, Set.of(index.getProperty(className).split(",")));
+            }
+        }
+        return new ComponentIndex(components, codeSources, classLoader);
+    }
+
+    /**
+     * Finds the indexed classes in a package carrying an annotation.
+     *
+     * @param basePackage The package to search, including its subpackages, or `""` for all.
+     * @param annotation  The annotation to look for.
+     * @return The classes, loaded without being initialized.
+     * @throws ClassNotFoundException If an indexed class no longer exists.
+     */
+    public List<Class<?>> findAnnotatedClasses(String basePackage, Class<? extends Annotation> annotation)
+            throws ClassNotFoundException {
+        List<Class<?>> classes = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> component : components.entrySet()) {
+            String className = component.getKey();
+            if (component.getValue().contains(annotation.getName()) && inPackage(className, basePackage)) {
+                classes.add(Class.forName(className, false, classLoader));
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Tells whether a package resource, as found by {@link ClassLoader#getResources(String)}, lies
+     * in a jar or class directory holding an index, so that it needs no scanning.
+     *
+     * @param resource    The URL of the package in a jar or class directory.
+     * @param basePackage The package the URL was looked up for, or `""` for the root.
+     * @return `true` if the jar or directory is indexed.
+     */
+    public boolean isIndexed(URL resource, String basePackage) {
+        String url = resource.toString();
+        String path = basePackage.replace('.', '/');
+        if (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        if (!path.isEmpty() && url.endsWith("/" + path)) {
+            url = url.substring(0, url.length() - path.length());
+        }
+        return codeSources.contains(url.endsWith("/") ? url : url + "/");
+    }
+
+    /**
+     * @return The number of indexed classes.
+     */
+    public int size() {
+        return components.size();
+    }
+
+    private static boolean inPackage(String className, String basePackage) {
+        return basePackage.isEmpty() || className.startsWith(basePackage + ".");
+    }
+}
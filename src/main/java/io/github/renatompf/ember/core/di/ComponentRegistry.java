@@ -3,13 +3,20 @@ package io.github.renatompf.ember.core.di;
 import io.github.renatompf.ember.annotations.controller.Controller;
 import io.github.renatompf.ember.annotations.exceptions.GlobalHandler;
 import io.github.renatompf.ember.annotations.service.Service;
+import io.github.renatompf.ember.core.server.Middleware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import static java.lang.reflect.Modifier.isFinal;
 import static java.lang.reflect.Modifier.isStatic;
@@ -18,12 +25,43 @@ import static java.lang.reflect.Modifier.isStatic;
  * The `ComponentRegistry` class is responsible for managing the lifecycle of components
  * in the application. It provides methods to register, resolve, and retrieve components
  * annotated with specific annotations such as `@Service`, `@Controller`, or `@GlobalHandler`.
+ * <p>
+ * Components are created from a dependency graph built from their constructor signatures:
+ * a component is constructed once all of its dependencies exist, and receives them as
+ * constructor arguments. Circular dependencies and dependencies on unregistered classes are
+ * reported before any component is created. {@link #resolveAll()} constructs independent
+ * components in parallel, on a pool of at most as many threads as the registry's parallelism.
+ * </p>
  */
 public class ComponentRegistry {
     private static final Logger logger = LoggerFactory.getLogger(ComponentRegistry.class);
-    private final Map<Class<?>, Object> instances = new ConcurrentHashMap<>();
-    private final ThreadLocal<Set<Class<?>>> resolving = ThreadLocal.withInitial(HashSet::new);
+    private static final ThreadFactory THREADS = Thread.ofPlatform().name("ember-di-", 0).daemon().factory();
     private static final Object UNRESOLVED = new Object();
+    private final Map<Class<?>, Object> instances = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Duration> creationTimes = new ConcurrentHashMap<>();
+    private final int parallelism;
+
+    /**
+     * Creates a registry constructing as many independent components at once as there are
+     * available processors.
+     */
+    public ComponentRegistry() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a registry constructing at most `parallelism` independent components at once.
+     *
+     * @param parallelism The maximum number of components constructed at once; `1` constructs
+     *                    them one at a time, on the calling thread.
+     * @throws IllegalArgumentException If `parallelism` is not positive.
+     */
+    public ComponentRegistry(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
 
     /**
      * Registers a service class in the registry if it is annotated with `@Service`,
@@ -45,6 +83,24 @@ public class ComponentRegistry {
         }
     }
 
+    /**
+     * Registers a middleware class in the registry.
+     * <p>
+     * Middleware is not discovered through classpath scanning; it is registered when a controller
+     * refers to it through `@WithMiddleware`, so that a single instance is created and its
+     * constructor dependencies are injected like those of any other component.
+     * Registering the same class twice has no effect.
+     * </p>
+     *
+     * @param middlewareClass The middleware class to register.
+     * @param <T>             The type of the middleware class.
+     */
+    public <T extends Middleware> void registerMiddleware(Class<T> middlewareClass) {
+        if (instances.putIfAbsent(middlewareClass, UNRESOLVED) == null) {
+            logger.info("Registered middleware: {}", middlewareClass.getName());
+        }
+    }
+
     /**
      * Registers a list of service classes in the registry.
      *
@@ -68,93 +124,148 @@ public class ComponentRegistry {
 
     /**
      * Resolves all registered services by creating their instances.
+     * <p>
+     * The components not created yet are planned first, failing before any of them is created if
+     * their dependencies form a cycle or are not registered. They are then constructed in
+     * dependency order, independent components in parallel, and the time each constructor took
+     * is logged.
+     * </p>
+     *
+     * @throws IllegalStateException If components depend on each other in a cycle.
+     * @throws RuntimeException      If a component cannot be resolved.
      */
-    public void resolveAll() {
-        for (Class<?> serviceClass : instances.keySet()) {
-            resolve(serviceClass);
+    public synchronized void resolveAll() {
+        List<Class<?>> unresolved = instances.entrySet().stream()
+                .filter(entry -> entry.getValue() == UNRESOLVED)
+                .map(Map.Entry::getKey)
+                .sorted(Comparator.comparing(Class::getName))
+                .toList();
+        if (unresolved.isEmpty()) {
+            return;
         }
-    }
 
+        long start = System.nanoTime();
+        List<Plan> plans = plan(unresolved);
+        if (parallelism == 1 || plans.size() == 1) {
+            plans.forEach(this::create);
+        } else {
+            createInParallel(plans);
+        }
+        logBreakdown(plans, Duration.ofNanos(System.nanoTime() - start));
+    }
 
     /**
-     * Resolves a specific service class by creating its instance and injecting dependencies.
+     * Resolves a specific service class by creating its instance, after the instances of its
+     * dependencies not created yet, on the calling thread.
      *
      * @param serviceClass The class to resolve.
      * @param <T>          The type of the service class.
      * @return The resolved instance of the service class.
-     * @throws IllegalStateException If the service is not registered.
+     * @throws IllegalStateException If the service is not registered, or depends on itself
+     *                               through a cycle.
      * @throws RuntimeException      If the service cannot be resolved.
      */
     @SuppressWarnings("unchecked")
     public <T> T resolve(Class<T> serviceClass) {
-        if (!isRegistered(serviceClass)) {
+        Object instance = instances.get(serviceClass);
+        if (instance == null) {
             throw new IllegalStateException("Service not registered: " + serviceClass.getName());
         }
-
-        // Check if the service is already resolved
-        Object instance = instances.get(serviceClass);
-        if (instance != null && instance != UNRESOLVED) {
-            logger.debug("Resolved service: {}", serviceClass.getName());
-            return (T) instance;
+        if (instance == UNRESOLVED) {
+            synchronized (this) {
+                if (instances.get(serviceClass) == UNRESOLVED) {
+                    logger.debug("Resolving service: {}", serviceClass.getName());
+                    plan(List.of(serviceClass)).forEach(this::create);
+                }
+            }
+            instance = instances.get(serviceClass);
         }
+        return (T) instance;
+    }
 
-        // Detect circular dependencies and return a partially initialized instance
-        if (resolving.get().contains(serviceClass)) {
-            logger.debug("Circular dependency detected, returning partially initialized instance for: {}", serviceClass.getName());
-            return (T) instances.get(serviceClass);
+    /**
+     * Plans the creation of components and of their dependencies not created yet.
+     *
+     * @param roots The components to create.
+     * @return The plans of the components, each after the plans of its dependencies.
+     * @throws IllegalStateException If components depend on each other in a cycle.
+     * @throws RuntimeException      If a component has no usable constructor, or depends on a
+     *                               class that is not registered.
+     */
+    private List<Plan> plan(Collection<Class<?>> roots) {
+        Map<Class<?>, Plan> planned = new LinkedHashMap<>();
+        Set<String> cycles = new LinkedHashSet<>();
+        for (Class<?> root : roots) {
+            visit(root, planned, new LinkedHashSet<>(), cycles);
         }
+        if (!cycles.isEmpty()) {
+            logger.error("Circular dependencies between components: {}", cycles);
+            throw new IllegalStateException("Circular dependency between components: " + String.join("; ", cycles)
+                    + ". Components are created through their constructors, so a cycle must be broken by "
+                    + "removing one of its dependencies");
+        }
+        return new ArrayList<>(planned.values());
+    }
 
-        // Mark the service as being resolved
-        resolving.get().add(serviceClass);
-        try {
-            logger.debug("Resolving service: {}", serviceClass.getName());
-            return (T) instances.computeIfPresent(serviceClass, (cls, existing) -> {
-                if (existing != UNRESOLVED) {
-                    return existing;
+    /**
+     * Plans a component after its dependencies, depth first, recording the cycles met along the
+     * path of components being planned.
+     */
+    private void visit(Class<?> cls, Map<Class<?>, Plan> planned, LinkedHashSet<Class<?>> path, Set<String> cycles) {
+        if (planned.containsKey(cls) || instances.get(cls) != UNRESOLVED) {
+            return;
+        }
+        if (path.contains(cls)) {
+            StringJoiner cycle = new StringJoiner(" -> ");
+            boolean inCycle = false;
+            for (Class<?> step : path) {
+                inCycle |= step == cls;
+                if (inCycle) {
+                    cycle.add(step.getName());
                 }
+            }
+            cycles.add(cycle.add(cls.getName()).toString());
+            return;
+        }
 
-                try {
-                    return createInstance(cls);
-                } catch (Exception e) {
-                    logger.error("Failed to resolve service: {}", cls.getName(), e);
-                    throw new RuntimeException("Failed to resolve service: " + cls.getName() + " . Message: " + e.getMessage(), e);
-                }
-            });
-        } finally {
-            // Remove the service from the resolving set to prevent memory leaks
-            resolving.get().remove(serviceClass);
+        Plan plan = planOf(cls);
+        path.add(cls);
+        for (Class<?> dependency : plan.dependencies()) {
+            if (!isRegistered(dependency)) {
+                throw failure(cls, new IllegalStateException("Service not registered: " + dependency.getName()));
+            }
+            visit(dependency, planned, path, cycles);
         }
+        path.remove(cls);
+        planned.put(cls, plan);
     }
 
     /**
-     * Creates an instance of the given class and injects its dependencies.
+     * Chooses the constructor creating a component: its first public constructor with
+     * parameters, otherwise its public no-argument constructor, or, when it has no public
+     * constructor and no final instance fields to inject, its declared no-argument constructor.
      *
-     * @param cls The class to instantiate.
-     * @param <T> The type of the class.
-     * @return The created instance of the class.
-     * @throws Exception If the instance cannot be created.
+     * @param cls The class of the component.
+     * @return The plan creating the component.
+     * @throws RuntimeException If the class has no usable constructor.
      */
-    private <T> Object createInstance(Class<T> cls) throws Exception {
+    private Plan planOf(Class<?> cls) {
         Constructor<?>[] constructors = cls.getConstructors();
 
         // Handle classes with no public constructors
         if (constructors.length == 0) {
-            Field[] fields = cls.getDeclaredFields();
-            boolean hasFieldsToInject = Arrays.stream(fields)
+            boolean hasFieldsToInject = Arrays.stream(cls.getDeclaredFields())
                     .anyMatch(field -> isFinal(field.getModifiers()) &&
                             !isStatic(field.getModifiers()));
-
-            if (!hasFieldsToInject) {
-                // Create an instance using the default constructor
+            if (hasFieldsToInject) {
+                throw failure(cls, new IllegalStateException("Service " + cls.getName() + " has fields requiring injection but no public constructor"));
+            }
+            try {
                 Constructor<?> constructor = cls.getDeclaredConstructor();
                 constructor.setAccessible(true);
-                T newInstance = (T) constructor.newInstance();
-                instances.put(cls, newInstance);
-                logger.info("Successfully resolved service with default constructor (no dependencies): {}", cls.getName());
-                return newInstance;
-            } else {
-                logger.error("Service {} has fields requiring injection but no public constructor", cls.getName());
-                throw new IllegalStateException("Service " + cls.getName() + " has fields requiring injection but no public constructor");
+                return new Plan(cls, constructor, constructor.getParameterTypes());
+            } catch (NoSuchMethodException | RuntimeException e) {
+                throw failure(cls, e);
             }
         }
 
@@ -174,43 +285,129 @@ public class ComponentRegistry {
         if (constructor == null) {
             constructor = noArgConstructor;
         }
+        return new Plan(cls, constructor, constructor.getParameterTypes());
+    }
 
-        Class<?>[] paramTypes = constructor.getParameterTypes();
+    /**
+     * Constructs planned components on a bounded pool, each as soon as its dependencies exist.
+     *
+     * @param plans The plans of the components, each after the plans of its dependencies.
+     * @throws RuntimeException If a component cannot be created; the components depending on it
+     *                          are not created either.
+     */
+    private void createInParallel(List<Plan> plans) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, plans.size()), THREADS);
+        try {
+            Map<Class<?>, CompletableFuture<Void>> created = new HashMap<>();
+            for (Plan plan : plans) {
+                // Dependencies created before this call have no future
+                CompletableFuture<?>[] dependencies = Arrays.stream(plan.dependencies())
+                        .map(created::get)
+                        .filter(Objects::nonNull)
+                        .toArray(CompletableFuture[]::new);
+                created.put(plan.type(), CompletableFuture.allOf(dependencies).thenRunAsync(() -> create(plan), pool));
+            }
 
-        // Handle constructors with no parameters
-        if (paramTypes.length == 0) {
-            T newInstance = (T) constructor.newInstance();
-            instances.put(cls, newInstance);
-            logger.info("Successfully resolved service with no dependencies: {}", cls.getName());
-            return newInstance;
+            CompletableFuture.allOf(created.values().toArray(CompletableFuture[]::new))
+                    .exceptionally(e -> null)
+                    .join();
+            // The first failure in dependency order is the one the components after it share
+            for (Plan plan : plans) {
+                try {
+                    created.get(plan.type()).join();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException cause) {
+                        throw cause;
+                    }
+                    throw e;
+                }
+            }
+        } finally {
+            pool.shutdown();
         }
+    }
 
-        // Handle constructors with dependencies
-        T newInstance = (T) constructor.newInstance(new Object[paramTypes.length]);
-        instances.put(cls, newInstance);
+    /**
+     * Creates a planned component from the instances of its dependencies, which must exist.
+     *
+     * @param plan The plan of the component.
+     * @throws RuntimeException If the component cannot be created.
+     */
+    private void create(Plan plan) {
+        Class<?>[] dependencies = plan.dependencies();
+        Object[] arguments = new Object[dependencies.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            arguments[i] = instances.get(dependencies[i]);
+        }
 
-        // Resolve dependencies for the constructor parameters
-        Object[] dependencies = new Object[paramTypes.length];
-        for (int i = 0; i < paramTypes.length; i++) {
-            dependencies[i] = resolve(paramTypes[i]);
+        long start = System.nanoTime();
+        Object instance;
+        try {
+            instance = createInstance(plan, arguments);
+        } catch (InvocationTargetException e) {
+            throw failure(plan.type(), e.getCause());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw failure(plan.type(), e);
         }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
 
-        // Inject dependencies into final fields
-        Field[] fields = cls.getDeclaredFields();
-        for (Field field : fields) {
-            if (isFinal(field.getModifiers())) {
-                field.setAccessible(true);
-                for (int i = 0; i < paramTypes.length; i++) {
-                    if (field.getType().isAssignableFrom(paramTypes[i])) {
-                        field.set(newInstance, dependencies[i]);
-                        break;
-                    }
-                }
+        creationTimes.put(plan.type(), elapsed);
+        instances.put(plan.type(), instance);
+        logger.debug("Created component {} in {} ms", plan.type().getName(), millis(elapsed));
+    }
+
+    /**
+     * Creates an instance of a component through its constructor, recording an
+     * `ember.ComponentCreation` JFR event when enabled.
+     *
+     * @param plan      The plan of the component.
+     * @param arguments The instances of its dependencies.
+     * @return The created instance of the component.
+     * @throws ReflectiveOperationException If the instance cannot be created.
+     */
+    private Object createInstance(Plan plan, Object[] arguments) throws ReflectiveOperationException {
+        ComponentCreationEvent event = new ComponentCreationEvent();
+        if (!event.isEnabled()) {
+            return plan.constructor().newInstance(arguments);
+        }
+        event.begin();
+        try {
+            return plan.constructor().newInstance(arguments);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.component = plan.type();
+                event.commit();
             }
         }
+    }
 
-        logger.info("Successfully resolved service: {}", cls.getName());
-        return newInstance;
+    private static RuntimeException failure(Class<?> cls, Throwable cause) {
+        logger.error("Failed to resolve service: {}", cls.getName(), cause);
+        return new RuntimeException("Failed to resolve service: " + cls.getName() + " . Message: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Logs how long creating components took, and the time of each constructor, slowest first.
+     */
+    private void logBreakdown(List<Plan> plans, Duration elapsed) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        List<Map.Entry<Class<?>, Duration>> times = plans.stream()
+                .<Map.Entry<Class<?>, Duration>>map(plan -> Map.entry(plan.type(), creationTimes.get(plan.type())))
+                .sorted(Map.Entry.<Class<?>, Duration>comparingByValue().reversed())
+                .toList();
+        Duration constructors = times.stream().map(Map.Entry::getValue).reduce(Duration.ZERO, Duration::plus);
+        logger.info("Created {} components in {} ms ({} ms in constructors, parallelism {})",
+                plans.size(), millis(elapsed), millis(constructors), parallelism);
+        for (Map.Entry<Class<?>, Duration> time : times) {
+            logger.info("  {} ms  {}", millis(time.getValue()), time.getKey().getName());
+        }
+    }
+
+    private static String millis(Duration duration) {
+        return String.format(Locale.ROOT, "%.2f", duration.toNanos() / 1_000_000.0);
     }
 
     /**
@@ -233,4 +430,20 @@ public class ComponentRegistry {
         return instance == UNRESOLVED ? null : instance;
     }
 
+    /**
+     * Retrieves how long the constructor of each component created so far took. Dependencies are
+     * created before the components depending on them, so their time is not included.
+     *
+     * @return An unmodifiable map of the creation time of each created component, by class.
+     */
+    public Map<Class<?>, Duration> getCreationTimes() {
+        return Collections.unmodifiableMap(creationTimes);
+    }
+
+    /**
+     * How a component is created: the constructor to call and the components to pass to it.
+     */
+    private record Plan(Class<?> type, Constructor<?> constructor, Class<?>[] dependencies) {
+    }
+
 }
\ No newline at end of file
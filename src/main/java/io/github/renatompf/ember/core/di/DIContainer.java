@@ -5,6 +5,7 @@ import io.github.renatompf.ember.annotations.controller.Controller;
 import io.github.renatompf.ember.annotations.exceptions.GlobalHandler;
 import io.github.renatompf.ember.annotations.service.Service;
 import io.github.renatompf.ember.core.controller.ControllerMapper;
+import io.github.renatompf.ember.core.controller.RouteTable;
 import io.github.renatompf.ember.core.exception.ExceptionHandlerRegistry;
 import io.github.renatompf.ember.core.exception.ExceptionManager;
 import io.github.renatompf.ember.core.parameter.ParameterResolver;
@@ -14,6 +15,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,7 +27,9 @@ import java.util.Map;
  * <p>
  * It is responsible for:
  * <ul>
- *   <li>Scanning the classpath for annotated components (@Service, @Controller, @GlobalHandler)</li>
+ *   <li>Discovering annotated components (@Service, @Controller, @GlobalHandler), from the
+ *   {@link ComponentIndex} written at build time for the jars and directories holding one, and by
+ *   scanning the rest of the classpath</li>
  *   <li>Registering and resolving component dependencies</li>
  *   <li>Initializing core framework services (validation, exception handling, parameter resolution)</li>
  *   <li>Mapping controller routes to the Ember application</li>
@@ -32,9 +37,13 @@ import java.util.Map;
  */
 public class DIContainer {
     private static final Logger logger = LoggerFactory.getLogger(DIContainer.class);
+    private static final List<Class<? extends Annotation>> STEREOTYPES =
+            List.of(Service.class, Controller.class, GlobalHandler.class);
     private final String basePackage;
     private final ComponentRegistry registry;
     private final ClassScanner classScanner;
+    private ComponentIndex componentIndex;
+    private RouteTable routeTable;
     private ExceptionManager exceptionManager;
     private ExceptionHandlerRegistry exceptionHandlerRegistry;
     private ControllerMapper controllerMapper;
@@ -56,7 +65,7 @@ public class DIContainer {
     public DIContainer(String basePackage) {
         this.basePackage = basePackage;
         this.registry = new ComponentRegistry();
-        this.classScanner = new ClassScanner();
+        this.classScanner = new ClassScanner(ClassScanner.Mode.BYTECODE);
     }
 
     /**
@@ -80,9 +89,11 @@ public class DIContainer {
      */
     public void init() {
         try {
-            registerServices();
-            registerControllers();
-            registerGlobalHandlers();
+            loadIndex();
+            Map<Class<? extends Annotation>, List<Class<?>>> components = findComponents();
+            registerServices(components.get(Service.class));
+            registerControllers(components.get(Controller.class));
+            registerGlobalHandlers(components.get(GlobalHandler.class));
 
             // Create core components before resolving others
             this.validationManager = new ValidationManager();
@@ -124,6 +135,20 @@ public class DIContainer {
         controllerMapper.mapControllerRoutes(app, instances);
     }
 
+    /**
+     * Releases the resources held by the container's components.
+     * <p>
+     * Calls {@link io.github.renatompf.ember.core.server.Middleware#destroy()} on every
+     * middleware instance created while mapping controller routes.
+     * </p>
+     */
+    public void destroy() {
+        if (controllerMapper != null) {
+            controllerMapper.destroyMiddleware();
+        }
+        logger.info("Container destroyed");
+    }
+
     /**
      * Registers an individual component class.
      *
@@ -153,14 +178,64 @@ public class DIContainer {
     }
 
     /**
-     * Registers all service classes found in the classpath.
+     * Loads the component index and route table written at build time, if any.
+     *
+     * @throws IOException if the index or the route table cannot be read
+     */
+    private void loadIndex() throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        this.componentIndex = ComponentIndex.load(classLoader);
+        this.routeTable = RouteTable.load(classLoader);
+        if (componentIndex != null) {
+            logger.info("Loaded component index of {} classes", componentIndex.size());
+        } else {
+            logger.info("No component index found, scanning the classpath");
+        }
+    }
+
+    /**
+     * Finds the services, controllers and global handlers of the base package, by scanning the
+     * classpath once for all of them. The jars and directories holding a component index are read
+     * from the index instead, and left out of the scan.
      *
+     * @return The classes carrying each annotation
      * @throws IOException if classpath scanning fails
      * @throws ClassNotFoundException if a class cannot be loaded
      */
-    private void registerServices() throws IOException, ClassNotFoundException {
+    private Map<Class<? extends Annotation>, List<Class<?>>> findComponents()
+            throws IOException, ClassNotFoundException {
+        if (componentIndex == null) {
+            return classScanner.scan(basePackage, STEREOTYPES);
+        }
+
+        Map<Class<? extends Annotation>, List<Class<?>>> scanned =
+                classScanner.scan(basePackage, STEREOTYPES, resource -> componentIndex.isIndexed(resource, basePackage));
+        Map<Class<? extends Annotation>, List<Class<?>>> components = new HashMap<>();
+        int unindexed = 0;
+        for (Class<? extends Annotation> stereotype : STEREOTYPES) {
+            List<Class<?>> classes = new ArrayList<>(componentIndex.findAnnotatedClasses(basePackage, stereotype));
+            for (Class<?> scannedClass : scanned.getOrDefault(stereotype, List.of())) {
+                if (!classes.contains(scannedClass)) {
+                    classes.add(scannedClass);
+                    unindexed++;
+                }
+            }
+            components.put(stereotype, classes);
+        }
+        if (unindexed > 0) {
+            logger.warn("Found {} components of package '{}' missing from the component index; " +
+                    "compile them with the annotation processor to skip scanning", unindexed, basePackage);
+        }
+        return components;
+    }
+
+    /**
+     * Registers all service classes found in the classpath.
+     *
+     * @param serviceClasses The service classes found
+     */
+    private void registerServices(List<Class<?>> serviceClasses) {
         logger.info("Registering service classes from package: {}", basePackage);
-        List<Class<?>> serviceClasses = classScanner.findAnnotatedClasses(basePackage, Service.class);
         registry.registerAll(serviceClasses);
         logger.info("Registered {} service classes", serviceClasses.size());
     }
@@ -168,12 +243,10 @@ public class DIContainer {
     /**
      * Registers all controller classes found in the classpath.
      *
-     * @throws IOException if classpath scanning fails
-     * @throws ClassNotFoundException if a class cannot be loaded
+     * @param controllerClasses The controller classes found
      */
-    private void registerControllers() throws IOException, ClassNotFoundException {
+    private void registerControllers(List<Class<?>> controllerClasses) {
         logger.info("Registering controller classes from package: {}", basePackage);
-        List<Class<?>> controllerClasses = classScanner.findAnnotatedClasses(basePackage, Controller.class);
         registry.registerAll(controllerClasses);
         logger.info("Registered {} controller classes", controllerClasses.size());
     }
@@ -181,12 +254,10 @@ public class DIContainer {
     /**
      * Registers all global exception handler classes found in the classpath.
      *
-     * @throws IOException if classpath scanning fails
-     * @throws ClassNotFoundException if a class cannot be loaded
+     * @param handlerClasses The global exception handler classes found
      */
-    private void registerGlobalHandlers() throws IOException, ClassNotFoundException {
+    private void registerGlobalHandlers(List<Class<?>> handlerClasses) {
         logger.info("Registering global handler classes from package: {}", basePackage);
-        List<Class<?>> handlerClasses = classScanner.findAnnotatedClasses(basePackage, GlobalHandler.class);
         registry.registerAll(handlerClasses);
         logger.info("Registered {} global handler classes", handlerClasses.size());
     }
@@ -220,7 +291,9 @@ public class DIContainer {
         Validator validator = validationManager.getValidator();
         this.controllerMapper = new ControllerMapper(
                 exceptionHandlerRegistry,
-                parameterResolver
+                parameterResolver,
+                registry,
+                routeTable
         );
         logger.info("Initialized controller mapper");
     }
@@ -0,0 +1,34 @@
+package io.github.renatompf.ember.core.exception;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event spanning the invocation of an exception handler, committed by the
+ * {@link ExceptionHandlerMethod}.
+ */
+@Name("ember.ExceptionHandlerDispatch")
+@Label("Exception Handler Dispatch")
+@Category({"Ember", "Exceptions"})
+@Description("An exception was dispatched to a registered exception handler")
+@Enabled(false)
+@StackTrace(false)
+final class ExceptionHandlerEvent extends Event {
+    @Label("Exception")
+    Class<?> exception;
+
+    @Label("Handler")
+    Class<?> handler;
+
+    @Label("Handler Method")
+    String handlerMethod;
+
+    @Label("Failed")
+    @Description("Whether the handler itself threw an exception")
+    boolean failed;
+}
@@ -53,10 +53,40 @@ public class ExceptionHandlerMethod {
                 };
             }
 
-            return method.invoke(handler, args);
+            return invokeRecorded(exception, args);
         } catch (Exception e) {
             throw new Exception("Failed to invoke exception handler", e);
         }
     }
 
+    /**
+     * Invokes the handler method, recording an `ember.ExceptionHandlerDispatch` JFR event when enabled.
+     *
+     * @param exception The exception being handled.
+     * @param args      The arguments of the handler method.
+     * @return The result of the method invocation.
+     * @throws Exception If the invocation fails.
+     */
+    private Object invokeRecorded(Throwable exception, Object[] args) throws Exception {
+        ExceptionHandlerEvent event = new ExceptionHandlerEvent();
+        if (!event.isEnabled()) {
+            return method.invoke(handler, args);
+        }
+        event.begin();
+        try {
+            return method.invoke(handler, args);
+        } catch (Exception e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.exception = exception.getClass();
+                event.handler = handler.getClass();
+                event.handlerMethod = method.getName();
+                event.commit();
+            }
+        }
+    }
+
 }
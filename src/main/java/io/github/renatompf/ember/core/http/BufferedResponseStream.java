@@ -0,0 +1,87 @@
+package io.github.renatompf.ember.core.http;
+
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A response body stream which sends the response headers on demand.
+ * <p>
+ * Bytes are buffered until the stream is closed, so a small body is sent with a
+ * `Content-Length` header in a single write. Once the body outgrows the maximum buffer size the
+ * headers are sent for a chunked response and the rest of the body is streamed as it is written.
+ * </p>
+ */
+final class BufferedResponseStream extends OutputStream {
+    private static final int INITIAL_SIZE = 512;
+
+    private final ServerExchange exchange;
+    private final int statusCode;
+    private final int maxBufferSize;
+    private byte[] buffer = new byte[INITIAL_SIZE];
+    private int count;
+    private OutputStream direct;
+    private boolean closed;
+
+    /**
+     * Constructs a new BufferedResponseStream.
+     *
+     * @param exchange      The exchange to send the response on.
+     * @param statusCode    The status code of the response.
+     * @param maxBufferSize The maximum number of bytes buffered before the response is streamed.
+     */
+    BufferedResponseStream(ServerExchange exchange, int statusCode, int maxBufferSize) {
+        this.exchange = exchange;
+        this.statusCode = statusCode;
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Response body stream is closed");
+        }
+        if (direct != null) {
+            direct.write(b, offset, length);
+            return;
+        }
+        if (count + length > buffer.length) {
+            if (count + length > maxBufferSize) {
+                // Too large to buffer: stream the response from here on
+                exchange.sendResponseHeaders(statusCode, 0);
+                direct = exchange.getResponseBody();
+                direct.write(buffer, 0, count);
+                direct.write(b, offset, length);
+                buffer = null;
+                return;
+            }
+            buffer = Arrays.copyOf(buffer, Math.min(maxBufferSize, Math.max(buffer.length * 2, count + length)));
+        }
+        System.arraycopy(b, offset, buffer, count, length);
+        count += length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (direct == null) {
+            exchange.sendResponseHeaders(statusCode, count > 0 ? count : -1);
+            direct = exchange.getResponseBody();
+            if (count > 0) {
+                direct.write(buffer, 0, count);
+            }
+            buffer = null;
+        }
+        direct.close();
+    }
+}
@@ -0,0 +1,301 @@
+package io.github.renatompf.ember.core.http;
+
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import io.github.renatompf.ember.enums.MediaType;
+import io.github.renatompf.ember.enums.RequestHeader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A {@link ServerExchange} compressing the response body, installed by the {@link CompressionMiddleware}.
+ * <p>
+ * The decision is made when the response headers are sent, once the content type and length
+ * of the response are known. A body of known length is compressed in memory and sent with the
+ * compressed `Content-Length`; a streamed body is compressed on the fly, and every flush of the
+ * response stream sends everything written so far.
+ * </p>
+ */
+final class CompressingExchange implements ServerExchange {
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final ServerExchange delegate;
+    private final CompressionMiddleware config;
+    private final CompressionMiddleware.Coding coding;
+    private OutputStream responseBody;
+
+    /**
+     * Constructs a new CompressingExchange.
+     *
+     * @param delegate The exchange of the request.
+     * @param config   The compression middleware, holding the settings and deflater pools.
+     * @param coding   The coding negotiated with the client, or `null` if it accepts none.
+     */
+    CompressingExchange(ServerExchange delegate, CompressionMiddleware config, CompressionMiddleware.Coding coding) {
+        this.delegate = delegate;
+        this.config = config;
+        this.coding = coding;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return delegate.getRequestMethod();
+    }
+
+    @Override
+    public String getRequestProtocol() {
+        return delegate.getRequestProtocol();
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return delegate.getRequestURI();
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestHeaders() {
+        return delegate.getRequestHeaders();
+    }
+
+    @Override
+    public String getRequestHeader(String name) {
+        return delegate.getRequestHeader(name);
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return delegate.getRequestBody();
+    }
+
+    @Override
+    public String getResponseHeader(String name) {
+        return delegate.getResponseHeader(name);
+    }
+
+    @Override
+    public void setResponseHeader(String name, String value) {
+        delegate.setResponseHeader(name, value);
+    }
+
+    @Override
+    public void addResponseHeader(String name, String value) {
+        delegate.addResponseHeader(name, value);
+    }
+
+    @Override
+    public void sendResponseHeaders(int statusCode, long responseLength) throws IOException {
+        if (responseBody != null) {
+            throw new IOException("Response headers have already been sent");
+        }
+
+        boolean compressible = responseLength >= 0
+                && statusCode >= 200 && statusCode != 204 && statusCode != 304
+                && delegate.getResponseHeader(CompressionMiddleware.CONTENT_ENCODING) == null
+                && config.isCompressible(mediaType());
+        if (compressible) {
+            // The representation depends on Accept-Encoding, whether or not this client accepts a coding
+            addVary();
+        }
+
+        if (!compressible || coding == null || "HEAD".equals(delegate.getRequestMethod())
+                || (responseLength > 0 && responseLength < config.getMinSize())) {
+            delegate.sendResponseHeaders(statusCode, responseLength);
+            responseBody = delegate.getResponseBody();
+            return;
+        }
+
+        delegate.setResponseHeader(CompressionMiddleware.CONTENT_ENCODING, coding.token());
+        if (responseLength > 0) {
+            responseBody = new CompressingStream(new DeferredBody(statusCode, responseLength));
+        } else {
+            delegate.sendResponseHeaders(statusCode, 0);
+            responseBody = new CompressingStream(delegate.getResponseBody());
+        }
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        if (responseBody == null) {
+            throw new IllegalStateException("Response headers have not been sent");
+        }
+        return responseBody;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return delegate.getRemoteAddress();
+    }
+
+    @Override
+    public void close() {
+        if (responseBody instanceof CompressingStream) {
+            try {
+                responseBody.close();
+            } catch (IOException ignored) {
+                // The delegate is closed below anyway
+            }
+        }
+        delegate.close();
+    }
+
+    @Override
+    public void abort() {
+        // The compressed stream is left unfinished, as the body is, but its deflater is freed
+        if (responseBody instanceof CompressingStream compressing) {
+            compressing.abort();
+        }
+        delegate.abort();
+    }
+
+    private MediaType mediaType() {
+        String contentType = delegate.getResponseHeader(RequestHeader.CONTENT_TYPE.getHeaderName());
+        if (contentType == null) {
+            return null;
+        }
+        int parameters = contentType.indexOf(';');
+        return MediaType.fromString((parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim());
+    }
+
+    private void addVary() {
+        String vary = delegate.getResponseHeader(CompressionMiddleware.VARY);
+        String acceptEncoding = RequestHeader.ACCEPT_ENCODING.getHeaderName();
+        if (vary == null || vary.isBlank()) {
+            delegate.setResponseHeader(CompressionMiddleware.VARY, acceptEncoding);
+        } else if (!vary.equals("*") && !vary.toLowerCase().contains(acceptEncoding.toLowerCase())) {
+            delegate.setResponseHeader(CompressionMiddleware.VARY, vary + ", " + acceptEncoding);
+        }
+    }
+
+    /**
+     * Collects a compressed body of known length, sending it with its compressed length once closed.
+     */
+    private final class DeferredBody extends ByteArrayOutputStream {
+        private final int statusCode;
+        private boolean closed;
+
+        DeferredBody(int statusCode, long uncompressedLength) {
+            super((int) Math.min(uncompressedLength / 2 + 64, BUFFER_SIZE * 8));
+            this.statusCode = statusCode;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            delegate.sendResponseHeaders(statusCode, count);
+            try (OutputStream out = delegate.getResponseBody()) {
+                out.write(buf, 0, count);
+            }
+        }
+    }
+
+    /**
+     * Compresses everything written to it with the negotiated coding, using a pooled deflater.
+     */
+    private final class CompressingStream extends OutputStream {
+        private final OutputStream target;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final CRC32 crc;
+        private Deflater deflater;
+
+        CompressingStream(OutputStream target) throws IOException {
+            this.target = target;
+            this.deflater = config.pool(coding).acquire();
+            if (coding == CompressionMiddleware.Coding.GZIP) {
+                crc = new CRC32();
+                target.write(GZIP_HEADER);
+            } else {
+                crc = null;
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            if (deflater == null) {
+                throw new IOException("Response body stream is closed");
+            }
+            if (length == 0) {
+                return;
+            }
+            if (crc != null) {
+                crc.update(b, offset, length);
+            }
+            deflater.setInput(b, offset, length);
+            while (!deflater.needsInput()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (deflater != null) {
+                // A sync flush ends the current block so the client can decode everything written so far
+                while (deflate(Deflater.SYNC_FLUSH) == buffer.length) {
+                    // Keep going until the deflater has no pending output
+                }
+            }
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (deflater == null) {
+                return;
+            }
+            try {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate(Deflater.NO_FLUSH);
+                }
+                if (crc != null) {
+                    writeIntLE((int) crc.getValue());
+                    writeIntLE((int) deflater.getBytesRead());
+                }
+            } finally {
+                config.pool(coding).release(deflater);
+                deflater = null;
+                target.close();
+            }
+        }
+
+        /**
+         * Ends the deflater without finishing the compressed data. The deflater is not returned to
+         * the pool, as the thread writing the body may still be using it.
+         */
+        void abort() {
+            Deflater aborted = deflater;
+            if (aborted != null) {
+                deflater = null;
+                aborted.end();
+            }
+        }
+
+        private int deflate(int flush) throws IOException {
+            int produced = deflater.deflate(buffer, 0, buffer.length, flush);
+            if (produced > 0) {
+                target.write(buffer, 0, produced);
+            }
+            return produced;
+        }
+
+        private void writeIntLE(int value) throws IOException {
+            target.write(new byte[]{(byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24)});
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package io.github.renatompf.ember.core.http;
+
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.core.server.Middleware;
+import io.github.renatompf.ember.enums.MediaType;
+import io.github.renatompf.ember.enums.RequestHeader;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * Middleware compressing response bodies with `gzip` or `deflate`, as negotiated through the
+ * request's `Accept-Encoding` header.
+ * <p>
+ * Only responses whose content type is in the allowlist are compressed, and a body of known length
+ * is only compressed if it is at least the minimum size. Streamed bodies, whose length is unknown,
+ * are always compressed on the fly. Compressible responses carry `Vary: Accept-Encoding` so
+ * caches keep the compressed and uncompressed representations apart.
+ * </p>
+ * <p>
+ * The middleware wraps the exchange of the request, so it compresses whatever the
+ * {@link ResponseHandler} or later middleware send. It can be added as global middleware or
+ * declared on routes with `@WithMiddleware`, in which case its defaults apply.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * app.use(CompressionMiddleware.builder()
+ *         .minSize(2048)
+ *         .mediaTypes(MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN)
+ *         .build());
+ * }
+ * </pre>
+ */
+public class CompressionMiddleware implements Middleware {
+    static final String CONTENT_ENCODING = "Content-Encoding";
+    static final String VARY = "Vary";
+
+    private static final int DEFAULT_MIN_SIZE = 1024;
+    private static final int DEFAULT_POOL_SIZE = 64;
+
+    /**
+     * The content codings the middleware can apply, in order of preference.
+     */
+    enum Coding {
+        GZIP("gzip"),
+        DEFLATE("deflate");
+
+        private final String token;
+
+        Coding(String token) {
+            this.token = token;
+        }
+
+        String token() {
+            return token;
+        }
+    }
+
+    private final int minSize;
+    private final Set<MediaType> mediaTypes;
+    private final DeflaterPool gzipPool;
+    private final DeflaterPool deflatePool;
+
+    /**
+     * Constructs a CompressionMiddleware with the default settings: a minimum size of 1 KiB and
+     * the JSON, NDJSON, XML, plain text and HTML media types.
+     */
+    public CompressionMiddleware() {
+        this(builder());
+    }
+
+    private CompressionMiddleware(Builder builder) {
+        this.minSize = builder.minSize;
+        this.mediaTypes = EnumSet.copyOf(builder.mediaTypes);
+        this.gzipPool = new DeflaterPool(builder.level, true, builder.poolSize);
+        this.deflatePool = new DeflaterPool(builder.level, false, builder.poolSize);
+    }
+
+    /**
+     * Creates a builder for a CompressionMiddleware.
+     *
+     * @return A new builder, initialized with the default settings.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Negotiates the content coding and compresses the response of the rest of the chain.
+     *
+     * @param context The context of the request.
+     * @throws Exception If an error occurs in the rest of the chain.
+     */
+    @Override
+    public void handle(Context context) throws Exception {
+        Coding coding = negotiate(context.exchange().getRequestHeader(RequestHeader.ACCEPT_ENCODING.getHeaderName()));
+        context.decorateExchange(exchange -> new CompressingExchange(exchange, this, coding));
+        context.next();
+    }
+
+    /**
+     * Ends the pooled deflaters.
+     */
+    @Override
+    public void destroy() {
+        gzipPool.close();
+        deflatePool.close();
+    }
+
+    /**
+     * @return The minimum size, in bytes, of a body of known length to be compressed.
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * @return The media types of the responses that are compressed.
+     */
+    public Set<MediaType> getMediaTypes() {
+        return EnumSet.copyOf(mediaTypes);
+    }
+
+    boolean isCompressible(MediaType mediaType) {
+        return mediaType != null && mediaTypes.contains(mediaType);
+    }
+
+    DeflaterPool pool(Coding coding) {
+        return coding == Coding.GZIP ? gzipPool : deflatePool;
+    }
+
+    /**
+     * Chooses the content coding with the highest quality value in an `Accept-Encoding` header,
+     * preferring `gzip` on ties.
+     *
+     * @param acceptEncoding The value of the header, or `null` if the request has none.
+     * @return The chosen coding, or `null` if the client accepts neither.
+     */
+    static Coding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = -1;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String token = parts[0].trim().toLowerCase();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            switch (token) {
+                case "gzip", "x-gzip" -> gzip = Math.max(gzip, quality);
+                case "deflate" -> deflate = Math.max(deflate, quality);
+                case "*" -> wildcard = quality;
+                default -> {
+                    // Codings the middleware cannot apply are ignored
+                }
+            }
+        }
+
+        // Codings not listed take the quality of the wildcard, if there is one
+        if (gzip < 0) {
+            gzip = wildcard;
+        }
+        if (deflate < 0) {
+            deflate = wildcard;
+        }
+        if (gzip <= 0 && deflate <= 0) {
+            return null;
+        }
+        return gzip >= deflate ? Coding.GZIP : Coding.DEFLATE;
+    }
+
+    /**
+     * A builder for {@link CompressionMiddleware}.
+     */
+    public static class Builder {
+        private int minSize = DEFAULT_MIN_SIZE;
+        private EnumSet<MediaType> mediaTypes = EnumSet.of(
+                MediaType.APPLICATION_JSON,
+                MediaType.APPLICATION_NDJSON,
+                MediaType.APPLICATION_XML,
+                MediaType.TEXT_PLAIN,
+                MediaType.TEXT_HTML
+        );
+        private int level = Deflater.DEFAULT_COMPRESSION;
+        private int poolSize = DEFAULT_POOL_SIZE;
+
+        private Builder() {}
+
+        /**
+         * Sets the minimum size of a body of known length to be compressed; smaller bodies are
+         * sent as they are, since compressing them saves little and costs CPU time.
+         *
+         * @param minSize The minimum size in bytes.
+         * @return This builder.
+         */
+        public Builder minSize(int minSize) {
+            if (minSize < 0) {
+                throw new IllegalArgumentException("Minimum size must not be negative");
+            }
+            this.minSize = minSize;
+            return this;
+        }
+
+        /**
+         * Sets the media types of the responses that are compressed.
+         *
+         * @param mediaTypes The compressible media types.
+         * @return This builder.
+         */
+        public Builder mediaTypes(MediaType... mediaTypes) {
+            this.mediaTypes = EnumSet.noneOf(MediaType.class);
+            this.mediaTypes.addAll(Arrays.asList(mediaTypes));
+            return this;
+        }
+
+        /**
+         * Sets the compression level, from `0` to `9`, or `-1` for the default level.
+         *
+         * @param level The compression level.
+         * @return This builder.
+         */
+        public Builder level(int level) {
+            if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+                throw new IllegalArgumentException("Compression level must be between -1 and 9");
+            }
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of idle deflaters kept for reuse, per coding.
+         *
+         * @param poolSize The pool size.
+         * @return This builder.
+         */
+        public Builder poolSize(int poolSize) {
+            if (poolSize <= 0) {
+                throw new IllegalArgumentException("Pool size must be positive");
+            }
+            this.poolSize = poolSize;
+            return this;
+        }
+
+        /**
+         * Builds the middleware.
+         *
+         * @return A new CompressionMiddleware.
+         */
+        public CompressionMiddleware build() {
+            return new CompressionMiddleware(this);
+        }
+    }
+}
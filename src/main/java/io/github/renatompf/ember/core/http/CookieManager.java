@@ -1,13 +1,15 @@
 package io.github.renatompf.ember.core.http;
 
 import com.sun.net.httpserver.HttpExchange;
+import io.github.renatompf.ember.core.server.engine.JdkServerExchange;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
 
 /**
  * Manages HTTP cookies for requests and responses.
  * Provides methods to retrieve, set, and delete cookies.
  */
 public class CookieManager {
-    private final HttpExchange exchange;
+    private final ServerExchange exchange;
 
     /**
      * Constructs a new CookieManager instance.
@@ -15,6 +17,15 @@ public class CookieManager {
      * @param exchange The HTTP exchange object associated with the request and response.
      */
     public CookieManager(HttpExchange exchange) {
+        this(new JdkServerExchange(exchange));
+    }
+
+    /**
+     * Constructs a new CookieManager instance.
+     *
+     * @param exchange The server exchange associated with the request and response.
+     */
+    public CookieManager(ServerExchange exchange) {
         this.exchange = exchange;
     }
 
@@ -25,7 +36,7 @@ public class CookieManager {
      * @return The value of the cookie, or {@code null} if the cookie does not exist.
      */
     public String cookie(String name) {
-        String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+        String cookies = exchange.getRequestHeader("Cookie");
         if (cookies != null) {
             for (String cookie : cookies.split(";")) {
                 String[] parts = cookie.trim().split("=", 2);
@@ -46,7 +57,36 @@ public class CookieManager {
      */
     public void setCookie(String name, String value, int maxAge) {
         String cookie = name + "=" + value + "; Max-Age=" + maxAge + "; Path=/";
-        exchange.getResponseHeaders().add("Set-Cookie", cookie);
+        exchange.addResponseHeader("Set-Cookie", cookie);
+    }
+
+    /**
+     * Sets a cookie with the specified name, value, maximum age and security attributes.
+     *
+     * @param name     The name of the cookie.
+     * @param value    The value of the cookie.
+     * @param maxAge   The maximum age of the cookie in seconds, or a negative value to keep it
+     *                 until the browser is closed.
+     * @param secure   Whether the cookie is only sent over HTTPS.
+     * @param httpOnly Whether the cookie is hidden from scripts.
+     * @param sameSite The `SameSite` attribute of the cookie, or {@code null} to omit it.
+     */
+    public void setCookie(String name, String value, int maxAge, boolean secure, boolean httpOnly, String sameSite) {
+        StringBuilder cookie = new StringBuilder(name).append('=').append(value);
+        if (maxAge >= 0) {
+            cookie.append("; Max-Age=").append(maxAge);
+        }
+        cookie.append("; Path=/");
+        if (secure) {
+            cookie.append("; Secure");
+        }
+        if (httpOnly) {
+            cookie.append("; HttpOnly");
+        }
+        if (sameSite != null) {
+            cookie.append("; SameSite=").append(sameSite);
+        }
+        exchange.addResponseHeader("Set-Cookie", cookie.toString());
     }
 
     /**
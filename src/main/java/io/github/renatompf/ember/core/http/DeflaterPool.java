@@ -0,0 +1,71 @@
+package io.github.renatompf.ember.core.http;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * A bounded pool of {@link Deflater} instances sharing the same compression level and format.
+ * <p>
+ * A deflater allocates a sizeable native buffer, so reusing deflaters across responses avoids
+ * both the allocation and the native memory churn. Deflaters are reset when released; those
+ * released while the pool is full are ended straight away.
+ * </p>
+ */
+final class DeflaterPool {
+    private final int level;
+    private final boolean nowrap;
+    private final BlockingQueue<Deflater> idle;
+
+    /**
+     * Constructs a new DeflaterPool.
+     *
+     * @param level    The compression level of the deflaters.
+     * @param nowrap   `true` for raw deflate data, as used by gzip, `false` for the zlib format.
+     * @param capacity The maximum number of idle deflaters kept.
+     */
+    DeflaterPool(int level, boolean nowrap, int capacity) {
+        this.level = level;
+        this.nowrap = nowrap;
+        this.idle = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Takes an idle deflater, or creates one if none is available.
+     *
+     * @return A deflater ready to compress a new stream.
+     */
+    Deflater acquire() {
+        Deflater deflater = idle.poll();
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    /**
+     * Returns a deflater to the pool.
+     *
+     * @param deflater The deflater, which must not be used by the caller afterwards.
+     */
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @return The number of idle deflaters in the pool.
+     */
+    int getIdle() {
+        return idle.size();
+    }
+
+    /**
+     * Ends every idle deflater.
+     */
+    void close() {
+        Deflater deflater;
+        while ((deflater = idle.poll()) != null) {
+            deflater.end();
+        }
+    }
+}
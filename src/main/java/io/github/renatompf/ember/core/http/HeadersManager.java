@@ -1,6 +1,8 @@
 package io.github.renatompf.ember.core.http;
 
 import com.sun.net.httpserver.HttpExchange;
+import io.github.renatompf.ember.core.server.engine.JdkServerExchange;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
 
 import java.util.HashMap;
 import java.util.List;
@@ -11,7 +13,7 @@ import java.util.Map;
  * Provides methods to retrieve request headers and set response headers.
  */
 public class HeadersManager {
-    private final HttpExchange exchange;
+    private final ServerExchange exchange;
     private Map<String, String> headers;
 
     /**
@@ -20,6 +22,15 @@ public class HeadersManager {
      * @param exchange The HTTP exchange to manage headers for.
      */
     public HeadersManager(HttpExchange exchange) {
+        this(new JdkServerExchange(exchange));
+    }
+
+    /**
+     * Constructs a HeadersManager for the given server exchange.
+     *
+     * @param exchange The server exchange to manage headers for.
+     */
+    public HeadersManager(ServerExchange exchange) {
         this.exchange = exchange;
     }
 
@@ -63,6 +74,6 @@ public class HeadersManager {
      * @param value The value of the header to set.
      */
     public void setHeader(String key, String value) {
-        exchange.getResponseHeaders().set(key, value);
+        exchange.setResponseHeader(key, value);
     }
 }
\ No newline at end of file
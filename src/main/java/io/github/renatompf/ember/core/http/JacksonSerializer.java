@@ -0,0 +1,73 @@
+package io.github.renatompf.ember.core.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link ResponseSerializer} backed by a Jackson {@link ObjectMapper}, used for both JSON and XML.
+ * <p>
+ * An {@link ObjectWriter} is built once for every response type and cached, so serializing a
+ * response skips the mapper's per-call writer lookup. Responses are written straight to the
+ * output stream as bytes.
+ * </p>
+ * <p>
+ * Streamed responses are written value by value through a {@link SequenceWriter}.
+ * </p>
+ */
+public class JacksonSerializer implements ResponseSerializer {
+    private final ObjectMapper mapper;
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final ObjectWriter sequenceWriter;
+
+    /**
+     * Constructs a new JacksonSerializer.
+     *
+     * @param mapper The mapper to serialize with. It must not be reconfigured afterwards.
+     */
+    public JacksonSerializer(ObjectMapper mapper) {
+        this.mapper = mapper;
+        // The caller decides when a streamed response is flushed
+        this.sequenceWriter = mapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public String serialize(Object obj) throws Exception {
+        return writerFor(obj).writeValueAsString(obj);
+    }
+
+    @Override
+    public void write(Object obj, OutputStream out) throws Exception {
+        writerFor(obj).writeValue(out, obj);
+    }
+
+    /**
+     * Opens a writer serializing a sequence of values to a stream. Closing the sequence writer
+     * does not close the stream.
+     *
+     * @param out   The stream to write to.
+     * @param array `true` to wrap the values in an array, `false` to write one value per line.
+     * @return The sequence writer.
+     * @throws IOException If the writer cannot be opened.
+     */
+    public SequenceWriter writeSequence(OutputStream out, boolean array) throws IOException {
+        if (array) {
+            return sequenceWriter.writeValuesAsArray(out);
+        }
+        return sequenceWriter.withRootValueSeparator("\n").writeValues(out);
+    }
+
+    private ObjectWriter writerFor(Object obj) {
+        return writers.computeIfAbsent(obj.getClass(),
+                type -> mapper.writerFor(type).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+    }
+}
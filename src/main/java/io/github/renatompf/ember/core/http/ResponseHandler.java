@@ -1,38 +1,39 @@
 package io.github.renatompf.ember.core.http;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.sun.net.httpserver.HttpExchange;
+import io.github.renatompf.ember.core.server.engine.JdkServerExchange;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
 import io.github.renatompf.ember.enums.HttpStatusCode;
 import io.github.renatompf.ember.enums.MediaType;
 import io.github.renatompf.ember.enums.RequestHeader;
 import io.github.renatompf.ember.exceptions.HttpException;
 
-import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 
 /**
  * Handles HTTP responses for the Ember framework.
  * <p>
- * This class is responsible for sending JSON and plain text responses to the client.
- * It uses Jackson for JSON serialization and manages HTTP headers appropriately.
+ * This class is responsible for serializing response bodies and sending them to the client.
+ * Serializers are looked up in the application's {@link SerializerRegistry} and write the body
+ * as bytes straight to the response stream.
+ * </p>
+ * <p>
+ * A {@link StreamingBody}, {@link java.util.stream.Stream}, {@link java.util.Iterator} or
+ * {@link java.util.concurrent.Flow.Publisher} body is streamed with chunked transfer encoding.
+ * The elements of a sequence are written as a JSON array for `application/json`, and one per
+ * line for `application/x-ndjson` and other media types.
  * </p>
  */
 public class ResponseHandler {
-    private final HttpExchange exchange;
-    private final Map<MediaType, ResponseSerializer> serializers;
+    /** The maximum size of a body sent with a `Content-Length` header; larger bodies are chunked. */
+    private static final int MAX_BUFFERED_BODY = 64 * 1024;
 
-    private static final ObjectMapper jsonMapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-    // XML mapper for XML serialization
-    private static final XmlMapper xmlMapper = new XmlMapper();
+    private final ServerExchange exchange;
+    private final SerializerRegistry serializers;
+    // Serializers registered on this handler only, created on first registration
+    private Map<MediaType, ResponseSerializer> customSerializers;
 
     /**
      * Constructor for ResponseHandler.
@@ -40,57 +41,52 @@ public class ResponseHandler {
      * @param exchange The HttpExchange object representing the HTTP request and response.
      */
     public ResponseHandler(HttpExchange exchange) {
-        this.exchange = exchange;
-        this.serializers = initializeSerializers();
+        this(new JdkServerExchange(exchange));
     }
 
     /**
-     * Initializes the default serializers for various media types.
+     * Constructor for ResponseHandler using the default serializers.
      *
-     * @return A map of media types to their corresponding serializers.
+     * @param exchange The server exchange representing the HTTP request and response.
      */
-    private Map<MediaType, ResponseSerializer> initializeSerializers() {
-        Map<MediaType, ResponseSerializer> map = new HashMap<>();
-
-        // JSON Serializer
-        map.put(MediaType.APPLICATION_JSON, jsonMapper::writeValueAsString);
-
-        // XML Serializer
-        map.put(MediaType.APPLICATION_XML, xmlMapper::writeValueAsString);
-
-        // Plain Text Serializer
-        map.put(MediaType.TEXT_PLAIN, Object::toString);
-
-        return map;
+    public ResponseHandler(ServerExchange exchange) {
+        this(exchange, SerializerRegistry.defaults());
     }
 
     /**
-     * Registers a custom serializer for a specific media type.
+     * Constructor for ResponseHandler.
      *
-     * @param mediaType The media type to register the serializer for.
-     * @param serializer The serializer to use for the specified media type.
+     * @param exchange    The server exchange representing the HTTP request and response.
+     * @param serializers The serializers of the application.
      */
-    private void registerSerializer(MediaType mediaType, ResponseSerializer serializer) {
-        serializers.put(mediaType, serializer);
+    public ResponseHandler(ServerExchange exchange, SerializerRegistry serializers) {
+        this.exchange = exchange;
+        this.serializers = serializers;
     }
 
     /**
-     * Registers a custom serializer for a specific media type.
+     * Registers a custom serializer for a specific media type, for this response only.
      *
      * @param mediaType The media type to register the serializer for.
      * @param serializer The serializer to use for the specified media type.
+     * @deprecated Register serializers once for the whole application with
+     * {@link io.github.renatompf.ember.EmberApplication#serializer(MediaType, ResponseSerializer)}.
      */
+    @Deprecated
     public void registerCustomSerializer(String mediaType, ResponseSerializer serializer) {
         MediaType type = MediaType.fromString(mediaType);
         if (type == null) {
             throw new IllegalArgumentException("Invalid media type: " + mediaType);
         }
 
-        if (serializers.containsKey(type)) {
+        if (serializers.supports(type) || (customSerializers != null && customSerializers.containsKey(type))) {
             throw new IllegalArgumentException("Media type already registered: " + mediaType);
         }
 
-        registerSerializer(type, serializer);
+        if (customSerializers == null) {
+            customSerializers = new EnumMap<>(MediaType.class);
+        }
+        customSerializers.put(type, serializer);
     }
 
     /**
@@ -110,7 +106,7 @@ public class ResponseHandler {
 
             String contentType = response.getContentType();
             if (contentType == null || contentType.isEmpty()) {
-                String first = exchange.getResponseHeaders().getFirst(RequestHeader.ACCEPT.getHeaderName());
+                String first = exchange.getResponseHeader(RequestHeader.ACCEPT.getHeaderName());
                 contentType = first != null ? first : MediaType.APPLICATION_JSON.getType();
             }
 
@@ -119,44 +115,39 @@ public class ResponseHandler {
                 mediaType = MediaType.APPLICATION_JSON; // default
             }
 
-            ResponseSerializer serializer = serializers.get(mediaType);
-            if (serializer == null) {
+            boolean streaming = StreamingResponseWriter.isStreaming(response.getBody());
+            ResponseSerializer serializer = findSerializer(
+                    // Each line of an NDJSON stream is a JSON value
+                    streaming && mediaType == MediaType.APPLICATION_NDJSON ? MediaType.APPLICATION_JSON : mediaType);
+            if (serializer == null && !(response.getBody() instanceof StreamingBody)) {
                 throw new HttpException(
                         HttpStatusCode.UNSUPPORTED_MEDIA_TYPE,
                         "Unsupported media type: " + mediaType
                 );
             }
 
-            String serializedResponse = serializer.serialize(response.getBody());
-            exchange.getResponseHeaders().set(
+            exchange.setResponseHeader(
                     RequestHeader.CONTENT_TYPE.getHeaderName(),
                     mediaType.getType()
             );
-            send(serializedResponse, response.getStatusCode().getCode());
+            if (streaming) {
+                new StreamingResponseWriter(exchange).write(response.getStatusCode().getCode(),
+                        response.getBody(), serializer, mediaType == MediaType.APPLICATION_JSON);
+                return;
+            }
+
+            // Not closed if serialization fails, so nothing is sent unless the body was too large to buffer
+            OutputStream os = new BufferedResponseStream(exchange, response.getStatusCode().getCode(), MAX_BUFFERED_BODY);
+            serializer.write(response.getBody(), os);
+            os.close();
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to send response", e);
         }
     }
 
-
-    /**
-     * Sends a response to the client with the specified body and status code.
-     *
-     * @param body       The response body as a string.
-     * @param statusCode The HTTP status code to send.
-     */
-    private void send(String body, int statusCode) {
-        try {
-            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(statusCode, bytes.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(bytes);
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to send response", e);
-        }
+    private ResponseSerializer findSerializer(MediaType mediaType) {
+        ResponseSerializer serializer = customSerializers != null ? customSerializers.get(mediaType) : null;
+        return serializer != null ? serializer : serializers.get(mediaType);
     }
-
-
-}
\ No newline at end of file
+}
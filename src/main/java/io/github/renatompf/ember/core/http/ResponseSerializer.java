@@ -1,5 +1,8 @@
 package io.github.renatompf.ember.core.http;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Interface for serializing objects into a specific format.
  * <p>
@@ -7,6 +10,11 @@ package io.github.renatompf.ember.core.http;
  * Implementations of this interface can provide different serialization formats (e.g., JSON, XML).
  * </p>
  * <p>
+ * Responses are written through {@link #write(Object, OutputStream)}, which by default encodes
+ * the string representation as UTF-8. Serializers able to produce bytes directly should override
+ * it to avoid building the intermediate string.
+ * </p>
+ * <p>
  * Example usage:
  * </p>
  * <pre>
@@ -27,4 +35,15 @@ public interface ResponseSerializer {
      * @throws Exception if serialization fails.
      */
     String serialize(Object obj) throws Exception;
+
+    /**
+     * Serializes the given object and writes the result to a stream. The stream is not closed.
+     *
+     * @param obj The object to serialize.
+     * @param out The stream to write to.
+     * @throws Exception if serialization fails.
+     */
+    default void write(Object obj, OutputStream out) throws Exception {
+        out.write(serialize(obj).getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,124 @@
+package io.github.renatompf.ember.core.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.renatompf.ember.enums.MediaType;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable mapping of media types to the {@link ResponseSerializer}s producing them.
+ * <p>
+ * A registry is built once per application, when it starts, and shared by every request.
+ * It serializes JSON and XML with Jackson and plain text with `toString()`, unless the
+ * application registers its own serializers.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * SerializerRegistry registry = SerializerRegistry.builder()
+ *         .register(MediaType.TEXT_HTML, html::render)
+ *         .build();
+ * }
+ * </pre>
+ */
+public final class SerializerRegistry {
+
+    private static final SerializerRegistry DEFAULTS = builder().build();
+
+    private final Map<MediaType, ResponseSerializer> serializers;
+
+    private SerializerRegistry(Map<MediaType, ResponseSerializer> serializers) {
+        this.serializers = new EnumMap<>(serializers);
+    }
+
+    /**
+     * Returns the registry holding the default serializers only.
+     *
+     * @return The default registry.
+     */
+    public static SerializerRegistry defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Creates a new builder holding the default serializers.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Retrieves the serializer for a media type.
+     *
+     * @param mediaType The media type.
+     * @return The serializer, or `null` if none is registered for the media type.
+     */
+    public ResponseSerializer get(MediaType mediaType) {
+        return serializers.get(mediaType);
+    }
+
+    /**
+     * Checks whether a serializer is registered for a media type.
+     *
+     * @param mediaType The media type.
+     * @return `true` if a serializer is registered, `false` otherwise.
+     */
+    public boolean supports(MediaType mediaType) {
+        return serializers.containsKey(mediaType);
+    }
+
+    /**
+     * A builder for {@link SerializerRegistry}.
+     */
+    public static class Builder {
+        private final Map<MediaType, ResponseSerializer> serializers = new EnumMap<>(MediaType.class);
+        private final Set<MediaType> registered = EnumSet.noneOf(MediaType.class);
+
+        private Builder() {
+            ObjectMapper jsonMapper = new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            serializers.put(MediaType.APPLICATION_JSON, new JacksonSerializer(jsonMapper));
+            serializers.put(MediaType.APPLICATION_XML, new JacksonSerializer(new XmlMapper()));
+            serializers.put(MediaType.TEXT_PLAIN, Object::toString);
+        }
+
+        /**
+         * Registers a serializer for a media type, replacing the default one if any.
+         *
+         * @param mediaType  The media type to register the serializer for.
+         * @param serializer The serializer to use for the media type.
+         * @return The builder instance.
+         * @throws IllegalArgumentException If a serializer has already been registered for the media type.
+         */
+        public Builder register(MediaType mediaType, ResponseSerializer serializer) {
+            Objects.requireNonNull(mediaType, "mediaType");
+            Objects.requireNonNull(serializer, "serializer");
+            if (!registered.add(mediaType)) {
+                throw new IllegalArgumentException("Media type already registered: " + mediaType.getType());
+            }
+            serializers.put(mediaType, serializer);
+            return this;
+        }
+
+        /**
+         * Builds the registry.
+         *
+         * @return A new SerializerRegistry.
+         */
+        public SerializerRegistry build() {
+            return new SerializerRegistry(serializers);
+        }
+    }
+}
@@ -1,66 +1,166 @@
 package io.github.renatompf.ember.core.http;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import io.github.renatompf.ember.core.session.Session;
+import io.github.renatompf.ember.core.session.SessionCookie;
+import io.github.renatompf.ember.core.session.SessionStore;
 
 /**
- * The `SessionManager` class is responsible for managing user sessions.
- * It provides methods to create, retrieve, update, and invalidate sessions.
- * Each session is identified by a unique session ID and stores attributes as key-value pairs.
+ * The `SessionManager` class is responsible for managing the session of a request.
+ * <p>
+ * The session is identified by a cookie, read and written through the {@link CookieManager}, so
+ * callers never handle session IDs. A session is looked up in the {@link SessionStore} when first
+ * accessed, and only created, along with its cookie, when an attribute is set or
+ * {@link #session()} is called. Reading an attribute never creates a session, and IDs not issued
+ * by the store are ignored.
+ * </p>
+ * <p>
+ * Changes to the session are saved to the store once the request completes.
+ * </p>
  */
 public class SessionManager {
+    private final SessionStore store;
+    private final CookieManager cookies;
+    private final SessionCookie cookie;
+    private Session session;
+    private boolean resolved;
 
-    // A thread-safe map to store sessions, where each session is a map of attributes.
-    private static final Map<String, Map<String, Object>> sessions = new ConcurrentHashMap<>();
+    /**
+     * Constructs a new SessionManager for a request.
+     *
+     * @param store   The store of the sessions.
+     * @param cookies The cookies of the request.
+     * @param cookie  The settings of the session cookie.
+     */
+    public SessionManager(SessionStore store, CookieManager cookies, SessionCookie cookie) {
+        this.store = store;
+        this.cookies = cookies;
+        this.cookie = cookie;
+    }
 
     /**
-     * Retrieves the session associated with the given session ID.
-     * If the session does not exist, a new one is created.
+     * Retrieves the session of the request, creating it if the client has none.
+     * A new session is sent to the client in the session cookie.
      *
+     * @return The session of the request.
      */
-    public SessionManager() {}
+    public Session session() {
+        Session current = findSession();
+        if (current == null) {
+            current = store.create();
+            cookies.setCookie(cookie.getName(), current.getId(), cookie.getMaxAge(),
+                    cookie.isSecure(), true, cookie.getSameSite());
+            session = current;
+        }
+        return current;
+    }
 
     /**
-     * Retrieves the session associated with the given session ID.
-     * If the session does not exist, a new one is created.
+     * Retrieves the session of the request without creating one.
      *
-     * @param sessionId The unique identifier for the session.
-     * @return A map representing the session attributes.
+     * @return The session of the request, or `null` if the client has none or it expired.
      */
-    public Map<String, Object> session(String sessionId) {
-        return sessions.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>());
+    public Session findSession() {
+        if (!resolved) {
+            String id = cookies.cookie(cookie.getName());
+            session = isWellFormed(id) ? store.find(id) : null;
+            resolved = true;
+        }
+        return session;
     }
 
     /**
-     * Sets an attribute in the session identified by the given session ID.
-     * If the session does not exist, it is created.
+     * Sets an attribute in the session of the request, creating the session if needed.
      *
-     * @param sessionId The unique identifier for the session.
-     * @param key       The key of the attribute to set.
-     * @param value     The value of the attribute to set.
+     * @param key   The key of the attribute to set.
+     * @param value The value of the attribute to set, or `null` to remove it.
      */
-    public void setSessionAttribute(String sessionId, String key, Object value) {
-        session(sessionId).put(key, value);
+    public void setSessionAttribute(String key, Object value) {
+        if (value == null) {
+            removeSessionAttribute(key);
+            return;
+        }
+        session().setAttribute(key, value);
     }
 
     /**
-     * Retrieves the value of an attribute from the session identified by the given session ID.
+     * Retrieves the value of an attribute from the session of the request.
      *
-     * @param sessionId The unique identifier for the session.
-     * @param key       The key of the attribute to retrieve.
-     * @return The value of the attribute, or `null` if the attribute does not exist.
+     * @param key The key of the attribute to retrieve.
+     * @return The value of the attribute, or `null` if the attribute or the session does not exist.
      */
-    public Object sessionAttribute(String sessionId, String key) {
-        return session(sessionId).get(key);
+    public Object sessionAttribute(String key) {
+        Session current = findSession();
+        return current != null ? current.attribute(key) : null;
     }
 
     /**
-     * Invalidates the session identified by the given session ID.
-     * This removes all attributes associated with the session.
+     * Removes an attribute from the session of the request, if any.
      *
-     * @param sessionId The unique identifier for the session.
+     * @param key The key of the attribute to remove.
+     */
+    public void removeSessionAttribute(String key) {
+        Session current = findSession();
+        if (current != null) {
+            current.removeAttribute(key);
+        }
+    }
+
+    /**
+     * Gives the session of the request a new ID, keeping its attributes. Meant to be called when
+     * a user logs in, so an ID known before cannot be used to take over the session.
+     *
+     * @return The session with its new ID.
+     */
+    public Session renewSession() {
+        Session previous = findSession();
+        Session renewed = store.create();
+        if (previous != null) {
+            previous.attributes().forEach(renewed::setAttribute);
+            store.invalidate(previous.getId());
+        }
+        cookies.setCookie(cookie.getName(), renewed.getId(), cookie.getMaxAge(),
+                cookie.isSecure(), true, cookie.getSameSite());
+        session = renewed;
+        resolved = true;
+        return renewed;
+    }
+
+    /**
+     * Invalidates the session of the request, removing it from the store and the client.
+     */
+    public void invalidateSession() {
+        Session current = findSession();
+        if (current != null) {
+            store.invalidate(current.getId());
+            cookies.setCookie(cookie.getName(), "", 0, cookie.isSecure(), true, cookie.getSameSite());
+            session = null;
+        }
+    }
+
+    /**
+     * Saves the session of the request to the store if it changed. Called by the server once the
+     * request completes.
+     */
+    public void commit() {
+        if (session != null && session.isModified()) {
+            store.save(session);
+        }
+    }
+
+    /**
+     * Checks that a cookie value can be a session ID, so malformed values are rejected without
+     * a lookup.
      */
-    public void invalidateSession(String sessionId) {
-        sessions.remove(sessionId);
+    private static boolean isWellFormed(String id) {
+        if (id == null || id.length() < 16 || id.length() > 128) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package io.github.renatompf.ember.core.http;
+
+import java.io.OutputStream;
+
+/**
+ * A response body written incrementally by the application.
+ * <p>
+ * A streaming body is sent with chunked transfer encoding, so the client receives the bytes as
+ * they are written instead of once the whole body has been produced. Calling `flush()` on the
+ * stream sends the bytes written so far.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * @Get("/export")
+ * public Response<StreamingBody> export() {
+ *     return Response.ok()
+ *             .contentType(MediaType.OCTET_STREAM)
+ *             .body((StreamingBody) out -> exporter.writeTo(out))
+ *             .build();
+ * }
+ * }
+ * </pre>
+ */
+@FunctionalInterface
+public interface StreamingBody {
+
+    /**
+     * Writes the body to the response stream. The stream is closed by the framework afterwards.
+     *
+     * @param out The response stream.
+     * @throws Exception If the body cannot be written.
+     */
+    void writeTo(OutputStream out) throws Exception;
+}
@@ -0,0 +1,387 @@
+package io.github.renatompf.ember.core.http;
+
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Writes streamed response bodies with chunked transfer encoding.
+ * <p>
+ * Supported bodies are a {@link StreamingBody}, and a {@link Stream}, {@link Iterator} or
+ * {@link Flow.Publisher} whose elements are serialized one at a time, either as a JSON array or
+ * as one value per line. Buffered bytes are flushed after the first element, whenever the flush
+ * interval has elapsed, and whenever a publisher has no element ready.
+ * </p>
+ * <p>
+ * The response is committed before the body is produced, so a failure while producing it can
+ * no longer change the status code: the error is logged, the elements produced so far are sent
+ * and the exchange is {@linkplain ServerExchange#abort() aborted} without ending the body, so the
+ * client sees a truncated response rather than a complete one. A publisher that signals nothing
+ * for thirty seconds is treated as failed. When the client disconnects, production stops, the
+ * exchange is aborted and a publisher's subscription is cancelled.
+ * </p>
+ */
+final class StreamingResponseWriter {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingResponseWriter.class);
+
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    /** The number of elements requested from a publisher at a time. */
+    private static final int PUBLISHER_BATCH = 16;
+    /** How long a publisher may go without a signal before the response is aborted. */
+    private static final long PUBLISHER_IDLE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final Object COMPLETE = new Object();
+
+    private final ServerExchange exchange;
+
+    /**
+     * Constructs a new StreamingResponseWriter.
+     *
+     * @param exchange The exchange to send the response on.
+     */
+    StreamingResponseWriter(ServerExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    /**
+     * Checks whether a response body is streamed.
+     *
+     * @param body The response body.
+     * @return `true` if the body is written by this class, `false` otherwise.
+     */
+    static boolean isStreaming(Object body) {
+        return body instanceof StreamingBody
+                || body instanceof Stream<?>
+                || body instanceof Iterator<?>
+                || body instanceof Flow.Publisher<?>;
+    }
+
+    /**
+     * Sends the response headers and streams the body.
+     *
+     * @param statusCode The status code of the response.
+     * @param body       The streamed body.
+     * @param serializer The serializer of the elements of a sequence body.
+     * @param array      `true` to write a sequence as an array, `false` to write one element per line.
+     * @throws IOException If the response headers cannot be sent.
+     */
+    void write(int statusCode, Object body, ResponseSerializer serializer, boolean array) throws IOException {
+        exchange.sendResponseHeaders(statusCode, 0);
+        ClientStream out = new ClientStream(exchange.getResponseBody());
+        Sink sink = null;
+        try {
+            if (body instanceof StreamingBody streamingBody) {
+                streamingBody.writeTo(out);
+            } else {
+                sink = serializer instanceof JacksonSerializer jackson
+                        ? new SequenceSink(jackson.writeSequence(out, array), out, array)
+                        : new SerializerSink(serializer, out, array);
+                if (body instanceof Flow.Publisher<?> publisher) {
+                    drain(publisher, sink);
+                } else if (body instanceof Stream<?> stream) {
+                    try (stream) {
+                        drain(stream.iterator(), sink);
+                    }
+                } else {
+                    drain((Iterator<?>) body, sink);
+                }
+                sink.finish();
+            }
+            out.close();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (out.failed) {
+                logger.debug("Client disconnected while streaming the response: {}", e.getMessage());
+            } else {
+                logger.error("Failed to produce the streamed response body; the response is truncated", e);
+                if (sink != null) {
+                    // Send the elements produced before the failure
+                    sink.flushQuietly();
+                }
+            }
+            // Closing the stream would end the body as if it were complete
+            exchange.abort();
+        }
+    }
+
+    private void drain(Iterator<?> iterator, Sink sink) throws Exception {
+        try {
+            while (iterator.hasNext()) {
+                sink.write(iterator.next());
+                sink.flushIfDue();
+            }
+        } finally {
+            if (iterator instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void drain(Flow.Publisher<?> publisher, Sink sink) throws Exception {
+        QueueingSubscriber subscriber = new QueueingSubscriber();
+        publisher.subscribe(subscriber);
+        Flow.Subscription subscription;
+        try {
+            subscription = subscriber.subscription.get(PUBLISHER_IDLE_TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw new IOException("Publisher failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("Publisher did not call onSubscribe in time");
+        }
+
+        boolean completed = false;
+        try {
+            // Requests are only ever made from this thread, so they are serialized as the specification requires
+            subscription.request(PUBLISHER_BATCH);
+            int outstanding = PUBLISHER_BATCH;
+            while (true) {
+                Object next = subscriber.queue.poll();
+                if (next == null) {
+                    // Nothing ready: send what has been written while waiting for the publisher
+                    sink.flush();
+                    // The deadline of the request interrupts this wait; without one, an idle publisher is given up on
+                    next = subscriber.queue.poll(PUBLISHER_IDLE_TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        throw new IOException("Publisher produced no signal in "
+                                + TimeUnit.NANOSECONDS.toSeconds(PUBLISHER_IDLE_TIMEOUT_NANOS) + "s");
+                    }
+                }
+                if (next == COMPLETE) {
+                    completed = true;
+                    return;
+                }
+                if (next instanceof Failure failure) {
+                    completed = true;
+                    throw new IOException("Publisher failed", failure.cause());
+                }
+                sink.write(next);
+                sink.flushIfDue();
+                if (--outstanding <= PUBLISHER_BATCH / 2) {
+                    subscription.request(PUBLISHER_BATCH - outstanding);
+                    outstanding = PUBLISHER_BATCH;
+                }
+            }
+        } finally {
+            if (!completed) {
+                subscription.cancel();
+            }
+        }
+    }
+
+    /**
+     * A failure signalled by a publisher.
+     *
+     * @param cause The failure.
+     */
+    private record Failure(Throwable cause) {}
+
+    /**
+     * A subscriber handing the publisher's signals over to the writing thread.
+     */
+    private static final class QueueingSubscriber implements Flow.Subscriber<Object> {
+        private final CompletableFuture<Flow.Subscription> subscription = new CompletableFuture<>();
+        private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (!this.subscription.complete(subscription)) {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onNext(Object item) {
+            queue.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // A publisher may fail before calling onSubscribe
+            subscription.completeExceptionally(throwable);
+            queue.add(new Failure(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            queue.add(COMPLETE);
+        }
+    }
+
+    /**
+     * Writes the elements of a sequence body.
+     */
+    private abstract static class Sink {
+        private final boolean array;
+        private long lastFlush = System.nanoTime();
+        private boolean flushed;
+        protected int count;
+
+        Sink(boolean array) {
+            this.array = array;
+        }
+
+        abstract void write(Object item) throws Exception;
+
+        abstract void flush() throws IOException;
+
+        abstract void finish() throws Exception;
+
+        boolean array() {
+            return array;
+        }
+
+        void flushQuietly() {
+            try {
+                flush();
+            } catch (IOException ignored) {
+                // The response is ended right after anyway
+            }
+        }
+
+        void flushIfDue() throws IOException {
+            long now = System.nanoTime();
+            if (!flushed || now - lastFlush >= FLUSH_INTERVAL_NANOS) {
+                flush();
+                flushed = true;
+                lastFlush = now;
+            }
+        }
+    }
+
+    /**
+     * Writes elements through a Jackson {@link SequenceWriter}.
+     */
+    private static final class SequenceSink extends Sink {
+        private final SequenceWriter writer;
+        private final OutputStream out;
+
+        SequenceSink(SequenceWriter writer, OutputStream out, boolean array) {
+            super(array);
+            this.writer = writer;
+            this.out = out;
+        }
+
+        @Override
+        void write(Object item) throws IOException {
+            writer.write(item);
+            count++;
+        }
+
+        @Override
+        void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.close();
+            if (!array() && count > 0) {
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes elements with any {@link ResponseSerializer}, adding the separators itself.
+     */
+    private static final class SerializerSink extends Sink {
+        private final ResponseSerializer serializer;
+        private final OutputStream out;
+
+        SerializerSink(ResponseSerializer serializer, OutputStream out, boolean array) {
+            super(array);
+            this.serializer = serializer;
+            this.out = out;
+        }
+
+        @Override
+        void write(Object item) throws Exception {
+            if (array()) {
+                out.write(count == 0 ? '[' : ',');
+            }
+            serializer.write(item, out);
+            if (!array()) {
+                out.write('\n');
+            }
+            count++;
+        }
+
+        @Override
+        void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (array()) {
+                out.write(count == 0 ? new byte[]{'[', ']'} : new byte[]{']'});
+            }
+        }
+    }
+
+    /**
+     * The response stream, remembering whether writing to the client failed.
+     */
+    private static final class ClientStream extends OutputStream {
+        private final OutputStream delegate;
+        private boolean failed;
+
+        ClientStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            try {
+                delegate.write(b);
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            try {
+                delegate.write(b, offset, length);
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            try {
+                delegate.flush();
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+    }
+}
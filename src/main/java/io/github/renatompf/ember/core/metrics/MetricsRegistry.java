@@ -0,0 +1,217 @@
+package io.github.renatompf.ember.core.metrics;
+
+import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.enums.HttpMethod;
+import io.github.renatompf.ember.enums.MediaType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the metrics of an application and renders them in the Prometheus text format.
+ * <p>
+ * Requests are recorded per route, identified by the HTTP method and the path pattern the route
+ * was registered with, so the number of series does not grow with the paths clients send.
+ * Requests matching no route are recorded under the route `unmatched`. Looking up the metrics
+ * of a route that has already been seen does not allocate.
+ * </p>
+ * <p>
+ * Other components can expose their own values as gauges or counters read when the metrics
+ * are rendered, such as the request executor's queue length.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * EmberApplication app = new EmberApplication();
+ * app.metrics("/metrics");
+ * }
+ * </pre>
+ */
+public class MetricsRegistry {
+    /** The route under which requests matching no route are recorded. */
+    public static final String UNMATCHED = "unmatched";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final Set<String> KNOWN_METHODS = Arrays.stream(HttpMethod.values())
+            .map(HttpMethod::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final Map<String, Map<String, RouteMetrics>> routes = new ConcurrentHashMap<>();
+    private final List<Sampled> sampled = new CopyOnWriteArrayList<>();
+
+    /**
+     * A value read when the metrics are rendered.
+     *
+     * @param name    The metric name.
+     * @param help    The description of the metric.
+     * @param type    The Prometheus type of the metric.
+     * @param value   Supplies the current value.
+     */
+    private record Sampled(String name, String help, String type, LongSupplier value) {}
+
+    /**
+     * Returns the metrics of a route, creating them on first use.
+     *
+     * @param method  The HTTP method of the request; unknown methods are recorded as `OTHER`.
+     * @param pattern The path pattern of the matched route, or `null` if no route matched.
+     * @return The metrics of the route.
+     */
+    public RouteMetrics route(String method, String pattern) {
+        String route = pattern != null ? pattern : UNMATCHED;
+        if (!KNOWN_METHODS.contains(method)) {
+            // Clients must not be able to create series at will
+            method = "OTHER";
+        }
+        Map<String, RouteMetrics> byPattern = routes.get(method);
+        if (byPattern == null) {
+            byPattern = routes.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+        }
+        RouteMetrics metrics = byPattern.get(route);
+        if (metrics == null) {
+            String label = method;
+            metrics = byPattern.computeIfAbsent(route, key -> new RouteMetrics(label, key));
+        }
+        return metrics;
+    }
+
+    /**
+     * Exposes a value that can go up and down.
+     *
+     * @param name  The metric name.
+     * @param help  The description of the metric.
+     * @param value Supplies the current value.
+     * @return The registry instance.
+     */
+    public MetricsRegistry gauge(String name, String help, LongSupplier value) {
+        sampled.add(new Sampled(name, help, "gauge", value));
+        return this;
+    }
+
+    /**
+     * Exposes a value that only goes up.
+     *
+     * @param name  The metric name.
+     * @param help  The description of the metric.
+     * @param value Supplies the current value.
+     * @return The registry instance.
+     */
+    public MetricsRegistry counter(String name, String help, LongSupplier value) {
+        sampled.add(new Sampled(name, help, "counter", value));
+        return this;
+    }
+
+    /**
+     * Renders all metrics in the Prometheus text exposition format.
+     *
+     * @return The rendered metrics.
+     */
+    public String render() {
+        List<RouteMetrics> all = new ArrayList<>();
+        routes.values().forEach(byPattern -> all.addAll(byPattern.values()));
+        all.sort((a, b) -> a.getRoute().equals(b.getRoute())
+                ? a.getMethod().compareTo(b.getMethod())
+                : a.getRoute().compareTo(b.getRoute()));
+
+        StringBuilder out = new StringBuilder(1024);
+        header(out, "ember_http_requests_total", "Requests handled, by route and status code.", "counter");
+        for (RouteMetrics route : all) {
+            route.forEachStatus((status, count) -> {
+                sample(out, "ember_http_requests_total", route, "status", String.valueOf(status));
+                out.append(count).append('\n');
+            });
+        }
+
+        header(out, "ember_http_request_duration_seconds", "Time taken to handle requests, by route.", "summary");
+        for (RouteMetrics route : all) {
+            LatencyHistogram latency = route.getLatency();
+            long[] values = latency.quantiles(QUANTILES);
+            for (int i = 0; i < QUANTILES.length; i++) {
+                sample(out, "ember_http_request_duration_seconds", route, "quantile", QUANTILE_LABELS[i]);
+                out.append(values[i] / NANOS_PER_SECOND).append('\n');
+            }
+            sample(out, "ember_http_request_duration_seconds_sum", route, null, null);
+            out.append(latency.getSum() / NANOS_PER_SECOND).append('\n');
+            sample(out, "ember_http_request_duration_seconds_count", route, null, null);
+            out.append(latency.getCount()).append('\n');
+        }
+
+        header(out, "ember_http_requests_in_flight", "Requests being handled, by route.", "gauge");
+        for (RouteMetrics route : all) {
+            sample(out, "ember_http_requests_in_flight", route, null, null);
+            out.append(route.getInFlight()).append('\n');
+        }
+
+        header(out, "ember_http_request_bytes_total", "Size of the request bodies received, by route.", "counter");
+        for (RouteMetrics route : all) {
+            sample(out, "ember_http_request_bytes_total", route, null, null);
+            out.append(route.getRequestBytes()).append('\n');
+        }
+
+        header(out, "ember_http_response_bytes_total", "Size of the response bodies sent, by route.", "counter");
+        for (RouteMetrics route : all) {
+            sample(out, "ember_http_response_bytes_total", route, null, null);
+            out.append(route.getResponseBytes()).append('\n');
+        }
+
+        for (Sampled metric : sampled) {
+            header(out, metric.name(), metric.help(), metric.type());
+            out.append(metric.name()).append(' ').append(metric.value().getAsLong()).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Returns a handler serving the rendered metrics, to be registered as a route.
+     *
+     * @return The handler.
+     */
+    public Consumer<Context> handler() {
+        return context -> context.response().handleResponse(Response.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(render())
+                .build());
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Writes the name and labels of a route sample, followed by a space.
+     */
+    private static void sample(StringBuilder out, String name, RouteMetrics route, String label, String value) {
+        out.append(name).append("{method=\"").append(route.getMethod()).append("\",route=\"");
+        escape(out, route.getRoute());
+        out.append('"');
+        if (label != null) {
+            out.append(',').append(label).append("=\"").append(value).append('"');
+        }
+        out.append("} ");
+    }
+
+    private static void escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+}
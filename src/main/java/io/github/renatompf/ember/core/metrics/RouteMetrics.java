@@ -0,0 +1,143 @@
+package io.github.renatompf.ember.core.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a single route, identified by its HTTP method and path pattern.
+ * <p>
+ * Every counter is a {@link LongAdder}, so recording scales with the number of cores; the
+ * counter of a status code is created the first time the route answers with it.
+ * </p>
+ */
+public final class RouteMetrics {
+    private static final int MAX_STATUS = 600;
+
+    private final String method;
+    private final String route;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final AtomicReferenceArray<LongAdder> statuses = new AtomicReferenceArray<>(MAX_STATUS);
+
+    /**
+     * Constructs a new RouteMetrics.
+     *
+     * @param method The HTTP method of the route.
+     * @param route  The path pattern of the route.
+     */
+    RouteMetrics(String method, String route) {
+        this.method = method;
+        this.route = route;
+    }
+
+    /**
+     * Marks a request to the route as started.
+     */
+    public void requestStarted() {
+        inFlight.increment();
+    }
+
+    /**
+     * Records a completed request to the route.
+     *
+     * @param status        The status code of the response, or `0` if no response was sent.
+     * @param nanos         The time taken to handle the request, in nanoseconds.
+     * @param requestBytes  The size of the request body.
+     * @param responseBytes The size of the response body.
+     */
+    public void requestCompleted(int status, long nanos, long requestBytes, long responseBytes) {
+        inFlight.decrement();
+        latency.record(nanos);
+        if (requestBytes > 0) {
+            this.requestBytes.add(requestBytes);
+        }
+        if (responseBytes > 0) {
+            this.responseBytes.add(responseBytes);
+        }
+        if (status > 0 && status < MAX_STATUS) {
+            LongAdder counter = statuses.get(status);
+            if (counter == null) {
+                statuses.compareAndSet(status, null, new LongAdder());
+                counter = statuses.get(status);
+            }
+            counter.increment();
+        }
+    }
+
+    /**
+     * @return The HTTP method of the route.
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return The path pattern of the route.
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * @return The histogram of the time taken by requests to the route.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return The number of requests to the route being handled.
+     */
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * @return The total size of the request bodies received by the route.
+     */
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    /**
+     * @return The total size of the response bodies sent by the route.
+     */
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    /**
+     * Returns the number of responses the route sent with a status code.
+     *
+     * @param status The status code.
+     * @return The number of responses with that status code.
+     */
+    public long getStatusCount(int status) {
+        LongAdder counter = status > 0 && status < MAX_STATUS ? statuses.get(status) : null;
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Visits the number of responses per status code, for the status codes the route answered with.
+     *
+     * @param visitor Called with every status code and its count, in increasing order.
+     */
+    void forEachStatus(StatusVisitor visitor) {
+        for (int status = 0; status < MAX_STATUS; status++) {
+            LongAdder counter = statuses.get(status);
+            if (counter != null) {
+                visitor.visit(status, counter.sum());
+            }
+        }
+    }
+
+    /**
+     * Receives the count of a status code.
+     */
+    @FunctionalInterface
+    interface StatusVisitor {
+        void visit(int status, long count);
+    }
+}
@@ -1,18 +1,43 @@
 package io.github.renatompf.ember.core.parameter;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import io.github.renatompf.ember.enums.HttpStatusCode;
 import io.github.renatompf.ember.enums.MediaType;
 import io.github.renatompf.ember.exceptions.HttpException;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
 /**
  * BodyManager is responsible for parsing the request body based on its content type.
  * It supports JSON, XML, and plain text formats.
+ * <p>
+ * The body is backed by the request stream and is only read when it is asked for, either
+ * through {@link #parseBodyAs(Class)} or one of the explicit views ({@link #stream()},
+ * {@link #channel()}, {@link #bytes()}). JSON and XML bodies are parsed while they are read
+ * from the stream, without holding the body in memory. Only {@link #bytes()} buffers the body, up
+ * to a configurable number of bytes.
+ * </p>
  */
 public class BodyManager {
-    private final String body;
+    /**
+     * The default maximum number of bytes that may be buffered in memory by {@link #bytes()}.
+     */
+    public static final int DEFAULT_MAX_BUFFERED_BYTES = 10 * 1024 * 1024;
+
+    private final InputStream source;
     private final String contentType;
+    private final int maxBufferedBytes;
+    private byte[] buffered;
+    private boolean consumed;
+    private Object parsed;
     private static final ObjectMapper jsonMapper = new ObjectMapper();
     private static final XmlMapper xmlMapper = new XmlMapper();
 
@@ -23,30 +48,155 @@ public class BodyManager {
      * @param contentType The content type of the request body.
      */
     public BodyManager(String body, String contentType) {
-        this.body = body;
+        this.source = InputStream.nullInputStream();
         this.contentType = contentType;
+        this.maxBufferedBytes = DEFAULT_MAX_BUFFERED_BYTES;
+        this.buffered = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constructs a BodyManager backed by the given request stream.
+     *
+     * @param body        The request body stream.
+     * @param contentType The content type of the request body.
+     */
+    public BodyManager(InputStream body, String contentType) {
+        this(body, contentType, DEFAULT_MAX_BUFFERED_BYTES);
+    }
+
+    /**
+     * Constructs a BodyManager backed by the given request stream, with a custom buffering limit.
+     *
+     * @param body             The request body stream.
+     * @param contentType      The content type of the request body.
+     * @param maxBufferedBytes The maximum number of bytes that may be buffered in memory by
+     *                         {@link #bytes()}.
+     */
+    public BodyManager(InputStream body, String contentType, int maxBufferedBytes) {
+        this.source = body == null ? InputStream.nullInputStream() : body;
+        this.contentType = contentType;
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    /**
+     * Returns the request body as a stream.
+     * <p>
+     * The underlying request stream can only be consumed once. If the body has already been
+     * buffered through {@link #bytes()}, a new stream over the buffered content is returned.
+     * </p>
+     *
+     * @return The request body stream.
+     * @throws IllegalStateException If the request stream has already been consumed.
+     */
+    public InputStream stream() {
+        if (buffered != null) {
+            return new ByteArrayInputStream(buffered);
+        }
+        if (consumed) {
+            throw new IllegalStateException("Request body has already been consumed");
+        }
+        consumed = true;
+        return source;
+    }
+
+    /**
+     * Returns the request body as a readable byte channel.
+     *
+     * @return A channel over the request body stream.
+     * @throws IllegalStateException If the request stream has already been consumed.
+     */
+    public ReadableByteChannel channel() {
+        return Channels.newChannel(stream());
+    }
+
+    /**
+     * Reads the whole request body into memory.
+     * <p>
+     * The result is cached, so subsequent calls, as well as {@link #stream()} and
+     * {@link #parseBodyAs(Class)}, reuse the buffered content.
+     * </p>
+     *
+     * @return The request body as a byte array.
+     * @throws HttpException If the body exceeds the maximum number of buffered bytes.
+     * @throws IllegalStateException If the request stream has already been consumed.
+     */
+    public byte[] bytes() {
+        if (buffered != null) {
+            return buffered;
+        }
+
+        try (InputStream in = stream()) {
+            byte[] content = in.readNBytes(maxBufferedBytes + 1);
+            if (content.length > maxBufferedBytes) {
+                throw new HttpException(HttpStatusCode.PAYLOAD_TOO_LARGE,
+                        "Request body exceeds the limit of " + maxBufferedBytes + " bytes");
+            }
+            buffered = content;
+            return buffered;
+        } catch (IOException e) {
+            throw new HttpException(HttpStatusCode.BAD_REQUEST, "Failed to read request body: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the whole request body into memory and decodes it as UTF-8.
+     *
+     * @return The request body as a string.
+     * @throws HttpException If the body exceeds the maximum number of buffered bytes.
+     */
+    public String asString() {
+        return new String(bytes(), StandardCharsets.UTF_8);
     }
 
     /**
      * Parses the request body into an object of the specified class type.
+     * <p>
+     * JSON and XML bodies are parsed while they are read from the request stream, which is then
+     * read to its end. The parsed value is kept, so that the body can be parsed again into the same
+     * type. To parse it into other types as well, buffer it first through {@link #bytes()}.
+     * </p>
      *
      * @param <T>   The type of the object to parse the body into.
      * @param clazz The class type to parse the body into.
      * @return An instance of the specified class type populated with data from the request body.
-     * @throws HttpException If the content type is unsupported or the body cannot be parsed.
+     * @throws HttpException If the content type is unsupported, the body cannot be parsed, or a
+     * plain text body exceeds the maximum number of buffered bytes.
      */
     public <T> T parseBodyAs(Class<T> clazz) {
         try {
             if (contentType == null || contentType.equals(MediaType.APPLICATION_JSON.getType())) {
-                return jsonMapper.readValue(body, clazz);
+                return parseWith(jsonMapper, clazz);
             } else if (contentType.contains(MediaType.APPLICATION_XML.getType())) {
-                return xmlMapper.readValue(body, clazz);
+                return parseWith(xmlMapper, clazz);
             } else if (contentType.equals(MediaType.TEXT_PLAIN.getType())) {
-                return clazz.getConstructor(String.class).newInstance(body);
+                return clazz.getConstructor(String.class).newInstance(asString());
             }
             throw new HttpException(HttpStatusCode.UNSUPPORTED_MEDIA_TYPE, "Unsupported Content-Type: " + contentType);
+        } catch (HttpException e) {
+            if (e.getStatus() == HttpStatusCode.PAYLOAD_TOO_LARGE) {
+                throw e;
+            }
+            throw new HttpException(HttpStatusCode.BAD_REQUEST, "Failed to parse request body: " + e.getMessage());
         } catch (Exception e) {
             throw new HttpException(HttpStatusCode.BAD_REQUEST, "Failed to parse request body: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private <T> T parseWith(ObjectMapper mapper, Class<T> clazz) throws IOException {
+        if (buffered != null) {
+            return mapper.readValue(buffered, clazz);
+        }
+        if (clazz.isInstance(parsed)) {
+            // Parsed from the stream already, by middleware before the controller for example
+            return clazz.cast(parsed);
+        }
+        InputStream in = stream();
+        T value = mapper.readerFor(clazz).without(JsonParser.Feature.AUTO_CLOSE_SOURCE).readValue(in);
+        // Only a body that could be parsed is read to its end, so that the connection can be reused
+        try (in) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        parsed = value;
+        return value;
+    }
+}
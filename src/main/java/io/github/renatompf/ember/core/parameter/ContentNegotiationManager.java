@@ -8,7 +8,6 @@ import io.github.renatompf.ember.enums.MediaType;
 import io.github.renatompf.ember.exceptions.HttpException;
 
 import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -30,13 +29,22 @@ public class ContentNegotiationManager {
      * @throws HttpException if the Content-Type is not supported.
      */
     public void validateContentType(Context context, Method method) {
+        validateContentType(context, supportedConsumes(method));
+    }
+
+    /**
+     * Validates the Content-Type of the incoming request against a
+     * pre-resolved list of supported types.
+     *
+     * @param context  The context of the HTTP request.
+     * @param consumes The supported media types, or `null` if the method accepts any type.
+     * @throws HttpException if the Content-Type is not supported.
+     */
+    public void validateContentType(Context context, List<MediaType> consumes) {
         String contentType = context.headers().header("Content-Type");
-        Consumes consumesAnnotation = method.getAnnotation(Consumes.class);
-        
-        if (consumesAnnotation != null && contentType != null) {
+        if (consumes != null && contentType != null) {
             MediaType requestContentType = MediaType.fromString(contentType);
-            if (requestContentType == null || 
-                !Arrays.asList(consumesAnnotation.value()).contains(requestContentType)) {
+            if (requestContentType == null || !consumes.contains(requestContentType)) {
                 throw new HttpException(
                     HttpStatusCode.UNSUPPORTED_MEDIA_TYPE,
                     "Unsupported Media Type: " + contentType
@@ -55,20 +63,31 @@ public class ContentNegotiationManager {
      * @throws HttpException if none of the supported media types are acceptable.
      */
     public MediaType negotiateResponseType(Context context, Method method) {
-        Produces producesAnnotation = method.getAnnotation(Produces.class);
-        if (producesAnnotation == null) {
+        return negotiateResponseType(context, supportedProduces(method));
+    }
+
+    /**
+     * Negotiates the response type based on the Accept header in the request
+     * and a pre-resolved list of supported types.
+     *
+     * @param context  The context of the HTTP request.
+     * @param produces The supported media types, or `null` if the method does not declare any.
+     * @return The negotiated MediaType for the response.
+     * @throws HttpException if none of the supported media types are acceptable.
+     */
+    public MediaType negotiateResponseType(Context context, List<MediaType> produces) {
+        if (produces == null) {
             return MediaType.APPLICATION_JSON; // default
         }
 
         String accept = context.headers().header("Accept");
         if (accept == null || accept.isEmpty() || accept.equals("*/*")) {
-            return producesAnnotation.value()[0];
+            return produces.getFirst();
         }
 
-        List<MediaType> supported = Arrays.asList(producesAnnotation.value());
         for (String acceptType : accept.split(",")) {
             MediaType mediaType = MediaType.fromString(acceptType.trim());
-            if (mediaType != null && supported.contains(mediaType)) {
+            if (mediaType != null && produces.contains(mediaType)) {
                 return mediaType;
             }
         }
@@ -78,4 +97,26 @@ public class ContentNegotiationManager {
             "None of the supported media types are acceptable"
         );
     }
+
+    /**
+     * Resolves the media types a method can consume from its @Consumes annotation.
+     *
+     * @param method The method to inspect.
+     * @return An immutable list of supported media types, or `null` if the method is not annotated.
+     */
+    public List<MediaType> supportedConsumes(Method method) {
+        Consumes consumesAnnotation = method.getAnnotation(Consumes.class);
+        return consumesAnnotation == null ? null : List.of(consumesAnnotation.value());
+    }
+
+    /**
+     * Resolves the media types a method can produce from its @Produces annotation.
+     *
+     * @param method The method to inspect.
+     * @return An immutable list of supported media types, or `null` if the method is not annotated.
+     */
+    public List<MediaType> supportedProduces(Method method) {
+        Produces producesAnnotation = method.getAnnotation(Produces.class);
+        return producesAnnotation == null ? null : List.of(producesAnnotation.value());
+    }
 }
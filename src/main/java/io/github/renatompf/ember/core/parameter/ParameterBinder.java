@@ -0,0 +1,22 @@
+package io.github.renatompf.ember.core.parameter;
+
+import io.github.renatompf.ember.core.server.Context;
+
+/**
+ * A functional interface representing a pre-resolved binding for a single method parameter.
+ * <p>
+ * Binders are created once per controller method by the {@link ParameterResolver}, so the
+ * annotations and type of the parameter are inspected at mapping time rather than on every request.
+ * </p>
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+
+    /**
+     * Produces the value of the parameter for the given request context.
+     *
+     * @param context The HTTP request context.
+     * @return The bound parameter value, or `null` if no value is available.
+     */
+    Object bind(Context context);
+}
@@ -8,7 +8,13 @@ import io.github.renatompf.ember.utils.TypeConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -17,6 +23,10 @@ import java.util.Map;
  * <p>
  * It handles path parameters, query parameters, and request body parsing.
  * </p>
+ * <p>
+ * A query parameter bound to a `List`, `Collection` or array receives every value of a
+ * repeated key, such as `[1, 2]` for `?id=1&amp;id=2`, each converted to the element type.
+ * </p>
  */
 public class ParameterResolver {
     private static final Logger logger = LoggerFactory.getLogger(ParameterResolver.class);
@@ -30,37 +40,53 @@ public class ParameterResolver {
      */
     public Object resolveParameter(Parameter parameter, Context context) {
         logger.debug("Resolving parameter {} of type {}", parameter.getName(), parameter.getType().getName());
+        return binderFor(parameter).bind(context);
+    }
+
+    /**
+     * Creates a binder for a method parameter based on its annotations and type.
+     * <p>
+     * The annotations are inspected once, so the returned binder can be reused for every
+     * request handled by the method.
+     * </p>
+     *
+     * @param parameter The method parameter to create a binder for.
+     * @return The binder producing the parameter value from a request context.
+     */
+    public ParameterBinder binderFor(Parameter parameter) {
+        Class<?> type = parameter.getType();
 
         // Handle Context parameter
-        if (parameter.getType().isAssignableFrom(Context.class)) {
-            return context;
+        if (type.isAssignableFrom(Context.class)) {
+            return context -> context;
         }
 
-        Object result = null;
-
-        // Handle path parameters
-        PathParameter pathParam = parameter.getAnnotation(PathParameter.class);
-        if (pathParam != null) {
-            result = resolvePathParameter(pathParam, parameter, context.pathParams().pathParams());
+        // Handle request body
+        if (parameter.isAnnotationPresent(RequestBody.class)) {
+            return context -> context.body().parseBodyAs(type);
         }
 
         // Handle query parameters
         QueryParameter queryParam = parameter.getAnnotation(QueryParameter.class);
         if (queryParam != null) {
-            result = resolveQueryParameter(queryParam, parameter, context.queryParams().queryParams());
-        }
-
-        // Handle request body
-        if (parameter.isAnnotationPresent(RequestBody.class)) {
-            Class<?> type = parameter.getType();
-            result = context.body().parseBodyAs(type);
+            if (type == List.class || type == Collection.class) {
+                Class<?> elementType = elementType(parameter);
+                return context -> resolveQueryParameterList(queryParam, elementType, context.queryParams());
+            }
+            if (type.isArray()) {
+                return context -> resolveQueryParameterArray(queryParam, type.getComponentType(), context.queryParams());
+            }
+            return context -> resolveQueryParameter(queryParam, parameter, context.queryParams());
         }
 
-        if (result == null) {
-            logger.debug("Parameter {} of type {} is not supported", parameter.getName(), parameter.getType().getName());
+        // Handle path parameters
+        PathParameter pathParam = parameter.getAnnotation(PathParameter.class);
+        if (pathParam != null) {
+            return context -> resolvePathParameter(pathParam, parameter, context.pathParams().pathParams());
         }
 
-        return result;
+        logger.debug("Parameter {} of type {} is not supported", parameter.getName(), type.getName());
+        return context -> null;
     }
 
     /**
@@ -88,12 +114,13 @@ public class ParameterResolver {
      *
      * @param annotation   The QueryParameter annotation.
      * @param parameter    The method parameter.
-     * @param queryParams  The map of query parameters.
-     * @return The resolved parameter value, or `null` if not found.
+     * @param queryParams  The query parameters of the request.
+     * @return The resolved parameter value.
+     * @throws IllegalArgumentException if the query parameter is not provided.
      */
-    private Object resolveQueryParameter(QueryParameter annotation, Parameter parameter, Map<String, String> queryParams) {
+    private Object resolveQueryParameter(QueryParameter annotation, Parameter parameter, QueryParameterManager queryParams) {
         String paramName = annotation.value();
-        String paramValue = queryParams.get(paramName);
+        String paramValue = queryParams.queryParam(paramName);
 
         if (paramValue == null) {
             logger.debug("Required query parameter {} not provided, returning null.", paramName);
@@ -102,4 +129,56 @@ public class ParameterResolver {
 
         return TypeConverter.convert(paramValue, parameter.getType());
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolves every value of a query parameter into a list.
+     *
+     * @param annotation  The QueryParameter annotation.
+     * @param elementType The type to convert each value to.
+     * @param queryParams The query parameters of the request.
+     * @return The converted values, or an empty list if the query parameter is not provided.
+     */
+    private List<Object> resolveQueryParameterList(QueryParameter annotation, Class<?> elementType,
+                                                   QueryParameterManager queryParams) {
+        List<String> paramValues = queryParams.queryParamValues(annotation.value());
+        List<Object> values = new ArrayList<>(paramValues.size());
+        for (String paramValue : paramValues) {
+            values.add(TypeConverter.convert(paramValue, elementType));
+        }
+        return values;
+    }
+
+    /**
+     * Resolves every value of a query parameter into an array.
+     *
+     * @param annotation    The QueryParameter annotation.
+     * @param componentType The component type of the array.
+     * @param queryParams   The query parameters of the request.
+     * @return The converted values, or an empty array if the query parameter is not provided.
+     */
+    private Object resolveQueryParameterArray(QueryParameter annotation, Class<?> componentType,
+                                              QueryParameterManager queryParams) {
+        List<String> paramValues = queryParams.queryParamValues(annotation.value());
+        Object values = Array.newInstance(componentType, paramValues.size());
+        for (int i = 0; i < paramValues.size(); i++) {
+            Array.set(values, i, TypeConverter.convert(paramValues.get(i), componentType));
+        }
+        return values;
+    }
+
+    /**
+     * Determines the element type of a `List` or `Collection` parameter, falling back to
+     * `String` when it is raw or not a class.
+     *
+     * @param parameter The method parameter.
+     * @return The element type.
+     */
+    private static Class<?> elementType(Parameter parameter) {
+        Type type = parameter.getParameterizedType();
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> elementType) {
+            return elementType;
+        }
+        return String.class;
+    }
+}
@@ -1,16 +1,44 @@
 package io.github.renatompf.ember.core.parameter;
 
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Manages query parameters extracted from a URL query string.
  * Provides methods to retrieve query parameter values.
+ * <p>
+ * The query string is parsed lazily: the first lookup scans it once, recording where each key
+ * and value starts and ends, and values are only URL-decoded when they are asked for. Keys
+ * without escapes are compared in place, so looking up a few parameters of a long query does
+ * not decode or copy the others. A key may appear several times; {@link #queryParamValues}
+ * returns all of its values in order.
+ * </p>
  */
 public class QueryParameterManager {
-    // Stores the parsed query parameters as key-value pairs
-    private final Map<String, String> queryParams;
+    /** The ints recorded per parameter in {@link #offsets}. */
+    private static final int STRIDE = 5;
+    private static final int KEY_START = 0;
+    private static final int KEY_END = 1;
+    private static final int VALUE_START = 2;
+    private static final int VALUE_END = 3;
+    private static final int FLAGS = 4;
+    /** Set in the flags of a parameter whose key contains `%` or `+`. */
+    private static final int KEY_ENCODED = 1;
+    /** Set in the flags of a parameter whose value contains `%` or `+`. */
+    private static final int VALUE_ENCODED = 2;
+
+    private final String query;
+    /** The positions of each parameter in the query, {@link #STRIDE} ints per parameter. */
+    private int[] offsets;
+    private int count = -1;
+    /** The decoded keys of parameters with escaped keys, decoded when first compared. */
+    private String[] decodedKeys;
+    private Map<String, String> queryParams;
 
     /**
      * Constructs a QueryParameterManager with the given query string.
@@ -18,27 +46,96 @@ public class QueryParameterManager {
      * @param query The query string to parse (e.g., "key1=value1&amp;key2=value2").
      */
     public QueryParameterManager(String query) {
-        this.queryParams = parseQueryParams(query);
+        this.query = query;
+    }
+
+    /**
+     * Scans the query string once, recording the positions of every parameter.
+     */
+    private void scan() {
+        if (count >= 0) {
+            return;
+        }
+        count = 0;
+        if (query == null || query.isEmpty()) {
+            offsets = new int[0];
+            return;
+        }
+
+        offsets = new int[STRIDE * 8];
+        int length = query.length();
+        int start = 0;
+        int equals = -1;
+        int flags = 0;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? query.charAt(i) : '&';
+            if (c == '&') {
+                // Empty pairs, as in `a=1&&b=2`, are skipped
+                if (i > start) {
+                    add(start, equals, i, flags);
+                }
+                start = i + 1;
+                equals = -1;
+                flags = 0;
+            } else if (c == '=' && equals < 0) {
+                equals = i;
+            } else if (c == '%' || c == '+') {
+                flags |= equals < 0 ? KEY_ENCODED : VALUE_ENCODED;
+            }
+        }
+    }
+
+    private void add(int start, int equals, int end, int flags) {
+        int base = count * STRIDE;
+        if (base + STRIDE > offsets.length) {
+            int[] grown = new int[offsets.length * 2];
+            System.arraycopy(offsets, 0, grown, 0, offsets.length);
+            offsets = grown;
+        }
+        offsets[base + KEY_START] = start;
+        offsets[base + KEY_END] = equals >= 0 ? equals : end;
+        // A parameter without `=` has an empty value
+        offsets[base + VALUE_START] = equals >= 0 ? equals + 1 : end;
+        offsets[base + VALUE_END] = end;
+        offsets[base + FLAGS] = flags;
+        count++;
     }
 
     /**
-     * Parses the query string into a map of key-value pairs.
+     * Checks whether the key of a parameter is the given name.
      *
-     * @param query The query string to parse.
-     * @return A map containing the parsed query parameters.
+     * @param index The index of the parameter.
+     * @param name  The decoded name.
+     * @return `true` if the parameter has this name, `false` otherwise.
      */
-    private Map<String, String> parseQueryParams(String query) {
-        Map<String, String> params = new HashMap<>();
-        if (query == null || query.isEmpty()) return params;
+    private boolean keyMatches(int index, String name) {
+        int base = index * STRIDE;
+        if ((offsets[base + FLAGS] & KEY_ENCODED) == 0) {
+            int start = offsets[base + KEY_START];
+            int length = offsets[base + KEY_END] - start;
+            return length == name.length() && query.regionMatches(start, name, 0, length);
+        }
+        return key(index).equals(name);
+    }
 
-        // Split the query string into key-value pairs
-        for (String pair : query.split("&")) {
-            String[] keyValue = pair.split("=", 2);
-            String key = decode(keyValue[0]); // Decode the key
-            String value = keyValue.length > 1 ? decode(keyValue[1]) : ""; // Decode the value or use an empty string
-            params.put(key, value);
+    private String key(int index) {
+        int base = index * STRIDE;
+        if ((offsets[base + FLAGS] & KEY_ENCODED) == 0) {
+            return query.substring(offsets[base + KEY_START], offsets[base + KEY_END]);
         }
-        return params;
+        if (decodedKeys == null) {
+            decodedKeys = new String[count];
+        }
+        if (decodedKeys[index] == null) {
+            decodedKeys[index] = decode(query.substring(offsets[base + KEY_START], offsets[base + KEY_END]));
+        }
+        return decodedKeys[index];
+    }
+
+    private String value(int index) {
+        int base = index * STRIDE;
+        String raw = query.substring(offsets[base + VALUE_START], offsets[base + VALUE_END]);
+        return (offsets[base + FLAGS] & VALUE_ENCODED) != 0 ? decode(raw) : raw;
     }
 
     /**
@@ -48,26 +145,62 @@ public class QueryParameterManager {
      * @return The decoded string.
      */
     private String decode(String s) {
-        return URLDecoder.decode(s, java.nio.charset.StandardCharsets.UTF_8);
+        return URLDecoder.decode(s, StandardCharsets.UTF_8);
     }
 
     /**
-     * Retrieves the value of a query parameter by its key.
+     * Retrieves the value of a query parameter by its key. If the key appears several times,
+     * the last value is returned.
      *
      * @param key The name of the query parameter to retrieve.
      * @return The value of the query parameter, or null if not present.
      */
     public String queryParam(String key) {
-        return queryParams.get(key);
+        scan();
+        for (int i = count - 1; i >= 0; i--) {
+            if (keyMatches(i, key)) {
+                return value(i);
+            }
+        }
+        return null;
     }
 
     /**
-     * Retrieves all query parameters as a map.
+     * Retrieves all values of a query parameter, such as `1` and `2` for `?id=1&amp;id=2`.
+     *
+     * @param key The name of the query parameter to retrieve.
+     * @return The values of the query parameter in the order they appear, or an empty list if not present.
+     */
+    public List<String> queryParamValues(String key) {
+        scan();
+        List<String> values = null;
+        for (int i = 0; i < count; i++) {
+            if (keyMatches(i, key)) {
+                if (values == null) {
+                    values = new ArrayList<>(2);
+                }
+                values.add(value(i));
+            }
+        }
+        return values != null ? Collections.unmodifiableList(values) : List.of();
+    }
+
+    /**
+     * Retrieves all query parameters as a map. This decodes every parameter; if a key appears
+     * several times, the last value is kept.
      *
      * @return A map containing all query parameters.
      */
     public Map<String, String> queryParams() {
+        if (queryParams == null) {
+            scan();
+            Map<String, String> params = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                params.put(key(i), value(i));
+            }
+            queryParams = params;
+        }
         return queryParams;
     }
 
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package io.github.renatompf.ember.core.routing;
 import io.github.renatompf.ember.core.server.MiddlewareChain;
 import io.github.renatompf.ember.enums.HttpMethod;
 
+import java.time.Duration;
 import java.util.Objects;
 
 /**
@@ -20,6 +21,12 @@ public class RouteEntry {
     /** The middleware chain to handle requests for this route. */
     private final MiddlewareChain middlewareChain;
 
+    /** The name of the executor requests to this route run on, or `null` for the default one. */
+    private final String executor;
+
+    /** The maximum time requests to this route may take, or `null` for the application's default. */
+    private final Duration timeout;
+
     /**
      * Constructs a new `RouteEntry` with the specified HTTP method, path, and middleware chain.
      *
@@ -28,9 +35,36 @@ public class RouteEntry {
      * @param middlewareChain The middleware chain to handle requests for this route.
      */
     public RouteEntry(HttpMethod method, String path, MiddlewareChain middlewareChain) {
+        this(method, path, middlewareChain, null);
+    }
+
+    /**
+     * Constructs a new `RouteEntry` whose requests run on a named executor.
+     *
+     * @param method          The HTTP method for the route.
+     * @param path            The path pattern for the route.
+     * @param middlewareChain The middleware chain to handle requests for this route.
+     * @param executor        The name of the executor, or `null` for the default one.
+     */
+    public RouteEntry(HttpMethod method, String path, MiddlewareChain middlewareChain, String executor) {
+        this(method, path, middlewareChain, executor, null);
+    }
+
+    /**
+     * Constructs a new `RouteEntry` whose requests run on a named executor and are bounded by a timeout.
+     *
+     * @param method          The HTTP method for the route.
+     * @param path            The path pattern for the route.
+     * @param middlewareChain The middleware chain to handle requests for this route.
+     * @param executor        The name of the executor, or `null` for the default one.
+     * @param timeout         The maximum time requests may take, or `null` for the application's default.
+     */
+    public RouteEntry(HttpMethod method, String path, MiddlewareChain middlewareChain, String executor, Duration timeout) {
         this.method = method;
         this.pattern = new RoutePattern(path);
         this.middlewareChain = middlewareChain;
+        this.executor = executor;
+        this.timeout = timeout;
     }
 
     /**
@@ -60,17 +94,36 @@ public class RouteEntry {
         return middlewareChain;
     }
 
+    /**
+     * Gets the name of the executor requests to this route run on.
+     *
+     * @return The executor name, or `null` if the default executor is used.
+     */
+    public String getExecutor() {
+        return executor;
+    }
+
     /**
      * Checks if this `RouteEntry` is equal to another object.
      *
      * @param o The object to compare with.
      * @return `true` if the objects are equal, `false` otherwise.
      */
+    /**
+     * Gets the maximum time requests to this route may take.
+     *
+     * @return The timeout, or `null` for the application's default.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         RouteEntry that = (RouteEntry) o;
-        return method == that.method && Objects.equals(pattern, that.pattern) && Objects.equals(middlewareChain, that.middlewareChain);
+        return method == that.method && Objects.equals(pattern, that.pattern) && Objects.equals(middlewareChain, that.middlewareChain)
+                && Objects.equals(executor, that.executor) && Objects.equals(timeout, that.timeout);
     }
 
     /**
@@ -80,6 +133,6 @@ public class RouteEntry {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(method, pattern, middlewareChain);
+        return Objects.hash(method, pattern, middlewareChain, executor, timeout);
     }
 }
\ No newline at end of file
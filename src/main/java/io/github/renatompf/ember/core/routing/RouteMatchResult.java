@@ -2,14 +2,53 @@ package io.github.renatompf.ember.core.routing;
 
 import io.github.renatompf.ember.core.server.MiddlewareChain;
 
+import java.time.Duration;
 import java.util.Map;
 
 /**
  * Represents the result of a route match, containing the middleware chain
- * to be executed and the extracted path parameters.
+ * to be executed, the extracted path parameters, and the executor, timeout and pattern of the route.
  *
  * @param middlewareChain The middleware chain associated with the matched route.
  * @param parameters      The extracted path parameters from the route.
+ * @param executor        The name of the executor declared for the route, or `null` for the default one.
+ * @param timeout         The timeout declared for the route, or `null` for the application's default.
+ * @param pattern         The path pattern the route was registered with, or `null` if unknown.
  */
-public record RouteMatchResult(MiddlewareChain middlewareChain, Map<String, String> parameters) {
+public record RouteMatchResult(MiddlewareChain middlewareChain, Map<String, String> parameters, String executor,
+                               Duration timeout, String pattern) {
+
+    /**
+     * Creates a match result for a route running on the default executor.
+     *
+     * @param middlewareChain The middleware chain associated with the matched route.
+     * @param parameters      The extracted path parameters from the route.
+     */
+    public RouteMatchResult(MiddlewareChain middlewareChain, Map<String, String> parameters) {
+        this(middlewareChain, parameters, null, null, null);
+    }
+
+    /**
+     * Creates a match result for a route running on a named executor, without a timeout of its own.
+     *
+     * @param middlewareChain The middleware chain associated with the matched route.
+     * @param parameters      The extracted path parameters from the route.
+     * @param executor        The name of the executor declared for the route, or `null` for the default one.
+     */
+    public RouteMatchResult(MiddlewareChain middlewareChain, Map<String, String> parameters, String executor) {
+        this(middlewareChain, parameters, executor, null, null);
+    }
+
+    /**
+     * Creates a match result for a route whose pattern is not known.
+     *
+     * @param middlewareChain The middleware chain associated with the matched route.
+     * @param parameters      The extracted path parameters from the route.
+     * @param executor        The name of the executor declared for the route, or `null` for the default one.
+     * @param timeout         The timeout declared for the route, or `null` for the application's default.
+     */
+    public RouteMatchResult(MiddlewareChain middlewareChain, Map<String, String> parameters, String executor,
+                            Duration timeout) {
+        this(middlewareChain, parameters, executor, timeout, null);
+    }
 }
@@ -0,0 +1,26 @@
+package io.github.renatompf.ember.core.routing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event recording a request that matched no route, committed by the {@link Router}.
+ */
+@Name("ember.RouteMiss")
+@Label("Route Miss")
+@Category({"Ember", "HTTP"})
+@Description("A request matched no registered route")
+@Enabled(false)
+@StackTrace(false)
+final class RouteMissEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+}
@@ -0,0 +1,278 @@
+package io.github.renatompf.ember.core.routing;
+
+import io.github.renatompf.ember.enums.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A segment-based prefix trie used by the {@link Router} to resolve routes.
+ * <p>
+ * Routes are inserted once at registration time. Each node of the trie represents one
+ * path segment and keeps the registered routes indexed by {@link HttpMethod}, so a lookup
+ * walks the request path a single time and binds path parameters as it goes, without
+ * any regular expression matching.
+ * <p>
+ * At every node the children are tried in the following order, backtracking to the next
+ * kind of child when a branch does not lead to a route for the requested method:
+ * <ul>
+ *   <li>Static segments (e.g., `/users/profile`).</li>
+ *   <li>Single-segment parameters (e.g., `/users/:id`).</li>
+ *   <li>Optional parameters (e.g., `/users/:id?`), which may also be omitted.</li>
+ *   <li>Wildcards (e.g., `/files/*path`), which consume the rest of the path.</li>
+ * </ul>
+ */
+public class RouteTrie {
+
+    private final Node root = new Node();
+
+    /** The highest number of parameters declared by a single route, used to size the capture buffer. */
+    private int maxParameters;
+
+    /**
+     * Default constructor for the RouteTrie class.
+     * <p>
+     * Initializes an empty trie with a single root node.
+     */
+    public RouteTrie() {}
+
+    /**
+     * Inserts a route entry into the trie.
+     * <p>
+     * If a route is already registered for the same HTTP method and path, the first
+     * registration is kept.
+     *
+     * @param entry The route entry to insert.
+     * @return `true` if the route was inserted, `false` if an equivalent route already existed.
+     */
+    public boolean insert(RouteEntry entry) {
+        Node node = root;
+        List<String> parameterNames = new ArrayList<>();
+
+        for (String segment : segments(entry.getPattern().getRawPath())) {
+            if (segment.startsWith(":")) {
+                boolean optional = segment.endsWith("?");
+                parameterNames.add(segment.substring(1).replace("?", ""));
+                node = optional ? node.optionalChild() : node.parameterChild();
+            } else if (segment.startsWith("*")) {
+                parameterNames.add("*");
+                node = node.wildcardChild();
+            } else {
+                node = node.staticChild(segment);
+            }
+        }
+
+        maxParameters = Math.max(maxParameters, parameterNames.size());
+        return node.routes.putIfAbsent(entry.getMethod(), new Leaf(entry, parameterNames.toArray(String[]::new))) == null;
+    }
+
+    /**
+     * Finds the route matching the specified HTTP method and path.
+     *
+     * @param method The HTTP method of the request.
+     * @param path   The path of the request.
+     * @return A `RouteMatchResult` with the middleware chain and bound parameters, or `null` if no route matches.
+     */
+    public RouteMatchResult find(HttpMethod method, String path) {
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        }
+
+        int[] bounds = tokenize(path);
+        String[] captured = new String[Math.max(maxParameters, 1)];
+        return match(root, method, path, bounds, 0, bounds.length / 2, captured, 0);
+    }
+
+    /**
+     * Recursively matches the remaining request segments against the given node.
+     *
+     * @param node     The current trie node.
+     * @param method   The HTTP method of the request.
+     * @param path     The request path.
+     * @param bounds   The start and end offsets of every request segment, stored pairwise.
+     * @param index    The index of the next request segment to consume.
+     * @param count    The total number of request segments.
+     * @param captured The buffer holding the parameter values bound so far.
+     * @param depth    The number of parameter values bound so far.
+     * @return The match result, or `null` if this branch does not lead to a route.
+     */
+    private RouteMatchResult match(Node node, HttpMethod method, String path, int[] bounds,
+                                   int index, int count, String[] captured, int depth) {
+        if (index == count) {
+            Leaf leaf = node.routes.get(method);
+            if (leaf != null) {
+                return leaf.bind(captured);
+            }
+            // A trailing optional parameter may be omitted entirely
+            if (node.optional != null) {
+                captured[depth] = null;
+                return match(node.optional, method, path, bounds, index, count, captured, depth + 1);
+            }
+            return null;
+        }
+
+        int start = bounds[index * 2];
+        int end = bounds[index * 2 + 1];
+        RouteMatchResult result;
+
+        if (node.statics != null) {
+            Node child = node.statics.get(path.substring(start, end));
+            if (child != null) {
+                result = match(child, method, path, bounds, index + 1, count, captured, depth);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+
+        if (node.parameter != null && end > start) {
+            captured[depth] = path.substring(start, end);
+            result = match(node.parameter, method, path, bounds, index + 1, count, captured, depth + 1);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        if (node.optional != null) {
+            captured[depth] = end > start ? path.substring(start, end) : null;
+            result = match(node.optional, method, path, bounds, index + 1, count, captured, depth + 1);
+            if (result != null) {
+                return result;
+            }
+            captured[depth] = null;
+            result = match(node.optional, method, path, bounds, index, count, captured, depth + 1);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        if (node.wildcard != null) {
+            // Prefer the longest tail so that a terminal wildcard matches in a single attempt
+            for (int last = count; last > index; last--) {
+                captured[depth] = path.substring(start, bounds[last * 2 - 1]);
+                result = match(node.wildcard, method, path, bounds, last, count, captured, depth + 1);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Splits a route path into its non-empty segments.
+     *
+     * @param rawPath The raw route path (e.g., `/users/:id`).
+     * @return The list of segments.
+     */
+    private static List<String> segments(String rawPath) {
+        List<String> segments = new ArrayList<>();
+        if (rawPath == null) {
+            return segments;
+        }
+        for (String segment : rawPath.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Computes the start and end offsets of every segment in a request path.
+     * <p>
+     * Empty segments are preserved, so `/users/` yields the segments `users` and an empty one,
+     * while `/` yields no segments at all.
+     *
+     * @param path The request path.
+     * @return An array of offsets, holding the start and end of each segment pairwise.
+     */
+    private static int[] tokenize(String path) {
+        int begin = path.charAt(0) == '/' ? 1 : 0;
+        int length = path.length();
+        if (begin >= length) {
+            return new int[0];
+        }
+
+        int count = 1;
+        for (int i = begin; i < length; i++) {
+            if (path.charAt(i) == '/') {
+                count++;
+            }
+        }
+
+        int[] bounds = new int[count * 2];
+        int segment = 0;
+        int start = begin;
+        for (int i = begin; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                bounds[segment * 2] = start;
+                bounds[segment * 2 + 1] = i;
+                segment++;
+                start = i + 1;
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * A single node of the trie, representing one path segment.
+     */
+    private static final class Node {
+        private final Map<HttpMethod, Leaf> routes = new EnumMap<>(HttpMethod.class);
+        private Map<String, Node> statics;
+        private Node parameter;
+        private Node optional;
+        private Node wildcard;
+
+        private Node staticChild(String segment) {
+            if (statics == null) {
+                statics = new HashMap<>();
+            }
+            return statics.computeIfAbsent(segment, s -> new Node());
+        }
+
+        private Node parameterChild() {
+            if (parameter == null) {
+                parameter = new Node();
+            }
+            return parameter;
+        }
+
+        private Node optionalChild() {
+            if (optional == null) {
+                optional = new Node();
+            }
+            return optional;
+        }
+
+        private Node wildcardChild() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+    }
+
+    /**
+     * A registered route together with the names of its parameters, in declaration order.
+     *
+     * @param entry          The registered route entry.
+     * @param parameterNames The parameter names, matching the order in which values are captured.
+     */
+    private record Leaf(RouteEntry entry, String[] parameterNames) {
+
+        private RouteMatchResult bind(String[] captured) {
+            Map<String, String> parameters = new HashMap<>();
+            for (int i = 0; i < parameterNames.length; i++) {
+                parameters.put(parameterNames[i], captured[i]);
+            }
+            return new RouteMatchResult(entry.getMiddlewareChain(), parameters, entry.getExecutor(), entry.getTimeout(),
+                    entry.getPattern().getRawPath());
+        }
+    }
+}
@@ -6,9 +6,8 @@ import io.github.renatompf.ember.enums.HttpMethod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -20,12 +19,12 @@ public class Router {
 
     private static final Logger logger = LoggerFactory.getLogger(Router.class);
 
-    private final List<RouteEntry> routes = new ArrayList<>();
+    private final RouteTrie routes = new RouteTrie();
 
     /**
      * Default constructor for the Router class.
      * <p>
-     * Initializes an empty list of routes.
+     * Initializes an empty route trie.
      */
     public Router() {}
 
@@ -38,7 +37,35 @@ public class Router {
      */
     public void register(HttpMethod method, String path, Consumer<Context> handler) {
         logger.debug("Registering route: method={}, path={}, handler={}", method, path, handler);
-        routes.add(new RouteEntry(method, path, new MiddlewareChain(List.of(), handler)));
+        insert(new RouteEntry(method, path, new MiddlewareChain(List.of(), handler)));
+    }
+
+    /**
+     * Registers a route whose requests run on a named executor.
+     *
+     * @param method   The HTTP method for the route (e.g., GET, POST).
+     * @param path     The path for the route.
+     * @param handler  The handler to process requests to this route.
+     * @param executor The name of the executor, or `null` for the default one.
+     */
+    public void register(HttpMethod method, String path, Consumer<Context> handler, String executor) {
+        logger.debug("Registering route: method={}, path={}, handler={}, executor={}", method, path, handler, executor);
+        insert(new RouteEntry(method, path, new MiddlewareChain(List.of(), handler), executor));
+    }
+
+    /**
+     * Registers a route whose requests run on a named executor and are bounded by a timeout.
+     *
+     * @param method   The HTTP method for the route (e.g., GET, POST).
+     * @param path     The path for the route.
+     * @param handler  The handler to process requests to this route.
+     * @param executor The name of the executor, or `null` for the default one.
+     * @param timeout  The maximum time requests may take, or `null` for the application's default.
+     */
+    public void register(HttpMethod method, String path, Consumer<Context> handler, String executor, Duration timeout) {
+        logger.debug("Registering route: method={}, path={}, handler={}, executor={}, timeout={}",
+                method, path, handler, executor, timeout);
+        insert(new RouteEntry(method, path, new MiddlewareChain(List.of(), handler), executor, timeout));
     }
 
     /**
@@ -50,19 +77,18 @@ public class Router {
      */
     public void register(HttpMethod method, String path, MiddlewareChain chain) {
         logger.debug("Registering route: method={}, path={}, chain={}", method, path, chain);
-        routes.add(new RouteEntry(method, path, chain));
+        insert(new RouteEntry(method, path, chain));
     }
 
     /**
      * Retrieves the route that matches the specified HTTP method and path.
      * <p>
-     * This method searches through the registered routes and identifies the best match
-     * for the given HTTP method and path. It resolves parameters for dynamic segments
-     * if the route contains placeholders (like `:id` or `*`).
+     * Routes are kept in a {@link RouteTrie} built at registration time, so a lookup walks the
+     * request path once and binds parameters for dynamic segments (like `:id` or `*`) as it goes.
      * <p>
-     * To ensure correct matching, routes are sorted by specificity:
+     * Routes are matched by specificity, segment by segment:
      * <ul>
-     *   <li>Exact matches (e.g., `/example/get`) are prioritized.</li>
+     *   <li>Exact segments (e.g., `/example/get`) are prioritized.</li>
      *   <li>Dynamic segments (`:id`) are processed after exact matches.</li>
      *   <li>Optional parameters (`:id?`) and wildcard paths (`*`) are processed last.</li>
      * </ul>
@@ -77,57 +103,31 @@ public class Router {
     public RouteMatchResult getRoute(HttpMethod method, String path) {
         logger.debug("Finding route for method: {}, path: {}", method, path);
 
-        // Sort routes by specificity: exact matches first, then dynamic segments
-        routes.sort((route1, route2) -> {
-            boolean exact1 = isExactMatch(route1.getPattern().getRawPath());
-            boolean exact2 = isExactMatch(route2.getPattern().getRawPath());
-
-            if (exact1 && !exact2){
-                return -1; // Exact matches come first
-            }
-
-            if (!exact1 && exact2) {
-                return 1;  // Dynamic matches come after exact matches
-            }
-
-            // If both are exact or both are dynamic, sort by path length (longer paths first)
-            return Integer.compare(route2.getPattern().getRawPath().length(), route1.getPattern().getRawPath().length());
-        });
-
-        // Iterate through the sorted routes to find a match
-        for (RouteEntry entry : routes) {
-            logger.debug("Checking route: method={}, path={}, pattern={}", method, path, entry.getPattern().getRawPath());
-            // Check if the route matches both method and path
-            if (entry.getMethod() == method && entry.getPattern().matches(path)) {
-                // Extract parameters from the path and return the match result
-                Map<String, String> params = entry.getPattern().extractParameters(path);
-                logger.debug("Route matched: method={}, path={}, params={}", method, path, params);
-                return new RouteMatchResult(entry.getMiddlewareChain(), params);
-            }
+        RouteMatchResult result = routes.find(method, path);
+        if (result != null) {
+            logger.debug("Route matched: method={}, path={}, params={}", method, path, result.parameters());
+            return result;
         }
 
-        // If no match is found, log a warning and return null
-        logger.warn("No matching route found: method={}, path={}", method, path);
+        // If no match is found, return null; floods of misses are reported by the access log
+        logger.debug("No matching route found: method={}, path={}", method, path);
+        RouteMissEvent event = new RouteMissEvent();
+        if (event.shouldCommit()) {
+            event.method = method.name();
+            event.path = path;
+            event.commit();
+        }
         return null;
     }
 
     /**
-     * Determines if a route path is an exact match (no dynamic segments).
-     * <p>
-     * This helper method checks whether the given route path contains any placeholders
-     * (`:` for dynamic segments or `*` for wildcards).
-     * Exact paths, such as `/example/get`,
-     * are prioritized during route matching to avoid conflicts with dynamic routes.
-     * </p>
+     * Inserts a route entry into the route trie.
      *
-     * @param rawPath The raw path string of the route (e.g., `/example/get` or `/example/:id`).
-     * @return `true` if the raw path is an exact match, `false` if it contains dynamic segments.
+     * @param entry The route entry to insert.
      */
-    private boolean isExactMatch(String rawPath) {
-        boolean isExact = !rawPath.contains(":") && !rawPath.contains("*");
-        logger.debug("Checking if path is exact: path={}, isExact={}", rawPath, isExact);
-        return isExact;
+    private void insert(RouteEntry entry) {
+        if (!routes.insert(entry)) {
+            logger.warn("Route already registered, ignoring: method={}, path={}", entry.getMethod(), entry.getPattern().getRawPath());
+        }
     }
-
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,169 @@
+package io.github.renatompf.ember.core.server;
+
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link ServerExchange} letting only one response be sent, installed for requests with a deadline.
+ * <p>
+ * Both the handler and the server, once the deadline passed, may try to answer the request.
+ * Whoever sends the response headers first wins; the other one fails with an {@link IOException}
+ * as if the client had gone away. Response header changes and the commit happen under one lock,
+ * and once a thread has committed the response, header changes made by other threads are dropped.
+ * {@link #answerExclusively(Runnable)} lets the server write its whole answer under that lock.
+ * </p>
+ */
+final class CommitGuardExchange implements ServerExchange {
+    private final ServerExchange delegate;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    /** The thread that sent the response headers, guarded by the lock. */
+    private Thread committer;
+
+    /**
+     * Constructs a new CommitGuardExchange.
+     *
+     * @param delegate The exchange of the request.
+     */
+    CommitGuardExchange(ServerExchange delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Runs an answer to the request unless the response has been committed, holding the lock so
+     * that the handler cannot change the response headers or commit in the meantime.
+     *
+     * @param answer Writes the response, through this exchange or an exchange decorating it.
+     * @return `true` if the answer ran, `false` if the response had already been committed.
+     */
+    boolean answerExclusively(Runnable answer) {
+        lock.lock();
+        try {
+            if (committer != null) {
+                return false;
+            }
+            answer.run();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return `true` if the headers may be changed by the calling thread; must hold the lock.
+     */
+    private boolean mayChangeHeaders() {
+        return committer == null || committer == Thread.currentThread();
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return delegate.getRequestMethod();
+    }
+
+    @Override
+    public String getRequestProtocol() {
+        return delegate.getRequestProtocol();
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return delegate.getRequestURI();
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestHeaders() {
+        return delegate.getRequestHeaders();
+    }
+
+    @Override
+    public String getRequestHeader(String name) {
+        return delegate.getRequestHeader(name);
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return delegate.getRequestBody();
+    }
+
+    @Override
+    public String getResponseHeader(String name) {
+        lock.lock();
+        try {
+            return delegate.getResponseHeader(name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setResponseHeader(String name, String value) {
+        lock.lock();
+        try {
+            if (mayChangeHeaders()) {
+                delegate.setResponseHeader(name, value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addResponseHeader(String name, String value) {
+        lock.lock();
+        try {
+            if (mayChangeHeaders()) {
+                delegate.addResponseHeader(name, value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sendResponseHeaders(int statusCode, long responseLength) throws IOException {
+        lock.lock();
+        try {
+            if (committer != null) {
+                throw new IOException("Response has already been committed");
+            }
+            committer = Thread.currentThread();
+            delegate.sendResponseHeaders(statusCode, responseLength);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return delegate.getResponseBody();
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return delegate.getRemoteAddress();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            delegate.close();
+        }
+    }
+
+    @Override
+    public void abort() {
+        if (closed.compareAndSet(false, true)) {
+            delegate.abort();
+        }
+    }
+}
@@ -4,30 +4,67 @@ import com.sun.net.httpserver.HttpExchange;
 import io.github.renatompf.ember.core.http.CookieManager;
 import io.github.renatompf.ember.core.http.HeadersManager;
 import io.github.renatompf.ember.core.http.ResponseHandler;
+import io.github.renatompf.ember.core.http.SerializerRegistry;
 import io.github.renatompf.ember.core.http.SessionManager;
 import io.github.renatompf.ember.core.parameter.BodyManager;
 import io.github.renatompf.ember.core.parameter.PathParameterManager;
 import io.github.renatompf.ember.core.parameter.QueryParameterManager;
+import io.github.renatompf.ember.core.routing.RouteMatchResult;
+import io.github.renatompf.ember.core.server.engine.JdkServerExchange;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import io.github.renatompf.ember.core.session.InMemorySessionStore;
+import io.github.renatompf.ember.core.session.SessionCookie;
+import io.github.renatompf.ember.core.session.SessionStore;
+import io.github.renatompf.ember.core.tracing.RequestTrace;
 import io.github.renatompf.ember.enums.HttpMethod;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents the context of an HTTP request, providing access to request data,
  * response handling, and middleware execution.
+ * <p>
+ * The managers exposed by a context are created the first time they are accessed, so a request
+ * only pays for the parts of the request and response its handler actually uses. They are created
+ * once even when first accessed by several threads, such as the subtasks of a {@link FanOut}.
+ * Otherwise, a context is meant to be used by one thread at a time.
+ * </p>
+ * <p>
+ * When the server runs with a {@link ContextPool}, contexts are reset and reused once their
+ * request completes, and must therefore not be kept beyond it.
+ * </p>
  */
 public class Context {
-    private final HttpExchange exchange;
-    private final HeadersManager headersManager;
-    private final PathParameterManager pathParameterManager;
-    private final QueryParameterManager queryParameterManager;
-    private final BodyManager bodyManager;
-    private final CookieManager cookieManager;
-    private final ResponseHandler responseHandler;
-    private final SessionManager sessionManager;
+    /** Volatile, as the server may answer the request from another thread once its deadline passes. */
+    private volatile ServerExchange exchange;
+    private String query;
+    private String contentType;
+    private SerializerRegistry serializers;
+    private Map<String, String> pathParamValues;
+    /** Guards the creation of the managers, which may be first accessed by the subtasks of a {@link FanOut}. */
+    private final ReentrantLock managersLock = new ReentrantLock();
+    private volatile HeadersManager headersManager;
+    private volatile PathParameterManager pathParameterManager;
+    private volatile QueryParameterManager queryParameterManager;
+    private volatile BodyManager bodyManager;
+    private volatile CookieManager cookieManager;
+    private volatile ResponseHandler responseHandler;
+    private SessionManager sessionManager;
+    private SessionStore sessionStore;
+    private SessionCookie sessionCookie;
     private List<Middleware> middlewareChain;
     private int middlewareIndex = -1;
+    private RouteMatchResult route;
+    private Instant deadline;
+    private RequestTrace trace;
+    /** Set once a pooled context has been retired, so later accesses can be reported as leaks. */
+    private String retiredRequest;
 
     /**
      * Constructs a new Context instance.
@@ -39,22 +76,128 @@ public class Context {
      * @param pathParams  The path parameters extracted from the request URI.
      */
     public Context(HttpExchange exchange, String query, String body, String contentType, Map<String, String> pathParams) {
-        this.exchange = exchange;
-        this.headersManager = new HeadersManager(exchange);
-        this.pathParameterManager = new PathParameterManager(pathParams);
-        this.queryParameterManager = new QueryParameterManager(query);
-        this.cookieManager = new CookieManager(exchange);
-        this.responseHandler = new ResponseHandler(exchange);
-        this.sessionManager = new SessionManager();
+        this(new JdkServerExchange(exchange), query, contentType, pathParams, SerializerRegistry.defaults());
         this.bodyManager = new BodyManager(body, contentType);
     }
 
+    /**
+     * Constructs a new Context instance whose body is read lazily from the given stream.
+     *
+     * @param exchange    The underlying HTTP exchange object.
+     * @param query       The query string of the request.
+     * @param body        The stream of the request body.
+     * @param contentType The content type of the request body.
+     * @param pathParams  The path parameters extracted from the request URI.
+     */
+    public Context(HttpExchange exchange, String query, InputStream body, String contentType, Map<String, String> pathParams) {
+        this(new JdkServerExchange(exchange), query, contentType, pathParams, SerializerRegistry.defaults());
+        this.bodyManager = new BodyManager(body, contentType);
+    }
+
+    /**
+     * Constructs a new Context instance for an exchange received by any server engine.
+     * The body is read lazily from the exchange.
+     *
+     * @param exchange    The server exchange.
+     * @param query       The query string of the request.
+     * @param contentType The content type of the request body.
+     * @param pathParams  The path parameters extracted from the request URI.
+     */
+    public Context(ServerExchange exchange, String query, String contentType, Map<String, String> pathParams) {
+        this(exchange, query, contentType, pathParams, SerializerRegistry.defaults());
+    }
+
+    /**
+     * Constructs a new Context instance for an exchange received by any server engine, whose
+     * responses are serialized with the application's serializers.
+     *
+     * @param exchange    The server exchange.
+     * @param query       The query string of the request.
+     * @param contentType The content type of the request body.
+     * @param pathParams  The path parameters extracted from the request URI.
+     * @param serializers The serializers of the application.
+     */
+    public Context(ServerExchange exchange, String query, String contentType, Map<String, String> pathParams,
+                   SerializerRegistry serializers) {
+        reset(exchange, query, contentType, serializers);
+        this.pathParamValues = pathParams;
+    }
+
+    /**
+     * Constructs an empty context, to be bound to a request through {@link #reset}.
+     */
+    Context() {}
+
+    /**
+     * Binds this context to a new request, discarding all state of the previous one.
+     *
+     * @param exchange    The server exchange.
+     * @param query       The query string of the request.
+     * @param contentType The content type of the request body.
+     * @param serializers The serializers of the application.
+     */
+    void reset(ServerExchange exchange, String query, String contentType, SerializerRegistry serializers) {
+        this.exchange = exchange;
+        this.query = query;
+        this.contentType = contentType;
+        this.serializers = serializers;
+        this.pathParamValues = Map.of();
+        this.headersManager = null;
+        this.queryParameterManager = null;
+        this.bodyManager = null;
+        this.cookieManager = null;
+        this.responseHandler = null;
+        this.sessionManager = null;
+        this.sessionStore = null;
+        this.sessionCookie = null;
+        this.middlewareChain = null;
+        this.middlewareIndex = -1;
+        this.route = null;
+        this.deadline = null;
+        this.trace = null;
+        this.retiredRequest = null;
+        if (pathParameterManager != null) {
+            // The path parameter manager holds no reference to the exchange and can be kept
+            pathParameterManager.setPathParams(pathParamValues);
+        }
+    }
+
+    /**
+     * Releases every reference to the current request, so a pooled context does not keep it reachable.
+     */
+    void clear() {
+        reset(null, null, null, null);
+    }
+
+    /**
+     * Retires this context: any later access fails, reporting the request it belonged to.
+     * Used by the {@link ContextPool} to detect contexts escaping their request.
+     */
+    void retire() {
+        String request = exchange != null ? exchange.getRequestMethod() + " " + exchange.getRequestURI() : "unknown";
+        clear();
+        this.retiredRequest = request;
+    }
+
+    /**
+     * Checks that this context has not been retired.
+     *
+     * @throws IllegalStateException If the context is used after its request completed.
+     */
+    private void checkActive() {
+        if (retiredRequest != null) {
+            throw new IllegalStateException("Context of request " + retiredRequest
+                    + " was used after the request completed; contexts must not escape their request");
+        }
+    }
+
     /**
      * Retrieves the HTTP method of the request.
      *
      * @return The HTTP method as an {@link HttpMethod}.
      */
     public HttpMethod getMethod() {
+        checkActive();
         return HttpMethod.fromString(exchange.getRequestMethod().toUpperCase());
     }
 
@@ -64,16 +207,59 @@ public class Context {
      * @return The request path as a string.
      */
     public String getPath() {
+        checkActive();
         return exchange.getRequestURI().getPath();
     }
 
+    /**
+     * Provides access to the underlying server exchange.
+     *
+     * @return The {@link ServerExchange} of the request.
+     */
+    public ServerExchange exchange() {
+        checkActive();
+        return exchange;
+    }
+
+    /**
+     * Replaces the exchange of this request with a decorated one, for example to transform the
+     * response body. Meant for middleware, before the response is sent.
+     * <p>
+     * Managers writing to the response are created anew on their next access, so they use the
+     * decorated exchange.
+     * </p>
+     *
+     * @param decorator A function wrapping the current exchange.
+     */
+    public void decorateExchange(UnaryOperator<ServerExchange> decorator) {
+        checkActive();
+        this.exchange = decorator.apply(exchange);
+        this.headersManager = null;
+        this.cookieManager = null;
+        this.responseHandler = null;
+    }
+
     /**
      * Provides access to the cookie manager for managing cookies.
      *
      * @return The {@link CookieManager} instance.
      */
     public CookieManager cookies() {
-        return cookieManager;
+        checkActive();
+        CookieManager manager = cookieManager;
+        if (manager == null) {
+            managersLock.lock();
+            try {
+                manager = cookieManager;
+                if (manager == null) {
+                    manager = new CookieManager(exchange);
+                    cookieManager = manager;
+                }
+            } finally {
+                managersLock.unlock();
+            }
+        }
+        return manager;
     }
 
     /**
@@ -82,24 +268,72 @@ public class Context {
      * @return The {@link ResponseHandler} instance.
      */
     public ResponseHandler response() {
-        return responseHandler;
+        checkActive();
+        ResponseHandler manager = responseHandler;
+        if (manager == null) {
+            managersLock.lock();
+            try {
+                manager = responseHandler;
+                if (manager == null) {
+                    manager = new ResponseHandler(exchange, serializers);
+                    responseHandler = manager;
+                }
+            } finally {
+                managersLock.unlock();
+            }
+        }
+        return manager;
     }
 
     /**
-     * Provides access to the session manager for managing user sessions.
+     * Provides access to the session manager for managing the session of the request.
+     * <p>
+     * Changes to the session are saved just before the response is sent, and again when the
+     * request completes if the session changed afterwards.
+     * </p>
      *
      * @return The {@link SessionManager} instance.
      */
     public SessionManager session() {
+        checkActive();
+        if (sessionManager == null) {
+            SessionManager manager = new SessionManager(
+                    sessionStore != null ? sessionStore : DefaultSessions.STORE,
+                    cookies(),
+                    sessionCookie != null ? sessionCookie : DefaultSessions.COOKIE);
+            decorateExchange(e -> new SessionCommitExchange(e, manager));
+            sessionManager = manager;
+        }
         return sessionManager;
     }
 
+    /**
+     * Sets where the session of this request is stored and how its cookie is set.
+     *
+     * @param store  The session store of the application.
+     * @param cookie The settings of the session cookie.
+     */
+    void setSessions(SessionStore store, SessionCookie cookie) {
+        this.sessionStore = store;
+        this.sessionCookie = cookie;
+    }
+
+    /**
+     * Saves the session of this request if it was used and changed.
+     */
+    void commitSession() {
+        if (sessionManager != null) {
+            sessionManager.commit();
+        }
+    }
+
     /**
      * Proceeds to the next middleware in the chain.
      *
      * @throws Exception If an error occurs during middleware execution.
      */
     public void next() throws Exception {
+        checkActive();
         middlewareIndex++;
         if (middlewareIndex < middlewareChain.size()) {
             middlewareChain.get(middlewareIndex).handle(this);
@@ -116,13 +350,120 @@ public class Context {
         this.middlewareIndex = -1;
     }
 
+    /**
+     * Sets the path parameters extracted for this request.
+     *
+     * @param pathParams The path parameters, by name.
+     */
+    public void setPathParams(Map<String, String> pathParams) {
+        this.pathParamValues = pathParams;
+        if (pathParameterManager != null) {
+            pathParameterManager.setPathParams(pathParams);
+        }
+    }
+
+    /**
+     * Sets the route matched for this request.
+     *
+     * @param route The matched route, or `null` if no route matched.
+     */
+    public void setRoute(RouteMatchResult route) {
+        this.route = route;
+    }
+
+    /**
+     * Returns the route matched for this request.
+     *
+     * @return The matched route, or `null` if no route matched.
+     */
+    public RouteMatchResult getRoute() {
+        checkActive();
+        return route;
+    }
+
+    /**
+     * Sets the instant by which the request must be answered.
+     *
+     * @param deadline The deadline, or `null` if the request is not bounded.
+     */
+    public void setDeadline(Instant deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns the instant by which the request must be answered.
+     *
+     * @return The deadline, or `null` if the request is not bounded.
+     */
+    public Instant getDeadline() {
+        checkActive();
+        return deadline;
+    }
+
+    /**
+     * Sets the trace recording the phases of this request.
+     *
+     * @param trace The trace, or `null` if the request is not sampled.
+     */
+    public void setTrace(RequestTrace trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * Returns the trace recording the phases of this request, if it was sampled by the
+     * application's {@link io.github.renatompf.ember.core.tracing.Tracer}.
+     *
+     * @return The trace, or `null` if the request is not traced.
+     */
+    public RequestTrace getTrace() {
+        checkActive();
+        return trace;
+    }
+
+    /**
+     * Opens a scope for running subtasks of this request concurrently, bounded by the request's deadline.
+     *
+     * @return A new {@link FanOut}, to be closed by the calling thread.
+     */
+    public FanOut fanOut() {
+        checkActive();
+        return new FanOut(this, deadline);
+    }
+
+    /**
+     * Opens a scope for running subtasks of this request concurrently, bounded by the given
+     * timeout or the request's deadline, whichever comes first.
+     *
+     * @param timeout The maximum time the subtasks may take.
+     * @return A new {@link FanOut}, to be closed by the calling thread.
+     */
+    public FanOut fanOut(Duration timeout) {
+        checkActive();
+        Instant limit = Instant.now().plus(timeout);
+        return new FanOut(this, deadline != null && deadline.isBefore(limit) ? deadline : limit);
+    }
+
     /**
      * Provides access to the headers manager for managing request headers.
      *
      * @return The {@link HeadersManager} instance.
      */
     public HeadersManager headers() {
-        return headersManager;
+        checkActive();
+        HeadersManager manager = headersManager;
+        if (manager == null) {
+            managersLock.lock();
+            try {
+                manager = headersManager;
+                if (manager == null) {
+                    manager = new HeadersManager(exchange);
+                    headersManager = manager;
+                }
+            } finally {
+                managersLock.unlock();
+            }
+        }
+        return manager;
     }
 
     /**
@@ -131,7 +472,21 @@ public class Context {
      * @return The {@link PathParameterManager} instance.
      */
     public PathParameterManager pathParams() {
-        return pathParameterManager;
+        checkActive();
+        PathParameterManager manager = pathParameterManager;
+        if (manager == null) {
+            managersLock.lock();
+            try {
+                manager = pathParameterManager;
+                if (manager == null) {
+                    manager = new PathParameterManager(pathParamValues);
+                    pathParameterManager = manager;
+                }
+            } finally {
+                managersLock.unlock();
+            }
+        }
+        return manager;
     }
 
     /**
@@ -140,7 +495,21 @@ public class Context {
      * @return The {@link QueryParameterManager} instance.
      */
     public QueryParameterManager queryParams() {
-        return queryParameterManager;
+        checkActive();
+        QueryParameterManager manager = queryParameterManager;
+        if (manager == null) {
+            managersLock.lock();
+            try {
+                manager = queryParameterManager;
+                if (manager == null) {
+                    manager = new QueryParameterManager(query);
+                    queryParameterManager = manager;
+                }
+            } finally {
+                managersLock.unlock();
+            }
+        }
+        return manager;
     }
 
     /**
@@ -149,6 +518,28 @@ public class Context {
      * @return The {@link BodyManager} instance.
      */
     public BodyManager body() {
-        return bodyManager;
+        checkActive();
+        BodyManager manager = bodyManager;
+        if (manager == null) {
+            managersLock.lock();
+            try {
+                manager = bodyManager;
+                if (manager == null) {
+                    manager = new BodyManager(exchange.getRequestBody(), contentType);
+                    bodyManager = manager;
+                }
+            } finally {
+                managersLock.unlock();
+            }
+        }
+        return manager;
+    }
+
+    /**
+     * The session settings of contexts not created by a server, created when first used.
+     */
+    private static final class DefaultSessions {
+        static final SessionStore STORE = InMemorySessionStore.builder().build();
+        static final SessionCookie COOKIE = SessionCookie.defaults();
     }
-}
\ No newline at end of file
+}
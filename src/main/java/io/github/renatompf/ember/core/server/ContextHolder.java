@@ -1,8 +1,16 @@
 package io.github.renatompf.ember.core.server;
 
+import java.util.concurrent.Callable;
+
 /**
- * A utility class that provides thread-local storage for the {@link Context} object.
- * This ensures that each thread has its own isolated instance of the {@link Context}.
+ * A utility class that provides access to the {@link Context} of the request handled by the current thread.
+ * <p>
+ * The server binds the context once per request with {@link #callWith(Context, Callable)}, for
+ * the duration of the middleware chain and handler. A binding is scoped: it is only visible to
+ * the operation it was made for, and the previous binding is restored when the operation
+ * returns, so nothing is left behind on a thread reused for other requests. Subtasks forked
+ * through {@link Context#fanOut()} are bound to the context of their request in the same way.
+ * </p>
  */
 public class ContextHolder {
 
@@ -16,11 +24,40 @@ public class ContextHolder {
      */
     private static final ThreadLocal<Context> contextThreadLocal = new ThreadLocal<>();
 
+    /**
+     * Runs an operation with the given {@link Context} bound to the current thread.
+     *
+     * @param context   The {@link Context} to bind.
+     * @param operation The operation to run.
+     * @param <T>       The type of the result of the operation.
+     * @return The result of the operation.
+     * @throws Exception If the operation fails.
+     */
+    public static <T> T callWith(Context context, Callable<T> operation) throws Exception {
+        Context previous = contextThreadLocal.get();
+        if (previous == context) {
+            return operation.call();
+        }
+        contextThreadLocal.set(context);
+        try {
+            return operation.call();
+        } finally {
+            if (previous == null) {
+                contextThreadLocal.remove();
+            } else {
+                contextThreadLocal.set(previous);
+            }
+        }
+    }
+
     /**
      * Sets the {@link Context} for the current thread.
      *
      * @param context The {@link Context} to be set.
+     * @deprecated The server binds the context of every request; use
+     * {@link #callWith(Context, Callable)} to bind one for a limited scope.
      */
+    @Deprecated
     public static void setContext(Context context) {
         contextThreadLocal.set(context);
     }
@@ -37,8 +74,11 @@ public class ContextHolder {
     /**
      * Clears the {@link Context} for the current thread.
      * This method removes the {@link Context} from the thread-local storage.
+     *
+     * @deprecated Bindings made with {@link #callWith(Context, Callable)} are cleared automatically.
      */
+    @Deprecated
     public static void clearContext() {
         contextThreadLocal.remove();
     }
-}
\ No newline at end of file
+}
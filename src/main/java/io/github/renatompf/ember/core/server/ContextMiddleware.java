@@ -1,9 +1,13 @@
 package io.github.renatompf.ember.core.server;
 
 /**
- * Middleware that sets the {@link Context} for the current thread using {@link ContextHolder}.
- * Ensures that the context is cleared after the request is processed.
+ * Middleware that binds the {@link Context} to the current thread using {@link ContextHolder}
+ * for the rest of the chain.
+ *
+ * @deprecated The server binds the context of every request itself, so this middleware is no
+ * longer needed; it is kept for applications that still register it and has no effect there.
  */
+@Deprecated
 public class ContextMiddleware implements Middleware {
 
     /**
@@ -12,19 +16,16 @@ public class ContextMiddleware implements Middleware {
     public ContextMiddleware() {}
 
     /**
-     * Handles the middleware logic by setting the context, proceeding to the next middleware,
-     * and ensuring the context is cleared after processing.
+     * Handles the middleware logic by binding the context and proceeding to the next middleware.
      *
      * @param ctx The {@link Context} of the current request.
      * @throws Exception If an error occurs during middleware execution.
      */
     @Override
     public void handle(Context ctx) throws Exception {
-        try {
-            ContextHolder.setContext(ctx); // Set the context for the current thread
-            ctx.next(); // Proceed to the next middleware or handler
-        } finally {
-            ContextHolder.clearContext(); // Clear the context after the request
-        }
+        ContextHolder.callWith(ctx, () -> {
+            ctx.next();
+            return null;
+        });
     }
-}
\ No newline at end of file
+}
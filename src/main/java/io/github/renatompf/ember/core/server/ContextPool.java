@@ -0,0 +1,152 @@
+package io.github.renatompf.ember.core.server;
+
+import io.github.renatompf.ember.core.http.SerializerRegistry;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of {@link Context} objects reused across requests.
+ * <p>
+ * A context taken from the pool is reset for its request and returned once the request completes.
+ * Its lazily created managers are discarded on release, so a reused context holds no reference to
+ * a previous request. When the pool is empty a new context is created, and when it is full a
+ * released context is left to the garbage collector.
+ * </p>
+ * <p>
+ * Idle contexts are kept in an array of slots claimed with compare-and-set, starting at a slot
+ * derived from the current thread, so taking and returning a context neither locks nor allocates.
+ * </p>
+ * <p>
+ * A context kept by application code after its request completed would silently observe the
+ * next request it is reused for. To detect such leaks, every `leakDetectionInterval`-th released
+ * context is retired instead of being reused: any later access to it throws an
+ * {@link IllegalStateException} naming the request it belonged to.
+ * </p>
+ */
+public class ContextPool {
+    private static final Logger logger = LoggerFactory.getLogger(ContextPool.class);
+
+    /** The maximum number of slots probed when taking or returning a context. */
+    private static final int MAX_PROBES = 8;
+
+    private final AtomicReferenceArray<Context> slots;
+    private final int leakDetectionInterval;
+    private final AtomicLong released = new AtomicLong();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder retired = new LongAdder();
+
+    /**
+     * Constructs a new ContextPool.
+     *
+     * @param capacity              The maximum number of idle contexts kept.
+     * @param leakDetectionInterval Retire one in this many released contexts to detect leaks,
+     *                              `1` to retire all of them or `0` to disable leak detection.
+     */
+    public ContextPool(int capacity, int leakDetectionInterval) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (leakDetectionInterval < 0) {
+            throw new IllegalArgumentException("leakDetectionInterval must not be negative");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.leakDetectionInterval = leakDetectionInterval;
+    }
+
+    /**
+     * Takes a context from the pool, or creates one, and binds it to a request.
+     *
+     * @param exchange    The server exchange.
+     * @param query       The query string of the request.
+     * @param contentType The content type of the request body.
+     * @param serializers The serializers of the application.
+     * @return A context bound to the request.
+     */
+    public Context acquire(ServerExchange exchange, String query, String contentType, SerializerRegistry serializers) {
+        Context context = poll();
+        if (context == null) {
+            context = new Context();
+            created.increment();
+        }
+        context.reset(exchange, query, contentType, serializers);
+        return context;
+    }
+
+    /**
+     * Returns a context to the pool once its request has completed.
+     *
+     * @param context The context to release.
+     */
+    public void release(Context context) {
+        long count = released.incrementAndGet();
+        if (leakDetectionInterval > 0 && count % leakDetectionInterval == 0) {
+            logger.debug("Retiring context to detect leaks");
+            context.retire();
+            retired.increment();
+            return;
+        }
+        context.clear();
+        offer(context);
+    }
+
+    private Context poll() {
+        int length = slots.length();
+        int start = probe(length);
+        for (int i = 0, probes = Math.min(length, MAX_PROBES); i < probes; i++) {
+            int index = (start + i) % length;
+            Context context = slots.get(index);
+            if (context != null && slots.compareAndSet(index, context, null)) {
+                return context;
+            }
+        }
+        return null;
+    }
+
+    private void offer(Context context) {
+        int length = slots.length();
+        int start = probe(length);
+        for (int i = 0, probes = Math.min(length, MAX_PROBES); i < probes; i++) {
+            int index = (start + i) % length;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, context)) {
+                return;
+            }
+        }
+        // All probed slots are taken; the context is left to the garbage collector
+    }
+
+    private static int probe(int length) {
+        return (int) (Thread.currentThread().threadId() % length);
+    }
+
+    /**
+     * @return The number of idle contexts in the pool.
+     */
+    public int getIdle() {
+        int idle = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                idle++;
+            }
+        }
+        return idle;
+    }
+
+    /**
+     * @return The number of contexts created by the pool.
+     */
+    public long getCreated() {
+        return created.sum();
+    }
+
+    /**
+     * @return The number of contexts retired for leak detection.
+     */
+    public long getRetired() {
+        return retired.sum();
+    }
+}
@@ -0,0 +1,290 @@
+package io.github.renatompf.ember.core.server;
+
+import io.github.renatompf.ember.enums.HttpStatusCode;
+import io.github.renatompf.ember.exceptions.HttpException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A request-scoped scope for running subtasks concurrently, each on its own virtual thread.
+ * <p>
+ * Subtasks are forked from the thread handling the request and joined together: {@link #join()}
+ * returns once every subtask has succeeded, and fails as soon as one of them fails, cancelling
+ * the others. The join is bounded by the deadline of the request, if it has one. Closing the
+ * scope cancels the subtasks still running and waits for them, so no subtask outlives it.
+ * </p>
+ * <p>
+ * The request's {@link Context} is available to subtasks through {@link ContextHolder#context()}.
+ * It is shared with the request thread, so subtasks should only read from it; its managers are
+ * created once, whichever thread first accesses them.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * try (FanOut fanOut = context.fanOut()) {
+ *     FanOut.Subtask<User> user = fanOut.fork(() -> users.find(id));
+ *     FanOut.Subtask<List<Order>> orders = fanOut.fork(() -> orders.findByUser(id));
+ *     fanOut.join();
+ *     return new Profile(user.get(), orders.get());
+ * }
+ * }
+ * </pre>
+ */
+public final class FanOut implements AutoCloseable {
+    private static final ThreadFactory THREADS = Thread.ofVirtual().name("ember-fan-out-", 0).factory();
+
+    private final Context context;
+    private final Instant deadline;
+    private final Thread owner = Thread.currentThread();
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private int pending;
+    private Throwable failure;
+    private boolean shutdown;
+    private boolean closed;
+
+    /**
+     * Constructs a new FanOut.
+     *
+     * @param context  The context of the request, propagated to subtasks.
+     * @param deadline The instant by which subtasks must complete, or `null` if they are not bounded.
+     */
+    FanOut(Context context, Instant deadline) {
+        this.context = context;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Starts a subtask on a new virtual thread.
+     *
+     * @param task The task to run.
+     * @param <T>  The type of the result of the task.
+     * @return The subtask, whose result is available once the scope has been joined.
+     * @throws IllegalStateException If the scope has been closed or the caller is not the thread that opened it.
+     */
+    public <T> Subtask<T> fork(Callable<? extends T> task) {
+        checkOwner();
+        Subtask<T> subtask = new Subtask<>();
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Fan-out is closed");
+            }
+            if (shutdown) {
+                // A sibling already failed: the subtask is not started
+                return subtask;
+            }
+            pending++;
+            subtasks.add(subtask);
+            subtask.thread = THREADS.newThread(() -> run(subtask, task));
+        } finally {
+            lock.unlock();
+        }
+        subtask.thread.start();
+        return subtask;
+    }
+
+    /**
+     * Waits for every subtask to succeed, or for the first one to fail.
+     *
+     * @throws Exception            The exception of the first subtask to fail, after the others have been cancelled.
+     * @throws HttpException        With status `504` if the deadline passes first; the subtasks are cancelled.
+     * @throws InterruptedException If the calling thread is interrupted; the subtasks are cancelled.
+     */
+    public void join() throws Exception {
+        checkOwner();
+        lock.lock();
+        try {
+            while (pending > 0 && failure == null) {
+                if (deadline == null) {
+                    changed.await();
+                } else {
+                    long remaining = Duration.between(Instant.now(), deadline).toNanos();
+                    if (remaining <= 0) {
+                        shutdown();
+                        throw new HttpException(HttpStatusCode.GATEWAY_TIMEOUT,
+                                "Subtasks did not complete before the request deadline");
+                    }
+                    changed.awaitNanos(remaining);
+                }
+            }
+        } catch (InterruptedException e) {
+            shutdown();
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+
+        if (failure != null) {
+            if (failure instanceof Exception exception) {
+                throw exception;
+            }
+            throw (Error) failure;
+        }
+    }
+
+    /**
+     * Cancels the subtasks still running and waits for them to finish.
+     */
+    @Override
+    public void close() {
+        checkOwner();
+        List<Subtask<?>> started;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            shutdown();
+            started = List.copyOf(subtasks);
+        } finally {
+            lock.unlock();
+        }
+
+        boolean interrupted = false;
+        for (Subtask<?> subtask : started) {
+            while (true) {
+                try {
+                    subtask.thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Retrieves the instant by which the subtasks must complete.
+     *
+     * @return The deadline, or `null` if the subtasks are not bounded.
+     */
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    private <T> void run(Subtask<T> subtask, Callable<? extends T> task) {
+        try {
+            T value = ContextHolder.callWith(context, task);
+            complete(subtask, value, null);
+        } catch (Throwable t) {
+            complete(subtask, null, t);
+        }
+    }
+
+    private <T> void complete(Subtask<T> subtask, T value, Throwable exception) {
+        lock.lock();
+        try {
+            pending--;
+            if (exception == null) {
+                subtask.value = value;
+                subtask.state = Subtask.State.SUCCESS;
+            } else {
+                subtask.exception = exception;
+                subtask.state = Subtask.State.FAILED;
+                // Failures caused by the cancellation of a scope that is already shut down are not reported
+                if (!shutdown) {
+                    failure = exception;
+                    shutdown();
+                }
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Interrupts the subtasks still running. Must be called with the lock held.
+     */
+    private void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        for (Subtask<?> subtask : subtasks) {
+            if (subtask.state == Subtask.State.UNAVAILABLE) {
+                subtask.thread.interrupt();
+            }
+        }
+    }
+
+    private void checkOwner() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Fan-out can only be used by the thread that opened it");
+        }
+    }
+
+    /**
+     * A subtask forked in a {@link FanOut}.
+     *
+     * @param <T> The type of the result of the subtask.
+     */
+    public static final class Subtask<T> {
+        /**
+         * The state of a subtask.
+         */
+        public enum State {
+            /** The subtask has not completed, was cancelled, or was never started. */
+            UNAVAILABLE,
+            /** The subtask completed with a result. */
+            SUCCESS,
+            /** The subtask failed with an exception. */
+            FAILED
+        }
+
+        private Thread thread;
+        private volatile State state = State.UNAVAILABLE;
+        private T value;
+        private Throwable exception;
+
+        private Subtask() {}
+
+        /**
+         * @return The state of the subtask.
+         */
+        public State state() {
+            return state;
+        }
+
+        /**
+         * Retrieves the result of the subtask.
+         *
+         * @return The result.
+         * @throws IllegalStateException If the subtask has not completed successfully.
+         */
+        public T get() {
+            if (state != State.SUCCESS) {
+                throw new IllegalStateException("Subtask has not completed successfully");
+            }
+            return value;
+        }
+
+        /**
+         * Retrieves the exception the subtask failed with.
+         *
+         * @return The exception.
+         * @throws IllegalStateException If the subtask has not failed.
+         */
+        public Throwable exception() {
+            if (state != State.FAILED) {
+                throw new IllegalStateException("Subtask has not failed");
+            }
+            return exception;
+        }
+    }
+}
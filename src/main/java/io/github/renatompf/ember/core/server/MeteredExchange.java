@@ -0,0 +1,152 @@
+package io.github.renatompf.ember.core.server;
+
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link ServerExchange} remembering the status code and counting the bytes of the response,
+ * installed when the server records metrics.
+ */
+final class MeteredExchange implements ServerExchange {
+    private final ServerExchange delegate;
+    private CountingStream responseBody;
+    private volatile int status;
+
+    /**
+     * Constructs a new MeteredExchange.
+     *
+     * @param delegate The exchange of the request.
+     */
+    MeteredExchange(ServerExchange delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return The status code of the response, or `0` if no response has been sent.
+     */
+    int status() {
+        return status;
+    }
+
+    /**
+     * @return The number of response body bytes written.
+     */
+    long responseBytes() {
+        return responseBody != null ? responseBody.count : 0;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return delegate.getRequestMethod();
+    }
+
+    @Override
+    public String getRequestProtocol() {
+        return delegate.getRequestProtocol();
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return delegate.getRequestURI();
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestHeaders() {
+        return delegate.getRequestHeaders();
+    }
+
+    @Override
+    public String getRequestHeader(String name) {
+        return delegate.getRequestHeader(name);
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return delegate.getRequestBody();
+    }
+
+    @Override
+    public String getResponseHeader(String name) {
+        return delegate.getResponseHeader(name);
+    }
+
+    @Override
+    public void setResponseHeader(String name, String value) {
+        delegate.setResponseHeader(name, value);
+    }
+
+    @Override
+    public void addResponseHeader(String name, String value) {
+        delegate.addResponseHeader(name, value);
+    }
+
+    @Override
+    public void sendResponseHeaders(int statusCode, long responseLength) throws IOException {
+        delegate.sendResponseHeaders(statusCode, responseLength);
+        status = statusCode;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        if (responseBody == null) {
+            responseBody = new CountingStream(delegate.getResponseBody());
+        }
+        return responseBody;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return delegate.getRemoteAddress();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public void abort() {
+        delegate.abort();
+    }
+
+    /**
+     * The response body stream, counting the bytes written to it.
+     */
+    private static final class CountingStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        CountingStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            delegate.write(b, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -3,6 +3,11 @@ package io.github.renatompf.ember.core.server;
 /**
  * A functional interface representing a middleware component in the application.
  * Middleware is responsible for handling a given `Context` and may throw an exception.
+ * <p>
+ * Middleware declared through `@WithMiddleware` is created once, through the component registry,
+ * and shared by every request to the routes it applies to. It may therefore keep state across
+ * requests, and can override {@link #init()} and {@link #destroy()} to set up and release it.
+ * </p>
  */
 @FunctionalInterface
 public interface Middleware {
@@ -14,4 +19,18 @@ public interface Middleware {
      * @throws Exception If an error occurs while handling the context.
      */
     void handle(Context context) throws Exception;
+
+    /**
+     * Called once after the middleware has been created, before it handles any request.
+     *
+     * @throws Exception If the middleware cannot be initialized.
+     */
+    default void init() throws Exception {
+    }
+
+    /**
+     * Called once when the application is stopped, after the middleware has handled its last request.
+     */
+    default void destroy() {
+    }
 }
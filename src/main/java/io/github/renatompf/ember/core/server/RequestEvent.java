@@ -0,0 +1,48 @@
+package io.github.renatompf.ember.core.server;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event spanning the handling of a request, from its arrival to the end of its exchange,
+ * committed by the {@link Server}.
+ * <p>
+ * Like every Ember event, it is disabled by default and enabled on its own through the settings
+ * of a recording, such as a `.jfc` file or `Recording.enable("ember.Request")`. When no recording
+ * enables it, the server neither creates the event nor meters the request.
+ * </p>
+ */
+@Name("ember.Request")
+@Label("HTTP Request")
+@Category({"Ember", "HTTP"})
+@Description("Handling of an HTTP request, from its arrival to its response")
+@Enabled(false)
+@StackTrace(false)
+final class RequestEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Route")
+    @Description("Path pattern of the matched route, or null if no route matched")
+    String route;
+
+    @Label("Status")
+    int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+}
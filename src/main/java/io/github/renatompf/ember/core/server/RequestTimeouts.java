@@ -0,0 +1,256 @@
+package io.github.renatompf.ember.core.server;
+
+import io.github.renatompf.ember.core.server.execution.ExecutionConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Enforces the deadlines of requests.
+ * <p>
+ * The deadline of a request is derived from the timeout of its route, or the default timeout of
+ * the {@link ExecutionConfig}, and may be shortened by the client through the configured request
+ * header. A single timer thread watches the deadlines of all requests; when one passes, the
+ * threads working on the request are interrupted and the request is answered by the server,
+ * unless the handler already started its response.
+ * </p>
+ */
+public final class RequestTimeouts implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RequestTimeouts.class);
+
+    private final Duration defaultTimeout;
+    private final String header;
+    private final LongAdder timedOutTotal = new LongAdder();
+    private final LongAdder expiredInQueueTotal = new LongAdder();
+    private volatile ScheduledThreadPoolExecutor timer;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new RequestTimeouts.
+     *
+     * @param config The execution configuration.
+     */
+    RequestTimeouts(ExecutionConfig config) {
+        this.defaultTimeout = config.getRequestTimeout();
+        this.header = config.getRequestTimeoutHeader();
+    }
+
+    /**
+     * Computes the deadline of a request.
+     *
+     * @param routeTimeout The timeout declared by the matched route, or `null` if it declares none.
+     * @param context      The context of the request, whose headers may shorten the deadline.
+     * @return The deadline, or `null` if the request is not bounded.
+     */
+    Instant deadlineFor(Duration routeTimeout, Context context) {
+        Duration timeout = routeTimeout != null ? routeTimeout : defaultTimeout;
+        Duration requested = header != null ? parseHeader(context.exchange().getRequestHeader(header)) : null;
+        if (requested != null && (timeout == null || requested.compareTo(timeout) < 0)) {
+            timeout = requested;
+        }
+        return timeout != null ? Instant.now().plus(timeout) : null;
+    }
+
+    private Duration parseHeader(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(value.trim());
+            return millis > 0 ? Duration.ofMillis(millis) : null;
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring invalid {} header: {}", header, value);
+            return null;
+        }
+    }
+
+    /**
+     * Starts watching the deadline of a request.
+     *
+     * @param deadline The deadline of the request.
+     * @param onExpiry Called on a new virtual thread when the deadline passes before the request
+     *                 completes, with `true` if the handler was running and `false` if the
+     *                 request was still waiting for a free slot.
+     * @return The watch, to be completed by the thread serving the request.
+     */
+    Watch watch(Instant deadline, Consumer<Boolean> onExpiry) {
+        Watch watch = new Watch(Thread.currentThread(), onExpiry);
+        long delay = Math.max(0, Duration.between(Instant.now(), deadline).toNanos());
+        watch.timer = timer().schedule(() -> Thread.ofVirtual().name("ember-request-timeout").start(watch::expire),
+                delay, TimeUnit.NANOSECONDS);
+        return watch;
+    }
+
+    private ScheduledThreadPoolExecutor timer() {
+        ScheduledThreadPoolExecutor current = timer;
+        if (current == null) {
+            synchronized (this) {
+                current = timer;
+                if (current == null) {
+                    if (closed) {
+                        throw new IllegalStateException("Request timeouts are closed");
+                    }
+                    current = new ScheduledThreadPoolExecutor(1, runnable -> {
+                        Thread thread = new Thread(runnable, "ember-request-timer");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    current.setRemoveOnCancelPolicy(true);
+                    timer = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return The number of requests whose deadline passed while their handler was running.
+     */
+    public long getTimedOutTotal() {
+        return timedOutTotal.sum();
+    }
+
+    /**
+     * @return The number of requests whose deadline passed while they waited for a free slot.
+     */
+    public long getExpiredInQueueTotal() {
+        return expiredInQueueTotal.sum();
+    }
+
+    /**
+     * Stops the timer thread. Deadlines of requests still in flight are no longer enforced.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Watches the deadline of a single request.
+     * <p>
+     * A request moves from queued to running when its handler starts, and ends either completed
+     * by the thread serving it or expired by the timer, whichever comes first. Interrupts are
+     * only sent while the request is in flight: once it completes, the interrupt status its
+     * threads may have received is cleared, so it does not leak into the next request.
+     * </p>
+     */
+    final class Watch {
+        private static final int QUEUED = 0;
+        private static final int RUNNING = 1;
+        private static final int COMPLETED = 2;
+        private static final int EXPIRED = 3;
+
+        private final Thread serverThread;
+        private final Consumer<Boolean> onExpiry;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private final CountDownLatch expired = new CountDownLatch(1);
+        private Thread handlerThread;
+        private ScheduledFuture<?> timer;
+
+        private Watch(Thread serverThread, Consumer<Boolean> onExpiry) {
+            this.serverThread = serverThread;
+            this.onExpiry = onExpiry;
+        }
+
+        /**
+         * Marks the handler of the request as started on the calling thread.
+         *
+         * @return `true` if the handler may run, `false` if the deadline already passed.
+         */
+        boolean start() {
+            synchronized (this) {
+                handlerThread = Thread.currentThread();
+            }
+            return state.compareAndSet(QUEUED, RUNNING);
+        }
+
+        /**
+         * Marks the handler of the request as finished on the calling thread, clearing any
+         * interrupt sent because the deadline passed.
+         */
+        void finish() {
+            synchronized (this) {
+                handlerThread = null;
+                if (state.get() == EXPIRED && Thread.currentThread() != serverThread) {
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        /**
+         * @return `true` if the deadline of the request passed before it completed.
+         */
+        boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /**
+         * Completes the request on the thread serving it. If the deadline passed, waits until the
+         * server answered the request, so the exchange is not completed underneath it.
+         */
+        void complete() {
+            timer.cancel(false);
+            int current = state.get();
+            while (current != EXPIRED && !state.compareAndSet(current, COMPLETED)) {
+                current = state.get();
+            }
+            if (current != EXPIRED) {
+                return;
+            }
+
+            while (true) {
+                try {
+                    expired.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // Sent because the deadline passed; cleared below
+                }
+            }
+            // The interrupt was meant for this request only
+            Thread.interrupted();
+        }
+
+        private void expire() {
+            int current = state.get();
+            while (current != COMPLETED && !state.compareAndSet(current, EXPIRED)) {
+                current = state.get();
+            }
+            if (current == COMPLETED || current == EXPIRED) {
+                return;
+            }
+
+            boolean running = current == RUNNING;
+            if (running) {
+                timedOutTotal.increment();
+            } else {
+                expiredInQueueTotal.increment();
+            }
+            try {
+                // Answer first, so the handler cannot start a response of its own once interrupted
+                onExpiry.accept(running);
+            } catch (RuntimeException e) {
+                logger.error("Failed to answer a timed out request", e);
+            } finally {
+                synchronized (this) {
+                    serverThread.interrupt();
+                    if (handlerThread != null && handlerThread != serverThread) {
+                        handlerThread.interrupt();
+                    }
+                }
+                expired.countDown();
+            }
+        }
+    }
+}
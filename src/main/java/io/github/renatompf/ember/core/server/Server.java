@@ -1,122 +1,339 @@
 package io.github.renatompf.ember.core.server;
 
-import com.sun.net.httpserver.HttpServer;
+import io.github.renatompf.ember.core.accesslog.AccessLog;
+import io.github.renatompf.ember.core.http.ErrorResponse;
 import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.core.http.ResponseHandler;
+import io.github.renatompf.ember.core.metrics.MetricsRegistry;
+import io.github.renatompf.ember.core.metrics.RouteMetrics;
+import io.github.renatompf.ember.core.http.SerializerRegistry;
 import io.github.renatompf.ember.core.routing.RouteMatchResult;
 import io.github.renatompf.ember.core.routing.Router;
+import io.github.renatompf.ember.core.server.engine.JdkServerEngine;
+import io.github.renatompf.ember.core.server.engine.ServerEngine;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import io.github.renatompf.ember.core.server.execution.ExecutionConfig;
+import io.github.renatompf.ember.core.server.execution.RequestExecutor;
+import io.github.renatompf.ember.core.session.InMemorySessionStore;
+import io.github.renatompf.ember.core.session.SessionCookie;
+import io.github.renatompf.ember.core.session.SessionStore;
+import io.github.renatompf.ember.core.tracing.Phase;
+import io.github.renatompf.ember.core.tracing.RequestTrace;
+import io.github.renatompf.ember.core.tracing.Tracer;
 import io.github.renatompf.ember.enums.HttpStatusCode;
 import io.github.renatompf.ember.enums.MediaType;
 import io.github.renatompf.ember.enums.RequestHeader;
 import io.github.renatompf.ember.exceptions.HttpException;
+import jdk.jfr.EventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.InetSocketAddress;
-import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Executors;
 
 /**
  * Represents an HTTP server that handles incoming requests and routes them to the appropriate handlers.
  * <p>
  * The server uses a router to determine the correct route for each request and applies middleware
  * to process requests and responses. It can be started on a specified port and can be stopped when no longer needed.
+ * <p>
+ * Connections are accepted and requests parsed by a {@link ServerEngine}. Unless another engine is
+ * given, the JDK's built-in HTTP server is used. Once a request has been routed, its handler is
+ * run by a {@link RequestExecutor}, which bounds the number of concurrent requests and picks the
+ * threads the handler runs on. Requests with a deadline are watched by {@link RequestTimeouts}.
  */
 public class Server {
 
     private static final Logger logger = LoggerFactory.getLogger(Server.class);
+    private static final EventType REQUEST_EVENT = EventType.getEventType(RequestEvent.class);
 
     private final Router router;
     private final List<Middleware> middleware;
-    private HttpServer server;
+    private final ServerEngine engine;
+    private final RequestExecutor requestExecutor;
+    private final ContextPool contextPool;
+    private final RequestTimeouts requestTimeouts;
+    private volatile MetricsRegistry metrics;
+    private volatile Tracer tracer;
+    private volatile AccessLog accessLog;
+    private volatile SessionStore sessionStore = InMemorySessionStore.builder().build();
+    private volatile SessionCookie sessionCookie = SessionCookie.defaults();
+    private volatile SerializerRegistry serializers = SerializerRegistry.defaults();
 
     /**
      * Constructs a new Server instance with the specified router and middleware.
      * <p>
      * This constructor initializes the server with a router for handling routes
      * and a list of middleware to be applied to incoming requests.
-     * If no context middleware is provided, it adds a default ContextMiddleware.
+     * The context of every request is bound to the {@link ContextHolder} by the server itself.
      *
      * @param router    The router instance for managing routes.
      * @param middleware A list of middleware to be applied to requests.
      */
     public Server(Router router, List<Middleware> middleware) {
+        this(router, middleware, new JdkServerEngine());
+    }
+
+    /**
+     * Constructs a new Server instance with the specified router, middleware and server engine.
+     *
+     * @param router     The router instance for managing routes.
+     * @param middleware A list of middleware to be applied to requests.
+     * @param engine     The engine accepting connections and parsing requests.
+     */
+    public Server(Router router, List<Middleware> middleware, ServerEngine engine) {
+        this(router, middleware, engine, ExecutionConfig.defaults());
+    }
+
+    /**
+     * Constructs a new Server instance with the specified router, middleware, server engine and
+     * execution configuration.
+     *
+     * @param router          The router instance for managing routes.
+     * @param middleware      A list of middleware to be applied to requests.
+     * @param engine          The engine accepting connections and parsing requests.
+     * @param executionConfig The configuration of the threads handlers run on.
+     */
+    public Server(Router router, List<Middleware> middleware, ServerEngine engine, ExecutionConfig executionConfig) {
         this.router = router;
+        this.engine = engine;
+        this.requestExecutor = new RequestExecutor(executionConfig);
+        this.requestTimeouts = new RequestTimeouts(executionConfig);
+        this.contextPool = executionConfig.getContextPoolSize() > 0
+                ? new ContextPool(executionConfig.getContextPoolSize(), executionConfig.getLeakDetectionInterval())
+                : null;
         this.middleware = new ArrayList<>(middleware);
-        boolean containsContextMiddleware = middleware
-                .stream()
-                .anyMatch(m -> m instanceof ContextMiddleware);
-        if (!containsContextMiddleware) {
-            this.middleware.add(new ContextMiddleware());
-        }
     }
 
     /**
      * Starts the HTTP server on the specified port.
      * <p>
-     * This method initializes an `HttpServer` instance, sets up a request handler, and starts the server.
-     * It processes incoming HTTP requests by creating a `Context` object, building the middleware chain,
-     * and executing the chain. If an exception occurs during request processing, appropriate HTTP error
-     * responses are sent back to the client.
-     * <p>
-     * The server uses a virtual thread pool executor to handle requests asynchronously.
+     * This method starts the server engine with a handler that processes every incoming request
+     * by creating a `Context` object, building the middleware chain, and executing the chain.
+     * If an exception occurs during request processing, appropriate HTTP error responses are
+     * sent back to the client.
      *
      * @param port The port number on which the server will listen for incoming requests.
      */
     public void start(int port) {
 
         try{
-            server = HttpServer.create(new InetSocketAddress(port), 0);
-            // Setting the custom executor for handling requests asynchronously
-            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
-            logger.info("HTTP server created and executor set.");
-
-            // Setting up the context for handling requests
-            server.createContext("/", exchange -> {
-                logger.info("Received request: {} {}", exchange.getRequestMethod(), exchange.getRequestURI());
-                Context context = new Context(
-                        exchange,
-                        exchange.getRequestURI().getQuery(),
-                        new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))
-                                .lines()
-                                .reduce("", (acc, line) -> acc + line),
-                        exchange.getRequestHeaders().getFirst(RequestHeader.CONTENT_TYPE.getHeaderName()) != null
-                                ? exchange.getRequestHeaders().getFirst(RequestHeader.CONTENT_TYPE.getHeaderName())
-                                : MediaType.OCTET_STREAM.getType(),
-                        Map.of()
-                );
-
-                context.setMiddlewareChain(buildMiddlewareChain(context));
+            engine.start(new InetSocketAddress(port), this::handle);
+            logger.info("============ HTTP server started on port {} ============", port);
+        }catch (IOException e){
+            e.printStackTrace();
+            logger.error("Failed to start HTTP server on port {}: {}", port, e.getMessage());
+        }
+
+    }
+
+    /**
+     * Handles a single request received by the server engine.
+     *
+     * @param exchange The exchange of the request.
+     */
+    private void handle(ServerExchange exchange) {
+        long started = System.nanoTime();
+        logger.debug("Received request: {} {}", exchange.getRequestMethod(), exchange.getRequestURI());
+        String contentType = exchange.getRequestHeader(RequestHeader.CONTENT_TYPE.getHeaderName());
+        if (contentType == null) {
+            contentType = MediaType.OCTET_STREAM.getType();
+        }
+        String query = exchange.getRequestURI().getQuery();
+        Context context = contextPool != null
+                ? contextPool.acquire(exchange, query, contentType, serializers)
+                : new Context(exchange, query, contentType, Map.of(), serializers);
+        context.setSessions(sessionStore, sessionCookie);
+
+        MetricsRegistry metrics = this.metrics;
+        MeteredExchange metered = null;
+        RouteMetrics routeMetrics = null;
+        // Checked on the event type, so that no event is allocated per request while no recording enables it
+        boolean recordEvent = REQUEST_EVENT.isEnabled();
+        RequestEvent requestEvent = null;
+        if (recordEvent) {
+            requestEvent = new RequestEvent();
+            requestEvent.begin();
+        }
+        AccessLog accessLog = this.accessLog;
+        if (metrics != null || recordEvent || accessLog != null) {
+            context.decorateExchange(MeteredExchange::new);
+            metered = (MeteredExchange) context.exchange();
+            exchange = metered;
+        }
+        Tracer tracer = this.tracer;
+        RequestTrace trace = tracer != null
+                ? tracer.sample(exchange.getRequestMethod(), exchange.getRequestURI().getPath())
+                : null;
+        if (trace != null) {
+            context.setTrace(trace);
+            context.decorateExchange(e -> new TracingExchange(e, trace, tracer));
+        }
+
+        RequestTimeouts.Watch watch = null;
+        try {
+            context.setMiddlewareChain(buildMiddlewareChain(context));
+            RouteMatchResult route = context.getRoute();
+            if (metrics != null) {
+                routeMetrics = metrics.route(exchange.getRequestMethod(), route != null ? route.pattern() : null);
+                routeMetrics.requestStarted();
+            }
+            Instant deadline = requestTimeouts.deadlineFor(route != null ? route.timeout() : null, context);
+            if (deadline != null) {
+                context.setDeadline(deadline);
+                context.decorateExchange(CommitGuardExchange::new);
+                CommitGuardExchange guard = (CommitGuardExchange) context.exchange();
+                watch = requestTimeouts.watch(deadline, running -> answerExpired(context, guard, running));
+            }
+            RequestTimeouts.Watch requestWatch = watch;
+            requestExecutor.execute(route != null ? route.executor() : null, () -> runChain(context, requestWatch));
+        } catch (Exception e) {
+            if (watch != null) {
+                // Settles the race with the deadline: once completed, the timer can no longer answer
+                watch.complete();
+            }
+            if (watch != null && watch.isExpired()) {
+                // The request has been answered when its deadline passed
+                logger.debug("Request {} {} ended after its deadline: {}",
+                        exchange.getRequestMethod(), exchange.getRequestURI(), e.toString());
+            } else if (e instanceof HttpException httpException) {
+                logger.error("HTTP exception occurred: {}", httpException.getMessage());
+                answerError(context, httpException.getStatus(), httpException.getMessage());
+            } else {
+                logger.error("Unexpected error occurred while processing request.", e);
+                e.printStackTrace();
+                HttpStatusCode internalServerError = HttpStatusCode.INTERNAL_SERVER_ERROR;
+                answerError(context, internalServerError, internalServerError.getMessage());
+            }
+        } finally {
+            boolean expired = false;
+            if (watch != null) {
+                watch.complete();
+                expired = watch.isExpired();
+            }
+            if (trace != null) {
+                tracer.complete(trace);
+            }
+            if (routeMetrics != null) {
+                routeMetrics.requestCompleted(metered.status(), System.nanoTime() - started,
+                        requestLength(exchange), metered.responseBytes());
+            }
+            if (accessLog != null) {
+                RouteMatchResult route = context.getRoute();
+                accessLog.record(exchange, route != null ? route.pattern() : null, metered.status(),
+                        metered.responseBytes(), System.nanoTime() - started);
+            }
+            if (recordEvent) {
+                requestEvent.end();
+                if (requestEvent.shouldCommit()) {
+                    RouteMatchResult route = context.getRoute();
+                    requestEvent.method = exchange.getRequestMethod();
+                    requestEvent.path = exchange.getRequestURI().getPath();
+                    requestEvent.route = route != null ? route.pattern() : null;
+                    requestEvent.status = metered.status();
+                    requestEvent.requestBytes = requestLength(exchange);
+                    requestEvent.responseBytes = metered.responseBytes();
+                    requestEvent.commit();
+                }
+            }
+            // The handler of an expired request may still be running on another thread
+            if (contextPool != null && !expired) {
+                contextPool.release(context);
+            }
+        }
+    }
+
+    private static long requestLength(ServerExchange exchange) {
+        String contentLength = exchange.getRequestHeader(RequestHeader.CONTENT_LENGTH.getHeaderName());
+        if (contentLength == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(contentLength);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Runs the middleware chain of a request on the calling thread.
+     *
+     * @param context The context of the request.
+     * @param watch   The watch of the request's deadline, or `null` if it has none.
+     * @throws Exception If the chain fails.
+     */
+    private void runChain(Context context, RequestTimeouts.Watch watch) throws Exception {
+        if (watch != null && !watch.start()) {
+            // The deadline passed while the request was queued
+            return;
+        }
+        try {
+            // The context is bound on the thread running the chain, which may not be the server's
+            ContextHolder.callWith(context, () -> {
                 try {
                     context.next();
-                } catch (HttpException e) {
-                    logger.error("HTTP exception occurred: {}", e.getMessage());
-                    exchange.sendResponseHeaders(e.getStatus().getCode(), 0);
-                    exchange.getResponseBody().write(e.getMessage().getBytes());
-                    exchange.close();
-                } catch (Exception e) {
-                    logger.error("Unexpected error occurred while processing request.", e);
-                    e.printStackTrace();
-                    HttpStatusCode internalServerError = HttpStatusCode.INTERNAL_SERVER_ERROR;
-                    exchange.sendResponseHeaders(internalServerError.getCode(), 0);
-                    exchange.getResponseBody().write(HttpStatusCode.INTERNAL_SERVER_ERROR.getMessage().getBytes());
-                    exchange.close();
+                } finally {
+                    context.commitSession();
                 }
-
+                return null;
             });
+        } finally {
+            if (watch != null) {
+                watch.finish();
+            }
+        }
+    }
 
-            server.start();
-            logger.info("============ HTTP server started on port {} ============", port);
-        }catch (IOException e){
-            e.printStackTrace();
-            logger.error("Failed to start HTTP server on port {}: {}", port, e.getMessage());
+    /**
+     * Answers a request whose deadline passed, unless its handler already started a response.
+     * <p>
+     * The answer goes through the exchange as decorated by the middleware so far, so that it is,
+     * for example, compressed and carries the session cookie like any other response.
+     * </p>
+     *
+     * @param context The context of the request.
+     * @param guard   The exchange guarding the response of the request.
+     * @param running `true` if the handler was running, `false` if the request was still queued.
+     */
+    private void answerExpired(Context context, CommitGuardExchange guard, boolean running) {
+        HttpStatusCode status = running ? HttpStatusCode.GATEWAY_TIMEOUT : HttpStatusCode.SERVICE_UNAVAILABLE;
+        logger.warn("Request {} {} exceeded its deadline; answering {}",
+                guard.getRequestMethod(), guard.getRequestURI(), status.getCode());
+        try {
+            guard.answerExclusively(() -> new ResponseHandler(context.exchange(), serializers).handleResponse(Response
+                    .status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(new ErrorResponse(status, "Request timed out"))
+                    .build()));
+        } catch (RuntimeException e) {
+            logger.debug("Could not answer the expired request: {}", e.getMessage());
         }
+    }
 
+    /**
+     * Answers a request whose handling failed, through the exchange as decorated by the middleware
+     * so far, like {@link #answerExpired}.
+     *
+     * @param context The context of the request.
+     * @param status  The status of the answer.
+     * @param message The message of the answer.
+     */
+    private void answerError(Context context, HttpStatusCode status, String message) {
+        try {
+            new ResponseHandler(context.exchange(), serializers).handleResponse(Response
+                    .status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(new ErrorResponse(status, message))
+                    .build());
+            context.exchange().close();
+        } catch (RuntimeException e) {
+            // The handler may have committed its own response before failing
+            logger.debug("Could not answer the failed request: {}", e.getMessage());
+        }
     }
 
     /**
@@ -134,15 +351,25 @@ public class Server {
         logger.debug("Building middleware chain for request: {} {}", context.getMethod(), context.getPath());
         List<Middleware> fullChain = new ArrayList<>(middleware);
 
+        RequestTrace trace = context.getTrace();
         try {
+            if (trace != null) {
+                trace.enter(Phase.ROUTING);
+            }
             RouteMatchResult match = router.getRoute(context.getMethod(), context.getPath());
+            if (trace != null) {
+                trace.exit();
+                trace.setRoute(match != null ? match.pattern() : null);
+            }
             if(match != null) {
                 logger.debug("Route match found: {}", match);
-                context.pathParams().setPathParams(match.parameters());
+                context.setRoute(match);
+                context.setPathParams(match.parameters());
                 fullChain.addAll(match.middlewareChain().middleware());
                 fullChain.add(c -> match.middlewareChain().handler().accept(c));
             } else {
-                logger.warn("No route match found for path: {}", context.getPath());
+                // Floods of unmatched requests are reported by the access log, not one warning each
+                logger.debug("No route match found for path: {}", context.getPath());
                 fullChain.add(c -> c.response().handleResponse(
                         Response
                                 .status(HttpStatusCode.NOT_FOUND)
@@ -176,10 +403,146 @@ public class Server {
      * This method stops the server and releases any resources associated with it.
      */
     public void stop() {
-        if (server != null) {
-            server.stop(0);
-            logger.info("HTTP server stopped");
+        engine.stop();
+        requestExecutor.close();
+        requestTimeouts.close();
+        AccessLog accessLog = this.accessLog;
+        if (accessLog != null) {
+            accessLog.close();
         }
+        sessionStore.close();
+        logger.info("HTTP server stopped");
+    }
+
+    /**
+     * Sets the serializers used to write response bodies. Must be called before the server is started.
+     *
+     * @param serializers The serializers of the application.
+     */
+    public void setSerializers(SerializerRegistry serializers) {
+        this.serializers = serializers;
+    }
+
+    /**
+     * Returns the executor running route handlers, which exposes the in-flight and queue gauges.
+     *
+     * @return The request executor.
+     */
+    public RequestExecutor getRequestExecutor() {
+        return requestExecutor;
+    }
+
+    /**
+     * Records the metrics of every request in the given registry, which also exposes the gauges
+     * of the request executor and the request timeout counters. Must be called before the server
+     * is started.
+     *
+     * @param metrics The registry to record metrics in, or `null` to stop recording.
+     */
+    public void setMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+        if (metrics == null) {
+            return;
+        }
+        metrics.gauge("ember_executor_in_flight", "Requests holding a slot of the request executor.",
+                        requestExecutor::getInFlight)
+                .gauge("ember_executor_queued", "Requests waiting for a free slot.", requestExecutor::getQueued)
+                .counter("ember_executor_queued_total", "Requests that had to wait for a free slot.",
+                        requestExecutor::getQueuedTotal)
+                .counter("ember_executor_queue_wait_nanoseconds_total", "Time requests spent waiting for a free slot.",
+                        requestExecutor::getQueueWaitNanosTotal)
+                .counter("ember_executor_rejected_total", "Requests rejected because the server was at capacity.",
+                        requestExecutor::getRejectedTotal)
+                .counter("ember_request_timeouts_total", "Requests whose deadline passed while being handled.",
+                        requestTimeouts::getTimedOutTotal)
+                .counter("ember_request_expired_in_queue_total", "Requests whose deadline passed while queued.",
+                        requestTimeouts::getExpiredInQueueTotal);
+    }
+
+    /**
+     * Traces the phases of the requests sampled by the given tracer. Must be called before the
+     * server is started.
+     *
+     * @param tracer The tracer, or `null` to trace no request.
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Returns the tracer sampling the requests whose phases are traced.
+     *
+     * @return The tracer, or `null` if no request is traced.
+     */
+    public Tracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Logs completed requests to the given access log, which the server closes when it stops.
+     * Must be called before the server is started.
+     *
+     * @param accessLog The access log, or `null` to log no request.
+     */
+    public void setAccessLog(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    /**
+     * Stores the sessions of requests in the given store, which the server closes when it stops.
+     * Defaults to an {@link InMemorySessionStore} with its default limits. Must be called before
+     * the server is started.
+     *
+     * @param sessionStore The session store.
+     */
+    public void setSessionStore(SessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+    }
+
+    /**
+     * Returns the store the sessions of requests are kept in.
+     *
+     * @return The session store.
+     */
+    public SessionStore getSessionStore() {
+        return sessionStore;
+    }
+
+    /**
+     * Sets the settings of the cookie carrying the session ID. Must be called before the server
+     * is started.
+     *
+     * @param sessionCookie The settings of the session cookie.
+     */
+    public void setSessionCookie(SessionCookie sessionCookie) {
+        this.sessionCookie = sessionCookie;
+    }
+
+    /**
+     * Returns the access log completed requests are logged to.
+     *
+     * @return The access log, or `null` if requests are not logged.
+     */
+    public AccessLog getAccessLog() {
+        return accessLog;
+    }
+
+    /**
+     * Returns the registry the metrics of requests are recorded in.
+     *
+     * @return The metrics registry, or `null` if metrics are not recorded.
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the deadlines enforcer of requests, which exposes the timed out request counters.
+     *
+     * @return The request timeouts.
+     */
+    public RequestTimeouts getRequestTimeouts() {
+        return requestTimeouts;
     }
 
     /**
@@ -0,0 +1,107 @@
+package io.github.renatompf.ember.core.server;
+
+import io.github.renatompf.ember.core.http.SessionManager;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link ServerExchange} saving the session of a request just before its response is sent,
+ * installed once the handler uses the session.
+ * <p>
+ * Saving the session before the client gets the response ensures its next request finds the
+ * session, even if it arrives before the handler returns.
+ * </p>
+ */
+final class SessionCommitExchange implements ServerExchange {
+    private final ServerExchange delegate;
+    private final SessionManager sessionManager;
+
+    /**
+     * Constructs a new SessionCommitExchange.
+     *
+     * @param delegate       The exchange of the request.
+     * @param sessionManager The session manager of the request.
+     */
+    SessionCommitExchange(ServerExchange delegate, SessionManager sessionManager) {
+        this.delegate = delegate;
+        this.sessionManager = sessionManager;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return delegate.getRequestMethod();
+    }
+
+    @Override
+    public String getRequestProtocol() {
+        return delegate.getRequestProtocol();
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return delegate.getRequestURI();
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestHeaders() {
+        return delegate.getRequestHeaders();
+    }
+
+    @Override
+    public String getRequestHeader(String name) {
+        return delegate.getRequestHeader(name);
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return delegate.getRequestBody();
+    }
+
+    @Override
+    public String getResponseHeader(String name) {
+        return delegate.getResponseHeader(name);
+    }
+
+    @Override
+    public void setResponseHeader(String name, String value) {
+        delegate.setResponseHeader(name, value);
+    }
+
+    @Override
+    public void addResponseHeader(String name, String value) {
+        delegate.addResponseHeader(name, value);
+    }
+
+    @Override
+    public void sendResponseHeaders(int statusCode, long responseLength) throws IOException {
+        sessionManager.commit();
+        delegate.sendResponseHeaders(statusCode, responseLength);
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return delegate.getResponseBody();
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return delegate.getRemoteAddress();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public void abort() {
+        delegate.abort();
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.renatompf.ember.core.server;
+
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import io.github.renatompf.ember.core.tracing.RequestTrace;
+import io.github.renatompf.ember.core.tracing.Tracer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link ServerExchange} letting trace sinks add headers when the response of a traced
+ * request is committed, installed only for sampled requests.
+ */
+final class TracingExchange implements ServerExchange {
+    private final ServerExchange delegate;
+    private final RequestTrace trace;
+    private final Tracer tracer;
+
+    /**
+     * Constructs a new TracingExchange.
+     *
+     * @param delegate The exchange of the request.
+     * @param trace    The trace of the request.
+     * @param tracer   The tracer holding the sinks.
+     */
+    TracingExchange(ServerExchange delegate, RequestTrace trace, Tracer tracer) {
+        this.delegate = delegate;
+        this.trace = trace;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return delegate.getRequestMethod();
+    }
+
+    @Override
+    public String getRequestProtocol() {
+        return delegate.getRequestProtocol();
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return delegate.getRequestURI();
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestHeaders() {
+        return delegate.getRequestHeaders();
+    }
+
+    @Override
+    public String getRequestHeader(String name) {
+        return delegate.getRequestHeader(name);
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return delegate.getRequestBody();
+    }
+
+    @Override
+    public String getResponseHeader(String name) {
+        return delegate.getResponseHeader(name);
+    }
+
+    @Override
+    public void setResponseHeader(String name, String value) {
+        delegate.setResponseHeader(name, value);
+    }
+
+    @Override
+    public void addResponseHeader(String name, String value) {
+        delegate.addResponseHeader(name, value);
+    }
+
+    @Override
+    public void sendResponseHeaders(int statusCode, long responseLength) throws IOException {
+        trace.setStatus(statusCode);
+        tracer.beforeCommit(trace, delegate);
+        delegate.sendResponseHeaders(statusCode, responseLength);
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return delegate.getResponseBody();
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return delegate.getRemoteAddress();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public void abort() {
+        delegate.abort();
+    }
+}
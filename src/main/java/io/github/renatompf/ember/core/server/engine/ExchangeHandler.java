@@ -0,0 +1,19 @@
+package io.github.renatompf.ember.core.server.engine;
+
+import java.io.IOException;
+
+/**
+ * A functional interface representing the handler a {@link ServerEngine} dispatches every
+ * request to.
+ */
+@FunctionalInterface
+public interface ExchangeHandler {
+
+    /**
+     * Handles the given exchange.
+     *
+     * @param exchange The exchange to handle.
+     * @throws IOException If an I/O error occurs while handling the exchange.
+     */
+    void handle(ServerExchange exchange) throws IOException;
+}
@@ -0,0 +1,53 @@
+package io.github.renatompf.ember.core.server.engine;
+
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A {@link ServerEngine} backed by the JDK's built-in `com.sun.net.httpserver.HttpServer`.
+ * <p>
+ * Requests are handled on a virtual thread per request.
+ * </p>
+ */
+public class JdkServerEngine implements ServerEngine {
+    private static final Logger logger = LoggerFactory.getLogger(JdkServerEngine.class);
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Default constructor for the JdkServerEngine class.
+     */
+    public JdkServerEngine() {}
+
+    @Override
+    public void start(InetSocketAddress address, ExchangeHandler handler) throws IOException {
+        server = HttpServer.create(address, 0);
+        // Setting the custom executor for handling requests asynchronously
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        logger.info("HTTP server created and executor set.");
+
+        // Setting up the context for handling requests
+        server.createContext("/", exchange -> handler.handle(new JdkServerExchange(exchange)));
+        server.start();
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.renatompf.ember.core.server.engine;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adapts a `com.sun.net.httpserver.HttpExchange` to the {@link ServerExchange} interface.
+ */
+public class JdkServerExchange implements ServerExchange {
+    private final HttpExchange exchange;
+
+    /**
+     * Constructs a new JdkServerExchange wrapping the given exchange.
+     *
+     * @param exchange The JDK HTTP exchange.
+     */
+    public JdkServerExchange(HttpExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return exchange.getRequestMethod();
+    }
+
+    @Override
+    public String getRequestProtocol() {
+        return exchange.getProtocol();
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return exchange.getRequestURI();
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestHeaders() {
+        return exchange.getRequestHeaders();
+    }
+
+    @Override
+    public String getRequestHeader(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return exchange.getRequestBody();
+    }
+
+    @Override
+    public String getResponseHeader(String name) {
+        return exchange.getResponseHeaders().getFirst(name);
+    }
+
+    @Override
+    public void setResponseHeader(String name, String value) {
+        exchange.getResponseHeaders().set(name, value);
+    }
+
+    @Override
+    public void addResponseHeader(String name, String value) {
+        exchange.getResponseHeaders().add(name, value);
+    }
+
+    @Override
+    public void sendResponseHeaders(int statusCode, long responseLength) throws IOException {
+        exchange.sendResponseHeaders(statusCode, responseLength);
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return exchange.getResponseBody();
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return exchange.getRemoteAddress();
+    }
+
+    @Override
+    public void close() {
+        exchange.close();
+    }
+
+    /**
+     * Retrieves the wrapped JDK exchange.
+     *
+     * @return The JDK HTTP exchange.
+     */
+    public HttpExchange unwrap() {
+        return exchange;
+    }
+}
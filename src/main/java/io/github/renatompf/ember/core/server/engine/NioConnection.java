@@ -0,0 +1,278 @@
+package io.github.renatompf.ember.core.server.engine;
+
+import io.github.renatompf.ember.enums.HttpStatusCode;
+import io.github.renatompf.ember.exceptions.HttpException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A client connection accepted by the {@link NioServerEngine}.
+ * <p>
+ * Each connection owns a read buffer and a write buffer which are reused for every request
+ * sent over it. While the connection is idle it is registered with a selector, which reads
+ * and parses request heads without blocking. Once a complete head is available the connection
+ * is switched to blocking mode and served on a worker thread until no further request is
+ * buffered, after which it is handed back to the selector.
+ * </p>
+ */
+final class NioConnection {
+    private final SocketChannel channel;
+    private final InetSocketAddress remoteAddress;
+    private final NioServerEngine.SelectorLoop loop;
+    private final Runnable onClose;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /** The read buffer; unread bytes are kept in the range [start, end). */
+    private final byte[] in;
+    private int start;
+    private int end;
+    /** The offset up to which the buffer has been searched for the end of the request head. */
+    private int scanned;
+
+    private final byte[] out;
+    private int outCount;
+
+    private RequestHead pendingHead;
+    private int requests;
+    private volatile long lastActivity;
+
+    /**
+     * Constructs a new NioConnection.
+     *
+     * @param channel       The accepted socket channel.
+     * @param remoteAddress The address of the client.
+     * @param loop          The selector loop the connection is registered with while idle.
+     * @param bufferSize    The size of the read and write buffers, which bounds the size of a request head.
+     * @param onClose       Called once when the connection is closed.
+     */
+    NioConnection(SocketChannel channel, InetSocketAddress remoteAddress, NioServerEngine.SelectorLoop loop,
+                  int bufferSize, Runnable onClose) {
+        this.channel = channel;
+        this.remoteAddress = remoteAddress;
+        this.loop = loop;
+        this.onClose = onClose;
+        this.in = new byte[bufferSize];
+        this.out = new byte[bufferSize];
+        touch();
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    InetSocketAddress remoteAddress() {
+        return remoteAddress;
+    }
+
+    NioServerEngine.SelectorLoop loop() {
+        return loop;
+    }
+
+    long lastActivity() {
+        return lastActivity;
+    }
+
+    void touch() {
+        lastActivity = System.nanoTime();
+    }
+
+    void setPendingHead(RequestHead head) {
+        this.pendingHead = head;
+    }
+
+    /**
+     * Retrieves and clears the request head parsed by the selector, awaiting dispatch to a worker.
+     *
+     * @return The pending request head.
+     */
+    RequestHead takePendingHead() {
+        RequestHead head = pendingHead;
+        pendingHead = null;
+        return head;
+    }
+
+    /**
+     * Increments and returns the number of requests served on this connection.
+     *
+     * @return The number of requests served so far, including the current one.
+     */
+    int countRequest() {
+        return ++requests;
+    }
+
+    /**
+     * Reads more bytes from the channel into the read buffer, compacting it first if needed.
+     *
+     * @return The number of bytes read, `0` if the buffer is full or no bytes were available,
+     * or `-1` at the end of the stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    int fill() throws IOException {
+        if (end == in.length) {
+            if (start == 0) {
+                return 0;
+            }
+            compact();
+        }
+        int read = channel.read(ByteBuffer.wrap(in, end, in.length - end));
+        if (read > 0) {
+            end += read;
+        }
+        return read;
+    }
+
+    private void compact() {
+        int length = end - start;
+        System.arraycopy(in, start, in, 0, length);
+        scanned = Math.max(0, scanned - start);
+        start = 0;
+        end = length;
+    }
+
+    /**
+     * Parses the next request head from the bytes buffered so far.
+     *
+     * @return The request head, or `null` if the buffer does not hold a complete head yet.
+     * @throws HttpException If the head is malformed or does not fit in the buffer.
+     */
+    RequestHead parseHead() {
+        // Empty lines preceding a request line are ignored
+        while (start < end && (in[start] == '\r' || in[start] == '\n')) {
+            start++;
+        }
+
+        for (int i = Math.max(start, scanned); i + 3 < end; i++) {
+            if (in[i] == '\r' && in[i + 1] == '\n' && in[i + 2] == '\r' && in[i + 3] == '\n') {
+                RequestHead head = RequestHead.parse(in, start, i + 4);
+                start = i + 4;
+                scanned = start;
+                return head;
+            }
+        }
+
+        scanned = Math.max(start, end - 3);
+        if (start == 0 && end == in.length) {
+            throw new HttpException(HttpStatusCode.REQUEST_HEADER_FIELDS_TOO_LARGE,
+                    "Request head exceeds " + in.length + " bytes");
+        }
+        return null;
+    }
+
+    /**
+     * Reads request body bytes, taking buffered bytes first. Must be called in blocking mode.
+     *
+     * @param b      The destination array.
+     * @param offset The offset in the destination array.
+     * @param length The maximum number of bytes to read; callers never ask for more than the
+     *               remaining body, so bytes of a pipelined request are left in the channel.
+     * @return The number of bytes read, or `-1` at the end of the stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    int read(byte[] b, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (start < end) {
+            int count = Math.min(length, end - start);
+            System.arraycopy(in, start, b, offset, count);
+            start += count;
+            return count;
+        }
+        // Read straight into the caller's array to avoid an extra copy
+        return channel.read(ByteBuffer.wrap(b, offset, length));
+    }
+
+    /**
+     * Reads a single byte, buffering further bytes. Must be called in blocking mode.
+     *
+     * @return The byte read, or `-1` at the end of the stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    int read() throws IOException {
+        if (start == end) {
+            start = 0;
+            end = 0;
+            scanned = 0;
+            if (fill() < 0) {
+                return -1;
+            }
+        }
+        return in[start++] & 0xFF;
+    }
+
+    /**
+     * Writes a string as ISO-8859-1 bytes to the write buffer.
+     *
+     * @param value The string to write.
+     * @throws IOException If the buffer must be flushed and an I/O error occurs.
+     */
+    void writeAscii(String value) throws IOException {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            if (outCount == out.length) {
+                flush();
+            }
+            out[outCount++] = (byte) value.charAt(i);
+        }
+    }
+
+    /**
+     * Writes bytes through the write buffer. Large writes bypass the buffer.
+     *
+     * @param b      The source array.
+     * @param offset The offset in the source array.
+     * @param length The number of bytes to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    void write(byte[] b, int offset, int length) throws IOException {
+        if (length >= out.length) {
+            flush();
+            writeFully(ByteBuffer.wrap(b, offset, length));
+            return;
+        }
+        if (length > out.length - outCount) {
+            flush();
+        }
+        System.arraycopy(b, offset, out, outCount, length);
+        outCount += length;
+    }
+
+    /**
+     * Writes all buffered bytes to the channel.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    void flush() throws IOException {
+        if (outCount > 0) {
+            writeFully(ByteBuffer.wrap(out, 0, outCount));
+            outCount = 0;
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Closes the connection. Subsequent calls have no effect.
+     */
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // The connection is being discarded anyway
+            }
+            onClose.run();
+        }
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+}
@@ -0,0 +1,544 @@
+package io.github.renatompf.ember.core.server.engine;
+
+import io.github.renatompf.ember.enums.HttpStatusCode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The {@link ServerExchange} of a request received by the {@link NioServerEngine}.
+ * <p>
+ * The request body is read straight from the connection, and the response is written through
+ * the connection's write buffer, so the status line, headers and a small body are sent to
+ * the client in a single write.
+ * </p>
+ */
+final class NioExchange implements ServerExchange {
+    /** The maximum number of unread request body bytes skipped to keep a connection alive. */
+    private static final long MAX_DRAIN_BYTES = 64 * 1024;
+    /** The maximum length of a chunk size or trailer line of a chunked request body. */
+    private static final int MAX_CHUNK_LINE = 8 * 1024;
+
+    private final NioServerEngine engine;
+    private final NioConnection connection;
+    private final RequestHead head;
+    private final boolean reusable;
+    private final Map<String, List<String>> responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final RequestBodyStream requestBody;
+    private ResponseBodyStream responseBody;
+    private boolean keepAlive;
+    private boolean continueSent;
+
+    /**
+     * Constructs a new NioExchange.
+     *
+     * @param engine     The engine that received the request.
+     * @param connection The connection the request was received on.
+     * @param head       The parsed request head.
+     * @param reusable   Whether the connection may serve further requests after this one.
+     */
+    NioExchange(NioServerEngine engine, NioConnection connection, RequestHead head, boolean reusable) {
+        this.engine = engine;
+        this.connection = connection;
+        this.head = head;
+        this.reusable = reusable;
+        this.requestBody = head.chunked()
+                ? new ChunkedBodyStream()
+                : new FixedLengthBodyStream(Math.max(head.contentLength(), 0));
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return head.method();
+    }
+
+    @Override
+    public String getRequestProtocol() {
+        return head.http11() ? "HTTP/1.1" : "HTTP/1.0";
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return head.uri();
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestHeaders() {
+        return head.headers();
+    }
+
+    @Override
+    public String getRequestHeader(String name) {
+        return head.header(name);
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return requestBody;
+    }
+
+    @Override
+    public String getResponseHeader(String name) {
+        List<String> values = responseHeaders.get(name);
+        return values == null || values.isEmpty() ? null : values.getFirst();
+    }
+
+    @Override
+    public void setResponseHeader(String name, String value) {
+        checkHeader(name, value);
+        List<String> values = new ArrayList<>(1);
+        values.add(value);
+        responseHeaders.put(name, values);
+    }
+
+    @Override
+    public void addResponseHeader(String name, String value) {
+        checkHeader(name, value);
+        responseHeaders.computeIfAbsent(name, n -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void sendResponseHeaders(int statusCode, long responseLength) throws IOException {
+        if (responseBody != null) {
+            throw new IOException("Response headers have already been sent");
+        }
+
+        keepAlive = reusable && head.keepAlive()
+                && !"close".equalsIgnoreCase(getResponseHeader("Connection"));
+
+        boolean bodyAllowed = !head.method().equals("HEAD")
+                && statusCode >= 200 && statusCode != 204 && statusCode != 304;
+
+        if (responseLength > 0) {
+            setResponseHeader("Content-Length", Long.toString(responseLength));
+            responseBody = bodyAllowed ? new FixedLengthResponseStream(responseLength) : new DiscardingResponseStream();
+        } else if (responseLength == 0 && bodyAllowed) {
+            if (head.http11()) {
+                setResponseHeader("Transfer-Encoding", "chunked");
+                responseBody = new ChunkedResponseStream();
+            } else {
+                // HTTP/1.0 has no chunked encoding, so the end of the body is marked by closing the connection
+                keepAlive = false;
+                responseBody = new UnframedResponseStream();
+            }
+        } else {
+            if (statusCode >= 200 && statusCode != 204 && statusCode != 304) {
+                setResponseHeader("Content-Length", "0");
+            }
+            responseBody = new DiscardingResponseStream();
+        }
+
+        setResponseHeader("Date", engine.currentDate());
+        if (!keepAlive) {
+            setResponseHeader("Connection", "close");
+        } else if (!head.http11()) {
+            setResponseHeader("Connection", "keep-alive");
+        }
+
+        HttpStatusCode status = HttpStatusCode.fromCode(statusCode);
+        connection.writeAscii("HTTP/1.1 " + statusCode + " " + (status != null ? status.getMessage() : "") + "\r\n");
+        for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+            for (String value : header.getValue()) {
+                connection.writeAscii(header.getKey());
+                connection.writeAscii(": ");
+                connection.writeAscii(value);
+                connection.writeAscii("\r\n");
+            }
+        }
+        // The head stays buffered until the body is written or the stream is closed
+        connection.writeAscii("\r\n");
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        if (responseBody == null) {
+            throw new IllegalStateException("Response headers have not been sent");
+        }
+        return responseBody;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return connection.remoteAddress();
+    }
+
+    @Override
+    public void close() {
+        if (responseBody != null) {
+            try {
+                responseBody.close();
+            } catch (IOException e) {
+                keepAlive = false;
+            }
+        }
+    }
+
+    @Override
+    public void abort() {
+        keepAlive = false;
+        if (responseBody != null) {
+            // Marked closed but not complete, so closing the exchange writes nothing more
+            responseBody.closed = true;
+            responseBody.aborted = true;
+        }
+        connection.close();
+    }
+
+    /**
+     * Completes the exchange once the handler has returned.
+     *
+     * @return `true` if the connection can be reused for another request, `false` if it must be closed.
+     */
+    boolean complete() {
+        if (responseBody == null) {
+            if (requestBody.malformed) {
+                // The handler failed on the malformed body without answering
+                try {
+                    responseHeaders.clear();
+                    setResponseHeader("Connection", "close");
+                    sendResponseHeaders(HttpStatusCode.BAD_REQUEST.getCode(), -1);
+                    close();
+                } catch (IOException ignored) {
+                    // The connection is closed anyway
+                }
+            }
+            return false;
+        }
+        close();
+        return keepAlive && responseBody.isComplete() && requestBody.drain();
+    }
+
+    /**
+     * Checks that a response header can be written as is, so that a value taken from the request
+     * cannot end the header line and inject further headers or a body.
+     *
+     * @param name  The header name, which must be a token.
+     * @param value The header value, which must not contain control characters other than tabs.
+     * @throws IllegalArgumentException If the name or value is invalid.
+     */
+    private static void checkHeader(String name, String value) {
+        if (name == null || !RequestHead.isToken(name)) {
+            throw new IllegalArgumentException("Invalid response header name: " + name);
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Response header " + name + " has no value");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < ' ' && c != '\t') || c == 0x7F) {
+                throw new IllegalArgumentException("Invalid character in response header " + name
+                        + ": 0x" + Integer.toHexString(c));
+            }
+        }
+    }
+
+    /**
+     * Sends a `100 Continue` interim response the first time the body is read, if the client asked for it.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private void sendContinueIfExpected() throws IOException {
+        if (head.expectContinue() && !continueSent && responseBody == null) {
+            continueSent = true;
+            connection.writeAscii("HTTP/1.1 100 Continue\r\n\r\n");
+            connection.flush();
+        }
+    }
+
+    /**
+     * A request body stream which can skip its remaining bytes to make room for the next request.
+     */
+    private abstract class RequestBodyStream extends InputStream {
+        /** Whether the body turned out to be malformed, so the request deserves a `400 Bad Request`. */
+        boolean malformed;
+
+        IOException malformed(String message) {
+            malformed = true;
+            return new IOException(message);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        /**
+         * Skips the unread part of the body.
+         *
+         * @return `true` if the whole body has been consumed, `false` if it is too large to skip.
+         */
+        boolean drain() {
+            if (head.expectContinue() && !continueSent) {
+                // The client is still waiting for permission to send the body
+                return false;
+            }
+            try {
+                long skipped = 0;
+                byte[] discard = new byte[4096];
+                int read;
+                while ((read = read(discard, 0, discard.length)) >= 0) {
+                    skipped += read;
+                    if (skipped > MAX_DRAIN_BYTES) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * A request body delimited by `Content-Length`.
+     */
+    private final class FixedLengthBodyStream extends RequestBodyStream {
+        private long remaining;
+
+        private FixedLengthBodyStream(long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public int read(byte[] b, int offset, int length) throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            sendContinueIfExpected();
+            int read = connection.read(b, offset, (int) Math.min(length, remaining));
+            if (read < 0) {
+                throw new IOException("Connection closed before the request body was complete");
+            }
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * A request body sent with chunked transfer encoding.
+     */
+    private final class ChunkedBodyStream extends RequestBodyStream {
+        private long chunkRemaining;
+        private boolean finished;
+
+        @Override
+        public int read(byte[] b, int offset, int length) throws IOException {
+            if (finished) {
+                return -1;
+            }
+            sendContinueIfExpected();
+            if (chunkRemaining == 0) {
+                chunkRemaining = readChunkSize();
+                if (chunkRemaining == 0) {
+                    // Skip the trailer section
+                    while (!readLine().isEmpty()) {
+                        // Trailers are not exposed
+                    }
+                    finished = true;
+                    return -1;
+                }
+            }
+            int read = connection.read(b, offset, (int) Math.min(length, chunkRemaining));
+            if (read < 0) {
+                throw new IOException("Connection closed before the request body was complete");
+            }
+            chunkRemaining -= read;
+            if (chunkRemaining == 0 && !readLine().isEmpty()) {
+                throw malformed("Malformed chunk terminator");
+            }
+            return read;
+        }
+
+        private long readChunkSize() throws IOException {
+            String line = readLine();
+            int extension = line.indexOf(';');
+            String size = (extension >= 0 ? line.substring(0, extension) : line).trim();
+            // Long.parseLong would accept a sign
+            if (size.isEmpty()) {
+                throw malformed("Malformed chunk size: " + size);
+            }
+            long value = 0;
+            for (int i = 0; i < size.length(); i++) {
+                int digit = Character.digit(size.charAt(i), 16);
+                if (digit < 0 || value > (Long.MAX_VALUE >> 4)) {
+                    throw malformed("Malformed chunk size: " + size);
+                }
+                value = (value << 4) | digit;
+            }
+            return value;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = connection.read()) != '\n') {
+                if (c < 0) {
+                    throw new IOException("Connection closed before the request body was complete");
+                }
+                if (c != '\r') {
+                    if (line.length() == MAX_CHUNK_LINE) {
+                        throw malformed("Chunk line exceeds " + MAX_CHUNK_LINE + " bytes");
+                    }
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+    }
+
+    /**
+     * A response body stream which knows whether the full body has been written.
+     */
+    private abstract static class ResponseBodyStream extends OutputStream {
+        protected boolean closed;
+        protected boolean aborted;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        /**
+         * @return `true` if the response was completely written, so the connection can be reused.
+         */
+        boolean isComplete() {
+            return closed && !aborted;
+        }
+    }
+
+    /**
+     * A response body delimited by `Content-Length`.
+     */
+    private final class FixedLengthResponseStream extends ResponseBodyStream {
+        private long remaining;
+
+        private FixedLengthResponseStream(long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            if (closed) {
+                throw new IOException("Response body stream is closed");
+            }
+            if (length > remaining) {
+                throw new IOException("Response body exceeds the declared Content-Length");
+            }
+            connection.write(b, offset, length);
+            remaining -= length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            connection.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                connection.flush();
+            }
+        }
+
+        @Override
+        boolean isComplete() {
+            return super.isComplete() && remaining == 0;
+        }
+    }
+
+    /**
+     * A response body sent with chunked transfer encoding; every flush or full buffer emits a chunk.
+     */
+    private final class ChunkedResponseStream extends ResponseBodyStream {
+
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            if (closed) {
+                throw new IOException("Response body stream is closed");
+            }
+            if (length == 0) {
+                return;
+            }
+            connection.writeAscii(Integer.toHexString(length));
+            connection.writeAscii("\r\n");
+            connection.write(b, offset, length);
+            connection.writeAscii("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            connection.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                connection.writeAscii("0\r\n\r\n");
+                connection.flush();
+            }
+        }
+    }
+
+    /**
+     * An HTTP/1.0 response body of unknown length, terminated by closing the connection.
+     */
+    private final class UnframedResponseStream extends ResponseBodyStream {
+
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            if (closed) {
+                throw new IOException("Response body stream is closed");
+            }
+            connection.write(b, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            connection.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                connection.flush();
+            }
+        }
+    }
+
+    /**
+     * The body of a response that has none, such as the response to a `HEAD` request.
+     */
+    private final class DiscardingResponseStream extends ResponseBodyStream {
+
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            if (closed) {
+                throw new IOException("Response body stream is closed");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                connection.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,554 @@
+package io.github.renatompf.ember.core.server.engine;
+
+import io.github.renatompf.ember.enums.HttpStatusCode;
+import io.github.renatompf.ember.exceptions.HttpException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A non-blocking HTTP/1.1 {@link ServerEngine} built on `java.nio` selectors.
+ * <p>
+ * Acceptor threads accept connections and distribute them round-robin over a fixed number of
+ * selector threads. A selector thread waits for idle keep-alive connections to become readable
+ * and parses request heads in place from a per-connection buffer, so idle connections do not
+ * occupy a thread. Once a complete head has been read, the connection is dispatched to a worker
+ * (a virtual thread by default), which runs the handler and serves any pipelined requests before
+ * handing the connection back to its selector.
+ * </p>
+ * <p>
+ * The number of open connections is bounded: once the limit is reached the acceptors stop
+ * accepting, leaving further clients in the listen backlog until a connection is closed.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * ServerEngine engine = NioServerEngine.builder()
+ *         .selectorThreads(4)
+ *         .keepAliveTimeout(Duration.ofSeconds(15))
+ *         .build();
+ * EmberApplication app = new EmberApplication(engine);
+ * }
+ * </pre>
+ */
+public class NioServerEngine implements ServerEngine {
+    private static final Logger logger = LoggerFactory.getLogger(NioServerEngine.class);
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final int acceptorThreads;
+    private final int selectorThreads;
+    private final int bufferSize;
+    private final long keepAliveTimeoutNanos;
+    private final int maxKeepAliveRequests;
+    private final int maxConnections;
+    private final int backlog;
+    private final ExecutorService customExecutor;
+
+    private volatile boolean running;
+    private ServerSocketChannel serverChannel;
+    private ExecutorService executor;
+    private Semaphore connectionPermits;
+    private ExchangeHandler handler;
+    private final List<Thread> threads = new ArrayList<>();
+    private SelectorLoop[] loops;
+
+    private volatile long dateSecond;
+    private volatile String date;
+
+    private NioServerEngine(Builder builder) {
+        this.acceptorThreads = builder.acceptorThreads;
+        this.selectorThreads = builder.selectorThreads;
+        this.bufferSize = builder.bufferSize;
+        this.keepAliveTimeoutNanos = builder.keepAliveTimeout.toNanos();
+        this.maxKeepAliveRequests = builder.maxKeepAliveRequests;
+        this.maxConnections = builder.maxConnections;
+        this.backlog = builder.backlog;
+        this.customExecutor = builder.executor;
+    }
+
+    /**
+     * Creates a new builder with the default settings.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public synchronized void start(InetSocketAddress address, ExchangeHandler handler) throws IOException {
+        if (running) {
+            throw new IllegalStateException("Engine is already running");
+        }
+
+        this.handler = handler;
+        this.executor = customExecutor != null ? customExecutor : Executors.newVirtualThreadPerTaskExecutor();
+        this.connectionPermits = new Semaphore(maxConnections);
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(address, backlog);
+        running = true;
+
+        loops = new SelectorLoop[selectorThreads];
+        for (int i = 0; i < selectorThreads; i++) {
+            loops[i] = new SelectorLoop(Selector.open());
+            startThread("ember-nio-selector-" + i, loops[i]);
+        }
+        for (int i = 0; i < acceptorThreads; i++) {
+            int offset = i;
+            startThread("ember-nio-acceptor-" + i, () -> accept(offset));
+        }
+
+        logger.info("NIO engine listening on {} with {} acceptor and {} selector threads",
+                serverChannel.getLocalAddress(), acceptorThreads, selectorThreads);
+    }
+
+    /**
+     * Retrieves the address the engine is bound to, which is useful when binding to port `0`.
+     *
+     * @return The local address, or `null` if the engine is not running.
+     */
+    public InetSocketAddress getLocalAddress() {
+        try {
+            return serverChannel != null && serverChannel.isOpen()
+                    ? (InetSocketAddress) serverChannel.getLocalAddress()
+                    : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close server channel: {}", e.getMessage());
+        }
+        for (SelectorLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+        for (Thread thread : threads) {
+            thread.interrupt();
+            try {
+                thread.join(SWEEP_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        threads.clear();
+
+        if (customExecutor == null) {
+            executor.shutdownNow();
+        }
+        logger.info("NIO engine stopped");
+    }
+
+    private void startThread(String name, Runnable task) {
+        Thread thread = Thread.ofPlatform().name(name).start(task);
+        threads.add(thread);
+    }
+
+    /**
+     * Accepts connections until the engine is stopped.
+     *
+     * @param next The index of the selector loop that receives the next connection.
+     */
+    private void accept(int next) {
+        next = next % loops.length;
+        while (running) {
+            try {
+                connectionPermits.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                connectionPermits.release();
+                if (running) {
+                    logger.error("Failed to accept connection: {}", e.getMessage());
+                    continue;
+                }
+                return;
+            }
+
+            try {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectorLoop loop = loops[next];
+                next = (next + 1) % loops.length;
+                NioConnection connection = new NioConnection(channel, (InetSocketAddress) channel.getRemoteAddress(),
+                        loop, bufferSize, connectionPermits::release);
+                loop.register(connection);
+            } catch (IOException e) {
+                logger.debug("Failed to set up connection: {}", e.getMessage());
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Nothing more to release
+                }
+                connectionPermits.release();
+            }
+        }
+    }
+
+    /**
+     * Serves requests on a connection in blocking mode, starting with the head already parsed by the selector.
+     *
+     * @param connection The connection.
+     * @param head       The first request head.
+     */
+    private void serve(NioConnection connection, RequestHead head) {
+        try {
+            while (head != null) {
+                boolean reusable = running && connection.countRequest() < maxKeepAliveRequests;
+                NioExchange exchange = new NioExchange(this, connection, head, reusable);
+                try {
+                    handler.handle(exchange);
+                } catch (Exception e) {
+                    logger.error("Unhandled error while handling request {} {}", head.method(), head.uri(), e);
+                }
+                if (!exchange.complete()) {
+                    connection.close();
+                    return;
+                }
+                connection.touch();
+                head = connection.parseHead();
+            }
+
+            // No pipelined request is buffered, so wait for the next one without holding a thread
+            connection.channel().configureBlocking(false);
+            connection.loop().register(connection);
+        } catch (HttpException e) {
+            reject(connection, e.getStatus());
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Closing connection from {}: {}", connection.remoteAddress(), e.getMessage());
+            connection.close();
+        }
+    }
+
+    /**
+     * Sends a minimal error response for a request that could not be parsed, and closes the connection.
+     *
+     * @param connection The connection.
+     * @param status     The status to respond with.
+     */
+    private void reject(NioConnection connection, HttpStatusCode status) {
+        String response = "HTTP/1.1 " + status.getCode() + " " + status.getMessage() + "\r\n"
+                + "Content-Length: 0\r\nConnection: close\r\n\r\n";
+        try {
+            // Best effort: the response is small enough to fit in the socket's send buffer
+            connection.channel().write(ByteBuffer.wrap(response.getBytes(StandardCharsets.ISO_8859_1)));
+        } catch (IOException ignored) {
+            // The connection is closed below
+        }
+        connection.close();
+    }
+
+    /**
+     * Returns the value of the `Date` response header, formatted at most once per second.
+     *
+     * @return The current date in RFC 1123 format.
+     */
+    String currentDate() {
+        long second = System.currentTimeMillis() / 1000;
+        String current = date;
+        if (current == null || second != dateSecond) {
+            current = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+            date = current;
+            dateSecond = second;
+        }
+        return current;
+    }
+
+    /**
+     * A selector thread, which watches idle connections and reads request heads without blocking.
+     */
+    final class SelectorLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<NioConnection> pending = new ConcurrentLinkedQueue<>();
+        private final List<NioConnection> ready = new ArrayList<>();
+        private long lastSweep = System.nanoTime();
+
+        private SelectorLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        /**
+         * Registers a connection in non-blocking mode with this loop. May be called from any thread.
+         *
+         * @param connection The connection.
+         */
+        void register(NioConnection connection) {
+            if (!running) {
+                connection.close();
+                return;
+            }
+            pending.add(connection);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select(this::onReady, SWEEP_INTERVAL_MILLIS);
+                    dispatchReady();
+                    registerPending();
+                    sweepIdle();
+                }
+            } catch (IOException | RuntimeException e) {
+                if (running) {
+                    logger.error("Selector loop failed", e);
+                }
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    ((NioConnection) key.attachment()).close();
+                }
+                NioConnection connection;
+                while ((connection = pending.poll()) != null) {
+                    connection.close();
+                }
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // Nothing more to release
+                }
+            }
+        }
+
+        private void onReady(SelectionKey key) {
+            NioConnection connection = (NioConnection) key.attachment();
+            try {
+                int read = connection.fill();
+                if (read < 0) {
+                    key.cancel();
+                    connection.close();
+                    return;
+                }
+                connection.touch();
+                RequestHead head = connection.parseHead();
+                if (head != null) {
+                    key.cancel();
+                    connection.setPendingHead(head);
+                    ready.add(connection);
+                }
+            } catch (HttpException e) {
+                key.cancel();
+                reject(connection, e.getStatus());
+            } catch (IOException e) {
+                key.cancel();
+                connection.close();
+            }
+        }
+
+        /**
+         * Hands the connections with a complete request head over to workers.
+         *
+         * @throws IOException If the selector fails.
+         */
+        private void dispatchReady() throws IOException {
+            while (!ready.isEmpty()) {
+                List<NioConnection> batch = new ArrayList<>(ready);
+                ready.clear();
+                // Flush the cancelled keys so the channels can be switched to blocking mode;
+                // connections completing a head meanwhile are dispatched in the next round
+                selector.selectNow(this::onReady);
+                for (NioConnection connection : batch) {
+                    RequestHead head = connection.takePendingHead();
+                    try {
+                        connection.channel().configureBlocking(true);
+                        executor.execute(() -> serve(connection, head));
+                    } catch (IOException | RuntimeException e) {
+                        connection.close();
+                    }
+                }
+            }
+        }
+
+        private void registerPending() {
+            NioConnection connection;
+            while ((connection = pending.poll()) != null) {
+                try {
+                    connection.channel().configureBlocking(false);
+                    connection.channel().register(selector, SelectionKey.OP_READ, connection);
+                } catch (ClosedChannelException e) {
+                    connection.close();
+                } catch (IOException e) {
+                    logger.debug("Failed to register connection: {}", e.getMessage());
+                    connection.close();
+                }
+            }
+        }
+
+        /**
+         * Closes connections which have been idle for longer than the keep-alive timeout.
+         */
+        private void sweepIdle() {
+            long now = System.nanoTime();
+            if (now - lastSweep < SWEEP_INTERVAL_MILLIS * 1_000_000) {
+                return;
+            }
+            lastSweep = now;
+            for (SelectionKey key : selector.keys()) {
+                NioConnection connection = (NioConnection) key.attachment();
+                if (key.isValid() && now - connection.lastActivity() > keepAliveTimeoutNanos) {
+                    key.cancel();
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * A builder for {@link NioServerEngine}.
+     */
+    public static class Builder {
+        private int acceptorThreads = 1;
+        private int selectorThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        private int bufferSize = 8 * 1024;
+        private Duration keepAliveTimeout = Duration.ofSeconds(30);
+        private int maxKeepAliveRequests = 1000;
+        private int maxConnections = 10_000;
+        private int backlog = 1024;
+        private ExecutorService executor;
+
+        private Builder() {}
+
+        /**
+         * Sets the number of threads accepting connections. Defaults to `1`.
+         *
+         * @param acceptorThreads The number of acceptor threads.
+         * @return The builder instance.
+         */
+        public Builder acceptorThreads(int acceptorThreads) {
+            this.acceptorThreads = requirePositive(acceptorThreads, "acceptorThreads");
+            return this;
+        }
+
+        /**
+         * Sets the number of selector threads. Defaults to half the available processors.
+         *
+         * @param selectorThreads The number of selector threads.
+         * @return The builder instance.
+         */
+        public Builder selectorThreads(int selectorThreads) {
+            this.selectorThreads = requirePositive(selectorThreads, "selectorThreads");
+            return this;
+        }
+
+        /**
+         * Sets the size of the per-connection read and write buffers, which is also the maximum
+         * size of a request head. Defaults to 8 KiB.
+         *
+         * @param bufferSize The buffer size in bytes.
+         * @return The builder instance.
+         */
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = requirePositive(bufferSize, "bufferSize");
+            return this;
+        }
+
+        /**
+         * Sets how long an idle connection is kept open. Defaults to 30 seconds.
+         *
+         * @param keepAliveTimeout The keep-alive timeout.
+         * @return The builder instance.
+         */
+        public Builder keepAliveTimeout(Duration keepAliveTimeout) {
+            this.keepAliveTimeout = keepAliveTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests served on a single connection. Defaults to `1000`.
+         *
+         * @param maxKeepAliveRequests The maximum number of requests per connection.
+         * @return The builder instance.
+         */
+        public Builder maxKeepAliveRequests(int maxKeepAliveRequests) {
+            this.maxKeepAliveRequests = requirePositive(maxKeepAliveRequests, "maxKeepAliveRequests");
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of open connections. Defaults to `10000`.
+         *
+         * @param maxConnections The maximum number of connections.
+         * @return The builder instance.
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = requirePositive(maxConnections, "maxConnections");
+            return this;
+        }
+
+        /**
+         * Sets the size of the listen backlog. Defaults to `1024`.
+         *
+         * @param backlog The backlog size.
+         * @return The builder instance.
+         */
+        public Builder backlog(int backlog) {
+            this.backlog = requirePositive(backlog, "backlog");
+            return this;
+        }
+
+        /**
+         * Sets the executor requests are handled on. Defaults to a virtual thread per request.
+         * An executor set here is not shut down when the engine stops.
+         *
+         * @param executor The executor.
+         * @return The builder instance.
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Builds the engine.
+         *
+         * @return A new NioServerEngine.
+         */
+        public NioServerEngine build() {
+            return new NioServerEngine(this);
+        }
+
+        private static int requirePositive(int value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package io.github.renatompf.ember.core.server.engine;
+
+import io.github.renatompf.ember.enums.HttpStatusCode;
+import io.github.renatompf.ember.exceptions.HttpException;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The request line and headers of an HTTP/1.x request, as parsed by the {@link NioServerEngine}.
+ * <p>
+ * The head is parsed in place from the connection's read buffer: the parser only walks the
+ * byte offsets of every line and token, and allocates nothing but the final strings.
+ * </p>
+ *
+ * @param method        The request method.
+ * @param uri           The request URI.
+ * @param http11        Whether the request uses HTTP/1.1 (as opposed to HTTP/1.0).
+ * @param headers       The request headers, keyed case-insensitively.
+ * @param contentLength The value of the `Content-Length` header, or `-1` if absent.
+ * @param chunked       Whether the body is sent with chunked transfer encoding.
+ * @param keepAlive     Whether the client allows the connection to be reused.
+ * @param expectContinue Whether the client expects a `100 Continue` response before sending the body.
+ */
+record RequestHead(String method, URI uri, boolean http11, Map<String, List<String>> headers,
+                   long contentLength, boolean chunked, boolean keepAlive, boolean expectContinue) {
+
+    /**
+     * Parses a request head.
+     *
+     * @param data The buffer holding the request head.
+     * @param from The offset of the first byte of the request line.
+     * @param to   The offset just past the empty line terminating the head.
+     * @return The parsed request head.
+     * @throws HttpException If the request head is malformed.
+     */
+    static RequestHead parse(byte[] data, int from, int to) {
+        int lineEnd = lineEnd(data, from, to);
+        int methodEnd = indexOf(data, from, lineEnd, (byte) ' ');
+        int targetEnd = methodEnd < 0 ? -1 : indexOf(data, methodEnd + 1, lineEnd, (byte) ' ');
+        if (methodEnd <= from || targetEnd <= methodEnd + 1) {
+            throw badRequest("Malformed request line");
+        }
+
+        String method = ascii(data, from, methodEnd);
+        String target = ascii(data, methodEnd + 1, targetEnd);
+        String version = ascii(data, targetEnd + 1, lineEnd);
+        boolean http11;
+        if (version.equals("HTTP/1.1")) {
+            http11 = true;
+        } else if (version.equals("HTTP/1.0")) {
+            http11 = false;
+        } else {
+            throw badRequest("Unsupported HTTP version: " + version);
+        }
+
+        URI uri;
+        try {
+            uri = URI.create(target);
+        } catch (IllegalArgumentException e) {
+            throw badRequest("Malformed request target");
+        }
+
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        int lineStart = lineEnd + 2;
+        while (lineStart < to) {
+            lineEnd = lineEnd(data, lineStart, to);
+            if (lineEnd == lineStart) {
+                break;
+            }
+            if (data[lineStart] == ' ' || data[lineStart] == '\t') {
+                throw badRequest("Obsolete header line folding is not supported");
+            }
+            int colon = indexOf(data, lineStart, lineEnd, (byte) ':');
+            if (colon <= lineStart) {
+                throw badRequest("Malformed header line");
+            }
+            int valueStart = colon + 1;
+            int valueEnd = lineEnd;
+            while (valueStart < valueEnd && isWhitespace(data[valueStart])) {
+                valueStart++;
+            }
+            while (valueEnd > valueStart && isWhitespace(data[valueEnd - 1])) {
+                valueEnd--;
+            }
+            headers.computeIfAbsent(ascii(data, lineStart, colon), name -> new ArrayList<>(1))
+                    .add(ascii(data, valueStart, valueEnd));
+            lineStart = lineEnd + 2;
+        }
+
+        boolean chunked = false;
+        List<String> transferEncodings = headers.get("Transfer-Encoding");
+        if (transferEncodings != null) {
+            if (transferEncodings.size() > 1) {
+                throw badRequest("Multiple Transfer-Encoding headers");
+            }
+            String transferEncoding = transferEncodings.getFirst();
+            if (!transferEncoding.equalsIgnoreCase("chunked")) {
+                // Only chunked is decoded; a valid list of other codings is understood but not supported
+                for (String coding : transferEncoding.split(",", -1)) {
+                    if (!isToken(coding.trim())) {
+                        throw badRequest("Malformed Transfer-Encoding: " + transferEncoding);
+                    }
+                }
+                throw new HttpException(HttpStatusCode.NOT_IMPLEMENTED, "Unsupported Transfer-Encoding: " + transferEncoding);
+            }
+            chunked = true;
+        }
+
+        long contentLength = -1;
+        List<String> lengths = headers.get("Content-Length");
+        if (lengths != null) {
+            if (chunked) {
+                throw badRequest("Both Content-Length and Transfer-Encoding are present");
+            }
+            // Repeated values, in separate headers or a list, are only allowed when they agree
+            for (String length : lengths) {
+                for (String value : length.split(",", -1)) {
+                    long parsed = parseContentLength(value.trim());
+                    if (contentLength >= 0 && parsed != contentLength) {
+                        throw badRequest("Conflicting Content-Length values: " + lengths);
+                    }
+                    contentLength = parsed;
+                }
+            }
+        }
+
+        String connection = first(headers, "Connection");
+        boolean keepAlive = http11
+                ? connection == null || !connection.equalsIgnoreCase("close")
+                : connection != null && connection.equalsIgnoreCase("keep-alive");
+
+        String expect = first(headers, "Expect");
+        boolean expectContinue = http11 && expect != null && expect.equalsIgnoreCase("100-continue");
+
+        return new RequestHead(method, uri, http11, Collections.unmodifiableMap(headers),
+                contentLength, chunked, keepAlive, expectContinue);
+    }
+
+    /**
+     * Retrieves the first value of a request header.
+     *
+     * @param name The header name, matched case-insensitively.
+     * @return The first value, or `null` if the header is not present.
+     */
+    String header(String name) {
+        return first(headers, name);
+    }
+
+    /**
+     * Checks whether a string is an HTTP token, such as a header name or a transfer coding.
+     *
+     * @param value The string to check.
+     * @return `true` if the string is a non-empty sequence of token characters.
+     */
+    static boolean isToken(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean token = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || "!#$%&'*+-.^_`|~".indexOf(c) >= 0;
+            if (!token) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseContentLength(String value) {
+        // Long.parseLong would accept a sign
+        if (value.isEmpty() || value.length() > 18 || !value.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            throw badRequest("Invalid Content-Length: " + value);
+        }
+        return Long.parseLong(value);
+    }
+
+    private static String first(Map<String, List<String>> headers, String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.getFirst();
+    }
+
+    private static int lineEnd(byte[] data, int from, int to) {
+        for (int i = from; i + 1 < to; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') {
+                return i;
+            }
+        }
+        throw badRequest("Malformed request head");
+    }
+
+    private static int indexOf(byte[] data, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static String ascii(byte[] data, int from, int to) {
+        return new String(data, from, to - from, StandardCharsets.ISO_8859_1);
+    }
+
+    private static HttpException badRequest(String message) {
+        return new HttpException(HttpStatusCode.BAD_REQUEST, message);
+    }
+}
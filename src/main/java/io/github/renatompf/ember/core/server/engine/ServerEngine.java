@@ -0,0 +1,32 @@
+package io.github.renatompf.ember.core.server.engine;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * The transport used by the {@link io.github.renatompf.ember.core.server.Server} to accept
+ * connections and parse HTTP requests.
+ * <p>
+ * An engine adapts every request to a {@link ServerExchange} and passes it to the handler
+ * given on {@link #start(InetSocketAddress, ExchangeHandler)}. Two engines are provided:
+ * <ul>
+ *   <li>{@link JdkServerEngine}, backed by `com.sun.net.httpserver.HttpServer` (the default).</li>
+ *   <li>{@link NioServerEngine}, a non-blocking engine built on `java.nio` selectors.</li>
+ * </ul>
+ */
+public interface ServerEngine {
+
+    /**
+     * Starts accepting connections on the given address.
+     *
+     * @param address The address to bind to.
+     * @param handler The handler every request is dispatched to.
+     * @throws IOException If the engine cannot bind to the address.
+     */
+    void start(InetSocketAddress address, ExchangeHandler handler) throws IOException;
+
+    /**
+     * Stops the engine, closing all open connections and releasing its threads.
+     */
+    void stop();
+}
@@ -0,0 +1,137 @@
+package io.github.renatompf.ember.core.server.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An engine-neutral view of a single HTTP request and its response.
+ * <p>
+ * Every {@link ServerEngine} adapts its native request representation to this interface, so the
+ * rest of the framework ({@link io.github.renatompf.ember.core.server.Context} and its managers)
+ * does not depend on a particular transport.
+ * </p>
+ * <p>
+ * The response is sent in two steps, as with {@link com.sun.net.httpserver.HttpExchange}: first
+ * {@link #sendResponseHeaders(int, long)}, then the body is written to {@link #getResponseBody()}
+ * and the stream is closed.
+ * </p>
+ */
+public interface ServerExchange {
+
+    /**
+     * Retrieves the HTTP method of the request (e.g., `GET`).
+     *
+     * @return The request method.
+     */
+    String getRequestMethod();
+
+    /**
+     * Retrieves the protocol of the request, as sent in its request line (e.g., `HTTP/1.1`).
+     * Exchanges that do not know it report `HTTP/1.1`.
+     *
+     * @return The request protocol.
+     */
+    default String getRequestProtocol() {
+        return "HTTP/1.1";
+    }
+
+    /**
+     * Retrieves the request URI, including the query string.
+     *
+     * @return The request URI.
+     */
+    URI getRequestURI();
+
+    /**
+     * Retrieves all request headers. Header names are matched case-insensitively.
+     *
+     * @return An unmodifiable view of the request headers.
+     */
+    Map<String, List<String>> getRequestHeaders();
+
+    /**
+     * Retrieves the first value of a request header.
+     *
+     * @param name The header name, matched case-insensitively.
+     * @return The first value of the header, or `null` if it is not present.
+     */
+    String getRequestHeader(String name);
+
+    /**
+     * Retrieves the request body stream.
+     *
+     * @return The request body stream.
+     */
+    InputStream getRequestBody();
+
+    /**
+     * Retrieves the first value of a response header that has already been set.
+     *
+     * @param name The header name, matched case-insensitively.
+     * @return The first value of the header, or `null` if it has not been set.
+     */
+    String getResponseHeader(String name);
+
+    /**
+     * Sets a response header, replacing any existing values.
+     *
+     * @param name  The header name.
+     * @param value The header value.
+     */
+    void setResponseHeader(String name, String value);
+
+    /**
+     * Adds a value to a response header, keeping any existing values.
+     *
+     * @param name  The header name.
+     * @param value The header value.
+     */
+    void addResponseHeader(String name, String value);
+
+    /**
+     * Sends the response status line and headers.
+     *
+     * @param statusCode     The HTTP status code.
+     * @param responseLength The length of the response body: a positive value for a fixed length,
+     *                       `0` for a body of unknown length sent with chunked encoding, or `-1`
+     *                       if there is no body.
+     * @throws IOException If the headers cannot be written.
+     */
+    void sendResponseHeaders(int statusCode, long responseLength) throws IOException;
+
+    /**
+     * Retrieves the response body stream. It must be closed once the body has been written.
+     *
+     * @return The response body stream.
+     */
+    OutputStream getResponseBody();
+
+    /**
+     * Retrieves the address of the client that sent the request.
+     *
+     * @return The remote address.
+     */
+    InetSocketAddress getRemoteAddress();
+
+    /**
+     * Completes the exchange, closing the request and response streams.
+     */
+    void close();
+
+    /**
+     * Ends the exchange abnormally after its response has been committed, dropping the connection
+     * without completing the body, so that the client sees the response as truncated.
+     * <p>
+     * Engines that cannot drop a connection, such as the JDK HTTP server, complete the exchange
+     * with {@link #close()} instead.
+     * </p>
+     */
+    default void abort() {
+        close();
+    }
+}
@@ -0,0 +1,318 @@
+package io.github.renatompf.ember.core.server.execution;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Configures how the server runs route handlers.
+ * <p>
+ * The configuration selects the {@link ThreadModel} of the default executor, bounds the number of
+ * requests handled at the same time and declares named executors which routes can opt into,
+ * either through {@link io.github.renatompf.ember.annotations.execution.ExecuteOn @ExecuteOn}
+ * or when registering a route on the application.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * ExecutionConfig config = ExecutionConfig.builder()
+ *         .maxConcurrentRequests(512)
+ *         .maxQueuedRequests(1024)
+ *         .maxQueueWait(Duration.ofMillis(200))
+ *         .executor("cpu", Executors.newFixedThreadPool(8))
+ *         .build();
+ * }
+ * </pre>
+ */
+public final class ExecutionConfig {
+    private final ThreadModel threadModel;
+    private final int parallelism;
+    private final int maxConcurrentRequests;
+    private final int maxQueuedRequests;
+    private final Duration maxQueueWait;
+    private final Map<String, ExecutorService> executors;
+    private final int contextPoolSize;
+    private final int leakDetectionInterval;
+    private final Duration requestTimeout;
+    private final String requestTimeoutHeader;
+
+    private ExecutionConfig(Builder builder) {
+        this.threadModel = builder.threadModel;
+        this.parallelism = builder.parallelism;
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+        this.maxQueuedRequests = builder.maxQueuedRequests;
+        this.maxQueueWait = builder.maxQueueWait;
+        this.executors = Collections.unmodifiableMap(new LinkedHashMap<>(builder.executors));
+        this.contextPoolSize = builder.contextPoolSize;
+        this.leakDetectionInterval = builder.leakDetectionInterval;
+        this.requestTimeout = builder.requestTimeout;
+        this.requestTimeoutHeader = builder.requestTimeoutHeader;
+    }
+
+    /**
+     * Creates a new builder with the default settings.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the default configuration: handlers run on virtual threads, without a concurrency limit.
+     *
+     * @return The default configuration.
+     */
+    public static ExecutionConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * @return The thread model of the default executor.
+     */
+    public ThreadModel getThreadModel() {
+        return threadModel;
+    }
+
+    /**
+     * @return The number of platform threads used by the {@link ThreadModel#PLATFORM} model.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return The maximum number of requests handled at the same time, or `0` if unlimited.
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * @return The maximum number of requests waiting for a free slot.
+     */
+    public int getMaxQueuedRequests() {
+        return maxQueuedRequests;
+    }
+
+    /**
+     * @return How long a queued request waits for a free slot, or `null` to wait indefinitely.
+     */
+    public Duration getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    /**
+     * @return The named executors, by name.
+     */
+    public Map<String, ExecutorService> getExecutors() {
+        return executors;
+    }
+
+    /**
+     * @return The number of idle request contexts kept for reuse, or `0` if contexts are not pooled.
+     */
+    public int getContextPoolSize() {
+        return contextPoolSize;
+    }
+
+    /**
+     * @return One in how many released contexts is retired to detect leaks, or `0` if disabled.
+     */
+    public int getLeakDetectionInterval() {
+        return leakDetectionInterval;
+    }
+
+    /**
+     * @return The maximum time a request may take unless its route declares otherwise, or `null` if unbounded.
+     */
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * @return The request header through which clients can shorten the deadline of a request, or `null` if disabled.
+     */
+    public String getRequestTimeoutHeader() {
+        return requestTimeoutHeader;
+    }
+
+    /**
+     * A builder for {@link ExecutionConfig}.
+     */
+    public static class Builder {
+        private ThreadModel threadModel = ThreadModel.VIRTUAL;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int maxConcurrentRequests;
+        private int maxQueuedRequests;
+        private Duration maxQueueWait;
+        private final Map<String, ExecutorService> executors = new LinkedHashMap<>();
+        private int contextPoolSize;
+        private int leakDetectionInterval = 1024;
+        private Duration requestTimeout;
+        private String requestTimeoutHeader = "X-Request-Timeout";
+
+        private Builder() {}
+
+        /**
+         * Sets the thread model of the default executor. Defaults to {@link ThreadModel#VIRTUAL}.
+         *
+         * @param threadModel The thread model.
+         * @return The builder instance.
+         */
+        public Builder threadModel(ThreadModel threadModel) {
+            this.threadModel = Objects.requireNonNull(threadModel, "threadModel");
+            return this;
+        }
+
+        /**
+         * Sets the number of platform threads used by the {@link ThreadModel#PLATFORM} model.
+         * Defaults to the number of available processors.
+         *
+         * @param parallelism The number of threads.
+         * @return The builder instance.
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("parallelism must be positive");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests handled at the same time. Defaults to `0`, meaning unlimited.
+         *
+         * @param maxConcurrentRequests The maximum number of concurrent requests.
+         * @return The builder instance.
+         */
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            if (maxConcurrentRequests < 0) {
+                throw new IllegalArgumentException("maxConcurrentRequests must not be negative");
+            }
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests waiting for a free slot once the concurrency limit
+         * is reached. Further requests are rejected at once with `503 Service Unavailable`.
+         * Defaults to `0`, so requests beyond the limit are rejected without queueing.
+         *
+         * @param maxQueuedRequests The maximum number of queued requests.
+         * @return The builder instance.
+         */
+        public Builder maxQueuedRequests(int maxQueuedRequests) {
+            if (maxQueuedRequests < 0) {
+                throw new IllegalArgumentException("maxQueuedRequests must not be negative");
+            }
+            this.maxQueuedRequests = maxQueuedRequests;
+            return this;
+        }
+
+        /**
+         * Sets how long a queued request waits for a free slot before it is rejected with
+         * `503 Service Unavailable`. By default queued requests wait indefinitely.
+         *
+         * @param maxQueueWait The maximum queue wait.
+         * @return The builder instance.
+         */
+        public Builder maxQueueWait(Duration maxQueueWait) {
+            this.maxQueueWait = maxQueueWait;
+            return this;
+        }
+
+        /**
+         * Declares a named executor routes can run on. An executor declared here is not shut
+         * down when the server stops.
+         *
+         * @param name     The executor name.
+         * @param executor The executor.
+         * @return The builder instance.
+         */
+        public Builder executor(String name, ExecutorService executor) {
+            executors.put(Objects.requireNonNull(name, "name"), Objects.requireNonNull(executor, "executor"));
+            return this;
+        }
+
+        /**
+         * Enables pooling of request contexts, keeping up to the given number of idle contexts for
+         * reuse. Defaults to `0`, so a new context is created for every request.
+         * <p>
+         * Pooled contexts must not be used after their request completed.
+         * </p>
+         *
+         * @param contextPoolSize The maximum number of idle contexts.
+         * @return The builder instance.
+         * @see io.github.renatompf.ember.core.server.ContextPool
+         */
+        public Builder contextPoolSize(int contextPoolSize) {
+            if (contextPoolSize < 0) {
+                throw new IllegalArgumentException("contextPoolSize must not be negative");
+            }
+            this.contextPoolSize = contextPoolSize;
+            return this;
+        }
+
+        /**
+         * Sets one in how many released pooled contexts is retired rather than reused, so that a
+         * context used after its request completed fails instead of observing another request.
+         * Defaults to `1024`; `1` retires every context and `0` disables leak detection.
+         *
+         * @param leakDetectionInterval The leak detection interval.
+         * @return The builder instance.
+         */
+        public Builder leakDetectionInterval(int leakDetectionInterval) {
+            if (leakDetectionInterval < 0) {
+                throw new IllegalArgumentException("leakDetectionInterval must not be negative");
+            }
+            this.leakDetectionInterval = leakDetectionInterval;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a request may take, from its arrival to its response, unless its
+         * route declares a timeout of its own. When the deadline passes, the thread handling the
+         * request is interrupted and the client receives `504 Gateway Timeout`, or
+         * `503 Service Unavailable` if the request was still waiting for a free slot.
+         * By default requests are not bounded.
+         *
+         * @param requestTimeout The default request timeout.
+         * @return The builder instance.
+         */
+        public Builder requestTimeout(Duration requestTimeout) {
+            if (requestTimeout != null && (requestTimeout.isZero() || requestTimeout.isNegative())) {
+                throw new IllegalArgumentException("requestTimeout must be positive");
+            }
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the request header through which clients can shorten the deadline of a request,
+         * giving the time they are willing to wait in milliseconds. The header can only lower the
+         * timeout of a route, never extend it. Defaults to `X-Request-Timeout`; `null` disables it.
+         *
+         * @param requestTimeoutHeader The header name.
+         * @return The builder instance.
+         */
+        public Builder requestTimeoutHeader(String requestTimeoutHeader) {
+            this.requestTimeoutHeader = requestTimeoutHeader;
+            return this;
+        }
+
+        /**
+         * Builds the configuration.
+         *
+         * @return A new ExecutionConfig.
+         */
+        public ExecutionConfig build() {
+            return new ExecutionConfig(this);
+        }
+    }
+}
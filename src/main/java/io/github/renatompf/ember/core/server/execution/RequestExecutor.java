@@ -0,0 +1,239 @@
+package io.github.renatompf.ember.core.server.execution;
+
+import io.github.renatompf.ember.enums.HttpStatusCode;
+import io.github.renatompf.ember.exceptions.HttpException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs route handlers according to an {@link ExecutionConfig}.
+ * <p>
+ * Every request first takes a slot from a fair semaphore bounding the number of requests
+ * handled at the same time. When no slot is free the request waits in a bounded queue; once the
+ * queue is full, or the request waited longer than allowed, it is rejected with
+ * `503 Service Unavailable` instead of piling up more threads.
+ * </p>
+ * <p>
+ * The handler then runs on the executor named by its route, on the platform pool of the
+ * {@link ThreadModel#PLATFORM} model, or directly on the calling thread. The calling thread waits
+ * for the handler to complete either way, so the server engine's view of a request is unchanged.
+ * </p>
+ */
+public class RequestExecutor implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RequestExecutor.class);
+
+    private final Semaphore permits;
+    private final int maxQueuedRequests;
+    private final long maxQueueWaitNanos;
+    private final ExecutorService defaultExecutor;
+    private final Map<String, ExecutorService> executors;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder queuedTotal = new LongAdder();
+    private final LongAdder queueWaitNanosTotal = new LongAdder();
+    private final LongAdder rejectedTotal = new LongAdder();
+
+    /**
+     * A unit of work run by the executor.
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * Runs the task.
+         *
+         * @throws Exception If the task fails.
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * Constructs a new RequestExecutor.
+     *
+     * @param config The execution configuration.
+     */
+    public RequestExecutor(ExecutionConfig config) {
+        int limit = config.getMaxConcurrentRequests();
+        this.permits = limit > 0 ? new Semaphore(limit, true) : null;
+        this.maxQueuedRequests = config.getMaxQueuedRequests();
+        Duration maxQueueWait = config.getMaxQueueWait();
+        this.maxQueueWaitNanos = maxQueueWait != null ? maxQueueWait.toNanos() : -1;
+        this.defaultExecutor = config.getThreadModel() == ThreadModel.PLATFORM
+                ? new ForkJoinPool(config.getParallelism())
+                : null;
+        this.executors = config.getExecutors();
+    }
+
+    /**
+     * Checks whether an executor with the given name has been declared.
+     *
+     * @param name The executor name.
+     * @return `true` if the executor exists, `false` otherwise.
+     */
+    public boolean hasExecutor(String name) {
+        return executors.containsKey(name);
+    }
+
+    /**
+     * Runs a task once a slot is available, and waits for it to complete.
+     *
+     * @param executorName The name of the executor to run the task on, or `null` for the default one.
+     * @param task         The task to run.
+     * @throws HttpException If the server is at capacity.
+     * @throws Exception     If the task fails.
+     */
+    public void execute(String executorName, Task task) throws Exception {
+        acquire();
+        inFlight.incrementAndGet();
+        try {
+            dispatch(executorName, task);
+        } finally {
+            inFlight.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Takes a slot from the semaphore, queueing if allowed.
+     *
+     * @throws HttpException If no slot could be taken.
+     */
+    private void acquire() {
+        try {
+            // Unlike tryAcquire(), a timed attempt honours the fairness of the semaphore,
+            // so a new request cannot take a slot ahead of the queued ones
+            if (permits == null || permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject();
+        }
+
+        if (queued.incrementAndGet() > maxQueuedRequests) {
+            queued.decrementAndGet();
+            throw reject();
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            if (maxQueueWaitNanos < 0) {
+                permits.acquire();
+                acquired = true;
+            } else {
+                acquired = permits.tryAcquire(maxQueueWaitNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            queued.decrementAndGet();
+            queuedTotal.increment();
+            queueWaitNanosTotal.add(System.nanoTime() - start);
+        }
+
+        if (!acquired) {
+            throw reject();
+        }
+    }
+
+    private HttpException reject() {
+        rejectedTotal.increment();
+        logger.warn("Rejecting request: {} requests in flight, {} queued", inFlight.get(), queued.get());
+        return new HttpException(HttpStatusCode.SERVICE_UNAVAILABLE, "Server is at capacity");
+    }
+
+    private void dispatch(String executorName, Task task) throws Exception {
+        ExecutorService executor = defaultExecutor;
+        if (executorName != null) {
+            executor = executors.get(executorName);
+            if (executor == null) {
+                throw new IllegalStateException("Unknown executor: " + executorName);
+            }
+        }
+
+        if (executor == null) {
+            task.run();
+            return;
+        }
+
+        Future<?> future = executor.submit(() -> {
+            task.run();
+            return null;
+        });
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return The number of requests being handled.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return The number of requests waiting for a free slot.
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * @return The number of requests that had to wait for a free slot since the server started.
+     */
+    public long getQueuedTotal() {
+        return queuedTotal.sum();
+    }
+
+    /**
+     * @return The total time, in nanoseconds, requests spent waiting for a free slot.
+     */
+    public long getQueueWaitNanosTotal() {
+        return queueWaitNanosTotal.sum();
+    }
+
+    /**
+     * @return The number of requests rejected because the server was at capacity.
+     */
+    public long getRejectedTotal() {
+        return rejectedTotal.sum();
+    }
+
+    /**
+     * Shuts down the platform pool owned by this executor. Named executors are left running.
+     */
+    @Override
+    public void close() {
+        if (defaultExecutor != null) {
+            defaultExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.renatompf.ember.core.server.execution;
+
+/**
+ * The kind of threads route handlers run on by default.
+ */
+public enum ThreadModel {
+
+    /**
+     * Handlers run on the thread the server engine dispatched the request on, which is a
+     * virtual thread for the bundled engines. Suited to handlers that mostly wait on I/O.
+     */
+    VIRTUAL,
+
+    /**
+     * Handlers run on a `ForkJoinPool` of platform threads owned by the server. Suited to
+     * CPU-bound handlers, which gain nothing from virtual threads.
+     */
+    PLATFORM
+}
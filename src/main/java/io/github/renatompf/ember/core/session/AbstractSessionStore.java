@@ -0,0 +1,341 @@
+package io.github.renatompf.ember.core.session;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The expiry and limits shared by the bundled session stores.
+ * <p>
+ * Stored sessions are indexed by ID in a concurrent map, so lookups take no lock. A session
+ * expires once it has been idle for the idle timeout, or once the absolute timeout has passed
+ * since it was created, whichever comes first. Expired sessions are never returned, and are
+ * removed by an {@link ExpiryWheel} advanced by the store operations themselves, without a
+ * background thread.
+ * </p>
+ * <p>
+ * Saving a session that would take the store beyond its maximum number of sessions or bytes
+ * evicts the sessions expiring first.
+ * </p>
+ *
+ * @param <E> The type of the entries of the store.
+ */
+abstract class AbstractSessionStore<E extends AbstractSessionStore.Entry> implements SessionStore {
+
+    /**
+     * A stored session, scheduled in the expiry wheel.
+     */
+    abstract static class Entry extends ExpiryWheel.Node {
+        final String id;
+        final long creationTime;
+        volatile long lastAccessedTime;
+        /** The bytes this entry counts towards the maximum of the store. */
+        long bytes;
+        private final AbstractSessionStore<?> store;
+
+        Entry(AbstractSessionStore<?> store, String id, long creationTime, long lastAccessedTime) {
+            this.store = store;
+            this.id = id;
+            this.creationTime = creationTime;
+            this.lastAccessedTime = lastAccessedTime;
+        }
+
+        @Override
+        long deadline() {
+            return store.deadline(creationTime, lastAccessedTime);
+        }
+    }
+
+    /** The maximum number of slots of the expiry wheel. */
+    private static final int MAX_SLOTS = 1 << 16;
+
+    private final Map<String, E> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ExpiryWheel wheel;
+    private final Clock clock;
+    private final long idleTimeoutMillis;
+    private final long absoluteTimeoutMillis;
+    private final int maxSessions;
+    private final long maxBytes;
+    /** The bytes of all entries, guarded by the lock. */
+    private long bytes;
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    AbstractSessionStore(SessionStoreBuilder<?> builder) {
+        this.clock = builder.clock;
+        this.idleTimeoutMillis = builder.idleTimeout.toMillis();
+        this.absoluteTimeoutMillis = builder.absoluteTimeout.toMillis();
+        this.maxSessions = builder.maxSessions;
+        this.maxBytes = builder.maxBytes;
+        // The wheel spans the idle timeout, beyond which no deadline lies, coarsening the tick if needed
+        long tickMillis = Math.max(builder.tick.toMillis(), (idleTimeoutMillis + MAX_SLOTS - 1) / MAX_SLOTS);
+        int slots = (int) Math.min(idleTimeoutMillis / tickMillis + 2, MAX_SLOTS);
+        this.wheel = new ExpiryWheel(tickMillis, slots, clock.millis());
+    }
+
+    /**
+     * Reads the session of an entry.
+     *
+     * @param entry The entry.
+     * @return The session, or `null` if the entry was replaced or removed meanwhile.
+     */
+    abstract Session read(E entry);
+
+    /**
+     * Writes a session, returning its entry with its size in bytes set.
+     *
+     * @param session  The session to write.
+     * @param previous The entry of the stored version of the session, or `null` if none.
+     * @return The entry of the session, which may be the previous one updated.
+     */
+    abstract E write(Session session, E previous);
+
+    /**
+     * Releases what an entry removed from the store holds.
+     *
+     * @param entry The removed entry.
+     */
+    abstract void delete(E entry);
+
+    /**
+     * Records an access to an entry. Does nothing by default.
+     *
+     * @param entry The accessed entry.
+     */
+    void touched(E entry) {
+    }
+
+    long deadline(long creationTime, long lastAccessedTime) {
+        return Math.min(lastAccessedTime + idleTimeoutMillis, creationTime + absoluteTimeoutMillis);
+    }
+
+    @Override
+    public Session create() {
+        return new Session(Session.generateId(), clock.millis());
+    }
+
+    @Override
+    public Session find(String id) {
+        long now = clock.millis();
+        expire(now);
+        E entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.deadline() <= now) {
+            lock.lock();
+            try {
+                if (entries.remove(id, entry)) {
+                    remove(entry);
+                    expired.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+        entry.lastAccessedTime = now;
+        touched(entry);
+        Session session = read(entry);
+        if (session == null) {
+            // Saved or removed by another request meanwhile
+            return find(id);
+        }
+        session.setLastAccessedTime(now);
+        return session;
+    }
+
+    @Override
+    public void save(Session session) {
+        long now = clock.millis();
+        expire(now);
+        lock.lock();
+        try {
+            E previous = entries.get(session.getId());
+            long previousBytes = previous != null ? previous.bytes : 0;
+            E entry = write(session, previous);
+            if (entry.bytes > maxBytes) {
+                // The session is dropped rather than kept in a stale version
+                if (previous != null && entries.remove(previous.id, previous)) {
+                    wheel.unschedule(previous);
+                    bytes -= previousBytes;
+                }
+                delete(entry);
+                throw new IllegalArgumentException("Session " + session.getId() + " takes " + entry.bytes
+                        + " bytes, more than the maximum of " + maxBytes + " bytes of the store");
+            }
+            if (previous != null) {
+                wheel.unschedule(previous);
+                bytes -= previousBytes;
+            }
+            entry.lastAccessedTime = now;
+            entries.put(session.getId(), entry);
+            wheel.schedule(entry);
+            bytes += entry.bytes;
+            while (entries.size() > maxSessions || bytes > maxBytes) {
+                if (!evictOne(entry)) {
+                    break;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        session.setLastAccessedTime(now);
+        session.markSaved();
+    }
+
+    /**
+     * Evicts the entry expiring first, other than the one just saved.
+     *
+     * @param saved The entry just saved.
+     * @return `false` if there was nothing to evict.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean evictOne(E saved) {
+        E victim = (E) wheel.evict();
+        if (victim == null) {
+            return false;
+        }
+        if (victim == saved) {
+            E other = (E) wheel.evict();
+            wheel.schedule(saved);
+            if (other == null) {
+                return false;
+            }
+            victim = other;
+        }
+        entries.remove(victim.id, victim);
+        bytes -= victim.bytes;
+        delete(victim);
+        evicted.increment();
+        return true;
+    }
+
+    @Override
+    public void invalidate(String id) {
+        lock.lock();
+        try {
+            E entry = entries.remove(id);
+            if (entry != null) {
+                remove(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes an entry no longer in the map from the wheel and the byte count. Requires the lock.
+     */
+    private void remove(E entry) {
+        wheel.unschedule(entry);
+        bytes -= entry.bytes;
+        delete(entry);
+    }
+
+    /**
+     * Removes the expired entries of the ticks elapsed since the last call, unless another thread
+     * is already doing so.
+     */
+    @SuppressWarnings("unchecked")
+    private void expire(long now) {
+        if (!wheel.isDue(now) || !lock.tryLock()) {
+            return;
+        }
+        try {
+            wheel.advance(now, node -> {
+                E entry = (E) node;
+                if (entries.remove(entry.id, entry)) {
+                    bytes -= entry.bytes;
+                    delete(entry);
+                    expired.increment();
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an entry restored from storage, unless it has expired. Meant to be called while the
+     * store is created.
+     *
+     * @param entry The restored entry.
+     * @return `true` if the entry was added.
+     */
+    boolean restore(E entry) {
+        lock.lock();
+        try {
+            if (entry.deadline() <= clock.millis()) {
+                return false;
+            }
+            E previous = entries.put(entry.id, entry);
+            if (previous != null) {
+                wheel.unschedule(previous);
+                bytes -= previous.bytes;
+            }
+            wheel.schedule(entry);
+            bytes += entry.bytes;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs an action while holding the lock of the store, so no session is saved or removed meanwhile.
+     *
+     * @param action The action.
+     */
+    void locked(Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the stored entries, which do not change while the lock is held.
+     *
+     * @return The entries of the store.
+     */
+    Iterable<E> entries() {
+        return entries.values();
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The bytes the stored sessions count towards the maximum of the store.
+     */
+    public long getBytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of sessions removed because they expired.
+     */
+    public long getExpiredTotal() {
+        return expired.sum();
+    }
+
+    /**
+     * @return The number of sessions evicted to stay within the limits of the store.
+     */
+    public long getEvictedTotal() {
+        return evicted.sum();
+    }
+}
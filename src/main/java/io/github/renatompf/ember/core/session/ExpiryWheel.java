@@ -0,0 +1,178 @@
+package io.github.renatompf.ember.core.session;
+
+import java.util.function.Consumer;
+
+/**
+ * A hashed timing wheel finding expired sessions without scanning all of them.
+ * <p>
+ * The wheel has a power of two of slots, each holding a linked list of the nodes whose deadline
+ * falls in one tick; a slot is shared by the ticks a whole number of revolutions apart, although
+ * stores size the wheel so that deadlines lie within one revolution. Advancing the wheel only
+ * visits the slots of the ticks that elapsed. A node whose deadline moved later since it was
+ * scheduled, because its session was accessed, is moved to its new slot when its old one is
+ * visited, so accesses do not touch the wheel. Deadlines may only move later.
+ * </p>
+ * <p>
+ * The wheel is not thread-safe; its store guards it with a lock.
+ * </p>
+ */
+final class ExpiryWheel {
+
+    /**
+     * A node scheduled in the wheel.
+     */
+    abstract static class Node {
+        private Node previous;
+        private Node next;
+        private int slot = -1;
+
+        /**
+         * @return The time this node expires, in milliseconds since the epoch.
+         */
+        abstract long deadline();
+    }
+
+    private final long tickMillis;
+    private final Node[] heads;
+    private final int mask;
+    /** The last tick whose slot has been visited. */
+    private long currentTick;
+
+    /**
+     * Constructs a new wheel.
+     *
+     * @param tickMillis The duration of a tick in milliseconds.
+     * @param slots      The number of slots, rounded up to a power of two.
+     * @param now        The current time in milliseconds since the epoch.
+     */
+    ExpiryWheel(long tickMillis, int slots, long now) {
+        this.tickMillis = tickMillis;
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.heads = new Node[size];
+        this.mask = size - 1;
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * Schedules a node in the slot of its deadline. A node already due goes in the next slot visited.
+     *
+     * @param node The node to schedule.
+     */
+    void schedule(Node node) {
+        long tick = Math.max(node.deadline() / tickMillis, currentTick + 1);
+        link(node, (int) (tick & mask));
+    }
+
+    /**
+     * Removes a node from the wheel, if scheduled.
+     *
+     * @param node The node to remove.
+     */
+    void unschedule(Node node) {
+        if (node.slot < 0) {
+            return;
+        }
+        if (node.previous != null) {
+            node.previous.next = node.next;
+        } else {
+            heads[node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.previous = node.previous;
+        }
+        node.previous = null;
+        node.next = null;
+        node.slot = -1;
+    }
+
+    private void link(Node node, int slot) {
+        node.slot = slot;
+        node.previous = null;
+        node.next = heads[slot];
+        if (node.next != null) {
+            node.next.previous = node;
+        }
+        heads[slot] = node;
+    }
+
+    /**
+     * Checks whether ticks elapsed since the wheel last advanced.
+     *
+     * @param now The current time in milliseconds since the epoch.
+     * @return `true` if {@link #advance} would visit slots.
+     */
+    boolean isDue(long now) {
+        return now / tickMillis - 1 > currentTick;
+    }
+
+    /**
+     * Visits the slots of the ticks fully elapsed since the last call, removing the nodes whose
+     * deadline passed and moving those whose deadline moved to their new slot.
+     *
+     * @param now     The current time in milliseconds since the epoch.
+     * @param expired Receives every expired node, once removed.
+     */
+    void advance(long now, Consumer<Node> expired) {
+        long last = now / tickMillis - 1;
+        if (last <= currentTick) {
+            return;
+        }
+        long first = Math.max(currentTick + 1, last - mask);
+        currentTick = last;
+        for (long tick = first; tick <= last; tick++) {
+            int slot = (int) (tick & mask);
+            Node node = heads[slot];
+            while (node != null) {
+                Node next = node.next;
+                long deadline = node.deadline();
+                if (deadline <= now) {
+                    unschedule(node);
+                    expired.accept(node);
+                } else {
+                    reschedule(node, deadline, slot);
+                }
+                node = next;
+            }
+        }
+    }
+
+    private void reschedule(Node node, long deadline, int slot) {
+        int target = (int) (Math.max(deadline / tickMillis, currentTick + 1) & mask);
+        if (target != slot) {
+            unschedule(node);
+            link(node, target);
+        }
+    }
+
+    /**
+     * Removes the node expiring first, or close to it, to make room for another. Slots are
+     * visited from the next tick on; nodes met whose deadline moved are moved to their new slot.
+     *
+     * @return The removed node, or `null` if the wheel is empty.
+     */
+    Node evict() {
+        Node fallback = null;
+        for (long tick = currentTick + 1; tick <= currentTick + heads.length; tick++) {
+            int slot = (int) (tick & mask);
+            Node node = heads[slot];
+            while (node != null) {
+                Node next = node.next;
+                long deadline = node.deadline();
+                if (deadline / tickMillis <= tick) {
+                    unschedule(node);
+                    return node;
+                }
+                reschedule(node, deadline, slot);
+                if (fallback == null && node.slot == slot) {
+                    // Expires in a later revolution of the wheel
+                    fallback = node;
+                }
+                node = next;
+            }
+        }
+        if (fallback != null) {
+            unschedule(fallback);
+        }
+        return fallback;
+    }
+}
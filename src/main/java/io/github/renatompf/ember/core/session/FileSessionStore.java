@@ -0,0 +1,464 @@
+package io.github.renatompf.ember.core.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A session store keeping sessions in a memory-mapped file, so they survive restarts of the
+ * application.
+ * <p>
+ * The file is a log of records mapped in fixed-size segments: saving a session appends a record
+ * holding its attributes in a compact binary format, where strings, numbers and byte arrays are
+ * written directly and other values with Java serialization, and invalidating one appends a
+ * removal record. Only the position of each record is kept on the heap; attributes are copied
+ * from the file on every lookup and decoded as they are read, so each request works on its own
+ * copy of its session, which must be saved for changes to be kept. Accesses update the last
+ * access time of the record in place. When records replaced or removed take more room than the
+ * live ones, the live records are copied to a new file which replaces the old one.
+ * </p>
+ * <p>
+ * The same timeouts and limits as the {@link InMemorySessionStore} apply, the maximum number of
+ * bytes counting the records of the stored sessions. On startup the file is replayed, skipping
+ * the sessions that expired meanwhile. Data is written to the file through the operating system's
+ * page cache, so it survives the application stopping abruptly; {@link #close()} also forces it
+ * to the storage device.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * SessionStore store = FileSessionStore.builder(Path.of("data/sessions.db"))
+ *         .idleTimeout(Duration.ofHours(1))
+ *         .build();
+ * }
+ * </pre>
+ */
+public class FileSessionStore extends AbstractSessionStore<FileSessionStore.FileEntry> {
+    private static final Logger logger = LoggerFactory.getLogger(FileSessionStore.class);
+
+    private static final int MAGIC = 0x454D4253;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 12;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    /** The bytes of a record before its ID: its length, type and ID length. */
+    private static final int RECORD_PREFIX = 4 + 1 + 2;
+
+    static final class FileEntry extends AbstractSessionStore.Entry {
+        private final int idLength;
+        /** The segment of the record, or `-1` once the record was replaced or removed. */
+        private int segment;
+        private int offset;
+
+        FileEntry(FileSessionStore store, String id, int idLength, long creationTime, long lastAccessedTime,
+                  int segment, int offset, int length) {
+            super(store, id, creationTime, lastAccessedTime);
+            this.idLength = idLength;
+            this.segment = segment;
+            this.offset = offset;
+            this.bytes = length;
+        }
+
+        /**
+         * @return The position of the last access time in the record.
+         */
+        int lastAccessedOffset() {
+            return offset + RECORD_PREFIX + idLength + 8;
+        }
+
+        /**
+         * @return The position of the attributes in the record.
+         */
+        int attributesOffset() {
+            return offset + RECORD_PREFIX + idLength + 16;
+        }
+    }
+
+    private final Path path;
+    private int segmentSize;
+    /** Guards the file and the positions of the entries; taken after the lock of the store. */
+    private final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private int writeSegment;
+    private int writePosition;
+    /** The bytes of the records replaced or removed since the file was last compacted. */
+    private long garbage;
+
+    private FileSessionStore(Builder builder) {
+        super(builder);
+        this.path = builder.path;
+        this.segmentSize = builder.segmentSize;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (channel.size() == 0) {
+                writeHeader(map(channel, segments, 0));
+                writePosition = HEADER_SIZE;
+            } else {
+                replay();
+            }
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException("Failed to open session file " + path, e);
+        } catch (RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a new builder for a store writing to the given file, created if it does not exist.
+     *
+     * @param path The path of the file.
+     * @return A new {@link Builder}.
+     */
+    public static Builder builder(Path path) {
+        return new Builder(path);
+    }
+
+    /**
+     * Maps the segments of an existing file and restores the sessions of its records.
+     */
+    private void replay() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        if (header.getInt(0) != MAGIC) {
+            throw new IllegalStateException(path + " is not a session file");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IllegalStateException(path + " is a session file of version " + header.getInt(4)
+                    + ", expected " + VERSION);
+        }
+        // The file keeps the segment size it was created with
+        segmentSize = header.getInt(8);
+        long size = channel.size();
+        int count = (int) ((size + segmentSize - 1) / segmentSize);
+        for (int i = 0; i < count; i++) {
+            map(channel, segments, i);
+        }
+
+        Map<String, FileEntry> live = new LinkedHashMap<>();
+        long total = 0;
+        for (int segment = 0; segment < count; segment++) {
+            ByteBuffer buffer = segments.get(segment);
+            int position = segment == 0 ? HEADER_SIZE : 0;
+            while (position + 4 <= segmentSize) {
+                int length = buffer.getInt(position);
+                if (length == 0) {
+                    break;
+                }
+                if (length < RECORD_PREFIX - 4 || position + 4 + length > segmentSize) {
+                    logger.warn("Ignoring the rest of segment {} of session file {}: corrupted record", segment, path);
+                    break;
+                }
+                byte type = buffer.get(position + 4);
+                int idLength = buffer.getShort(position + 5);
+                byte[] id = new byte[idLength];
+                buffer.get(position + RECORD_PREFIX, id);
+                String sessionId = new String(id, StandardCharsets.UTF_8);
+                if (type == PUT) {
+                    long creationTime = buffer.getLong(position + RECORD_PREFIX + idLength);
+                    long lastAccessedTime = buffer.getLong(position + RECORD_PREFIX + idLength + 8);
+                    live.put(sessionId, new FileEntry(this, sessionId, idLength, creationTime, lastAccessedTime,
+                            segment, position, 4 + length));
+                } else {
+                    live.remove(sessionId);
+                }
+                total += 4 + length;
+                position += 4 + length;
+                writeSegment = segment;
+                writePosition = position;
+            }
+        }
+
+        long restored = 0;
+        for (FileEntry entry : live.values()) {
+            if (restore(entry)) {
+                restored += entry.bytes;
+            }
+        }
+        garbage = total - restored;
+        logger.info("Restored {} sessions from {}", size(), path);
+    }
+
+    private void writeHeader(MappedByteBuffer segment) {
+        segment.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, segmentSize);
+    }
+
+    private MappedByteBuffer map(FileChannel channel, List<MappedByteBuffer> segments, int segment) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, (long) segment * segmentSize, segmentSize);
+        segments.add(buffer);
+        return buffer;
+    }
+
+    @Override
+    Session read(FileEntry entry) {
+        byte[] attributes;
+        fileLock.readLock().lock();
+        try {
+            if (entry.segment < 0) {
+                return null;
+            }
+            attributes = new byte[(int) entry.bytes - (entry.attributesOffset() - entry.offset)];
+            segments.get(entry.segment).get(entry.attributesOffset(), attributes);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+        return new Session(entry.id, entry.creationTime, entry.lastAccessedTime, attributes);
+    }
+
+    @Override
+    void touched(FileEntry entry) {
+        fileLock.readLock().lock();
+        try {
+            if (entry.segment < 0) {
+                return;
+            }
+            segments.get(entry.segment).putLong(entry.lastAccessedOffset(), entry.lastAccessedTime);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    FileEntry write(Session session, FileEntry previous) {
+        byte[] id = session.getId().getBytes(StandardCharsets.UTF_8);
+        byte[] attributes = session.encodeAttributes();
+        int length = 1 + 2 + id.length + 16 + attributes.length;
+        ByteBuffer record = ByteBuffer.allocate(length)
+                .put(PUT)
+                .putShort((short) id.length)
+                .put(id)
+                .putLong(session.getCreationTime())
+                .putLong(session.getLastAccessedTime())
+                .put(attributes);
+
+        fileLock.writeLock().lock();
+        try {
+            if (garbage >= segmentSize && garbage > getBytes()) {
+                compact();
+            }
+            int offset = append(record.array());
+            if (previous != null) {
+                garbage += previous.bytes;
+                previous.segment = -1;
+            }
+            return new FileEntry(this, session.getId(), id.length, session.getCreationTime(),
+                    session.getLastAccessedTime(), writeSegment, offset, 4 + length);
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    void delete(FileEntry entry) {
+        byte[] id = entry.id.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(1 + 2 + id.length)
+                .put(REMOVE)
+                .putShort((short) id.length)
+                .put(id);
+
+        fileLock.writeLock().lock();
+        try {
+            append(record.array());
+            garbage += entry.bytes + 4 + record.capacity();
+            entry.segment = -1;
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a record, mapping a new segment if the current one is full. Requires the write lock.
+     *
+     * @param record The record, without its length.
+     * @return The offset of the record in its segment.
+     */
+    private int append(byte[] record) {
+        int size = 4 + record.length;
+        if (size > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Session record of " + size
+                    + " bytes does not fit in a segment of " + segmentSize + " bytes");
+        }
+        if (writePosition + size > segmentSize) {
+            writeSegment++;
+            writePosition = 0;
+            if (writeSegment == segments.size()) {
+                try {
+                    map(channel, segments, writeSegment);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to grow session file " + path, e);
+                }
+            }
+        }
+        MappedByteBuffer segment = segments.get(writeSegment);
+        int offset = writePosition;
+        // The length is written last, so a record cut short by a crash reads as the end of the segment
+        segment.put(offset + 4, record);
+        segment.putInt(offset, record.length);
+        writePosition += size;
+        return offset;
+    }
+
+    /**
+     * Copies the records of the stored sessions to a new file, which replaces the current one.
+     * Requires the lock of the store and the write lock.
+     */
+    private void compact() {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        List<MappedByteBuffer> newSegments = new ArrayList<>();
+        Map<FileEntry, long[]> positions = new HashMap<>();
+        FileChannel newChannel = null;
+        try {
+            newChannel = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            writeHeader(map(newChannel, newSegments, 0));
+            int segment = 0;
+            int position = HEADER_SIZE;
+            for (FileEntry entry : entries()) {
+                int size = (int) entry.bytes;
+                if (position + size > segmentSize) {
+                    segment++;
+                    position = 0;
+                    map(newChannel, newSegments, segment);
+                }
+                byte[] record = new byte[size];
+                segments.get(entry.segment).get(entry.offset, record);
+                newSegments.get(segment).put(position, record);
+                positions.put(entry, new long[]{segment, position});
+                position += size;
+            }
+            for (MappedByteBuffer buffer : newSegments) {
+                buffer.force();
+            }
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            FileChannel oldChannel = channel;
+            channel = newChannel;
+            segments.clear();
+            segments.addAll(newSegments);
+            writeSegment = segment;
+            writePosition = position;
+            positions.forEach((entry, newPosition) -> {
+                entry.segment = (int) newPosition[0];
+                entry.offset = (int) newPosition[1];
+            });
+            logger.debug("Compacted session file {}, reclaiming {} bytes", path, garbage);
+            garbage = 0;
+            oldChannel.close();
+        } catch (IOException e) {
+            // The current file is left as it is; compaction is attempted again on a later save
+            logger.warn("Failed to compact session file {}: {}", path, e.getMessage());
+            if (newChannel != null && newChannel != channel) {
+                try {
+                    newChannel.close();
+                    Files.deleteIfExists(compacted);
+                } catch (IOException ignored) {
+                    // Nothing more can be done
+                }
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // The original failure is reported instead
+        }
+    }
+
+    /**
+     * @return The path of the file the sessions are stored in.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Forces the stored sessions to the storage device and closes the file. The store must not be
+     * used afterwards.
+     */
+    @Override
+    public void close() {
+        locked(() -> {
+            fileLock.writeLock().lock();
+            try {
+                for (MappedByteBuffer segment : segments) {
+                    segment.force();
+                }
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close session file {}: {}", path, e.getMessage());
+            } finally {
+                fileLock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * A builder for {@link FileSessionStore}.
+     */
+    public static class Builder extends SessionStoreBuilder<Builder> {
+        private final Path path;
+        private int segmentSize = 8 * 1024 * 1024;
+
+        private Builder(Path path) {
+            super(256L * 1024 * 1024);
+            this.path = path;
+        }
+
+        @Override
+        Builder self() {
+            return this;
+        }
+
+        /**
+         * Sets the size of the segments the file is mapped in, which bounds the size of a session.
+         * Defaults to 8 MiB.
+         *
+         * @param segmentSize The segment size in bytes.
+         * @return The builder instance.
+         */
+        public Builder segmentSize(int segmentSize) {
+            if (segmentSize < 4096) {
+                throw new IllegalArgumentException("segmentSize must be at least 4096 bytes");
+            }
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Builds the store, restoring the sessions of the file if it exists.
+         *
+         * @return A new {@link FileSessionStore}.
+         * @throws UncheckedIOException If the file cannot be opened.
+         */
+        public FileSessionStore build() {
+            return new FileSessionStore(this);
+        }
+    }
+}
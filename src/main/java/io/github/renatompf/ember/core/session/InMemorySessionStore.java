@@ -0,0 +1,131 @@
+package io.github.renatompf.ember.core.session;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A session store keeping sessions on the heap, lost when the application stops.
+ * <p>
+ * Sessions expire after an idle and an absolute timeout, and the store holds at most a maximum
+ * number of sessions and of estimated bytes, evicting the sessions expiring first beyond them.
+ * The size of a session is estimated from its attributes when it is saved: strings and byte
+ * arrays count their length, other values a fixed amount.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * SessionStore store = InMemorySessionStore.builder()
+ *         .idleTimeout(Duration.ofMinutes(15))
+ *         .maxSessions(50_000)
+ *         .build();
+ * }
+ * </pre>
+ */
+public class InMemorySessionStore extends AbstractSessionStore<InMemorySessionStore.MemoryEntry> {
+    /** The estimated bytes of a session without attributes. */
+    private static final int SESSION_OVERHEAD = 160;
+    /** The estimated bytes of an attribute, besides its key and value. */
+    private static final int ATTRIBUTE_OVERHEAD = 48;
+    /** The estimated bytes of a value of unknown size. */
+    private static final int OBJECT_SIZE = 64;
+
+    static final class MemoryEntry extends AbstractSessionStore.Entry {
+        private final Session session;
+
+        MemoryEntry(InMemorySessionStore store, Session session) {
+            super(store, session.getId(), session.getCreationTime(), session.getLastAccessedTime());
+            this.session = session;
+        }
+    }
+
+    private InMemorySessionStore(Builder builder) {
+        super(builder);
+    }
+
+    /**
+     * Creates a new builder for an in-memory session store.
+     *
+     * @return A new {@link Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    Session read(MemoryEntry entry) {
+        return entry.session;
+    }
+
+    @Override
+    MemoryEntry write(Session session, MemoryEntry previous) {
+        MemoryEntry entry = previous != null && previous.session == session
+                ? previous
+                : new MemoryEntry(this, session);
+        entry.bytes = estimateSize(session);
+        return entry;
+    }
+
+    @Override
+    void delete(MemoryEntry entry) {
+        // Nothing is held besides the entry itself
+    }
+
+    /**
+     * Estimates the bytes a session takes on the heap.
+     *
+     * @param session The session.
+     * @return The estimated size in bytes.
+     */
+    static long estimateSize(Session session) {
+        long size = SESSION_OVERHEAD + 2L * session.getId().length();
+        for (Map.Entry<String, Object> attribute : session.attributes().entrySet()) {
+            size += ATTRIBUTE_OVERHEAD + 2L * attribute.getKey().length() + estimateSize(attribute.getValue());
+        }
+        return size;
+    }
+
+    private static long estimateSize(Object value) {
+        if (value instanceof CharSequence text) {
+            return 40 + 2L * text.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return 16 + bytes.length;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof Enum) {
+            return 16;
+        }
+        if (value instanceof Collection<?> collection) {
+            return OBJECT_SIZE + (long) OBJECT_SIZE * collection.size();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return OBJECT_SIZE + 2L * OBJECT_SIZE * map.size();
+        }
+        return OBJECT_SIZE;
+    }
+
+    /**
+     * A builder for {@link InMemorySessionStore}.
+     */
+    public static class Builder extends SessionStoreBuilder<Builder> {
+
+        private Builder() {
+            super(64L * 1024 * 1024);
+        }
+
+        @Override
+        Builder self() {
+            return this;
+        }
+
+        /**
+         * Builds the store.
+         *
+         * @return A new {@link InMemorySessionStore}.
+         */
+        public InMemorySessionStore build() {
+            return new InMemorySessionStore(this);
+        }
+    }
+}
@@ -0,0 +1,668 @@
+package io.github.renatompf.ember.core.session;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A session store keeping sessions outside the heap, so that many sessions put no load on the
+ * garbage collector. Sessions are lost when the application stops.
+ * <p>
+ * Sessions are stored as records in slabs of direct memory, holding their times, ID and
+ * attributes encoded in a compact binary format, where strings, numbers and byte arrays are
+ * written directly and other values with Java serialization. Slabs are divided in chunks of a
+ * size class, growing by a quarter from 64 bytes, and a record takes a chunk of the smallest
+ * class it fits in; freed chunks are reused by records of their class. Records are indexed by
+ * session ID in an open-addressing hash table of two primitive arrays, so the heap holds about
+ * 16 to 32 bytes per session whatever its attributes.
+ * </p>
+ * <p>
+ * Lookups copy the attributes of a record to the heap and return a session decoding each of them
+ * when first read, so each request works on its own copy of its session, which must be saved for
+ * changes to be kept. Lookups share a read lock and saves take a write lock.
+ * </p>
+ * <p>
+ * The same timeouts and limits as the {@link InMemorySessionStore} apply, the maximum number of
+ * bytes bounding the slabs allocated. Expired sessions are removed when looked up, and a few
+ * entries of the index are checked on every save, and more once per expiry tick. Saving a session
+ * beyond the limits evicts, among a sample of the stored sessions, the one expiring first; when
+ * no chunk of the class of a record can be freed that way, the slab with the fewest live records
+ * is emptied and given to that class.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * SessionStore store = OffHeapSessionStore.builder()
+ *         .maxBytes(512L * 1024 * 1024)
+ *         .build();
+ * }
+ * </pre>
+ */
+public class OffHeapSessionStore implements SessionStore {
+    /** The position of the fields of a record: its length, which is `0` once freed, times and ID. */
+    private static final int LENGTH = 0;
+    private static final int CREATION_TIME = 4;
+    private static final int LAST_ACCESSED_TIME = 12;
+    private static final int ID_LENGTH = 20;
+    private static final int ID = 22;
+
+    private static final int MIN_CHUNK_SIZE = 64;
+    private static final int INITIAL_CAPACITY = 1024;
+    /** The number of index entries checked for expiry on every save. */
+    private static final int SWEEP_SLOTS = 8;
+    /** The number of index entries checked for expiry once per tick. */
+    private static final int TICK_SWEEP_SLOTS = 1024;
+    /** The number of sessions compared to pick one to evict. */
+    private static final int EVICTION_SAMPLES = 16;
+
+    private final Clock clock;
+    private final long idleTimeoutMillis;
+    private final long absoluteTimeoutMillis;
+    private final long tickMillis;
+    private final int maxSessions;
+    private final int maxSlabs;
+    private final int slabSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final int[] chunkSizes;
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    /** The size class of each slab. */
+    private int[] slabClasses = new int[8];
+    /** The number of live records of each slab. */
+    private int[] slabRecords = new int[8];
+    /** The freed chunks of each class, as references. */
+    private final long[][] freeChunks;
+    private final int[] freeCounts;
+    /** The slab each class allocates new chunks from, or `-1`, and the offset of its next chunk. */
+    private final int[] currentSlabs;
+    private final int[] currentOffsets;
+
+    /** The hashes of the IDs of the index entries. */
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    /** The references of the records of the index entries, `0` for an empty entry. */
+    private long[] references = new long[INITIAL_CAPACITY];
+    private int count;
+    private int sweepHand;
+    private int evictionHand;
+    private volatile long lastSweep;
+    /** The bytes of the chunks of the stored sessions. */
+    private long bytes;
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    /** Whether the store has been closed. Guarded by the lock. */
+    private boolean closed;
+
+    private OffHeapSessionStore(Builder builder) {
+        this.clock = builder.clock;
+        this.idleTimeoutMillis = builder.idleTimeout.toMillis();
+        this.absoluteTimeoutMillis = builder.absoluteTimeout.toMillis();
+        this.tickMillis = builder.tick.toMillis();
+        this.maxSessions = builder.maxSessions;
+        this.slabSize = builder.slabSize;
+        this.maxSlabs = (int) Math.min(builder.maxBytes / slabSize, Integer.MAX_VALUE - 1);
+
+        List<Integer> sizes = new ArrayList<>();
+        for (int size = MIN_CHUNK_SIZE; size < slabSize; size = (size + size / 4 + 7) & ~7) {
+            sizes.add(size);
+        }
+        sizes.add(slabSize);
+        this.chunkSizes = sizes.stream().mapToInt(Integer::intValue).toArray();
+        this.freeChunks = new long[chunkSizes.length][];
+        this.freeCounts = new int[chunkSizes.length];
+        this.currentSlabs = new int[chunkSizes.length];
+        this.currentOffsets = new int[chunkSizes.length];
+        Arrays.fill(currentSlabs, -1);
+        this.lastSweep = clock.millis();
+    }
+
+    /**
+     * Creates a new builder for an off-heap session store.
+     *
+     * @return A new {@link Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Session create() {
+        return new Session(Session.generateId(), clock.millis());
+    }
+
+    @Override
+    public Session find(String id) {
+        long now = clock.millis();
+        if (now - lastSweep >= tickMillis && lock.writeLock().tryLock()) {
+            try {
+                checkOpen();
+                lastSweep = now;
+                sweep(now, TICK_SWEEP_SLOTS);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(id);
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            int slot = lookup(hash, idBytes);
+            if (slot < 0) {
+                return null;
+            }
+            long reference = references[slot];
+            ByteBuffer slab = buffer(reference);
+            int offset = offset(reference);
+            long creationTime = slab.getLong(offset + CREATION_TIME);
+            if (deadline(creationTime, slab.getLong(offset + LAST_ACCESSED_TIME)) > now) {
+                // Concurrent lookups may overwrite each other's access, which are equally recent
+                slab.putLong(offset + LAST_ACCESSED_TIME, now);
+                byte[] attributes = new byte[slab.getInt(offset + LENGTH) - (ID - 4) - idBytes.length];
+                slab.get(offset + ID + idBytes.length, attributes);
+                return new Session(id, creationTime, now, attributes);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        removeExpired(hash, idBytes, now);
+        return null;
+    }
+
+    private void removeExpired(int hash, byte[] idBytes, long now) {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            int slot = lookup(hash, idBytes);
+            if (slot >= 0 && deadline(references[slot]) <= now) {
+                removeSlot(slot);
+                expired.increment();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void save(Session session) {
+        long now = clock.millis();
+        byte[] idBytes = session.getId().getBytes(StandardCharsets.UTF_8);
+        byte[] attributes = session.encodeAttributes();
+        int length = ID + idBytes.length + attributes.length;
+        int hash = hash(session.getId());
+
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            sweep(now, SWEEP_SLOTS);
+            int slot = lookup(hash, idBytes);
+            if (length > slabSize) {
+                // The session is dropped rather than kept in a stale version
+                if (slot >= 0) {
+                    removeSlot(slot);
+                }
+                throw new IllegalArgumentException("Session " + session.getId() + " takes " + length
+                        + " bytes, more than the slabs of " + slabSize + " bytes of the store");
+            }
+            int sizeClass = sizeClass(length);
+            if (slot >= 0 && slabClasses[slabIndex(references[slot])] == sizeClass) {
+                write(references[slot], session, idBytes, attributes, now);
+            } else {
+                if (slot >= 0) {
+                    removeSlot(slot);
+                } else if (count >= maxSessions) {
+                    evict(-1, now);
+                }
+                long reference = allocate(sizeClass, now);
+                write(reference, session, idBytes, attributes, now);
+                slabRecords[slabIndex(reference)]++;
+                bytes += chunkSizes[sizeClass];
+                insert(hash, reference);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        session.setLastAccessedTime(now);
+        session.markSaved();
+    }
+
+    private void write(long reference, Session session, byte[] idBytes, byte[] attributes, long now) {
+        ByteBuffer slab = buffer(reference);
+        int offset = offset(reference);
+        slab.putLong(offset + CREATION_TIME, session.getCreationTime())
+                .putLong(offset + LAST_ACCESSED_TIME, now)
+                .putShort(offset + ID_LENGTH, (short) idBytes.length)
+                .put(offset + ID, idBytes)
+                .put(offset + ID + idBytes.length, attributes)
+                .putInt(offset + LENGTH, ID - 4 + idBytes.length + attributes.length);
+    }
+
+    @Override
+    public void invalidate(String id) {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            int slot = lookup(hash(id), idBytes);
+            if (slot >= 0) {
+                removeSlot(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Releases the slabs, which the garbage collector frees. Looking up, saving or invalidating
+     * a session afterwards throws an {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            closed = true;
+            slabs.clear();
+            Arrays.fill(references, 0);
+            Arrays.fill(freeChunks, null);
+            Arrays.fill(freeCounts, 0);
+            Arrays.fill(currentSlabs, -1);
+            count = 0;
+            bytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fails if the store has been closed and its slabs released. Requires the read or write lock.
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Session store is closed");
+        }
+    }
+
+    private long deadline(long creationTime, long lastAccessedTime) {
+        return Math.min(lastAccessedTime + idleTimeoutMillis, creationTime + absoluteTimeoutMillis);
+    }
+
+    private long deadline(long reference) {
+        ByteBuffer slab = buffer(reference);
+        int offset = offset(reference);
+        return deadline(slab.getLong(offset + CREATION_TIME), slab.getLong(offset + LAST_ACCESSED_TIME));
+    }
+
+    /**
+     * Packs the position of a record: its slab plus one, so that no reference is `0`, and its offset.
+     */
+    private static long reference(int slab, int offset) {
+        return ((long) (slab + 1) << 32) | offset;
+    }
+
+    private static int slabIndex(long reference) {
+        return (int) (reference >>> 32) - 1;
+    }
+
+    private static int offset(long reference) {
+        return (int) reference;
+    }
+
+    private ByteBuffer buffer(long reference) {
+        return slabs.get(slabIndex(reference));
+    }
+
+    /**
+     * Finds the smallest size class a record fits in.
+     */
+    private int sizeClass(int length) {
+        int index = Arrays.binarySearch(chunkSizes, length);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Takes a chunk of a size class, freeing one if the store is full. Requires the write lock.
+     *
+     * @return The reference of the chunk.
+     */
+    private long allocate(int sizeClass, long now) {
+        if (freeCounts[sizeClass] > 0) {
+            return freeChunks[sizeClass][--freeCounts[sizeClass]];
+        }
+        int chunkSize = chunkSizes[sizeClass];
+        int current = currentSlabs[sizeClass];
+        if (current >= 0 && currentOffsets[sizeClass] + chunkSize <= slabSize) {
+            int offset = currentOffsets[sizeClass];
+            currentOffsets[sizeClass] += chunkSize;
+            return reference(current, offset);
+        }
+        if (slabs.size() < maxSlabs) {
+            int slab = slabs.size();
+            slabs.add(ByteBuffer.allocateDirect(slabSize));
+            if (slab == slabClasses.length) {
+                slabClasses = Arrays.copyOf(slabClasses, slab * 2);
+                slabRecords = Arrays.copyOf(slabRecords, slab * 2);
+            }
+            slabClasses[slab] = sizeClass;
+            return startSlab(sizeClass, slab);
+        }
+        if (evict(sizeClass, now)) {
+            return freeChunks[sizeClass][--freeCounts[sizeClass]];
+        }
+        return startSlab(sizeClass, reassignSlab(sizeClass));
+    }
+
+    private long startSlab(int sizeClass, int slab) {
+        currentSlabs[sizeClass] = slab;
+        currentOffsets[sizeClass] = chunkSizes[sizeClass];
+        return reference(slab, 0);
+    }
+
+    private void free(long reference) {
+        int slab = slabIndex(reference);
+        int sizeClass = slabClasses[slab];
+        slabs.get(slab).putInt(offset(reference) + LENGTH, 0);
+        slabRecords[slab]--;
+        bytes -= chunkSizes[sizeClass];
+        long[] free = freeChunks[sizeClass];
+        if (free == null || freeCounts[sizeClass] == free.length) {
+            free = freeChunks[sizeClass] = Arrays.copyOf(free != null ? free : new long[0],
+                    Math.max(16, freeCounts[sizeClass] * 2));
+        }
+        free[freeCounts[sizeClass]++] = reference;
+    }
+
+    /**
+     * Empties the slab of another size class with the fewest live records, evicting their
+     * sessions, and gives it to a size class. Requires the write lock.
+     *
+     * @return The slab.
+     */
+    private int reassignSlab(int sizeClass) {
+        int slab = -1;
+        for (int i = 0; i < slabs.size(); i++) {
+            if (slabClasses[i] != sizeClass && (slab < 0 || slabRecords[i] < slabRecords[slab])) {
+                slab = i;
+            }
+        }
+        if (slab < 0) {
+            throw new IllegalStateException("No slab can be freed for a record of " + chunkSizes[sizeClass] + " bytes");
+        }
+        int previousClass = slabClasses[slab];
+        int chunkSize = chunkSizes[previousClass];
+        ByteBuffer buffer = slabs.get(slab);
+        int end = currentSlabs[previousClass] == slab ? currentOffsets[previousClass] : slabSize / chunkSize * chunkSize;
+        for (int offset = 0; offset < end; offset += chunkSize) {
+            if (buffer.getInt(offset + LENGTH) == 0) {
+                continue;
+            }
+            byte[] idBytes = new byte[buffer.getShort(offset + ID_LENGTH)];
+            buffer.get(offset + ID, idBytes);
+            int slot = lookup(hash(new String(idBytes, StandardCharsets.UTF_8)), idBytes);
+            removeSlot(slot);
+            evicted.increment();
+        }
+        // The chunks freed above belong to the previous layout of the slab
+        long[] free = freeChunks[previousClass];
+        int kept = 0;
+        for (int i = 0; i < freeCounts[previousClass]; i++) {
+            if (slabIndex(free[i]) != slab) {
+                free[kept++] = free[i];
+            }
+        }
+        freeCounts[previousClass] = kept;
+        if (currentSlabs[previousClass] == slab) {
+            currentSlabs[previousClass] = -1;
+        }
+        slabClasses[slab] = sizeClass;
+        return slab;
+    }
+
+    /**
+     * Evicts, among a sample of the stored sessions, the one expiring first. Requires the write lock.
+     *
+     * @param sizeClass The size class the session must be of, or `-1` for any.
+     * @return `false` if no session of the size class was found.
+     */
+    private boolean evict(int sizeClass, long now) {
+        int best = -1;
+        long bestDeadline = Long.MAX_VALUE;
+        int sampled = 0;
+        for (int i = 0; i < references.length && sampled < EVICTION_SAMPLES; i++) {
+            int slot = evictionHand++ & (references.length - 1);
+            long reference = references[slot];
+            if (reference == 0 || (sizeClass >= 0 && slabClasses[slabIndex(reference)] != sizeClass)) {
+                continue;
+            }
+            sampled++;
+            long deadline = deadline(reference);
+            if (deadline < bestDeadline) {
+                best = slot;
+                bestDeadline = deadline;
+            }
+        }
+        if (best < 0) {
+            return false;
+        }
+        removeSlot(best);
+        (bestDeadline <= now ? expired : evicted).increment();
+        return true;
+    }
+
+    /**
+     * Removes the expired sessions among some entries of the index. Requires the write lock.
+     */
+    private void sweep(long now, int slots) {
+        int mask = references.length - 1;
+        for (int i = 0; i < slots && count > 0; i++) {
+            int slot = sweepHand & mask;
+            long reference = references[slot];
+            if (reference != 0 && deadline(reference) <= now) {
+                // The entry is replaced by a later one, which is checked next
+                removeSlot(slot);
+                expired.increment();
+            } else {
+                sweepHand++;
+            }
+        }
+    }
+
+    private static int hash(String id) {
+        int hash = id.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Finds the index entry of a session. Requires the read or write lock.
+     *
+     * @return The slot of the entry, or `-1` if the session is not stored.
+     */
+    private int lookup(int hash, byte[] idBytes) {
+        int mask = references.length - 1;
+        for (int slot = hash & mask; references[slot] != 0; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && idEquals(references[slot], idBytes)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private boolean idEquals(long reference, byte[] idBytes) {
+        ByteBuffer slab = buffer(reference);
+        int offset = offset(reference);
+        if (slab.getShort(offset + ID_LENGTH) != idBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < idBytes.length; i++) {
+            if (slab.get(offset + ID + i) != idBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insert(int hash, long reference) {
+        if ((count + 1) * 4L > references.length * 3L) {
+            resize(references.length * 2);
+        }
+        int mask = references.length - 1;
+        int slot = hash & mask;
+        while (references[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        references[slot] = reference;
+        count++;
+    }
+
+    private void resize(int capacity) {
+        int[] oldHashes = hashes;
+        long[] oldReferences = references;
+        hashes = new int[capacity];
+        references = new long[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldReferences.length; i++) {
+            if (oldReferences[i] != 0) {
+                int slot = oldHashes[i] & mask;
+                while (references[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = oldHashes[i];
+                references[slot] = oldReferences[i];
+            }
+        }
+    }
+
+    /**
+     * Removes an index entry and frees its chunk, moving back the entries after it that probed
+     * past it, so lookups need no tombstones. Requires the write lock.
+     */
+    private void removeSlot(int slot) {
+        free(references[slot]);
+        int mask = references.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; references[next] != 0; next = (next + 1) & mask) {
+            int ideal = hashes[next] & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                hashes[hole] = hashes[next];
+                references[hole] = references[next];
+                hole = next;
+            }
+        }
+        hashes[hole] = 0;
+        references[hole] = 0;
+        count--;
+    }
+
+    /**
+     * @return The bytes of the chunks holding the stored sessions.
+     */
+    public long getBytes() {
+        lock.readLock().lock();
+        try {
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The bytes of direct memory allocated for slabs.
+     */
+    public long getOffHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) slabs.size() * slabSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The bytes of the heap taken by the index of the sessions.
+     */
+    public long getIndexBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) references.length * (Integer.BYTES + Long.BYTES);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of sessions removed because they expired.
+     */
+    public long getExpiredTotal() {
+        return expired.sum();
+    }
+
+    /**
+     * @return The number of sessions evicted to stay within the limits of the store.
+     */
+    public long getEvictedTotal() {
+        return evicted.sum();
+    }
+
+    /**
+     * A builder for {@link OffHeapSessionStore}.
+     */
+    public static class Builder extends SessionStoreBuilder<Builder> {
+        private int slabSize = 1024 * 1024;
+
+        private Builder() {
+            super(256L * 1024 * 1024);
+        }
+
+        @Override
+        Builder self() {
+            return this;
+        }
+
+        /**
+         * Sets the size of the slabs of direct memory sessions are stored in, which bounds the
+         * size of a session. Defaults to 1 MiB.
+         *
+         * @param slabSize The slab size in bytes.
+         * @return The builder instance.
+         */
+        public Builder slabSize(int slabSize) {
+            if (slabSize < 4096) {
+                throw new IllegalArgumentException("slabSize must be at least 4096 bytes");
+            }
+            this.slabSize = slabSize;
+            return this;
+        }
+
+        /**
+         * Builds the store. Slabs are allocated as sessions are saved.
+         *
+         * @return A new {@link OffHeapSessionStore}.
+         * @throws IllegalArgumentException If the maximum number of bytes is less than a slab.
+         */
+        public OffHeapSessionStore build() {
+            if (maxBytes < slabSize) {
+                throw new IllegalArgumentException("maxBytes must be at least slabSize");
+            }
+            return new OffHeapSessionStore(this);
+        }
+    }
+}
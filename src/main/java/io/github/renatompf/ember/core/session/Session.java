@@ -0,0 +1,231 @@
+package io.github.renatompf.ember.core.session;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A user session: a set of attributes kept across the requests of a client, identified by a
+ * random ID sent in a cookie.
+ * <p>
+ * Sessions are created, looked up and saved by a {@link SessionStore}. Changing an attribute
+ * marks the session as modified, and the server saves modified sessions back to their store once
+ * the request completes.
+ * </p>
+ * <p>
+ * Stores keeping attributes in their encoded form may hand out sessions that decode an attribute
+ * only when it is first read. The attributes neither read nor changed are saved back from their
+ * encoded form as they are; all of them are decoded once the attributes are listed.
+ * </p>
+ */
+public class Session {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final String id;
+    private final long creationTime;
+    private volatile long lastAccessedTime;
+    private final Map<String, Object> attributes;
+    /** The encoded attributes not decoded yet, or `null` once they all are. */
+    private volatile byte[] encoded;
+    /** The keys of the encoded attributes removed since, guarded by the session. */
+    private Set<String> removed;
+    private volatile boolean modified;
+
+    /**
+     * Constructs a new, empty session.
+     *
+     * @param id           The ID of the session.
+     * @param creationTime The time the session was created, in milliseconds since the epoch.
+     */
+    public Session(String id, long creationTime) {
+        this(id, creationTime, creationTime, Map.of());
+        this.modified = true;
+    }
+
+    /**
+     * Constructs a session restored from a store.
+     *
+     * @param id               The ID of the session.
+     * @param creationTime     The time the session was created, in milliseconds since the epoch.
+     * @param lastAccessedTime The time the session was last accessed, in milliseconds since the epoch.
+     * @param attributes       The attributes of the session.
+     */
+    public Session(String id, long creationTime, long lastAccessedTime, Map<String, Object> attributes) {
+        this.id = id;
+        this.creationTime = creationTime;
+        this.lastAccessedTime = lastAccessedTime;
+        this.attributes = new ConcurrentHashMap<>(attributes);
+    }
+
+    /**
+     * Constructs a session restored from a store, whose attributes are decoded when first read.
+     *
+     * @param id               The ID of the session.
+     * @param creationTime     The time the session was created, in milliseconds since the epoch.
+     * @param lastAccessedTime The time the session was last accessed, in milliseconds since the epoch.
+     * @param encoded          The attributes of the session, encoded by {@link SessionCodec}.
+     */
+    Session(String id, long creationTime, long lastAccessedTime, byte[] encoded) {
+        this.id = id;
+        this.creationTime = creationTime;
+        this.lastAccessedTime = lastAccessedTime;
+        this.attributes = new ConcurrentHashMap<>();
+        this.encoded = encoded;
+    }
+
+    /**
+     * Generates a session ID of 256 random bits from a {@link SecureRandom}, encoded in 43
+     * URL-safe Base64 characters.
+     *
+     * @return A new session ID.
+     */
+    public static String generateId() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return ID_ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * @return The ID of the session.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return The time the session was created, in milliseconds since the epoch.
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * @return The time the session was last accessed, in milliseconds since the epoch.
+     */
+    public long getLastAccessedTime() {
+        return lastAccessedTime;
+    }
+
+    /**
+     * Records an access to the session.
+     *
+     * @param lastAccessedTime The time of the access, in milliseconds since the epoch.
+     */
+    public void setLastAccessedTime(long lastAccessedTime) {
+        this.lastAccessedTime = lastAccessedTime;
+    }
+
+    /**
+     * Retrieves the value of an attribute.
+     *
+     * @param key The key of the attribute.
+     * @return The value of the attribute, or `null` if it does not exist.
+     */
+    public Object attribute(String key) {
+        Object value = attributes.get(key);
+        if (value != null || encoded == null) {
+            return value;
+        }
+        synchronized (this) {
+            byte[] pending = encoded;
+            if (pending == null || (removed != null && removed.contains(key))) {
+                return attributes.get(key);
+            }
+            value = SessionCodec.decode(pending, key);
+            if (value == null) {
+                return attributes.get(key);
+            }
+            Object current = attributes.putIfAbsent(key, value);
+            return current != null ? current : value;
+        }
+    }
+
+    /**
+     * Sets an attribute, or removes it if the value is `null`.
+     *
+     * @param key   The key of the attribute.
+     * @param value The value of the attribute.
+     */
+    public void setAttribute(String key, Object value) {
+        if (value == null) {
+            removeAttribute(key);
+            return;
+        }
+        attributes.put(key, value);
+        modified = true;
+    }
+
+    /**
+     * Removes an attribute.
+     *
+     * @param key The key of the attribute.
+     */
+    public void removeAttribute(String key) {
+        boolean found = attributes.remove(key) != null;
+        if (encoded != null) {
+            synchronized (this) {
+                if (encoded != null && SessionCodec.contains(encoded, key)) {
+                    if (removed == null) {
+                        removed = new HashSet<>();
+                    }
+                    found |= removed.add(key);
+                }
+            }
+        }
+        if (found) {
+            modified = true;
+        }
+    }
+
+    /**
+     * @return A read-only view of the attributes of the session.
+     */
+    public Map<String, Object> attributes() {
+        if (encoded != null) {
+            synchronized (this) {
+                if (encoded != null) {
+                    SessionCodec.decodeAll(encoded).forEach((key, value) -> {
+                        if (removed == null || !removed.contains(key)) {
+                            attributes.putIfAbsent(key, value);
+                        }
+                    });
+                    encoded = null;
+                    removed = null;
+                }
+            }
+        }
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * Encodes the attributes of the session, copying those still encoded as they are.
+     *
+     * @return The attributes, encoded by {@link SessionCodec}.
+     * @throws IllegalArgumentException If a value cannot be encoded.
+     */
+    synchronized byte[] encodeAttributes() {
+        if (encoded == null) {
+            return SessionCodec.encode(attributes);
+        }
+        return SessionCodec.encode(attributes, encoded, removed != null ? removed : Set.of());
+    }
+
+    /**
+     * @return `true` if the session is new or an attribute changed since it was last saved.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Marks the session as saved. Called by stores once they have stored the session.
+     */
+    public void markSaved() {
+        this.modified = false;
+    }
+}
@@ -0,0 +1,342 @@
+package io.github.renatompf.ember.core.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The binary format session attributes are stored in outside the heap.
+ * <p>
+ * The attributes are written as their count followed, for each of them, by its key, a tag byte
+ * giving the type of its value, and the value. Counts, lengths and integers are variable-length,
+ * so small ones take a single byte; strings and keys are UTF-8. Strings, integers, longs,
+ * doubles, booleans and byte arrays are written directly, and other values with Java
+ * serialization, each on its own. Every value can thus be skipped without being decoded, so a
+ * single attribute can be read without deserializing the others.
+ * </p>
+ */
+final class SessionCodec {
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte TRUE = 5;
+    private static final byte FALSE = 6;
+    private static final byte BYTES = 7;
+    private static final byte SERIALIZED = 8;
+
+    private SessionCodec() {
+    }
+
+    /**
+     * Encodes attributes.
+     *
+     * @param attributes The attributes to encode.
+     * @return The encoded attributes.
+     * @throws IllegalArgumentException If a value is neither of a supported type nor serializable.
+     */
+    static byte[] encode(Map<String, Object> attributes) {
+        Writer writer = new Writer(32 + 32 * attributes.size());
+        writer.varint(attributes.size());
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            writer.bytes(attribute.getKey().getBytes(StandardCharsets.UTF_8));
+            encode(writer, attribute.getKey(), attribute.getValue());
+        }
+        return writer.toByteArray();
+    }
+
+    private static void encode(Writer writer, String key, Object value) {
+        if (value instanceof String text) {
+            writer.put(STRING);
+            writer.bytes(text.getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer number) {
+            writer.put(INT);
+            writer.varint(zigzag(number));
+        } else if (value instanceof Long number) {
+            writer.put(LONG);
+            writer.varint(zigzag(number));
+        } else if (value instanceof Double number) {
+            writer.put(DOUBLE);
+            writer.fixed64(Double.doubleToRawLongBits(number));
+        } else if (value instanceof Boolean flag) {
+            writer.put(flag ? TRUE : FALSE);
+        } else if (value instanceof byte[] bytes) {
+            writer.put(BYTES);
+            writer.bytes(bytes);
+        } else {
+            writer.put(SERIALIZED);
+            writer.bytes(serialize(key, value));
+        }
+    }
+
+    /**
+     * Encodes attributes over attributes already encoded, whose values are copied without being
+     * decoded unless replaced or removed.
+     *
+     * @param attributes The attributes to encode, replacing the encoded ones of the same key.
+     * @param base       The encoded attributes.
+     * @param removed    The keys of the encoded attributes to leave out.
+     * @return The encoded attributes.
+     * @throws IllegalArgumentException If a value is neither of a supported type nor serializable.
+     */
+    static byte[] encode(Map<String, Object> attributes, byte[] base, Set<String> removed) {
+        Reader reader = new Reader(base);
+        int count = (int) reader.varint();
+        int[] kept = new int[2 * count];
+        int keptCount = 0;
+        for (int i = 0; i < count; i++) {
+            int start = reader.position;
+            String key = reader.string();
+            reader.skipValue();
+            if (!attributes.containsKey(key) && !removed.contains(key)) {
+                kept[2 * keptCount] = start;
+                kept[2 * keptCount + 1] = reader.position;
+                keptCount++;
+            }
+        }
+
+        Writer writer = new Writer(base.length + 32 * attributes.size());
+        writer.varint(keptCount + attributes.size());
+        for (int i = 0; i < keptCount; i++) {
+            writer.raw(base, kept[2 * i], kept[2 * i + 1] - kept[2 * i]);
+        }
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            writer.bytes(attribute.getKey().getBytes(StandardCharsets.UTF_8));
+            encode(writer, attribute.getKey(), attribute.getValue());
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes the value of a single attribute, skipping the others.
+     *
+     * @param encoded The encoded attributes.
+     * @param key     The key of the attribute.
+     * @return The value, or `null` if there is no such attribute.
+     */
+    static Object decode(byte[] encoded, String key) {
+        Reader reader = new Reader(encoded);
+        return reader.seek(key) ? reader.value(key) : null;
+    }
+
+    /**
+     * Checks whether there is an attribute, without decoding any value.
+     *
+     * @param encoded The encoded attributes.
+     * @param key     The key of the attribute.
+     * @return `true` if there is an attribute with that key.
+     */
+    static boolean contains(byte[] encoded, String key) {
+        return new Reader(encoded).seek(key);
+    }
+
+    /**
+     * Decodes all attributes.
+     *
+     * @param encoded The encoded attributes.
+     * @return The decoded attributes.
+     */
+    static Map<String, Object> decodeAll(byte[] encoded) {
+        Reader reader = new Reader(encoded);
+        int count = (int) reader.varint();
+        Map<String, Object> attributes = new HashMap<>(Math.max(4, count * 2));
+        for (int i = 0; i < count; i++) {
+            String key = reader.string();
+            attributes.put(key, reader.value(key));
+        }
+        return attributes;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static byte[] serialize(String key, Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException("Session attribute '" + key + "' cannot be stored: "
+                    + e.getMessage() + " is not serializable", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(String key, byte[] encoded, int offset, int length) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(encoded, offset, length))) {
+            return in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot read session attribute '" + key + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A growable buffer the attributes are encoded into.
+     */
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void ensure(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+
+        void put(byte value) {
+            ensure(1);
+            buffer[position++] = value;
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void fixed64(long value) {
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buffer[position++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        void bytes(byte[] bytes) {
+            varint(bytes.length);
+            raw(bytes, 0, bytes.length);
+        }
+
+        void raw(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    /**
+     * A cursor over encoded attributes.
+     */
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Moves to the value of an attribute, from the start of the attributes.
+         *
+         * @return `false` if there is no attribute with that key.
+         */
+        boolean seek(String key) {
+            byte[] target = key.getBytes(StandardCharsets.UTF_8);
+            long count = varint();
+            for (long i = 0; i < count; i++) {
+                int length = (int) varint();
+                boolean match = Arrays.equals(buffer, position, position + length, target, 0, target.length);
+                position += length;
+                if (match) {
+                    return true;
+                }
+                skipValue();
+            }
+            return false;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Malformed session attributes");
+        }
+
+        long fixed64() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value |= (buffer[position++] & 0xFFL) << (8 * i);
+            }
+            return value;
+        }
+
+        String string() {
+            int length = (int) varint();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        Object value(String key) {
+            byte tag = buffer[position++];
+            return switch (tag) {
+                case STRING -> string();
+                case INT -> (int) unzigzag(varint());
+                case LONG -> unzigzag(varint());
+                case DOUBLE -> Double.longBitsToDouble(fixed64());
+                case TRUE -> Boolean.TRUE;
+                case FALSE -> Boolean.FALSE;
+                case BYTES -> {
+                    int length = (int) varint();
+                    byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+                    position += length;
+                    yield bytes;
+                }
+                case SERIALIZED -> {
+                    int length = (int) varint();
+                    Object value = deserialize(key, buffer, position, length);
+                    position += length;
+                    yield value;
+                }
+                default -> throw new IllegalStateException("Malformed session attributes: unknown tag " + tag);
+            };
+        }
+
+        void skipValue() {
+            byte tag = buffer[position++];
+            switch (tag) {
+                case STRING, BYTES, SERIALIZED -> {
+                    int length = (int) varint();
+                    position += length;
+                }
+                case INT, LONG -> varint();
+                case DOUBLE -> position += 8;
+                case TRUE, FALSE -> {
+                }
+                default -> throw new IllegalStateException("Malformed session attributes: unknown tag " + tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.renatompf.ember.core.session;
+
+/**
+ * The settings of the cookie carrying the session ID.
+ * <p>
+ * The cookie is always `HttpOnly`, so scripts cannot read the session ID. By default it is also
+ * `Secure` and `SameSite=Lax`, and lasts until the browser is closed. Applications served over
+ * plain HTTP, such as during development on another host than `localhost`, must disable
+ * {@link Builder#secure(boolean)} for browsers to send the cookie back.
+ * </p>
+ */
+public class SessionCookie {
+    private final String name;
+    private final boolean secure;
+    private final String sameSite;
+    private final int maxAge;
+
+    private SessionCookie(Builder builder) {
+        this.name = builder.name;
+        this.secure = builder.secure;
+        this.sameSite = builder.sameSite;
+        this.maxAge = builder.maxAge;
+    }
+
+    /**
+     * Returns the default settings.
+     *
+     * @return The default cookie settings.
+     */
+    public static SessionCookie defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder for cookie settings.
+     *
+     * @return A new {@link Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The name of the cookie.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return `true` if the cookie is only sent over HTTPS.
+     */
+    public boolean isSecure() {
+        return secure;
+    }
+
+    /**
+     * @return The `SameSite` attribute of the cookie.
+     */
+    public String getSameSite() {
+        return sameSite;
+    }
+
+    /**
+     * @return The maximum age of the cookie in seconds, or `-1` if it lasts until the browser is closed.
+     */
+    public int getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * A builder for {@link SessionCookie}.
+     */
+    public static class Builder {
+        private String name = "EMBER_SESSION";
+        private boolean secure = true;
+        private String sameSite = "Lax";
+        private int maxAge = -1;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the name of the cookie. Defaults to `EMBER_SESSION`.
+         *
+         * @param name The name of the cookie.
+         * @return The builder instance.
+         */
+        public Builder name(String name) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("name must not be blank");
+            }
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets whether the cookie is only sent over HTTPS. Defaults to `true`.
+         *
+         * @param secure `true` to add the `Secure` attribute.
+         * @return The builder instance.
+         */
+        public Builder secure(boolean secure) {
+            this.secure = secure;
+            return this;
+        }
+
+        /**
+         * Sets the `SameSite` attribute of the cookie: `Strict`, `Lax` or `None`. Defaults to `Lax`.
+         *
+         * @param sameSite The `SameSite` attribute.
+         * @return The builder instance.
+         */
+        public Builder sameSite(String sameSite) {
+            if (!"Strict".equals(sameSite) && !"Lax".equals(sameSite) && !"None".equals(sameSite)) {
+                throw new IllegalArgumentException("sameSite must be Strict, Lax or None");
+            }
+            this.sameSite = sameSite;
+            return this;
+        }
+
+        /**
+         * Sets the maximum age of the cookie in seconds. Defaults to `-1`, keeping the cookie until
+         * the browser is closed.
+         *
+         * @param maxAge The maximum age in seconds, or `-1`.
+         * @return The builder instance.
+         */
+        public Builder maxAge(int maxAge) {
+            if (maxAge < -1) {
+                throw new IllegalArgumentException("maxAge must be -1 or more");
+            }
+            this.maxAge = maxAge;
+            return this;
+        }
+
+        /**
+         * Builds the cookie settings.
+         *
+         * @return A new {@link SessionCookie}.
+         */
+        public SessionCookie build() {
+            if ("None".equals(sameSite) && !secure) {
+                // Browsers reject cross-site cookies that are not secure
+                throw new IllegalArgumentException("A SameSite=None cookie must be secure");
+            }
+            return new SessionCookie(this);
+        }
+    }
+}
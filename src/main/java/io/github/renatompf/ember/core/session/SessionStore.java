@@ -0,0 +1,58 @@
+package io.github.renatompf.ember.core.session;
+
+/**
+ * Stores the sessions of an application.
+ * <p>
+ * Looking a session up never creates it: an unknown or expired ID yields `null`, so clients
+ * sending made-up IDs cannot make the store grow. New sessions are created by {@link #create()}
+ * and only stored once they are {@link #save saved}.
+ * </p>
+ * <p>
+ * Implementations must be safe for use by concurrent requests.
+ * </p>
+ */
+public interface SessionStore extends AutoCloseable {
+
+    /**
+     * Creates a new, empty session with a fresh random ID. The session is not stored until it
+     * is saved.
+     *
+     * @return The new session.
+     */
+    Session create();
+
+    /**
+     * Looks up a session and records the access.
+     *
+     * @param id The ID of the session.
+     * @return The session, or `null` if it does not exist or has expired.
+     */
+    Session find(String id);
+
+    /**
+     * Stores a session, replacing the stored version of it if any. This may evict other
+     * sessions to stay within the limits of the store.
+     *
+     * @param session The session to store.
+     */
+    void save(Session session);
+
+    /**
+     * Removes a session.
+     *
+     * @param id The ID of the session.
+     */
+    void invalidate(String id);
+
+    /**
+     * @return The number of sessions stored, including expired ones not yet removed.
+     */
+    int size();
+
+    /**
+     * Releases the resources of the store. Does nothing by default.
+     */
+    @Override
+    default void close() {
+    }
+}
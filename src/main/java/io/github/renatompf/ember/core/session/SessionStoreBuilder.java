@@ -0,0 +1,105 @@
+package io.github.renatompf.ember.core.session;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * The settings shared by the builders of the bundled stores.
+ *
+ * @param <B> The type of the builder.
+ */
+abstract class SessionStoreBuilder<B extends SessionStoreBuilder<B>> {
+    Duration idleTimeout = Duration.ofMinutes(30);
+    Duration absoluteTimeout = Duration.ofHours(12);
+    int maxSessions = 100_000;
+    long maxBytes;
+    Duration tick = Duration.ofSeconds(1);
+    Clock clock = Clock.systemUTC();
+
+    SessionStoreBuilder(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    abstract B self();
+
+    /**
+     * Sets how long a session may stay unused before it expires. Defaults to 30 minutes.
+     *
+     * @param idleTimeout The idle timeout.
+     * @return The builder instance.
+     */
+    public B idleTimeout(Duration idleTimeout) {
+        this.idleTimeout = positive(idleTimeout, "idleTimeout");
+        return self();
+    }
+
+    /**
+     * Sets how long after its creation a session expires, however much it is used. Defaults to
+     * 12 hours.
+     *
+     * @param absoluteTimeout The absolute timeout.
+     * @return The builder instance.
+     */
+    public B absoluteTimeout(Duration absoluteTimeout) {
+        this.absoluteTimeout = positive(absoluteTimeout, "absoluteTimeout");
+        return self();
+    }
+
+    /**
+     * Sets the maximum number of sessions stored. Defaults to `100000`.
+     *
+     * @param maxSessions The maximum number of sessions.
+     * @return The builder instance.
+     */
+    public B maxSessions(int maxSessions) {
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("maxSessions must be positive");
+        }
+        this.maxSessions = maxSessions;
+        return self();
+    }
+
+    /**
+     * Sets the maximum number of bytes the stored sessions may take.
+     *
+     * @param maxBytes The maximum number of bytes.
+     * @return The builder instance.
+     */
+    public B maxBytes(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.maxBytes = maxBytes;
+        return self();
+    }
+
+    /**
+     * Sets the precision of expiry: expired sessions are removed within about one tick.
+     * Defaults to 1 second.
+     *
+     * @param tick The duration of a tick of the expiry wheel.
+     * @return The builder instance.
+     */
+    public B expiryTick(Duration tick) {
+        this.tick = positive(tick, "tick");
+        return self();
+    }
+
+    /**
+     * Sets the clock sessions are timed with. Defaults to the system clock.
+     *
+     * @param clock The clock.
+     * @return The builder instance.
+     */
+    public B clock(Clock clock) {
+        this.clock = clock;
+        return self();
+    }
+
+    private static Duration positive(Duration duration, String name) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return duration;
+    }
+}
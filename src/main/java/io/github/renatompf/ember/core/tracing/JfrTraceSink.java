@@ -0,0 +1,30 @@
+package io.github.renatompf.ember.core.tracing;
+
+/**
+ * Records traced requests as `ember.RequestTrace` events in JDK Flight Recorder.
+ * <p>
+ * The event is only built while a recording enables it, for example one started with
+ * `-XX:StartFlightRecording`, so the sink costs next to nothing otherwise.
+ * </p>
+ */
+public class JfrTraceSink implements TraceSink {
+
+    @Override
+    public void onComplete(RequestTrace trace) {
+        RequestTraceEvent event = new RequestTraceEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.method = trace.getMethod();
+        event.path = trace.getPath();
+        event.route = trace.getRoute();
+        event.status = trace.getStatus();
+        event.routing = trace.getNanos(Phase.ROUTING);
+        event.binding = trace.getNanos(Phase.BINDING);
+        event.validation = trace.getNanos(Phase.VALIDATION);
+        event.handler = trace.getNanos(Phase.HANDLER);
+        event.serialization = trace.getNanos(Phase.SERIALIZATION);
+        event.total = trace.getTotalNanos();
+        event.commit();
+    }
+}
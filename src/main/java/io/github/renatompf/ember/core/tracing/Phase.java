@@ -0,0 +1,30 @@
+package io.github.renatompf.ember.core.tracing;
+
+/**
+ * The phases of handling a request, as recorded by a {@link RequestTrace}.
+ */
+public enum Phase {
+    /** Matching the request to a route. */
+    ROUTING("routing"),
+    /** Resolving the arguments of a controller method from the request. */
+    BINDING("binding"),
+    /** Validating the arguments of a controller method. */
+    VALIDATION("validation"),
+    /** Running the controller method, including waiting for an asynchronous result. */
+    HANDLER("handler"),
+    /** Serializing and sending the response. */
+    SERIALIZATION("serialization");
+
+    private final String metricName;
+
+    Phase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * @return The name of the phase in the `Server-Timing` header and in logs.
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,193 @@
+package io.github.renatompf.ember.core.tracing;
+
+/**
+ * The time a sampled request spent in each {@link Phase}.
+ * <p>
+ * Code handling a request stamps the boundaries of the phases: {@link #enter} ends the phase in
+ * progress, if any, and starts the given one, and {@link #exit} ends the phase in progress.
+ * Time spent outside of any phase, such as in middleware, only counts towards the total.
+ * A phase entered several times accumulates its durations.
+ * </p>
+ * <p>
+ * A trace belongs to a single request and is not thread-safe; requests that are not sampled
+ * carry no trace at all, so code stamping phases checks for `null` first.
+ * </p>
+ */
+public final class RequestTrace {
+    private static final Phase[] PHASES = Phase.values();
+
+    private final String method;
+    private final String path;
+    private final long startNanos;
+    private final long[] durations = new long[PHASES.length];
+    private String route;
+    private Phase current;
+    private long currentStart;
+    /** The phases entered so far, as a bit set of ordinals. */
+    private int entered;
+    private int status;
+    private long endNanos;
+
+    /**
+     * Constructs a new RequestTrace, starting now.
+     *
+     * @param method The HTTP method of the request.
+     * @param path   The path of the request.
+     */
+    public RequestTrace(String method, String path) {
+        this.method = method;
+        this.path = path;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Ends the phase in progress, if any, and starts the given one.
+     *
+     * @param phase The phase starting now.
+     */
+    public void enter(Phase phase) {
+        long now = System.nanoTime();
+        if (current != null) {
+            durations[current.ordinal()] += now - currentStart;
+        }
+        current = phase;
+        currentStart = now;
+        entered |= 1 << phase.ordinal();
+    }
+
+    /**
+     * Ends the phase in progress, if any.
+     */
+    public void exit() {
+        if (current != null) {
+            durations[current.ordinal()] += System.nanoTime() - currentStart;
+            current = null;
+        }
+    }
+
+    /**
+     * Returns the time spent in a phase so far, including the phase in progress.
+     *
+     * @param phase The phase.
+     * @return The time spent in the phase, in nanoseconds.
+     */
+    public long getNanos(Phase phase) {
+        long nanos = durations[phase.ordinal()];
+        if (current == phase) {
+            nanos += System.nanoTime() - currentStart;
+        }
+        return nanos;
+    }
+
+    /**
+     * Checks whether the request went through a phase.
+     *
+     * @param phase The phase.
+     * @return `true` if the phase was entered, `false` otherwise.
+     */
+    public boolean hasPhase(Phase phase) {
+        return (entered & (1 << phase.ordinal())) != 0;
+    }
+
+    /**
+     * Returns the time elapsed since the request started, or the total time once it completed.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    /**
+     * Marks the request as completed.
+     */
+    void finish() {
+        exit();
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * @return The HTTP method of the request.
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return The path of the request.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return The path pattern of the matched route, or `null` if no route matched.
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Sets the path pattern of the matched route.
+     *
+     * @param route The path pattern, or `null` if no route matched.
+     */
+    public void setRoute(String route) {
+        this.route = route;
+    }
+
+    /**
+     * @return The status code of the response, or `0` if no response has been sent.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the status code of the response.
+     *
+     * @param status The status code.
+     */
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * Formats the phases the request went through so far as a `Server-Timing` header value,
+     * with durations in milliseconds.
+     *
+     * @return The header value, such as `routing;dur=0.012, handler;dur=3.500, total;dur=3.614`.
+     */
+    public String toServerTiming() {
+        StringBuilder value = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            if (hasPhase(phase)) {
+                appendMetric(value, phase.getMetricName(), getNanos(phase));
+            }
+        }
+        appendMetric(value, "total", getTotalNanos());
+        return value.toString();
+    }
+
+    private static void appendMetric(StringBuilder value, String name, long nanos) {
+        if (!value.isEmpty()) {
+            value.append(", ");
+        }
+        // Microsecond precision is plenty for a header
+        long micros = nanos / 1000;
+        value.append(name).append(";dur=").append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            value.append('0');
+        }
+        if (fraction < 10) {
+            value.append('0');
+        }
+        value.append(fraction);
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + " [" + toServerTiming() + "]";
+    }
+}
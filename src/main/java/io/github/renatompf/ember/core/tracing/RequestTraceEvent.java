@@ -0,0 +1,55 @@
+package io.github.renatompf.ember.core.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event holding the trace of a sampled request, committed by the {@link JfrTraceSink}.
+ */
+@Name("ember.RequestTrace")
+@Label("Request Trace")
+@Category({"Ember", "HTTP"})
+@Description("Time a sampled request spent in each phase of its handling")
+@StackTrace(false)
+class RequestTraceEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Route")
+    String route;
+
+    @Label("Status")
+    int status;
+
+    @Label("Routing")
+    @Timespan(Timespan.NANOSECONDS)
+    long routing;
+
+    @Label("Binding")
+    @Timespan(Timespan.NANOSECONDS)
+    long binding;
+
+    @Label("Validation")
+    @Timespan(Timespan.NANOSECONDS)
+    long validation;
+
+    @Label("Handler")
+    @Timespan(Timespan.NANOSECONDS)
+    long handler;
+
+    @Label("Serialization")
+    @Timespan(Timespan.NANOSECONDS)
+    long serialization;
+
+    @Label("Total")
+    @Timespan(Timespan.NANOSECONDS)
+    long total;
+}
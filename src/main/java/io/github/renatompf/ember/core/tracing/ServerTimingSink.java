@@ -0,0 +1,21 @@
+package io.github.renatompf.ember.core.tracing;
+
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+
+/**
+ * Reports the phases of traced requests to clients in a `Server-Timing` response header,
+ * which browsers show in their developer tools.
+ * <p>
+ * The header is written when the response is committed, so it holds the time spent up to then;
+ * for streamed responses, serialization is only counted up to the first bytes sent.
+ * </p>
+ */
+public class ServerTimingSink implements TraceSink {
+    /** The name of the `Server-Timing` header. */
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    @Override
+    public void beforeCommit(RequestTrace trace, ServerExchange exchange) {
+        exchange.addResponseHeader(SERVER_TIMING, trace.toServerTiming());
+    }
+}
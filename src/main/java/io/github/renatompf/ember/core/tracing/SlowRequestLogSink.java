@@ -0,0 +1,35 @@
+package io.github.renatompf.ember.core.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Logs traced requests taking longer than a threshold, with the time spent in each phase.
+ */
+public class SlowRequestLogSink implements TraceSink {
+    private static final Logger logger = LoggerFactory.getLogger(SlowRequestLogSink.class);
+
+    private final long thresholdNanos;
+
+    /**
+     * Constructs a new SlowRequestLogSink.
+     *
+     * @param threshold The duration above which a request is logged.
+     */
+    public SlowRequestLogSink(Duration threshold) {
+        if (threshold.isNegative()) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public void onComplete(RequestTrace trace) {
+        if (trace.getTotalNanos() >= thresholdNanos && logger.isWarnEnabled()) {
+            logger.warn("Slow request: {} {} (route {}) answered {} - {}", trace.getMethod(), trace.getPath(),
+                    trace.getRoute(), trace.getStatus(), trace.toServerTiming());
+        }
+    }
+}
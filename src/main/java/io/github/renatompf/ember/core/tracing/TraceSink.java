@@ -0,0 +1,31 @@
+package io.github.renatompf.ember.core.tracing;
+
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+
+/**
+ * Receives the traces of sampled requests.
+ * <p>
+ * Sinks are called on the thread handling the request, so they should return quickly and hand
+ * expensive work, such as I/O, off to another thread.
+ * </p>
+ */
+public interface TraceSink {
+
+    /**
+     * Called right before the response headers of a traced request are sent, while headers can
+     * still be added. The phase in progress, usually serialization, is counted up to now.
+     *
+     * @param trace    The trace of the request.
+     * @param exchange The exchange of the request.
+     */
+    default void beforeCommit(RequestTrace trace, ServerExchange exchange) {
+    }
+
+    /**
+     * Called once a traced request has completed.
+     *
+     * @param trace The completed trace of the request.
+     */
+    default void onComplete(RequestTrace trace) {
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.renatompf.ember.core.tracing;
+
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which requests are traced and hands their traces to the configured {@link TraceSink}s.
+ * <p>
+ * Only a sampled fraction of requests is traced; the others carry no {@link RequestTrace}, so
+ * the code stamping phases costs a single `null` check for them. A sample rate of `0` turns
+ * tracing off entirely.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * Tracer tracer = Tracer.builder()
+ *         .sampleRate(0.01)
+ *         .sink(new ServerTimingSink())
+ *         .sink(new SlowRequestLogSink(Duration.ofMillis(500)))
+ *         .sink(new JfrTraceSink())
+ *         .build();
+ * }
+ * </pre>
+ */
+public class Tracer {
+    private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+
+    private final double sampleRate;
+    private final TraceSink[] sinks;
+
+    private Tracer(Builder builder) {
+        this.sampleRate = builder.sampleRate;
+        this.sinks = builder.sinks.toArray(new TraceSink[0]);
+    }
+
+    /**
+     * Creates a new builder for a tracer.
+     *
+     * @return A new {@link Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Decides whether a request is traced, and starts its trace if so.
+     *
+     * @param method The HTTP method of the request.
+     * @param path   The path of the request.
+     * @return The trace of the request, or `null` if it is not sampled.
+     */
+    public RequestTrace sample(String method, String path) {
+        if (sampleRate <= 0 || sinks.length == 0) {
+            return null;
+        }
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return null;
+        }
+        return new RequestTrace(method, path);
+    }
+
+    /**
+     * Hands a trace to the sinks right before the response headers are sent.
+     *
+     * @param trace    The trace of the request.
+     * @param exchange The exchange of the request.
+     */
+    public void beforeCommit(RequestTrace trace, ServerExchange exchange) {
+        for (TraceSink sink : sinks) {
+            try {
+                sink.beforeCommit(trace, exchange);
+            } catch (RuntimeException e) {
+                logger.warn("Trace sink {} failed: {}", sink.getClass().getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Completes a trace and hands it to the sinks.
+     *
+     * @param trace The trace of the request.
+     */
+    public void complete(RequestTrace trace) {
+        trace.finish();
+        for (TraceSink sink : sinks) {
+            try {
+                sink.onComplete(trace);
+            } catch (RuntimeException e) {
+                logger.warn("Trace sink {} failed: {}", sink.getClass().getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return The fraction of requests traced.
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * A builder for {@link Tracer}.
+     */
+    public static class Builder {
+        private double sampleRate;
+        private final List<TraceSink> sinks = new ArrayList<>();
+
+        private Builder() {}
+
+        /**
+         * Sets the fraction of requests traced, between `0` and `1`. Defaults to `0`, tracing no request.
+         *
+         * @param sampleRate The sample rate.
+         * @return The builder instance.
+         */
+        public Builder sampleRate(double sampleRate) {
+            if (!(sampleRate >= 0 && sampleRate <= 1)) {
+                throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+            }
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Adds a sink receiving the traces of sampled requests. Sinks are called in the order they are added.
+         *
+         * @param sink The sink.
+         * @return The builder instance.
+         */
+        public Builder sink(TraceSink sink) {
+            this.sinks.add(sink);
+            return this;
+        }
+
+        /**
+         * Builds the tracer.
+         *
+         * @return A new {@link Tracer}.
+         */
+        public Tracer build() {
+            return new Tracer(this);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.renatompf.ember.core.validation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event recording arguments of a controller method failing validation, committed by the
+ * {@link ValidationManager}.
+ */
+@Name("ember.ValidationFailure")
+@Label("Validation Failure")
+@Category({"Ember", "Validation"})
+@Description("Arguments of a controller method violated their constraints")
+@Enabled(false)
+@StackTrace(false)
+final class ValidationFailureEvent extends Event {
+    @Label("Controller")
+    Class<?> controller;
+
+    @Label("Method")
+    String method;
+
+    @Label("Violations")
+    int violations;
+
+    @Label("First Violation")
+    String firstViolation;
+}
@@ -63,6 +63,15 @@ public class ValidationManager {
 
         if (!violations.isEmpty()) {
             logger.debug("Validation failed with {} violations", violations.size());
+            ValidationFailureEvent event = new ValidationFailureEvent();
+            if (event.shouldCommit()) {
+                ConstraintViolation<Object> first = violations.iterator().next();
+                event.controller = instance.getClass();
+                event.method = method.getName();
+                event.violations = violations.size();
+                event.firstViolation = first.getPropertyPath() + ": " + first.getMessage();
+                event.commit();
+            }
             throw new ConstraintViolationException(violations);
         }
     }
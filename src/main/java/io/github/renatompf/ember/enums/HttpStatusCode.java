@@ -178,6 +178,14 @@ public enum HttpStatusCode {
      */
     NOT_ACCEPTABLE(406, "Not Acceptable"),
 
+    /**
+     * HTTP 413 Payload Too Large.
+     * <p>
+     * The request entity is larger than the limits defined by the server.
+     * </p>
+     */
+    PAYLOAD_TOO_LARGE(413, "Payload Too Large"),
+
     /**
      * HTTP 415 Unsupported Media Type.
      * <p>
@@ -186,6 +194,14 @@ public enum HttpStatusCode {
      */
     UNSUPPORTED_MEDIA_TYPE(415, "Unsupported Media Type"),
 
+    /**
+     * HTTP 431 Request Header Fields Too Large.
+     * <p>
+     * The server is unwilling to process the request because its header fields are too large.
+     * </p>
+     */
+    REQUEST_HEADER_FIELDS_TOO_LARGE(431, "Request Header Fields Too Large"),
+
     /**
      * HTTP 500 Internal Server Error.
      * <p>
@@ -210,6 +226,22 @@ public enum HttpStatusCode {
      */
     BAD_GATEWAY(502, "Bad Gateway"),
 
+    /**
+     * HTTP 503 Service Unavailable.
+     * <p>
+     * The server is currently unable to handle the request, for example because it is overloaded.
+     * </p>
+     */
+    SERVICE_UNAVAILABLE(503, "Service Unavailable"),
+
+    /**
+     * HTTP 504 Gateway Timeout.
+     * <p>
+     * The server did not produce a response in time, for example because an upstream call did not complete.
+     * </p>
+     */
+    GATEWAY_TIMEOUT(504, "Gateway Timeout"),
+
     ;
 
 
@@ -54,6 +54,11 @@ public enum MediaType {
      */
     OCTET_STREAM("application/octet-stream"),
 
+    /**
+     * Newline-delimited JSON, used to stream a sequence of JSON values one per line.
+     */
+    APPLICATION_NDJSON("application/x-ndjson"),
+
     ;
 
     /**
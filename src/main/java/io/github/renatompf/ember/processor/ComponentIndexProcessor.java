@@ -0,0 +1,314 @@
+package io.github.renatompf.ember.processor;
+
+import io.github.renatompf.ember.annotations.controller.Controller;
+import io.github.renatompf.ember.annotations.exceptions.GlobalHandler;
+import io.github.renatompf.ember.annotations.http.Delete;
+import io.github.renatompf.ember.annotations.http.Get;
+import io.github.renatompf.ember.annotations.http.Head;
+import io.github.renatompf.ember.annotations.http.Options;
+import io.github.renatompf.ember.annotations.http.Patch;
+import io.github.renatompf.ember.annotations.http.Post;
+import io.github.renatompf.ember.annotations.http.Put;
+import io.github.renatompf.ember.annotations.middleware.WithMiddleware;
+import io.github.renatompf.ember.annotations.service.Service;
+import io.github.renatompf.ember.core.controller.RouteTable;
+import io.github.renatompf.ember.core.di.ComponentIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * An annotation processor writing, at build time, the {@link ComponentIndex} and the
+ * {@link RouteTable} of the classes it compiles, so that the application starts without scanning
+ * the classpath or inspecting its controllers.
+ * <p>
+ * The processor is registered as a service, so it runs whenever the framework is on the
+ * compilation classpath; from JDK 23 on, annotation processing must also be enabled with
+ * `-proc:full`. It can be disabled by passing `-Aember.index=false` to the compiler.
+ * When only some classes are recompiled, the entries of the other classes are kept from the
+ * previous index.
+ * </p>
+ */
+@SupportedAnnotationTypes({
+        "io.github.renatompf.ember.annotations.service.Service",
+        "io.github.renatompf.ember.annotations.controller.Controller",
+        "io.github.renatompf.ember.annotations.exceptions.GlobalHandler"
+})
+@SupportedOptions(ComponentIndexProcessor.ENABLED_OPTION)
+public class ComponentIndexProcessor extends AbstractProcessor {
+    /** The compiler option disabling the processor when set to `false`. */
+    public static final String ENABLED_OPTION = "ember.index";
+
+    /** The HTTP method annotations, in the order the controller mapper checks them. */
+    private static final List<HttpAnnotation> HTTP_ANNOTATIONS = List.of(
+            HttpAnnotation.of("GET", Get.class, Get::value),
+            HttpAnnotation.of("POST", Post.class, Post::value),
+            HttpAnnotation.of("PUT", Put.class, Put::value),
+            HttpAnnotation.of("DELETE", Delete.class, Delete::value),
+            HttpAnnotation.of("PATCH", Patch.class, Patch::value),
+            HttpAnnotation.of("OPTIONS", Options.class, Options::value),
+            HttpAnnotation.of("HEAD", Head.class, Head::value)
+    );
+
+    private Elements elements;
+    private Types types;
+    private boolean enabled;
+    /** The annotations of each component compiled, by binary class name. */
+    private final Map<String, Set<String>> components = new TreeMap<>();
+    /** The route lines of each controller compiled, by binary class name. */
+    private final Map<String, List<String>> routes = new TreeMap<>();
+    /** The binary names of the classes compiled, whose previous entries are replaced. */
+    private final Set<String> compiled = new HashSet<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.enabled = !"false".equals(processingEnv.getOptions().get(ENABLED_OPTION));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!enabled) {
+            return false;
+        }
+
+        for (Element root : roundEnv.getRootElements()) {
+            collectCompiled(root);
+        }
+        collect(roundEnv, Service.class);
+        collect(roundEnv, GlobalHandler.class);
+        for (Element element : collect(roundEnv, Controller.class)) {
+            routes.put(binaryName((TypeElement) element), routesOf((TypeElement) element));
+        }
+
+        if (roundEnv.processingOver()) {
+            try {
+                writeComponents();
+                writeRoutes();
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Cannot write the component index: " + e.getMessage());
+            }
+        }
+        // Other processors may handle the same annotations
+        return false;
+    }
+
+    private void collectCompiled(Element element) {
+        if (element instanceof TypeElement type) {
+            compiled.add(binaryName(type));
+            for (Element enclosed : type.getEnclosedElements()) {
+                collectCompiled(enclosed);
+            }
+        }
+    }
+
+    private List<Element> collect(RoundEnvironment roundEnv, Class<? extends Annotation> annotation) {
+        List<Element> found = new ArrayList<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (element instanceof TypeElement type) {
+                components.computeIfAbsent(binaryName(type), key -> new TreeSet<>()).add(annotation.getName());
+                found.add(element);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Computes the route lines of a controller, in the format of the {@link RouteTable}.
+     */
+    private List<String> routesOf(TypeElement controller) {
+        String basePath = controller.getAnnotation(Controller.class).value();
+        List<String> controllerMiddleware = middlewareOf(controller);
+        List<String> lines = new ArrayList<>();
+        for (Element enclosed : controller.getEnclosedElements()) {
+            if (enclosed.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) enclosed;
+            for (HttpAnnotation http : HTTP_ANNOTATIONS) {
+                Annotation annotation = method.getAnnotation(http.type());
+                if (annotation == null) {
+                    continue;
+                }
+                List<String> parameterTypes = new ArrayList<>();
+                method.getParameters().forEach(parameter -> parameterTypes.add(className(parameter.asType())));
+                // Controller-level middleware runs before method-level middleware
+                List<String> middleware = new ArrayList<>(controllerMiddleware);
+                middleware.addAll(middlewareOf(method));
+                lines.add(String.join("\t",
+                        http.method(),
+                        RouteTable.combinePaths(basePath, http.path().apply(annotation)),
+                        binaryName(controller),
+                        method.getSimpleName(),
+                        String.join(",", parameterTypes),
+                        String.join(",", middleware)));
+                break;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Reads the middleware classes of a `@WithMiddleware` annotation, whose class values can only
+     * be read as types at build time.
+     */
+    private List<String> middlewareOf(Element element) {
+        List<String> middleware = new ArrayList<>();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!annotationType.getQualifiedName().contentEquals(WithMiddleware.class.getName())) {
+                continue;
+            }
+            for (AnnotationValue value : mirror.getElementValues().values()) {
+                if (value.getValue() instanceof List<?> classes) {
+                    for (Object item : classes) {
+                        middleware.add(className((TypeMirror) ((AnnotationValue) item).getValue()));
+                    }
+                }
+            }
+        }
+        return middleware;
+    }
+
+    /**
+     * Names a type as {@link Class#getName()} does for its erasure.
+     */
+    private String className(TypeMirror type) {
+        TypeMirror erased = types.erasure(type);
+        return switch (erased.getKind()) {
+            case ARRAY -> "[" + descriptor(((ArrayType) erased).getComponentType());
+            case DECLARED -> binaryName((TypeElement) ((DeclaredType) erased).asElement());
+            default -> erased.toString();
+        };
+    }
+
+    private String descriptor(TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN -> "Z";
+            case BYTE -> "B";
+            case CHAR -> "C";
+            case SHORT -> "S";
+            case INT -> "I";
+            case LONG -> "J";
+            case FLOAT -> "F";
+            case DOUBLE -> "D";
+            case ARRAY -> "[" + descriptor(((ArrayType) type).getComponentType());
+            default -> "L" + className(type) + ";";
+        };
+    }
+
+    private String binaryName(TypeElement type) {
+        return elements.getBinaryName(type).toString();
+    }
+
+    /**
+     * Checks whether an entry of the previous index is still valid: its class was not compiled
+     * again, which replaced its entry, and still exists.
+     */
+    private boolean keep(String className) {
+        return !compiled.contains(className) && elements.getTypeElement(className.replace('$', '.')) != null;
+    }
+
+    private void writeComponents() throws IOException {
+        Map<String, String> lines = new TreeMap<>();
+        for (String line : readPrevious(ComponentIndex.LOCATION)) {
+            int separator = line.indexOf('=');
+            if (separator > 0 && keep(line.substring(0, separator))) {
+                lines.put(line.substring(0, separator), line);
+            }
+        }
+        components.forEach((className, annotations) ->
+                lines.put(className, className + "=" + String.join(",", annotations)));
+        write(ComponentIndex.LOCATION, lines.values());
+    }
+
+    private void writeRoutes() throws IOException {
+        Map<String, List<String>> lines = new TreeMap<>();
+        for (String line : readPrevious(RouteTable.LOCATION)) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length == 6 && keep(fields[2])) {
+                lines.computeIfAbsent(fields[2], key -> new ArrayList<>()).add(line);
+            }
+        }
+        lines.putAll(routes);
+        write(RouteTable.LOCATION, lines.values().stream().flatMap(List::stream).toList());
+    }
+
+    private List<String> readPrevious(String location) {
+        List<String> lines = new ArrayList<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", location);
+            try (Reader reader = file.openReader(true); BufferedReader in = new BufferedReader(reader)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!line.isBlank() && !line.startsWith("#")) {
+                        lines.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // No previous index: this is a full build
+        }
+        return lines;
+    }
+
+    private void write(String location, Iterable<String> lines) throws IOException {
+        FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", location);
+        try (Writer writer = file.openWriter()) {
+            writer.write("# Generated by " + ComponentIndexProcessor.class.getName() + "\n");
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * An HTTP method annotation and how to read its path.
+     */
+    private record HttpAnnotation(String method, Class<? extends Annotation> type,
+                                  Function<Annotation, String> path) {
+        static <A extends Annotation> HttpAnnotation of(String method, Class<A> type, Function<A, String> path) {
+            return new HttpAnnotation(method, type, annotation -> path.apply(type.cast(annotation)));
+        }
+    }
+}
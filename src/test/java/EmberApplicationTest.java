@@ -1,16 +1,24 @@
 import io.github.renatompf.ember.EmberApplication;
 import io.github.renatompf.ember.core.routing.RouteMatchResult;
 import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.core.server.Middleware;
+import io.github.renatompf.ember.core.server.engine.NioServerEngine;
+import io.github.renatompf.ember.core.server.execution.ExecutionConfig;
 import io.github.renatompf.ember.enums.HttpMethod;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class EmberApplicationTest {
 
@@ -130,5 +138,91 @@ class EmberApplicationTest {
         assertNotNull(match);
     }
 
+    @Test
+    void shouldOnlyDiscoverComponentsOfBasePackage() {
+        // Given
+        // The whole test classpath holds components that cannot be resolved, so scanning it would fail
+        NioServerEngine engine = NioServerEngine.builder().selectorThreads(1).build();
+        EmberApplication scoped = new EmberApplication(engine, ExecutionConfig.defaults(), "core.metrics")
+                .get("/test", ctx -> {});
+
+        // When
+        assertDoesNotThrow(() -> scoped.start(0));
+
+        // Then
+        try {
+            assertNotNull(scoped.getRouter().getRoute(HttpMethod.GET, "/test"));
+        } finally {
+            scoped.stop();
+        }
+    }
+
+    @Test
+    void shouldDestroyEveryMiddlewareWhenOneFailsToBeDestroyed() {
+        // Given
+        List<String> destroyed = new ArrayList<>();
+        NioServerEngine engine = NioServerEngine.builder().selectorThreads(1).build();
+        EmberApplication scoped = new EmberApplication(engine, ExecutionConfig.defaults(), "core.metrics")
+                .use(recording("first", destroyed))
+                .use(new Middleware() {
+                    @Override
+                    public void handle(Context context) {
+                    }
+
+                    @Override
+                    public void destroy() {
+                        throw new IllegalStateException("Failed to release");
+                    }
+                });
+        scoped.start(0);
+
+        // When
+        assertDoesNotThrow(scoped::stop);
 
+        // Then
+        assertEquals(List.of("first"), destroyed);
+    }
+
+    @Test
+    void shouldDestroyInitializedMiddlewareWhenStartFails() {
+        // Given
+        List<String> destroyed = new ArrayList<>();
+        NioServerEngine engine = NioServerEngine.builder().selectorThreads(1).build();
+        EmberApplication scoped = new EmberApplication(engine, ExecutionConfig.defaults(), "core.metrics")
+                .use(recording("first", destroyed))
+                .use(new Middleware() {
+                    @Override
+                    public void handle(Context context) {
+                    }
+
+                    @Override
+                    public void init() throws Exception {
+                        throw new Exception("Failed to connect");
+                    }
+
+                    @Override
+                    public void destroy() {
+                        destroyed.add("second");
+                    }
+                });
+
+        // When
+        assertThrows(IllegalStateException.class, () -> scoped.start(0));
+
+        // Then
+        assertEquals(List.of("first"), destroyed);
+    }
+
+    private static Middleware recording(String name, List<String> destroyed) {
+        return new Middleware() {
+            @Override
+            public void handle(Context context) {
+            }
+
+            @Override
+            public void destroy() {
+                destroyed.add(name);
+            }
+        };
+    }
 }
@@ -0,0 +1,232 @@
+package core.accesslog;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.github.renatompf.ember.core.accesslog.AccessLog;
+import io.github.renatompf.ember.core.accesslog.AccessLogFormat;
+import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.core.routing.Router;
+import io.github.renatompf.ember.core.server.Server;
+import io.github.renatompf.ember.core.server.engine.NioServerEngine;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import io.github.renatompf.ember.enums.HttpMethod;
+import io.github.renatompf.ember.enums.MediaType;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccessLogTest {
+
+    @Test
+    void common_ShouldWriteCommonLogFormat() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AccessLog accessLog = AccessLog.builder().output(output).build();
+
+        accessLog.record(exchange("GET", "/users/42?expand=roles", "curl/8.5.0"), "/users/:id", 200, 112, 1_000_000);
+        accessLog.record(exchange("DELETE", "/users/42", null), "/users/:id", 204, 0, 1_000_000);
+        accessLog.close();
+
+        List<String> lines = lines(output);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).matches(
+                "127\\.0\\.0\\.1 - - \\[\\d{2}/\\w{3}/\\d{4}:\\d{2}:\\d{2}:\\d{2} \\+0000] \"GET /users/42\\?expand=roles HTTP/1\\.1\" 200 112"),
+                lines.get(0));
+        assertTrue(lines.get(1).endsWith("\"DELETE /users/42 HTTP/1.1\" 204 -"), lines.get(1));
+    }
+
+    @Test
+    void common_ShouldLogRequestProtocolAndEscapeMethod() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AccessLog accessLog = AccessLog.builder().output(output).build();
+        ServerExchange exchange = exchange("GET\" 200 1\n", "/", null);
+        when(exchange.getRequestProtocol()).thenReturn("HTTP/1.0");
+
+        accessLog.record(exchange, "/", 200, 5, 1_000_000);
+        accessLog.close();
+
+        List<String> lines = lines(output);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("\"GET\\\" 200 1\\u000a / HTTP/1.0\" 200 5"), lines.get(0));
+    }
+
+    @Test
+    void combined_ShouldEscapeClientValues() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AccessLog accessLog = AccessLog.builder().format(AccessLogFormat.COMBINED).output(output).build();
+
+        accessLog.record(exchange("GET", "/", "evil\" agent\n"), "/", 200, 5, 1_000_000);
+        accessLog.close();
+
+        List<String> lines = lines(output);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("200 5 \"-\" \"evil\\\" agent\\u000a\""), lines.get(0));
+    }
+
+    @Test
+    void json_ShouldWriteOneObjectPerLine() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AccessLog accessLog = AccessLog.builder().format(AccessLogFormat.JSON).output(output).build();
+
+        accessLog.record(exchange("GET", "/users/42", "curl/8.5.0"), "/users/:id", 200, 112, 1_234_567);
+        accessLog.close();
+
+        String line = lines(output).get(0);
+        assertTrue(line.startsWith("{\"time\":\""), line);
+        assertTrue(line.contains("\"remote\":\"127.0.0.1\",\"method\":\"GET\",\"target\":\"/users/42\","
+                + "\"route\":\"/users/:id\",\"status\":200,\"bytes\":112,\"duration_ms\":1.234,"
+                + "\"referer\":null,\"user_agent\":\"curl/8.5.0\"}"), line);
+    }
+
+    @Test
+    void sampleRate_ShouldApplyPerStatusClass() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AccessLog accessLog = AccessLog.builder().sampleRate(2, 0).output(output).build();
+
+        for (int i = 0; i < 10; i++) {
+            accessLog.record(exchange("GET", "/ok", null), "/ok", 200, 2, 1_000);
+        }
+        accessLog.record(exchange("GET", "/fail", null), "/fail", 500, 5, 1_000);
+        accessLog.close();
+
+        List<String> lines = lines(output);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"GET /fail HTTP/1.1\" 500 5"));
+        assertThrows(IllegalArgumentException.class, () -> AccessLog.builder().sampleRate(6, 1));
+        assertThrows(IllegalArgumentException.class, () -> AccessLog.builder().sampleRate(2, 1.5));
+    }
+
+    @Test
+    void record_ShouldDropEntriesWhenBufferIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        OutputStream blocking = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.write(b, off, len);
+            }
+        };
+        AccessLog accessLog = AccessLog.builder().bufferSize(2).output(blocking).build();
+
+        // The writer thread takes the first entry and blocks writing it
+        accessLog.record(exchange("GET", "/0", null), "/:id", 200, 1, 1_000);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 5; i++) {
+            accessLog.record(exchange("GET", "/" + i, null), "/:id", 200, 1, 1_000);
+        }
+        release.countDown();
+        accessLog.close();
+
+        assertEquals(3, accessLog.getDroppedTotal());
+        assertEquals(3, lines(written).size());
+    }
+
+    @Test
+    void record_ShouldWarnOnceWhenUnmatchedRequestsFlood() throws Exception {
+        ch.qos.logback.classic.Logger logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(AccessLog.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        AccessLog accessLog = AccessLog.builder()
+                .sampleRate(4, 0)
+                .notFoundWarning(3, Duration.ofMillis(200))
+                .output(OutputStream.nullOutputStream())
+                .build();
+        try {
+            for (int i = 0; i < 50; i++) {
+                accessLog.record(exchange("GET", "/wp-login.php", null), null, 404, 9, 1_000);
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (appender.list.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            Thread.sleep(500);
+
+            List<ILoggingEvent> warnings = appender.list.stream()
+                    .filter(event -> event.getLevel() == Level.WARN)
+                    .toList();
+            assertEquals(1, warnings.size());
+            assertTrue(warnings.get(0).getFormattedMessage().startsWith("50 requests matched no route"));
+            assertTrue(warnings.get(0).getFormattedMessage().endsWith("/wp-login.php"));
+        } finally {
+            accessLog.close();
+            logger.detachAppender(appender);
+        }
+    }
+
+    @Test
+    void server_ShouldLogCompletedRequests() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Router router = new Router();
+        router.register(HttpMethod.GET, "/users/:id", ctx -> ctx.response().handleResponse(
+                Response.ok().contentType(MediaType.TEXT_PLAIN).body("user").build()));
+        NioServerEngine engine = NioServerEngine.builder().selectorThreads(1).build();
+        Server server = new Server(router, List.of(), engine);
+        server.setAccessLog(AccessLog.builder().format(AccessLogFormat.JSON).output(output).build());
+        server.start(0);
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://127.0.0.1:" + engine.getLocalAddress().getPort();
+            client.send(HttpRequest.newBuilder(URI.create(base + "/users/1")).build(), HttpResponse.BodyHandlers.discarding());
+            client.send(HttpRequest.newBuilder(URI.create(base + "/missing")).build(), HttpResponse.BodyHandlers.discarding());
+
+            // A request is logged once its exchange ends, which may be after the client got the response
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (lines(output).size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+        } finally {
+            server.stop();
+        }
+
+        List<String> lines = lines(output);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"target\":\"/users/1\",\"route\":\"/users/:id\",\"status\":200,\"bytes\":4"),
+                lines.get(0));
+        assertTrue(lines.get(1).contains("\"target\":\"/missing\",\"route\":null,\"status\":404"), lines.get(1));
+    }
+
+    private static ServerExchange exchange(String method, String target, String userAgent) {
+        ServerExchange exchange = mock(ServerExchange.class);
+        when(exchange.getRequestMethod()).thenReturn(method);
+        when(exchange.getRequestProtocol()).thenReturn("HTTP/1.1");
+        when(exchange.getRequestURI()).thenReturn(URI.create(target));
+        when(exchange.getRemoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 54321));
+        when(exchange.getRequestHeader("User-Agent")).thenReturn(userAgent);
+        return exchange;
+    }
+
+    private static List<String> lines(ByteArrayOutputStream output) {
+        String text = output.toString(StandardCharsets.UTF_8);
+        return text.isEmpty() ? List.of() : List.of(text.split("\n"));
+    }
+}
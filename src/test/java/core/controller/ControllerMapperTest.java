@@ -2,11 +2,15 @@ package core.controller;
 
 import io.github.renatompf.ember.EmberApplication;
 import io.github.renatompf.ember.annotations.controller.Controller;
+import io.github.renatompf.ember.annotations.execution.ExecuteOn;
+import io.github.renatompf.ember.annotations.execution.Timeout;
 import io.github.renatompf.ember.annotations.http.*;
 import io.github.renatompf.ember.annotations.middleware.WithMiddleware;
 import io.github.renatompf.ember.annotations.parameters.PathParameter;
 import io.github.renatompf.ember.annotations.parameters.Validated;
 import io.github.renatompf.ember.core.controller.ControllerMapper;
+import io.github.renatompf.ember.core.controller.HandlerPlan;
+import io.github.renatompf.ember.core.di.ComponentRegistry;
 import io.github.renatompf.ember.core.exception.ExceptionHandlerMethod;
 import io.github.renatompf.ember.core.exception.ExceptionHandlerRegistry;
 import io.github.renatompf.ember.core.http.ErrorResponse;
@@ -18,6 +22,7 @@ import io.github.renatompf.ember.core.parameter.ParameterResolver;
 import io.github.renatompf.ember.core.server.Context;
 import io.github.renatompf.ember.core.server.Middleware;
 import io.github.renatompf.ember.core.validation.ValidationManager;
+import io.github.renatompf.ember.enums.HttpMethod;
 import io.github.renatompf.ember.enums.HttpStatusCode;
 import io.github.renatompf.ember.enums.RequestHeader;
 import jakarta.validation.ConstraintViolationException;
@@ -32,8 +37,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -65,6 +76,9 @@ class ControllerMapperTest {
     @Mock
     private HeadersManager headersManager;
 
+    @Spy
+    private ComponentRegistry componentRegistry = new ComponentRegistry();
+
     @InjectMocks
     private ControllerMapper controllerMapper;
 
@@ -384,11 +398,11 @@ class ControllerMapperTest {
         TestController controller = new TestController();
 
         Method invokeMethod = ControllerMapper.class.getDeclaredMethod("invokeControllerMethod",
-                Object.class, Method.class, Context.class);
+                HandlerPlan.class, Context.class);
         invokeMethod.setAccessible(true);
 
         // When
-        Object result = invokeMethod.invoke(controllerMapper, controller, method, context);
+        Object result = invokeMethod.invoke(controllerMapper, compilePlan(controller, method, new Class[0]), context);
 
         // Then
         assertEquals("get", result);
@@ -407,17 +421,17 @@ class ControllerMapperTest {
         resolverField.set(controllerMapper, parameterResolver);
 
         Method invokeMethod = ControllerMapper.class.getDeclaredMethod("invokeControllerMethod",
-                Object.class, Method.class, Context.class);
+                HandlerPlan.class, Context.class);
         invokeMethod.setAccessible(true);
 
-        when(parameterResolver.resolveParameter(any(), any())).thenReturn("resolvedParam");
+        when(parameterResolver.binderFor(any())).thenReturn(ctx -> "resolvedParam");
 
         // When
-        Object result = invokeMethod.invoke(controllerMapper, controller, method, context);
+        Object result = invokeMethod.invoke(controllerMapper, compilePlan(controller, method, new Class[0]), context);
 
         // Then
         assertEquals("param:resolvedParam", result);
-        verify(parameterResolver).resolveParameter(any(), any());
+        verify(parameterResolver).binderFor(any());
         verify(validationManager).validateMethodParameters(eq(controller), eq(method), any(), any());
         verify(responseHandler).handleResponse(any());
     }
@@ -429,17 +443,21 @@ class ControllerMapperTest {
         TestController controller = new TestController();
 
         Method invokeMethod = ControllerMapper.class.getDeclaredMethod("invokeControllerMethod",
-                Object.class, Method.class, Context.class);
+                HandlerPlan.class, Context.class);
         invokeMethod.setAccessible(true);
 
-        lenient().when(parameterResolver.resolveParameter(any(), any())).thenReturn("resolvedParam");
+        Field resolverField = ControllerMapper.class.getDeclaredField("parameterResolver");
+        resolverField.setAccessible(true);
+        resolverField.set(controllerMapper, parameterResolver);
+
+        lenient().when(parameterResolver.binderFor(any())).thenReturn(ctx -> "resolvedParam");
         ConstraintViolationException cve = new ConstraintViolationException("Validation failed", null);
         doThrow(cve).when(validationManager).validateMethodParameters(any(), any(), any(), any());
 
         // When/Then
         ConstraintViolationException thrown = assertThrows(ConstraintViolationException.class, () -> {
             try {
-                invokeMethod.invoke(controllerMapper, controller, method, context);
+                invokeMethod.invoke(controllerMapper, compilePlan(controller, method, new Class[0]), context);
             } catch (InvocationTargetException e) {
                 throw e.getCause();
             }
@@ -455,13 +473,13 @@ class ControllerMapperTest {
         TestController controller = new TestController();
 
         Method invokeMethod = ControllerMapper.class.getDeclaredMethod("invokeControllerMethod",
-                Object.class, Method.class, Context.class);
+                HandlerPlan.class, Context.class);
         invokeMethod.setAccessible(true);
 
         // When/Then
         RuntimeException thrown = assertThrows(RuntimeException.class, () -> {
             try {
-                invokeMethod.invoke(controllerMapper, controller, method, context);
+                invokeMethod.invoke(controllerMapper, compilePlan(controller, method, new Class[0]), context);
             } catch (InvocationTargetException e) {
                 if (e.getCause() != null) {
                     throw e.getCause();
@@ -485,16 +503,18 @@ class ControllerMapperTest {
         resolverField.set(controllerMapper, parameterResolver);
 
         Method invokeMethod = ControllerMapper.class.getDeclaredMethod("invokeControllerMethod",
-                Object.class, Method.class, Context.class);
+                HandlerPlan.class, Context.class);
         invokeMethod.setAccessible(true);
 
         RuntimeException resolutionException = new RuntimeException("Parameter resolution failed");
-        when(parameterResolver.resolveParameter(any(), any())).thenThrow(resolutionException);
+        when(parameterResolver.binderFor(any())).thenReturn(ctx -> {
+            throw resolutionException;
+        });
 
         // When/Then
         RuntimeException thrown = assertThrows(RuntimeException.class, () -> {
             try {
-                invokeMethod.invoke(controllerMapper, controller, method, context);
+                invokeMethod.invoke(controllerMapper, compilePlan(controller, method, new Class[0]), context);
             } catch (InvocationTargetException e) {
                 if (e.getCause() != null) {
                     throw e.getCause();
@@ -523,14 +543,14 @@ class ControllerMapperTest {
         // Access the private method using reflection
         Method handleWithMiddlewareMethod = ControllerMapper.class.getDeclaredMethod(
                 "handleWithMiddleware",
-                Object.class, Method.class, Context.class, Class[].class);
+                HandlerPlan.class, Context.class);
         handleWithMiddlewareMethod.setAccessible(true);
 
         // Create middleware array with TestMiddleware
         Class<? extends Middleware>[] controllerMiddleware = new Class[] { TestMiddleware.class };
 
         // When
-        handleWithMiddlewareMethod.invoke(controllerMapper, controller, controllerMethod, mockContext, controllerMiddleware);
+        handleWithMiddlewareMethod.invoke(controllerMapper, compilePlan(controller, controllerMethod, controllerMiddleware), mockContext);
 
         // Then
         verify(mockHeaders).setHeader(eq(RequestHeader.CONTENT_TYPE.getHeaderName()), anyString());
@@ -554,14 +574,14 @@ class ControllerMapperTest {
         // Access the private method using reflection
         Method handleWithMiddlewareMethod = ControllerMapper.class.getDeclaredMethod(
                 "handleWithMiddleware",
-                Object.class, Method.class, Context.class, Class[].class);
+                HandlerPlan.class, Context.class);
         handleWithMiddlewareMethod.setAccessible(true);
 
         // Create middleware array with the failing middleware
         Class<? extends Middleware>[] controllerMiddleware = new Class[] { TestMiddleware.class };
 
         // When
-        handleWithMiddlewareMethod.invoke(controllerMapper, controller, controllerMethod, mockContext, controllerMiddleware);
+        handleWithMiddlewareMethod.invoke(controllerMapper, compilePlan(controller, controllerMethod, controllerMiddleware), mockContext);
 
         // Then
         // Verify that the exception is properly handled
@@ -593,17 +613,17 @@ class ControllerMapperTest {
         cnmField.setAccessible(true);
         ContentNegotiationManager mockCNM = mock(ContentNegotiationManager.class);
         doThrow(new RuntimeException("Content type not supported"))
-                .when(mockCNM).validateContentType(any(), any());
+                .when(mockCNM).validateContentType(any(), nullable(List.class));
         cnmField.set(controllerMapper, mockCNM);
 
         // Access the private method using reflection
         Method handleWithMiddlewareMethod = ControllerMapper.class.getDeclaredMethod(
                 "handleWithMiddleware",
-                Object.class, Method.class, Context.class, Class[].class);
+                HandlerPlan.class, Context.class);
         handleWithMiddlewareMethod.setAccessible(true);
 
         // When
-        handleWithMiddlewareMethod.invoke(controllerMapper, controller, controllerMethod, mockContext, new Class[0]);
+        handleWithMiddlewareMethod.invoke(controllerMapper, compilePlan(controller, controllerMethod, new Class[0]), mockContext);
 
         // Then
         ArgumentCaptor<Response<?>> responseCaptor = ArgumentCaptor.forClass(Response.class);
@@ -638,7 +658,7 @@ class ControllerMapperTest {
         validatorField.set(controllerMapper, mockValidator);
 
         // Make sure parameterResolver returns a value
-        when(parameterResolver.resolveParameter(any(), any())).thenReturn("test");
+        when(parameterResolver.binderFor(any())).thenReturn(ctx -> "test");
 
         Field resolverField = ControllerMapper.class.getDeclaredField("parameterResolver");
         resolverField.setAccessible(true);
@@ -647,11 +667,11 @@ class ControllerMapperTest {
         // Access the private method using reflection
         Method handleWithMiddlewareMethod = ControllerMapper.class.getDeclaredMethod(
                 "handleWithMiddleware",
-                Object.class, Method.class, Context.class, Class[].class);
+                HandlerPlan.class, Context.class);
         handleWithMiddlewareMethod.setAccessible(true);
 
         // When
-        handleWithMiddlewareMethod.invoke(controllerMapper, controller, controllerMethod, mockContext, new Class[0]);
+        handleWithMiddlewareMethod.invoke(controllerMapper, compilePlan(controller, controllerMethod, new Class[0]), mockContext);
 
         // Then
         ArgumentCaptor<Response<?>> responseCaptor = ArgumentCaptor.forClass(Response.class);
@@ -661,6 +681,192 @@ class ControllerMapperTest {
         assertEquals(HttpStatusCode.BAD_REQUEST, capturedResponse.getStatusCode());
     }
 
+    @Test
+    void compilePlan_ShouldPreResolveMiddlewareAndMediaTypes() throws Throwable {
+        // Given
+        TestController controller = new TestController();
+        Method method = TestController.class.getDeclaredMethod("methodWithMiddleware");
+
+        // When
+        HandlerPlan plan = compilePlan(controller, method, new Class[] { TestMiddleware.class });
+
+        // Then
+        assertSame(controller, plan.controller());
+        assertEquals(method, plan.method());
+        assertEquals(2, plan.middleware().size());
+        assertNull(plan.consumes());
+        assertNull(plan.produces());
+        assertEquals("middleware", plan.invoke(plan.bindArguments(context)));
+    }
+
+    @Test
+    void compilePlan_ShouldShareAndInitializeMiddlewareOnce() throws Exception {
+        // Given
+        TestController controller = new TestController();
+        Method first = TestController.class.getDeclaredMethod("getMethod");
+        Method second = TestController.class.getDeclaredMethod("postMethod");
+        LifecycleMiddleware.reset();
+
+        // When
+        HandlerPlan firstPlan = compilePlan(controller, first, new Class[] { LifecycleMiddleware.class });
+        HandlerPlan secondPlan = compilePlan(controller, second, new Class[] { LifecycleMiddleware.class });
+
+        // Then
+        assertSame(firstPlan.middleware().getFirst(), secondPlan.middleware().getFirst());
+        assertEquals(1, LifecycleMiddleware.initCount);
+        assertEquals(0, LifecycleMiddleware.destroyCount);
+
+        controllerMapper.destroyMiddleware();
+        assertEquals(1, LifecycleMiddleware.destroyCount);
+    }
+
+    @Test
+    void compilePlan_ShouldFailWhenMiddlewareInitFails() throws Exception {
+        // Given
+        TestController controller = new TestController();
+        Method method = TestController.class.getDeclaredMethod("getMethod");
+
+        // When
+        InvocationTargetException ex = assertThrows(InvocationTargetException.class,
+                () -> compilePlan(controller, method, new Class[] { FailingInitMiddleware.class }));
+
+        // Then
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertTrue(ex.getCause().getMessage().contains("Failed to initialize middleware"));
+    }
+
+    @Test
+    void mapControllerRoutes_ShouldRegisterRoutesOnDeclaredExecutor() {
+        // Given
+        Map<Class<?>, Object> controllers = new HashMap<>();
+        controllers.put(ExecutorController.class, new ExecutorController());
+
+        // When
+        controllerMapper.mapControllerRoutes(app, controllers);
+
+        // Then
+        verify(app).route(eq(HttpMethod.GET), eq("/executor/default"), eq("io"), any());
+        verify(app).route(eq(HttpMethod.POST), eq("/executor/cpu"), eq("cpu"), any());
+        verify(app, never()).get(anyString(), any());
+        verify(app, never()).post(anyString(), any());
+    }
+
+    @Test
+    void handleWithMiddleware_ShouldSendValueOfCompletedFuture() throws Exception {
+        // When
+        handleAsync("future");
+
+        // Then
+        ArgumentCaptor<Response> responseCaptor = ArgumentCaptor.forClass(Response.class);
+        verify(responseHandler).handleResponse(responseCaptor.capture());
+        assertEquals(HttpStatusCode.OK, responseCaptor.getValue().getStatusCode());
+        assertEquals("async", responseCaptor.getValue().getBody());
+    }
+
+    @Test
+    void handleWithMiddleware_ShouldSendResponseOfCompletionStage() throws Exception {
+        // When
+        handleAsync("stage");
+
+        // Then
+        ArgumentCaptor<Response> responseCaptor = ArgumentCaptor.forClass(Response.class);
+        verify(responseHandler).handleResponse(responseCaptor.capture());
+        assertEquals(HttpStatusCode.CREATED, responseCaptor.getValue().getStatusCode());
+    }
+
+    @Test
+    void handleWithMiddleware_ShouldMapExceptionalCompletionThroughExceptionHandler() throws Exception {
+        // Given
+        Field registryField = ControllerMapper.class.getDeclaredField("exceptionHandlerRegistry");
+        registryField.setAccessible(true);
+        registryField.set(controllerMapper, exceptionHandlerRegistry);
+        ExceptionHandlerMethod handlerMethod = mock(ExceptionHandlerMethod.class);
+        when(exceptionHandlerRegistry.findHandler(any(IllegalStateException.class))).thenReturn(handlerMethod);
+        when(handlerMethod.invoke(any(), eq(context))).thenReturn(Response.status(HttpStatusCode.BAD_REQUEST).build());
+
+        // When
+        handleAsync("failing");
+
+        // Then
+        ArgumentCaptor<Throwable> exceptionCaptor = ArgumentCaptor.forClass(Throwable.class);
+        verify(handlerMethod).invoke(exceptionCaptor.capture(), eq(context));
+        assertEquals("Backend failed", exceptionCaptor.getValue().getMessage());
+        ArgumentCaptor<Response> responseCaptor = ArgumentCaptor.forClass(Response.class);
+        verify(responseHandler).handleResponse(responseCaptor.capture());
+        assertEquals(HttpStatusCode.BAD_REQUEST, responseCaptor.getValue().getStatusCode());
+    }
+
+    @Test
+    void handleWithMiddleware_ShouldCancelFutureAndRespondWithGatewayTimeout() throws Exception {
+        // Given
+        AsyncController controller = new AsyncController();
+
+        // When
+        handleAsync(controller, "slow");
+
+        // Then
+        assertTrue(controller.pending.isCancelled());
+        ArgumentCaptor<Response> responseCaptor = ArgumentCaptor.forClass(Response.class);
+        verify(responseHandler).handleResponse(responseCaptor.capture());
+        assertEquals(HttpStatusCode.GATEWAY_TIMEOUT, responseCaptor.getValue().getStatusCode());
+    }
+
+    @Test
+    void handleWithMiddleware_WhenDeadlineCancelledFuture_ShouldRespondWithGatewayTimeout() throws Exception {
+        // Given
+        when(context.getDeadline()).thenReturn(Instant.now().minusMillis(1));
+
+        // When
+        handleAsync("cancelled");
+
+        // Then
+        ArgumentCaptor<Response> responseCaptor = ArgumentCaptor.forClass(Response.class);
+        verify(responseHandler).handleResponse(responseCaptor.capture());
+        assertEquals(HttpStatusCode.GATEWAY_TIMEOUT, responseCaptor.getValue().getStatusCode());
+    }
+
+    @Test
+    void handleWithMiddleware_WhenFutureCancelledBeforeDeadline_ShouldRespondWithInternalServerError() throws Exception {
+        // Given
+        when(context.getDeadline()).thenReturn(Instant.now().plusSeconds(5));
+
+        // When
+        handleAsync("cancelled");
+
+        // Then
+        ArgumentCaptor<Response> responseCaptor = ArgumentCaptor.forClass(Response.class);
+        verify(responseHandler).handleResponse(responseCaptor.capture());
+        assertEquals(HttpStatusCode.INTERNAL_SERVER_ERROR, responseCaptor.getValue().getStatusCode());
+    }
+
+    @Test
+    void compilePlan_ShouldResolveTimeoutFromMethodOverController() throws Exception {
+        // When
+        HandlerPlan slow = compilePlan(new AsyncController(), AsyncController.class.getDeclaredMethod("slow"), new Class[0]);
+        HandlerPlan future = compilePlan(new AsyncController(), AsyncController.class.getDeclaredMethod("future"), new Class[0]);
+
+        // Then
+        assertEquals(Duration.ofMillis(50), slow.timeout());
+        assertEquals(Duration.ofSeconds(5), future.timeout());
+    }
+
+    private void handleAsync(String methodName) throws Exception {
+        handleAsync(new AsyncController(), methodName);
+    }
+
+    private void handleAsync(AsyncController controller, String methodName) throws Exception {
+        Method handle = ControllerMapper.class.getDeclaredMethod("handleWithMiddleware", HandlerPlan.class, Context.class);
+        handle.setAccessible(true);
+        handle.invoke(controllerMapper,
+                compilePlan(controller, AsyncController.class.getDeclaredMethod(methodName), new Class[0]), context);
+    }
+
+    private HandlerPlan compilePlan(Object controller, Method method, Class<?>[] controllerMiddleware) throws Exception {
+        Method compile = ControllerMapper.class.getDeclaredMethod("compilePlan", Object.class, Method.class, Class[].class);
+        compile.setAccessible(true);
+        return (HandlerPlan) compile.invoke(controllerMapper, controller, method, controllerMiddleware);
+    }
+
     // Test controller for route mapping tests
     @Controller("/test")
     public static class TestController {
@@ -721,6 +927,55 @@ class ControllerMapperTest {
         }
     }
 
+    @Controller("/executor")
+    @ExecuteOn("io")
+    public static class ExecutorController {
+        @Get("/default")
+        public String controllerExecutor() {
+            return "io";
+        }
+
+        @Post("/cpu")
+        @ExecuteOn("cpu")
+        public String methodExecutor() {
+            return "cpu";
+        }
+    }
+
+    @Controller("/async")
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    public static class AsyncController {
+        final CompletableFuture<String> pending = new CompletableFuture<>();
+
+        @Get("/future")
+        public CompletableFuture<String> future() {
+            return CompletableFuture.supplyAsync(() -> "async");
+        }
+
+        @Post("/stage")
+        public CompletionStage<Response<String>> stage() {
+            return CompletableFuture.completedStage(Response.status(HttpStatusCode.CREATED).body("created").build());
+        }
+
+        @Get("/failing")
+        public CompletableFuture<String> failing() {
+            return CompletableFuture.failedFuture(new IllegalStateException("Backend failed"));
+        }
+
+        @Get("/slow")
+        @Timeout(50)
+        public CompletableFuture<String> slow() {
+            return pending;
+        }
+
+        @Get("/cancelled")
+        public CompletableFuture<String> cancelled() {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            future.cancel(true);
+            return future.thenApply(value -> value);
+        }
+    }
+
     // Test middleware for middleware tests
     public static class TestMiddleware implements Middleware {
         @Override
@@ -729,6 +984,41 @@ class ControllerMapperTest {
         }
     }
 
+    public static class LifecycleMiddleware implements Middleware {
+        static int initCount;
+        static int destroyCount;
+
+        static void reset() {
+            initCount = 0;
+            destroyCount = 0;
+        }
+
+        @Override
+        public void init() {
+            initCount++;
+        }
+
+        @Override
+        public void handle(Context context) {
+        }
+
+        @Override
+        public void destroy() {
+            destroyCount++;
+        }
+    }
+
+    public static class FailingInitMiddleware implements Middleware {
+        @Override
+        public void init() throws Exception {
+            throw new Exception("Init failure");
+        }
+
+        @Override
+        public void handle(Context context) {
+        }
+    }
+
     public record TestDTO(
             @NotNull String testName
     ){}
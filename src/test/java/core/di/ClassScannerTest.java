@@ -2,11 +2,18 @@ package core.di;
 
 import core.di.mock.AnnotatedClass;
 import core.di.mock.NonAnnotatedClass;
+import core.di.mock.SimpleService;
 import core.di.mock.annotations.TestAnnotation;
+import io.github.renatompf.ember.annotations.controller.Controller;
+import io.github.renatompf.ember.annotations.exceptions.GlobalHandler;
+import io.github.renatompf.ember.annotations.service.Service;
 import io.github.renatompf.ember.core.di.ClassScanner;
 import org.junit.jupiter.api.Test;
 
+import java.lang.annotation.Annotation;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,4 +47,51 @@ public class ClassScannerTest {
         assertTrue(result.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testFindAnnotatedClasses_bytecodeMode_returnsAnnotatedClass() throws Exception {
+        ClassScanner scanner = new ClassScanner(ClassScanner.Mode.BYTECODE);
+        List<Class<?>> result = scanner.findAnnotatedClasses("core.di", TestAnnotation.class);
+
+        assertTrue(result.contains(AnnotatedClass.class));
+        assertFalse(result.contains(NonAnnotatedClass.class));
+    }
+
+    @Test
+    public void testFindAnnotatedClasses_bytecodeMode_invalidPackage_returnsEmpty() throws Exception {
+        ClassScanner scanner = new ClassScanner(ClassScanner.Mode.BYTECODE);
+        List<Class<?>> result = scanner.findAnnotatedClasses("non.existent", TestAnnotation.class);
+
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testScan_bytecodeMode_findsSameClassesAsReflection() throws Exception {
+        List<Class<? extends Annotation>> annotations =
+                List.of(Service.class, Controller.class, GlobalHandler.class, TestAnnotation.class);
+
+        Map<Class<? extends Annotation>, List<Class<?>>> reflection =
+                new ClassScanner(ClassScanner.Mode.REFLECTION).scan("core", annotations);
+        Map<Class<? extends Annotation>, List<Class<?>>> bytecode =
+                new ClassScanner(ClassScanner.Mode.BYTECODE).scan("core", annotations);
+
+        assertEquals(annotations, List.copyOf(bytecode.keySet()));
+        assertTrue(bytecode.get(Service.class).contains(SimpleService.class));
+        assertTrue(bytecode.get(TestAnnotation.class).contains(AnnotatedClass.class));
+        for (Class<? extends Annotation> annotation : annotations) {
+            assertEquals(Set.copyOf(reflection.get(annotation)), Set.copyOf(bytecode.get(annotation)));
+        }
+    }
+
+    @Test
+    public void testScan_skippedResources_areLeftOut() throws Exception {
+        List<Class<? extends Annotation>> annotations = List.of(TestAnnotation.class);
+
+        for (ClassScanner.Mode mode : ClassScanner.Mode.values()) {
+            Map<Class<? extends Annotation>, List<Class<?>>> result =
+                    new ClassScanner(mode).scan("core.di", annotations, resource -> true);
+
+            assertTrue(result.get(TestAnnotation.class).isEmpty());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package core.di;
+
+import core.di.mock.SimpleService;
+import io.github.renatompf.ember.annotations.service.Service;
+import io.github.renatompf.ember.core.di.ComponentIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ComponentIndexTest {
+    private static final String INDEX = SimpleService.class.getName() + "=" + Service.class.getName() + "\n";
+
+    @TempDir
+    Path tempDir;
+
+    private ComponentIndex load(Path... classpath) throws Exception {
+        URL[] urls = new URL[classpath.length];
+        for (int i = 0; i < classpath.length; i++) {
+            urls[i] = classpath[i].toUri().toURL();
+        }
+        return ComponentIndex.load(new URLClassLoader(urls, getClass().getClassLoader()));
+    }
+
+    private Path directory(String name, boolean indexed) throws Exception {
+        Path directory = tempDir.resolve(name);
+        Files.createDirectories(directory.resolve("core/di"));
+        if (indexed) {
+            Path index = directory.resolve(ComponentIndex.LOCATION);
+            Files.createDirectories(index.getParent());
+            Files.writeString(index, INDEX);
+        }
+        return directory;
+    }
+
+    @Test
+    void load_ShouldFindIndexedClasses() throws Exception {
+        ComponentIndex index = load(directory("indexed", true));
+
+        assertEquals(List.of(SimpleService.class), index.findAnnotatedClasses("core.di", Service.class));
+        assertTrue(index.findAnnotatedClasses("other", Service.class).isEmpty());
+    }
+
+    @Test
+    void isIndexed_ShouldOnlyCoverDirectoriesHoldingAnIndex() throws Exception {
+        Path indexed = directory("indexed", true);
+        Path unindexed = directory("unindexed", false);
+        ComponentIndex index = load(indexed, unindexed);
+
+        assertTrue(index.isIndexed(indexed.resolve("core/di").toUri().toURL(), "core.di"));
+        assertTrue(index.isIndexed(indexed.toUri().toURL(), ""));
+        assertFalse(index.isIndexed(unindexed.resolve("core/di").toUri().toURL(), "core.di"));
+        assertFalse(index.isIndexed(unindexed.toUri().toURL(), ""));
+    }
+
+    @Test
+    void isIndexed_ShouldCoverPackagesOfIndexedJars() throws Exception {
+        Path jar = tempDir.resolve("app.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry(ComponentIndex.LOCATION));
+            out.write(INDEX.getBytes(StandardCharsets.ISO_8859_1));
+            out.closeEntry();
+        }
+        Path unindexed = directory("unindexed", false);
+        ComponentIndex index = load(jar, unindexed);
+
+        assertTrue(index.isIndexed(new URL("jar:" + jar.toUri().toURL() + "!/core/di"), "core.di"));
+        assertFalse(index.isIndexed(unindexed.resolve("core/di").toUri().toURL(), "core.di"));
+    }
+}
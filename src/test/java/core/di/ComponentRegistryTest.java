@@ -7,7 +7,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,6 +60,18 @@ class ComponentRegistryTest {
         assertNotNull(service.getSimpleService());
     }
 
+    @Test
+    void testRegisterMiddleware_ResolvesSingletonWithInjectedDependencies() {
+        registry.register(SimpleService.class);
+        registry.registerMiddleware(ServiceMiddleware.class);
+        registry.registerMiddleware(ServiceMiddleware.class);
+
+        ServiceMiddleware middleware = registry.resolve(ServiceMiddleware.class);
+
+        assertSame(middleware, registry.resolve(ServiceMiddleware.class));
+        assertSame(registry.resolve(SimpleService.class), middleware.getSimpleService());
+    }
+
     @Test
     void testResolve_ServiceNotRegisteredThrows() {
         Exception ex = assertThrows(IllegalStateException.class, () -> registry.resolve(SimpleService.class));
@@ -118,4 +132,56 @@ class ComponentRegistryTest {
         assertNotNull(registry.getInstance(ServiceWithPrivateConstructorAndNoFields.class));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testResolveAll_PassesDependenciesToConstructors() {
+        registry.registerAll(List.of(EagerService.class, DependentService.class, SimpleService.class));
+
+        registry.resolveAll();
+
+        EagerService service = (EagerService) registry.getInstance(EagerService.class);
+        assertSame(registry.getInstance(SimpleService.class), service.getSimpleService());
+    }
+
+    @Test
+    void testResolveAll_CircularDependency_ThrowsBeforeCreatingAnything() {
+        registry.registerAll(List.of(SimpleService.class, CyclicServiceA.class, CyclicServiceB.class));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> registry.resolveAll());
+
+        assertTrue(ex.getMessage().contains(CyclicServiceA.class.getName() + " -> "
+                + CyclicServiceB.class.getName() + " -> " + CyclicServiceA.class.getName()));
+        assertNull(registry.getInstance(SimpleService.class));
+    }
+
+    @Test
+    void testResolve_UnregisteredDependency_Throws() {
+        registry.register(DependentService.class);
+
+        Exception ex = assertThrows(RuntimeException.class, () -> registry.resolve(DependentService.class));
+
+        assertTrue(ex.getMessage().contains("Service not registered: " + SimpleService.class.getName()));
+    }
+
+    @Test
+    void testResolveAll_ConstructsIndependentComponentsInParallel() {
+        ComponentRegistry registry = new ComponentRegistry(2);
+        registry.registerAll(List.of(ConcurrentServiceA.class, ConcurrentServiceB.class));
+
+        assertDoesNotThrow(registry::resolveAll);
+
+        assertNotNull(registry.getInstance(ConcurrentServiceA.class));
+        assertNotNull(registry.getInstance(ConcurrentServiceB.class));
+    }
+
+    @Test
+    void testGetCreationTimes_RecordsEachCreatedComponent() {
+        registry.registerAll(List.of(SimpleService.class, DependentService.class));
+        registry.resolveAll();
+
+        Map<Class<?>, Duration> times = registry.getCreationTimes();
+
+        assertEquals(2, times.size());
+        assertFalse(times.get(DependentService.class).isNegative());
+    }
+
+}
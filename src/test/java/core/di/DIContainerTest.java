@@ -18,6 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -52,12 +53,7 @@ class DIContainerTest {
 
     @Test
     void testInit_scansAndRegistersComponents() throws IOException, ClassNotFoundException {
-        when(classScannerMock.findAnnotatedClasses(anyString(), eq(Service.class)))
-                .thenReturn(List.of(SimpleService.class));
-        when(classScannerMock.findAnnotatedClasses(anyString(), eq(Controller.class)))
-                .thenReturn(List.of(SimpleController.class));
-        when(classScannerMock.findAnnotatedClasses(anyString(), eq(GlobalHandler.class)))
-                .thenReturn(List.of(SimpleGlobalHandler.class));
+        stubScan(List.of(SimpleService.class), List.of(SimpleController.class), List.of(SimpleGlobalHandler.class));
 
         container.init();
 
@@ -72,13 +68,23 @@ class DIContainerTest {
 
     @Test
     void testInit_throwsRuntimeExceptionOnFailure() throws IOException, ClassNotFoundException {
-        when(classScannerMock.findAnnotatedClasses(anyString(), any()))
+        when(classScannerMock.scan(anyString(), anyCollection()))
                 .thenThrow(new IOException("Scan failure"));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> container.init());
         assertTrue(ex.getMessage().contains("initialization failed"));
     }
 
+    @Test
+    void testInit_scansClasspathOnceForAllStereotypes() throws IOException, ClassNotFoundException {
+        stubScan(List.of(SimpleService.class), List.of(), List.of());
+
+        container.init();
+
+        verify(classScannerMock).scan(eq("core.di"), eq(List.of(Service.class, Controller.class, GlobalHandler.class)));
+        verify(classScannerMock, never()).findAnnotatedClasses(anyString(), any());
+    }
+
     @Test
     void testMapControllerRoutes_notInitializedThrows() {
         EmberApplication mockApp = mock(EmberApplication.class);
@@ -90,12 +96,7 @@ class DIContainerTest {
     @Test
     void testMapControllerRoutes_success() throws IOException, ClassNotFoundException {
         // Arrange
-        when(classScannerMock.findAnnotatedClasses(anyString(), eq(Service.class)))
-                .thenReturn(List.of());
-        when(classScannerMock.findAnnotatedClasses(anyString(), eq(Controller.class)))
-                .thenReturn(List.of(SimpleController.class));
-        when(classScannerMock.findAnnotatedClasses(anyString(), eq(GlobalHandler.class)))
-                .thenReturn(List.of(SimpleGlobalHandler.class));
+        stubScan(List.of(), List.of(SimpleController.class), List.of(SimpleGlobalHandler.class));
 
         container.init();
 
@@ -111,8 +112,7 @@ class DIContainerTest {
 
     @Test
     void testGetters_returnNonNullAfterInit() throws IOException, ClassNotFoundException {
-        when(classScannerMock.findAnnotatedClasses(anyString(), any()))
-                .thenReturn(List.of());
+        stubScan(List.of(), List.of(), List.of());
 
         container.init();
 
@@ -120,4 +120,10 @@ class DIContainerTest {
         assertNotNull(container.getParameterResolver());
         assertNotNull(container.getValidationManager());
     }
-}
\ No newline at end of file
+
+    private void stubScan(List<Class<?>> services, List<Class<?>> controllers, List<Class<?>> handlers)
+            throws IOException, ClassNotFoundException {
+        when(classScannerMock.scan(anyString(), anyCollection()))
+                .thenReturn(Map.of(Service.class, services, Controller.class, controllers, GlobalHandler.class, handlers));
+    }
+}
@@ -0,0 +1,19 @@
+package core.di.mock;
+
+import io.github.renatompf.ember.annotations.service.Service;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A service whose constructor waits for {@link ConcurrentServiceB} to be constructed at the same
+ * time, failing if they are constructed one after the other.
+ */
+@Service
+public class ConcurrentServiceA {
+    static final CyclicBarrier BARRIER = new CyclicBarrier(2);
+
+    public ConcurrentServiceA() throws Exception {
+        BARRIER.await(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,12 @@
+package core.di.mock;
+
+import io.github.renatompf.ember.annotations.service.Service;
+
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ConcurrentServiceB {
+    public ConcurrentServiceB() throws Exception {
+        ConcurrentServiceA.BARRIER.await(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,12 @@
+package core.di.mock;
+
+import io.github.renatompf.ember.annotations.service.Service;
+
+@Service
+public class CyclicServiceA {
+    private final CyclicServiceB other;
+
+    public CyclicServiceA(CyclicServiceB other) {
+        this.other = other;
+    }
+}
@@ -0,0 +1,12 @@
+package core.di.mock;
+
+import io.github.renatompf.ember.annotations.service.Service;
+
+@Service
+public class CyclicServiceB {
+    private final CyclicServiceA other;
+
+    public CyclicServiceB(CyclicServiceA other) {
+        this.other = other;
+    }
+}
@@ -0,0 +1,17 @@
+package core.di.mock;
+
+import io.github.renatompf.ember.annotations.service.Service;
+
+@Service
+public class EagerService {
+    private final SimpleService simpleService;
+
+    public EagerService(DependentService dependentService) {
+        // Uses its dependency while being constructed
+        this.simpleService = dependentService.getSimpleService();
+    }
+
+    public SimpleService getSimpleService() {
+        return simpleService;
+    }
+}
@@ -0,0 +1,20 @@
+package core.di.mock;
+
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.core.server.Middleware;
+
+public class ServiceMiddleware implements Middleware {
+    private final SimpleService simpleService;
+
+    public ServiceMiddleware(SimpleService simpleService) {
+        this.simpleService = simpleService;
+    }
+
+    public SimpleService getSimpleService() {
+        return simpleService;
+    }
+
+    @Override
+    public void handle(Context context) {
+    }
+}
@@ -0,0 +1,163 @@
+package core.http;
+
+import io.github.renatompf.ember.core.http.CompressionMiddleware;
+import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.core.http.StreamingBody;
+import io.github.renatompf.ember.core.routing.Router;
+import io.github.renatompf.ember.core.server.Server;
+import io.github.renatompf.ember.core.server.engine.NioServerEngine;
+import io.github.renatompf.ember.enums.HttpMethod;
+import io.github.renatompf.ember.enums.MediaType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionMiddlewareTest {
+
+    private static final String LARGE_TEXT = "ember ".repeat(1000);
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final AtomicReference<OutputStream> abandoned = new AtomicReference<>();
+    private NioServerEngine engine;
+    private Server server;
+
+    @BeforeEach
+    void setUp() {
+        Router router = new Router();
+        router.register(HttpMethod.GET, "/large", ctx -> ctx.response().handleResponse(
+                Response.ok().contentType(MediaType.TEXT_PLAIN).body(LARGE_TEXT).build()));
+        router.register(HttpMethod.GET, "/small", ctx -> ctx.response().handleResponse(
+                Response.ok().contentType(MediaType.TEXT_PLAIN).body("tiny").build()));
+        router.register(HttpMethod.GET, "/binary", ctx -> ctx.response().handleResponse(
+                Response.ok().contentType(MediaType.OCTET_STREAM).body((StreamingBody) out -> out.write(LARGE_TEXT.getBytes())).build()));
+        router.register(HttpMethod.GET, "/stream", ctx -> ctx.response().handleResponse(
+                Response.ok().contentType(MediaType.APPLICATION_NDJSON)
+                        .body(IntStream.range(0, 500).boxed()).build()));
+        router.register(HttpMethod.GET, "/failing", ctx -> ctx.response().handleResponse(
+                Response.ok().contentType(MediaType.TEXT_PLAIN).body((StreamingBody) out -> {
+                    abandoned.set(out);
+                    out.write(LARGE_TEXT.getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    throw new IOException("Source failed");
+                }).build()));
+
+        engine = NioServerEngine.builder().selectorThreads(1).build();
+        server = new Server(router, List.of(CompressionMiddleware.builder().minSize(100).build()), engine);
+        server.start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + engine.getLocalAddress().getPort() + path)).GET();
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String decode(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void handle_WithGzipAccepted_ShouldCompressLargeBody() throws Exception {
+        HttpResponse<byte[]> response = get("/large", "gzip, deflate");
+
+        assertEquals("gzip", response.headers().firstValue("content-encoding").orElseThrow());
+        assertEquals("Accept-Encoding", response.headers().firstValue("vary").orElseThrow());
+        assertEquals(String.valueOf(response.body().length), response.headers().firstValue("content-length").orElseThrow());
+        assertTrue(response.body().length < LARGE_TEXT.length());
+        assertEquals(LARGE_TEXT, decode(new GZIPInputStream(new ByteArrayInputStream(response.body()))));
+    }
+
+    @Test
+    void handle_WithDeflatePreferred_ShouldUseDeflate() throws Exception {
+        HttpResponse<byte[]> response = get("/large", "gzip;q=0.5, deflate");
+
+        assertEquals("deflate", response.headers().firstValue("content-encoding").orElseThrow());
+        assertEquals(LARGE_TEXT, decode(new InflaterInputStream(new ByteArrayInputStream(response.body()))));
+    }
+
+    @Test
+    void handle_WithoutAcceptEncoding_ShouldSendIdentityWithVary() throws Exception {
+        HttpResponse<byte[]> response = get("/large", null);
+
+        assertTrue(response.headers().firstValue("content-encoding").isEmpty());
+        assertEquals("Accept-Encoding", response.headers().firstValue("vary").orElseThrow());
+        assertEquals(LARGE_TEXT, new String(response.body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void handle_WithCodingsRefused_ShouldNotCompress() throws Exception {
+        HttpResponse<byte[]> response = get("/large", "gzip;q=0, *;q=0");
+
+        assertTrue(response.headers().firstValue("content-encoding").isEmpty());
+    }
+
+    @Test
+    void handle_WithBodyBelowMinimumSize_ShouldNotCompress() throws Exception {
+        HttpResponse<byte[]> response = get("/small", "gzip");
+
+        assertTrue(response.headers().firstValue("content-encoding").isEmpty());
+        assertEquals("tiny", new String(response.body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void handle_WithMediaTypeNotAllowed_ShouldNotCompressNorVary() throws Exception {
+        HttpResponse<byte[]> response = get("/binary", "gzip");
+
+        assertTrue(response.headers().firstValue("content-encoding").isEmpty());
+        assertTrue(response.headers().firstValue("vary").isEmpty());
+        assertEquals(LARGE_TEXT, new String(response.body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void handle_WithStreamingBody_ShouldCompressOnTheFly() throws Exception {
+        HttpResponse<byte[]> response = get("/stream", "gzip");
+
+        assertEquals("gzip", response.headers().firstValue("content-encoding").orElseThrow());
+        assertEquals("chunked", response.headers().firstValue("transfer-encoding").orElseThrow());
+        String expected = IntStream.range(0, 500).mapToObj(i -> i + "\n").reduce("", String::concat);
+        assertEquals(expected, decode(new GZIPInputStream(new ByteArrayInputStream(response.body()))));
+    }
+
+    @Test
+    void handle_WhenStreamingBodyFails_ShouldEndDeflater() {
+        assertThrows(IOException.class, () -> get("/failing", "gzip"));
+
+        // The deflater of the aborted response was ended rather than left to the pool
+        IOException thrown = assertThrows(IOException.class, () -> abandoned.get().write(1));
+        assertEquals("Response body stream is closed", thrown.getMessage());
+    }
+
+    @Test
+    void builder_WithInvalidSettings_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> CompressionMiddleware.builder().minSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> CompressionMiddleware.builder().level(10));
+        assertThrows(IllegalArgumentException.class, () -> CompressionMiddleware.builder().poolSize(0));
+    }
+}
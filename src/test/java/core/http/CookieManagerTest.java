@@ -111,4 +111,13 @@ class CookieManagerTest {
         // Assert
         verify(responseHeaders).add("Set-Cookie", "testCookie=; Max-Age=0; Path=/");
     }
-}
\ No newline at end of file
+
+    @Test
+    void setCookie_WithSecurityAttributes_ShouldAddThemToHeader() {
+        // Act
+        cookieManager.setCookie("session", "abc", -1, true, true, "Lax");
+
+        // Assert
+        verify(responseHeaders).add("Set-Cookie", "session=abc; Path=/; Secure; HttpOnly; SameSite=Lax");
+    }
+}
@@ -5,6 +5,8 @@ import com.sun.net.httpserver.HttpExchange;
 import io.github.renatompf.ember.core.http.Response;
 import io.github.renatompf.ember.core.http.ResponseHandler;
 import io.github.renatompf.ember.core.http.ResponseSerializer;
+import io.github.renatompf.ember.core.http.SerializerRegistry;
+import io.github.renatompf.ember.core.server.engine.JdkServerExchange;
 import io.github.renatompf.ember.enums.HttpStatusCode;
 import io.github.renatompf.ember.enums.MediaType;
 import io.github.renatompf.ember.enums.RequestHeader;
@@ -242,6 +244,47 @@ class ResponseHandlerTest {
         assertTrue(responseBody.startsWith("CUSTOM:"));
     }
 
+    @Test
+    void handleResponse_WithLargeBody_ShouldStreamChunkedResponse() throws IOException {
+        // Arrange
+        String large = "x".repeat(100_000);
+        Response<String> response = Response.ok().contentType(MediaType.TEXT_PLAIN).body(large).build();
+
+        // Act
+        responseHandler.handleResponse(response);
+
+        // Assert
+        verify(exchange).sendResponseHeaders(HttpStatusCode.OK.getCode(), 0);
+        assertEquals(large, outputStream.toString());
+    }
+
+    @Test
+    void handleResponse_WithSerializationFailure_ShouldNotSendResponse() throws IOException {
+        // Arrange
+        ResponseSerializer failing = new ResponseSerializer() {
+            @Override
+            public String serialize(Object obj) {
+                return "";
+            }
+
+            @Override
+            public void write(Object obj, OutputStream out) throws Exception {
+                out.write("partial".getBytes());
+                throw new IOException("Serialization failed");
+            }
+        };
+        responseHandler = new ResponseHandler(new JdkServerExchange(exchange),
+                SerializerRegistry.builder().register(MediaType.APPLICATION_JSON, failing).build());
+        Response<TestDto> response = Response.ok().body(new TestDto("test value")).build();
+
+        // Act
+        assertThrows(RuntimeException.class, () -> responseHandler.handleResponse(response));
+
+        // Assert
+        verify(exchange, never()).sendResponseHeaders(anyInt(), anyLong());
+        assertEquals(0, outputStream.size());
+    }
+
     @Test
     void handleResponse_WithDateObject_ShouldFormatDateCorrectly() throws IOException {
         // Arrange
@@ -294,7 +337,7 @@ class ResponseHandlerTest {
 
         // Make exchange.getResponseBody() throw an IOException
         OutputStream mockOutputStream = mock(OutputStream.class);
-        doThrow(new IOException("Connection error")).when(mockOutputStream).write(any());
+        doThrow(new IOException("Connection error")).when(mockOutputStream).write(any(byte[].class), anyInt(), anyInt());
         when(exchange.getResponseBody()).thenReturn(mockOutputStream);
 
         // Act & Assert
@@ -0,0 +1,81 @@
+package core.http;
+
+import io.github.renatompf.ember.core.http.JacksonSerializer;
+import io.github.renatompf.ember.core.http.ResponseSerializer;
+import io.github.renatompf.ember.core.http.SerializerRegistry;
+import io.github.renatompf.ember.enums.MediaType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializerRegistryTest {
+
+    @Test
+    void defaults_ShouldSupportJsonXmlAndPlainText() {
+        // Given
+        SerializerRegistry registry = SerializerRegistry.defaults();
+
+        // Then
+        assertInstanceOf(JacksonSerializer.class, registry.get(MediaType.APPLICATION_JSON));
+        assertInstanceOf(JacksonSerializer.class, registry.get(MediaType.APPLICATION_XML));
+        assertTrue(registry.supports(MediaType.TEXT_PLAIN));
+        assertFalse(registry.supports(MediaType.TEXT_HTML));
+        assertNull(registry.get(MediaType.TEXT_HTML));
+    }
+
+    @Test
+    void register_ShouldAddAndReplaceSerializers() {
+        // Given
+        ResponseSerializer html = obj -> "<p>" + obj + "</p>";
+        ResponseSerializer json = obj -> "{}";
+
+        // When
+        SerializerRegistry registry = SerializerRegistry.builder()
+                .register(MediaType.TEXT_HTML, html)
+                .register(MediaType.APPLICATION_JSON, json)
+                .build();
+
+        // Then
+        assertSame(html, registry.get(MediaType.TEXT_HTML));
+        assertSame(json, registry.get(MediaType.APPLICATION_JSON));
+        assertNotSame(json, SerializerRegistry.defaults().get(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void register_ShouldRejectDuplicateRegistration() {
+        // Given
+        SerializerRegistry.Builder builder = SerializerRegistry.builder()
+                .register(MediaType.TEXT_HTML, Object::toString);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> builder.register(MediaType.TEXT_HTML, Object::toString));
+        assertEquals("Media type already registered: text/html", exception.getMessage());
+    }
+
+    @Test
+    void jsonSerializer_ShouldWriteBytesWithoutClosingStream() throws Exception {
+        // Given
+        ResponseSerializer json = SerializerRegistry.defaults().get(MediaType.APPLICATION_JSON);
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                fail("The stream must not be closed by the serializer");
+            }
+        };
+
+        // When
+        json.write(new Item("a", LocalDate.of(2024, 2, 1)), out);
+        json.write(List.of(1, 2), out);
+
+        // Then
+        assertEquals("{\"name\":\"a\",\"date\":\"2024-02-01\"}[1,2]", out.toString());
+        assertEquals("{\"name\":\"a\",\"date\":\"2024-02-01\"}", json.serialize(new Item("a", LocalDate.of(2024, 2, 1))));
+    }
+
+    public record Item(String name, LocalDate date) {}
+}
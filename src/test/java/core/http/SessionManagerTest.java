@@ -1,137 +1,182 @@
 package core.http;
 
+import io.github.renatompf.ember.core.http.CookieManager;
+import io.github.renatompf.ember.core.http.Response;
 import io.github.renatompf.ember.core.http.SessionManager;
+import io.github.renatompf.ember.core.routing.Router;
+import io.github.renatompf.ember.core.server.Server;
+import io.github.renatompf.ember.core.server.engine.NioServerEngine;
+import io.github.renatompf.ember.core.session.InMemorySessionStore;
+import io.github.renatompf.ember.core.session.Session;
+import io.github.renatompf.ember.core.session.SessionCookie;
+import io.github.renatompf.ember.core.session.SessionStore;
+import io.github.renatompf.ember.enums.HttpMethod;
+import io.github.renatompf.ember.enums.MediaType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Map;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
 class SessionManagerTest {
 
+    @Mock
+    private CookieManager cookies;
+
+    private SessionStore store;
     private SessionManager sessionManager;
 
     @BeforeEach
     void setUp() {
-        sessionManager = new SessionManager();
+        store = InMemorySessionStore.builder().build();
+        sessionManager = new SessionManager(store, cookies, SessionCookie.defaults());
     }
 
     @Test
-    void session_WhenNewSessionId_ShouldCreateNewSession() {
+    void session_WhenNoCookie_ShouldCreateSessionAndSetCookie() {
         // Act
-        Map<String, Object> session = sessionManager.session("test-session-1");
+        Session session = sessionManager.session();
 
         // Assert
         assertNotNull(session);
-        assertTrue(session.isEmpty());
+        assertTrue(session.attributes().isEmpty());
+        verify(cookies).setCookie("EMBER_SESSION", session.getId(), -1, true, true, "Lax");
     }
 
     @Test
-    void session_WhenExistingSessionId_ShouldReturnExistingSession() {
+    void session_WhenCookieOfStoredSession_ShouldReturnIt() {
         // Arrange
-        Map<String, Object> firstSession = sessionManager.session("test-session-2");
-        firstSession.put("test-key", "test-value");
+        Session stored = store.create();
+        stored.setAttribute("user", "ada");
+        store.save(stored);
+        when(cookies.cookie("EMBER_SESSION")).thenReturn(stored.getId());
 
         // Act
-        Map<String, Object> secondSession = sessionManager.session("test-session-2");
+        Session session = sessionManager.session();
 
         // Assert
-        assertSame(firstSession, secondSession);
-        assertEquals("test-value", secondSession.get("test-key"));
+        assertEquals(stored.getId(), session.getId());
+        assertEquals("ada", sessionManager.sessionAttribute("user"));
+        verify(cookies, never()).setCookie(anyString(), anyString(), anyInt(), anyBoolean(), anyBoolean(), anyString());
     }
 
     @Test
-    void setSessionAttribute_ShouldStoreAttributeInSession() {
+    void sessionAttribute_WhenUnknownSessionId_ShouldNotCreateSession() {
+        // Arrange
+        when(cookies.cookie("EMBER_SESSION")).thenReturn(Session.generateId());
+
         // Act
-        sessionManager.setSessionAttribute("test-session-3", "test-key", "test-value");
+        Object value = sessionManager.sessionAttribute("user");
+        sessionManager.commit();
 
         // Assert
-        Map<String, Object> session = sessionManager.session("test-session-3");
-        assertEquals("test-value", session.get("test-key"));
+        assertNull(value);
+        assertNull(sessionManager.findSession());
+        assertEquals(0, store.size());
     }
 
     @Test
-    void sessionAttribute_WhenAttributeExists_ShouldReturnValue() {
+    void findSession_WhenMalformedCookie_ShouldIgnoreIt() {
         // Arrange
-        sessionManager.setSessionAttribute("test-session-4", "test-key", "test-value");
-
-        // Act
-        Object value = sessionManager.sessionAttribute("test-session-4", "test-key");
+        when(cookies.cookie("EMBER_SESSION")).thenReturn("../../etc/passwd");
 
-        // Assert
-        assertEquals("test-value", value);
+        // Act & Assert
+        assertNull(sessionManager.findSession());
     }
 
     @Test
-    void sessionAttribute_WhenAttributeDoesNotExist_ShouldReturnNull() {
+    void commit_ShouldSaveModifiedSession() {
         // Act
-        Object value = sessionManager.sessionAttribute("test-session-5", "non-existent");
+        sessionManager.setSessionAttribute("user", "ada");
+        sessionManager.commit();
 
         // Assert
-        assertNull(value);
+        Session session = sessionManager.findSession();
+        assertEquals(1, store.size());
+        assertFalse(session.isModified());
+        assertEquals("ada", store.find(session.getId()).attribute("user"));
     }
 
     @Test
-    void invalidateSession_ShouldRemoveSession() {
+    void invalidateSession_ShouldRemoveSessionAndCookie() {
         // Arrange
-        sessionManager.setSessionAttribute("test-session-6", "test-key", "test-value");
+        sessionManager.setSessionAttribute("user", "ada");
+        sessionManager.commit();
+        String id = sessionManager.findSession().getId();
 
         // Act
-        sessionManager.invalidateSession("test-session-6");
+        sessionManager.invalidateSession();
 
         // Assert
-        Map<String, Object> newSession = sessionManager.session("test-session-6");
-        assertTrue(newSession.isEmpty());
+        assertNull(store.find(id));
+        assertNull(sessionManager.sessionAttribute("user"));
+        verify(cookies).setCookie("EMBER_SESSION", "", 0, true, true, "Lax");
     }
 
     @Test
-    void multipleSessionManagers_ShouldShareSessions() {
+    void renewSession_ShouldKeepAttributesUnderNewId() {
         // Arrange
-        SessionManager otherManager = new SessionManager();
-        sessionManager.setSessionAttribute("test-session-7", "test-key", "test-value");
+        sessionManager.setSessionAttribute("cart", "3 items");
+        sessionManager.commit();
+        String previousId = sessionManager.findSession().getId();
 
         // Act
-        Object value = otherManager.sessionAttribute("test-session-7", "test-key");
+        Session renewed = sessionManager.renewSession();
+        sessionManager.commit();
 
         // Assert
-        assertEquals("test-value", value);
+        assertNotEquals(previousId, renewed.getId());
+        assertNull(store.find(previousId));
+        assertEquals("3 items", store.find(renewed.getId()).attribute("cart"));
+        verify(cookies).setCookie(eq("EMBER_SESSION"), eq(renewed.getId()), eq(-1), eq(true), eq(true), eq("Lax"));
     }
 
     @Test
-    void concurrentAccess_ShouldHandleMultipleThreads() throws InterruptedException {
-        // Arrange
-        int threadCount = 10;
-        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-        CountDownLatch startLatch = new CountDownLatch(1);
-        CountDownLatch endLatch = new CountDownLatch(threadCount);
-
-        // Act
-        for (int i = 0; i < threadCount; i++) {
-            final int index = i;
-            executor.submit(() -> {
-                try {
-                    startLatch.await();
-                    sessionManager.setSessionAttribute("concurrent-session", "key-" + index, "value-" + index);
-                    endLatch.countDown();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            });
-        }
-
-        startLatch.countDown();
-        endLatch.await();
-        executor.shutdown();
-
-        // Assert
-        Map<String, Object> session = sessionManager.session("concurrent-session");
-        assertEquals(threadCount, session.size());
-        for (int i = 0; i < threadCount; i++) {
-            assertEquals("value-" + i, session.get("key-" + i));
+    void server_ShouldKeepSessionAcrossRequests() throws Exception {
+        Router router = new Router();
+        router.register(HttpMethod.GET, "/visits", ctx -> {
+            Integer visits = (Integer) ctx.session().sessionAttribute("visits");
+            int count = visits != null ? visits + 1 : 1;
+            ctx.session().setSessionAttribute("visits", count);
+            ctx.response().handleResponse(Response.ok().contentType(MediaType.TEXT_PLAIN).body(String.valueOf(count)).build());
+        });
+        NioServerEngine engine = NioServerEngine.builder().selectorThreads(1).build();
+        Server server = new Server(router, List.of(), engine);
+        server.setSessionStore(store);
+        server.setSessionCookie(SessionCookie.builder().secure(false).build());
+        server.start(0);
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            URI uri = URI.create("http://127.0.0.1:" + engine.getLocalAddress().getPort() + "/visits");
+
+            HttpResponse<String> first = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+            String setCookie = first.headers().firstValue("Set-Cookie").orElseThrow();
+            String cookie = setCookie.substring(0, setCookie.indexOf(';'));
+            HttpResponse<String> second = client.send(HttpRequest.newBuilder(uri).header("Cookie", cookie).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals("1", first.body());
+            assertTrue(setCookie.endsWith("; Path=/; HttpOnly; SameSite=Lax"), setCookie);
+            assertEquals("2", second.body());
+            assertTrue(second.headers().firstValue("Set-Cookie").isEmpty());
+        } finally {
+            server.stop();
         }
     }
-}
\ No newline at end of file
+}
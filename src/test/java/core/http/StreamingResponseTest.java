@@ -0,0 +1,171 @@
+package core.http;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.core.http.ResponseHandler;
+import io.github.renatompf.ember.core.http.StreamingBody;
+import io.github.renatompf.ember.enums.HttpStatusCode;
+import io.github.renatompf.ember.enums.MediaType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreamingResponseTest {
+
+    @Mock
+    private HttpExchange exchange;
+
+    private final Headers responseHeaders = new Headers();
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    private ResponseHandler responseHandler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(exchange.getResponseHeaders()).thenReturn(responseHeaders);
+        lenient().when(exchange.getResponseBody()).thenReturn(outputStream);
+        responseHandler = new ResponseHandler(exchange);
+    }
+
+    @Test
+    void handleResponse_WithStream_ShouldWriteChunkedJsonArray() throws IOException {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Item> items = Stream.of(new Item("a"), new Item("b")).onClose(() -> closed.set(true));
+
+        // When
+        responseHandler.handleResponse(Response.ok().body(items).build());
+
+        // Then
+        verify(exchange).sendResponseHeaders(HttpStatusCode.OK.getCode(), 0);
+        assertEquals("[{\"name\":\"a\"},{\"name\":\"b\"}]", outputStream.toString());
+        assertEquals(MediaType.APPLICATION_JSON.getType(), responseHeaders.getFirst("Content-Type"));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void handleResponse_WithEmptyStream_ShouldWriteEmptyArray() {
+        // When
+        responseHandler.handleResponse(Response.ok().body(Stream.empty()).build());
+
+        // Then
+        assertEquals("[]", outputStream.toString());
+    }
+
+    @Test
+    void handleResponse_WithIteratorAsNdjson_ShouldWriteOneValuePerLine() {
+        // Given
+        Iterator<Item> items = List.of(new Item("a"), new Item("b")).iterator();
+
+        // When
+        responseHandler.handleResponse(Response.ok().contentType(MediaType.APPLICATION_NDJSON).body(items).build());
+
+        // Then
+        assertEquals("{\"name\":\"a\"}\n{\"name\":\"b\"}\n", outputStream.toString());
+        assertEquals(MediaType.APPLICATION_NDJSON.getType(), responseHeaders.getFirst("Content-Type"));
+    }
+
+    @Test
+    void handleResponse_WithPublisher_ShouldWriteAllPublishedItems() {
+        // Given
+        SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>();
+        Thread.ofVirtual().start(() -> {
+            // Wait for the subscriber so no item is dropped
+            while (publisher.getNumberOfSubscribers() == 0) {
+                Thread.onSpinWait();
+            }
+            IntStream.range(0, 40).forEach(publisher::submit);
+            publisher.close();
+        });
+
+        // When
+        responseHandler.handleResponse(Response.ok().body(publisher).build());
+
+        // Then
+        String expected = IntStream.range(0, 40).mapToObj(Integer::toString)
+                .reduce((a, b) -> a + "," + b).map(s -> "[" + s + "]").orElseThrow();
+        assertEquals(expected, outputStream.toString());
+    }
+
+    @Test
+    void handleResponse_WithFailingPublisher_ShouldLeaveArrayUnterminated() {
+        // Given
+        Flow.Publisher<Integer> publisher = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            private boolean sent;
+
+            @Override
+            public void request(long n) {
+                if (!sent) {
+                    sent = true;
+                    subscriber.onNext(1);
+                    subscriber.onError(new IllegalStateException("Source failed"));
+                }
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        // When
+        assertDoesNotThrow(() -> responseHandler.handleResponse(Response.ok().body(publisher).build()));
+
+        // Then
+        assertEquals("[1", outputStream.toString());
+    }
+
+    @Test
+    void handleResponse_WithStreamingBody_ShouldLetApplicationWriteBytes() throws IOException {
+        // Given
+        StreamingBody body = out -> {
+            out.write("hello ".getBytes());
+            out.flush();
+            out.write("world".getBytes());
+        };
+
+        // When
+        responseHandler.handleResponse(Response.ok().contentType(MediaType.OCTET_STREAM).body(body).build());
+
+        // Then
+        verify(exchange).sendResponseHeaders(HttpStatusCode.OK.getCode(), 0);
+        assertEquals("hello world", outputStream.toString());
+    }
+
+    @Test
+    void handleResponse_WhenClientDisconnects_ShouldStopProducingAndCloseSource() throws IOException {
+        // Given
+        OutputStream broken = mock(OutputStream.class);
+        doThrow(new IOException("Broken pipe")).when(broken).write(any(byte[].class), anyInt(), anyInt());
+        when(exchange.getResponseBody()).thenReturn(broken);
+        AtomicBoolean closed = new AtomicBoolean();
+        int[] produced = new int[1];
+        Stream<Integer> items = Stream.generate(() -> produced[0]++).limit(1_000_000).onClose(() -> closed.set(true));
+
+        // When
+        assertDoesNotThrow(() -> responseHandler.handleResponse(Response.ok().body(items).build()));
+
+        // Then
+        assertTrue(closed.get());
+        assertTrue(produced[0] < 1_000_000);
+        verify(broken).close();
+    }
+
+    public record Item(String name) {}
+}
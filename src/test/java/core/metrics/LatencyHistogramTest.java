@@ -0,0 +1,61 @@
+package core.metrics;
+
+import io.github.renatompf.ember.core.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void quantiles_WhenEmpty_ShouldReturnZeros() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertArrayEquals(new long[]{0, 0}, histogram.quantiles(0.5, 0.99));
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    void quantiles_ShouldStayWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+
+        long[] values = histogram.quantiles(0.5, 0.9, 0.99, 1.0);
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(500_500), histogram.getSum());
+        long[] expected = {500_000, 900_000, 990_000, 1_000_000};
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue(values[i] >= expected[i], "quantile " + i + " below its value: " + values[i]);
+            assertTrue(values[i] <= expected[i] * 1.07, "quantile " + i + " too imprecise: " + values[i]);
+        }
+    }
+
+    @Test
+    void record_WithExtremeValues_ShouldClampThem() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        long[] values = histogram.quantiles(0.5, 1.0);
+        assertEquals(0, values[0]);
+        assertTrue(values[1] > TimeUnit.MINUTES.toNanos(30));
+        assertEquals(2, histogram.getCount());
+    }
+
+    @Test
+    void record_FromManyThreads_ShouldCountEveryValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> histogram.record(i));
+
+        assertEquals(100_000, histogram.getCount());
+        assertTrue(histogram.quantiles(1.0)[0] >= 99_999);
+    }
+}
@@ -0,0 +1,92 @@
+package core.metrics;
+
+import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.core.metrics.MetricsRegistry;
+import io.github.renatompf.ember.core.metrics.RouteMetrics;
+import io.github.renatompf.ember.core.routing.Router;
+import io.github.renatompf.ember.core.server.Server;
+import io.github.renatompf.ember.core.server.engine.NioServerEngine;
+import io.github.renatompf.ember.enums.HttpMethod;
+import io.github.renatompf.ember.enums.MediaType;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void route_ShouldReturnSameMetricsForSamePattern() {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        RouteMetrics first = registry.route("GET", "/users/:id");
+
+        assertSame(first, registry.route("GET", "/users/:id"));
+        assertNotSame(first, registry.route("POST", "/users/:id"));
+        assertEquals(MetricsRegistry.UNMATCHED, registry.route("GET", null).getRoute());
+        assertEquals("OTHER", registry.route("BREW", null).getMethod());
+    }
+
+    @Test
+    void render_ShouldWritePrometheusTextFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        RouteMetrics route = registry.route("GET", "/users/:id");
+        route.requestStarted();
+        route.requestCompleted(200, 2_000_000, 10, 120);
+        route.requestStarted();
+        route.requestCompleted(404, 1_000_000, 0, 9);
+        registry.gauge("ember_test_gauge", "A test gauge.", () -> 7);
+
+        String text = registry.render();
+
+        assertTrue(text.contains("# TYPE ember_http_requests_total counter\n"));
+        assertTrue(text.contains("ember_http_requests_total{method=\"GET\",route=\"/users/:id\",status=\"200\"} 1\n"));
+        assertTrue(text.contains("ember_http_requests_total{method=\"GET\",route=\"/users/:id\",status=\"404\"} 1\n"));
+        assertTrue(text.contains("ember_http_request_duration_seconds_count{method=\"GET\",route=\"/users/:id\"} 2\n"));
+        assertTrue(text.contains("ember_http_request_duration_seconds_sum{method=\"GET\",route=\"/users/:id\"} 0.003\n"));
+        assertTrue(text.contains("ember_http_request_duration_seconds{method=\"GET\",route=\"/users/:id\",quantile=\"0.99\"} "));
+        assertTrue(text.contains("ember_http_requests_in_flight{method=\"GET\",route=\"/users/:id\"} 0\n"));
+        assertTrue(text.contains("ember_http_request_bytes_total{method=\"GET\",route=\"/users/:id\"} 10\n"));
+        assertTrue(text.contains("ember_http_response_bytes_total{method=\"GET\",route=\"/users/:id\"} 129\n"));
+        assertTrue(text.contains("# TYPE ember_test_gauge gauge\nember_test_gauge 7\n"));
+    }
+
+    @Test
+    void server_ShouldRecordRequestsByRoutePattern() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        Router router = new Router();
+        router.register(HttpMethod.GET, "/users/:id", ctx -> ctx.response().handleResponse(
+                Response.ok().contentType(MediaType.TEXT_PLAIN).body("user").build()));
+        router.register(HttpMethod.GET, "/metrics", registry.handler());
+        NioServerEngine engine = NioServerEngine.builder().selectorThreads(1).build();
+        Server server = new Server(router, List.of(), engine);
+        server.setMetrics(registry);
+        server.start(0);
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://127.0.0.1:" + engine.getLocalAddress().getPort();
+            client.send(HttpRequest.newBuilder(URI.create(base + "/users/1")).build(), HttpResponse.BodyHandlers.discarding());
+            client.send(HttpRequest.newBuilder(URI.create(base + "/users/2")).build(), HttpResponse.BodyHandlers.discarding());
+            client.send(HttpRequest.newBuilder(URI.create(base + "/missing")).build(), HttpResponse.BodyHandlers.discarding());
+
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains(
+                    "ember_http_requests_total{method=\"GET\",route=\"/users/:id\",status=\"200\"} 2\n"));
+            assertTrue(response.body().contains(
+                    "ember_http_requests_total{method=\"GET\",route=\"unmatched\",status=\"404\"} 1\n"));
+            assertTrue(response.body().contains(
+                    "ember_http_response_bytes_total{method=\"GET\",route=\"/users/:id\"} 8\n"));
+            assertTrue(response.body().contains("ember_executor_rejected_total 0\n"));
+        } finally {
+            server.stop();
+        }
+    }
+}
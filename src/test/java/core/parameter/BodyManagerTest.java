@@ -7,6 +7,13 @@ import io.github.renatompf.ember.enums.MediaType;
 import io.github.renatompf.ember.exceptions.HttpException;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class BodyManagerTest {
@@ -123,4 +130,118 @@ public class BodyManagerTest {
         assertTrue(exception.getMessage().contains("Failed to parse request body"));
     }
 
+    @Test
+    void parseBodyAs_WithStreamBody_ShouldParseFromStream() {
+        // Arrange
+        InputStream stream = new ByteArrayInputStream("{\"name\":\"Eve\",\"age\":22}".getBytes(StandardCharsets.UTF_8));
+        BodyManager bodyManager = new BodyManager(stream, MediaType.APPLICATION_JSON.getType());
+
+        // Act
+        TestData result = bodyManager.parseBodyAs(TestData.class);
+
+        // Assert
+        assertEquals("Eve", result.getName());
+        assertEquals(22, result.getAge());
+    }
+
+    @Test
+    void bytes_ShouldPreserveNewlinesAndBeReusable() {
+        // Arrange
+        String content = "line1\nline2\n";
+        BodyManager bodyManager = new BodyManager(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), MediaType.TEXT_PLAIN.getType());
+
+        // Act
+        byte[] first = bodyManager.bytes();
+        byte[] second = bodyManager.bytes();
+
+        // Assert
+        assertEquals(content, new String(first, StandardCharsets.UTF_8));
+        assertSame(first, second);
+        assertEquals(content, bodyManager.asString());
+    }
+
+    @Test
+    void bytes_WhenBodyExceedsLimit_ShouldThrowPayloadTooLarge() {
+        // Arrange
+        BodyManager bodyManager = new BodyManager(new ByteArrayInputStream(new byte[16]), MediaType.OCTET_STREAM.getType(), 8);
+
+        // Act & Assert
+        HttpException exception = assertThrows(HttpException.class, bodyManager::bytes);
+        assertEquals(HttpStatusCode.PAYLOAD_TOO_LARGE, exception.getStatus());
+    }
+
+    @Test
+    void stream_WhenAlreadyConsumed_ShouldThrowIllegalState() throws Exception {
+        // Arrange
+        BodyManager bodyManager = new BodyManager(new ByteArrayInputStream(new byte[]{1, 2, 3}), MediaType.OCTET_STREAM.getType());
+
+        // Act
+        try (ReadableByteChannel channel = bodyManager.channel()) {
+            assertEquals(3, channel.read(ByteBuffer.allocate(8)));
+        }
+
+        // Assert
+        assertThrows(IllegalStateException.class, bodyManager::stream);
+    }
+
+    @Test
+    void parseBodyAs_WithStreamBody_ShouldParseAgainIntoSameType() {
+        // Arrange
+        InputStream stream = new ByteArrayInputStream("{\"name\":\"Eve\",\"age\":22}".getBytes(StandardCharsets.UTF_8));
+        BodyManager bodyManager = new BodyManager(stream, MediaType.APPLICATION_JSON.getType());
+
+        // Act
+        TestData first = bodyManager.parseBodyAs(TestData.class);
+        TestData second = bodyManager.parseBodyAs(TestData.class);
+
+        // Assert
+        assertEquals("Eve", first.getName());
+        assertSame(first, second);
+    }
+
+    @Test
+    void parseBodyAs_WhenBodyExceedsBufferingLimit_ShouldParseWhileStreaming() {
+        // Arrange
+        String json = "{\"name\":\"" + "a".repeat(64) + "\",\"age\":22}   ";
+        ByteArrayInputStream stream = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        BodyManager bodyManager = new BodyManager(stream, MediaType.APPLICATION_JSON.getType(), 16);
+
+        // Act
+        TestData result = bodyManager.parseBodyAs(TestData.class);
+
+        // Assert
+        assertEquals(64, result.getName().length());
+        assertEquals(0, stream.available());
+    }
+
+    @Test
+    void parseBodyAs_WhenBodyIsMalformed_ShouldNotReadRestOfBody() {
+        // Arrange
+        String json = "{\"name\":}" + " ".repeat(64 * 1024);
+        ByteArrayInputStream stream = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        BodyManager bodyManager = new BodyManager(stream, MediaType.APPLICATION_JSON.getType(), 16);
+
+        // Act & Assert
+        HttpException exception = assertThrows(HttpException.class, () -> bodyManager.parseBodyAs(TestData.class));
+        assertEquals(HttpStatusCode.BAD_REQUEST, exception.getStatus());
+        assertTrue(stream.available() > 0);
+    }
+
+    @Test
+    void parseBodyAs_WhenBufferedFirst_ShouldParseIntoOtherTypes() {
+        // Arrange
+        InputStream stream = new ByteArrayInputStream("{\"name\":\"Eve\",\"age\":22}".getBytes(StandardCharsets.UTF_8));
+        BodyManager bodyManager = new BodyManager(stream, MediaType.APPLICATION_JSON.getType());
+
+        // Act
+        bodyManager.bytes();
+        TestData data = bodyManager.parseBodyAs(TestData.class);
+        Map<?, ?> map = bodyManager.parseBodyAs(Map.class);
+
+        // Assert
+        assertEquals("Eve", data.getName());
+        assertEquals("Eve", map.get("name"));
+    }
+
 }
@@ -18,6 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.lang.reflect.Parameter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,7 +42,6 @@ class ParameterResolverTest {
     private BodyManager bodyManager;
     
     private Map<String, String> pathParams;
-    private Map<String, String> queryParams;
     
     @BeforeEach
     void setUp() {
@@ -54,9 +54,9 @@ class ParameterResolverTest {
         lenient().when(context.pathParams()).thenReturn(pathParamManager);
         
         // Setup query parameters
-        queryParams = new HashMap<>();
-        queryParams.put("name", "testName");
-        lenient().when(queryParamManager.queryParams()).thenReturn(queryParams);
+        lenient().when(queryParamManager.queryParam("name")).thenReturn("testName");
+        lenient().when(queryParamManager.queryParamValues("id")).thenReturn(List.of("1", "2"));
+        lenient().when(queryParamManager.queryParamValues("nonexistent")).thenReturn(List.of());
         lenient().when(context.queryParams()).thenReturn(queryParamManager);
         
         // Setup body manager
@@ -161,4 +161,43 @@ class ParameterResolverTest {
         );
     }
 
-}
\ No newline at end of file
+    @Test
+    void resolveQueryParameter_WhenList_ShouldResolveEveryValue() throws NoSuchMethodException {
+        // Arrange
+        Parameter parameter = TestController.class.getMethod("queryParamListMethod", List.class)
+                .getParameters()[0];
+
+        // Act
+        Object result = resolver.resolveParameter(parameter, context);
+
+        // Assert
+        assertEquals(List.of(1, 2), result);
+    }
+
+    @Test
+    void resolveQueryParameter_WhenArray_ShouldResolveEveryValue() throws NoSuchMethodException {
+        // Arrange
+        Parameter parameter = TestController.class.getMethod("queryParamArrayMethod", long[].class)
+                .getParameters()[0];
+
+        // Act
+        Object result = resolver.resolveParameter(parameter, context);
+
+        // Assert
+        assertArrayEquals(new long[]{1, 2}, (long[]) result);
+    }
+
+    @Test
+    void resolveQueryParameter_WhenListNotFound_ShouldReturnEmptyList() throws NoSuchMethodException {
+        // Arrange
+        Parameter parameter = TestController.class.getMethod("missingQueryParamListMethod", List.class)
+                .getParameters()[0];
+
+        // Act
+        Object result = resolver.resolveParameter(parameter, context);
+
+        // Assert
+        assertEquals(List.of(), result);
+    }
+
+}
@@ -3,6 +3,7 @@ package core.parameter;
 import io.github.renatompf.ember.core.parameter.QueryParameterManager;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -148,4 +149,35 @@ class QueryParameterManagerTest {
         // Assert
         assertEquals("hello world", manager.queryParam("key"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void queryParamValues_WithRepeatedParameter_ShouldReturnAllValuesInOrder() {
+        // Arrange & Act
+        QueryParameterManager manager = new QueryParameterManager("tag=a&other=x&tag=b%20c&tag");
+
+        // Assert
+        assertEquals(List.of("a", "b c", ""), manager.queryParamValues("tag"));
+        assertEquals(List.of("x"), manager.queryParamValues("other"));
+        assertEquals(List.of(), manager.queryParamValues("missing"));
+    }
+
+    @Test
+    void queryParam_WithEncodedKey_ShouldMatchDecodedName() {
+        // Arrange & Act
+        QueryParameterManager manager = new QueryParameterManager("first%20name=Ada&filter%5Bage%5D=30");
+
+        // Assert
+        assertEquals("Ada", manager.queryParam("first name"));
+        assertEquals(List.of("30"), manager.queryParamValues("filter[age]"));
+        assertNull(manager.queryParam("first%20name"));
+    }
+
+    @Test
+    void parseQueryParams_WithEmptyPairs_ShouldSkipThem() {
+        // Arrange & Act
+        QueryParameterManager manager = new QueryParameterManager("&a=1&&b=&");
+
+        // Assert
+        assertEquals(Map.of("a", "1", "b", ""), manager.queryParams());
+    }
+}
@@ -8,6 +8,8 @@ import io.github.renatompf.ember.annotations.parameters.RequestBody;
 import io.github.renatompf.ember.core.server.Context;
 import io.github.renatompf.ember.enums.MediaType;
 
+import java.util.List;
+
 // Test class with annotated methods for testing
 public class TestController {
     @Consumes(MediaType.APPLICATION_JSON)
@@ -37,4 +39,10 @@ public class TestController {
     public void missingPathParamMethod(@PathParameter("nonexistent") Integer id) {}
 
     public void missingQueryParamMethod(@QueryParameter("nonexistent") String name) {}
+
+    public void queryParamListMethod(@QueryParameter("id") List<Integer> ids) {}
+
+    public void queryParamArrayMethod(@QueryParameter("id") long[] ids) {}
+
+    public void missingQueryParamListMethod(@QueryParameter("nonexistent") List<String> names) {}
 }
\ No newline at end of file
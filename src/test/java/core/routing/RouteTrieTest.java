@@ -0,0 +1,132 @@
+package core.routing;
+
+import io.github.renatompf.ember.core.routing.RouteEntry;
+import io.github.renatompf.ember.core.routing.RouteMatchResult;
+import io.github.renatompf.ember.core.routing.RouteTrie;
+import io.github.renatompf.ember.core.server.MiddlewareChain;
+import io.github.renatompf.ember.enums.HttpMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteTrieTest {
+
+    private RouteTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new RouteTrie();
+    }
+
+    private MiddlewareChain insert(HttpMethod method, String path) {
+        MiddlewareChain chain = new MiddlewareChain(List.of(), context -> {});
+        trie.insert(new RouteEntry(method, path, chain));
+        return chain;
+    }
+
+    @Test
+    void find_ShouldMatchRootPath() {
+        MiddlewareChain chain = insert(HttpMethod.GET, "/");
+
+        RouteMatchResult result = trie.find(HttpMethod.GET, "/");
+
+        assertNotNull(result);
+        assertSame(chain, result.middlewareChain());
+        assertNull(trie.find(HttpMethod.GET, "/something"));
+    }
+
+    @Test
+    void find_ShouldIndexRoutesByMethod() {
+        MiddlewareChain get = insert(HttpMethod.GET, "/items");
+        MiddlewareChain post = insert(HttpMethod.POST, "/items");
+
+        assertSame(get, trie.find(HttpMethod.GET, "/items").middlewareChain());
+        assertSame(post, trie.find(HttpMethod.POST, "/items").middlewareChain());
+        assertNull(trie.find(HttpMethod.DELETE, "/items"));
+    }
+
+    @Test
+    void find_ShouldPreferStaticOverParameterSegments() {
+        MiddlewareChain param = insert(HttpMethod.GET, "/users/:id");
+        MiddlewareChain exact = insert(HttpMethod.GET, "/users/profile");
+
+        assertSame(exact, trie.find(HttpMethod.GET, "/users/profile").middlewareChain());
+        assertSame(param, trie.find(HttpMethod.GET, "/users/42").middlewareChain());
+    }
+
+    @Test
+    void find_ShouldBacktrackWhenStaticBranchDoesNotMatch() {
+        insert(HttpMethod.GET, "/users/profile/settings");
+        MiddlewareChain param = insert(HttpMethod.GET, "/users/:id/posts");
+
+        RouteMatchResult result = trie.find(HttpMethod.GET, "/users/profile/posts");
+
+        assertNotNull(result);
+        assertSame(param, result.middlewareChain());
+        assertEquals(Map.of("id", "profile"), result.parameters());
+    }
+
+    @Test
+    void find_ShouldBindParameterNamesPerRoute() {
+        insert(HttpMethod.GET, "/users/:id");
+        insert(HttpMethod.GET, "/users/:userId/posts/:postId");
+
+        assertEquals(Map.of("id", "7"), trie.find(HttpMethod.GET, "/users/7").parameters());
+        assertEquals(Map.of("userId", "7", "postId", "9"),
+                trie.find(HttpMethod.GET, "/users/7/posts/9").parameters());
+    }
+
+    @Test
+    void find_ShouldMatchOptionalParameterWhenOmitted() {
+        insert(HttpMethod.GET, "/users/:id?");
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("id", null);
+
+        assertEquals(Map.of("id", "1"), trie.find(HttpMethod.GET, "/users/1").parameters());
+        assertEquals(expected, trie.find(HttpMethod.GET, "/users/").parameters());
+        assertEquals(expected, trie.find(HttpMethod.GET, "/users").parameters());
+    }
+
+    @Test
+    void find_ShouldCaptureRemainingSegmentsForWildcard() {
+        insert(HttpMethod.GET, "/files/*path");
+
+        assertEquals(Map.of("*", "a/b/c.txt"), trie.find(HttpMethod.GET, "/files/a/b/c.txt").parameters());
+        assertEquals(Map.of("*", ""), trie.find(HttpMethod.GET, "/files/").parameters());
+        assertNull(trie.find(HttpMethod.GET, "/files"));
+    }
+
+    @Test
+    void find_ShouldMatchSegmentsAfterWildcard() {
+        insert(HttpMethod.GET, "/repo/*path/raw");
+
+        RouteMatchResult result = trie.find(HttpMethod.GET, "/repo/src/main/raw");
+
+        assertNotNull(result);
+        assertEquals(Map.of("*", "src/main"), result.parameters());
+    }
+
+    @Test
+    void find_ShouldNotMatchEmptySegmentForRequiredParameter() {
+        insert(HttpMethod.GET, "/users/:id");
+
+        assertNull(trie.find(HttpMethod.GET, "/users/"));
+        assertNull(trie.find(HttpMethod.GET, "/users/1/extra"));
+    }
+
+    @Test
+    void insert_ShouldKeepFirstRegistrationForDuplicateRoutes() {
+        MiddlewareChain first = insert(HttpMethod.GET, "/dup");
+
+        boolean inserted = trie.insert(new RouteEntry(HttpMethod.GET, "/dup", new MiddlewareChain(List.of(), context -> {})));
+
+        assertFalse(inserted);
+        assertSame(first, trie.find(HttpMethod.GET, "/dup").middlewareChain());
+    }
+}
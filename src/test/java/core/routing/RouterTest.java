@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +44,22 @@ class RouterTest {
         assertEquals(Map.of(), result.parameters());
     }
 
+    @Test
+    void register_WithTimeout_ShouldReturnTimeoutWithMatch() {
+        // Given
+        Duration timeout = Duration.ofMillis(250);
+
+        // When
+        router.register(HttpMethod.GET, "/users/:id", context -> {}, "io", timeout);
+
+        // Then
+        RouteMatchResult result = router.getRoute(HttpMethod.GET, "/users/42");
+        assertNotNull(result);
+        assertEquals(timeout, result.timeout());
+        assertEquals("io", result.executor());
+        assertEquals(Map.of("id", "42"), result.parameters());
+    }
+
     @Test
     void register_ShouldAddRouteWithMiddlewareChain() {
         // Given
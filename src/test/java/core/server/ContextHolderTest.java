@@ -101,6 +101,40 @@ class ContextHolderTest {
                 "Original thread's context should remain unchanged");
     }
 
+    @Test
+    void callWith_ShouldBindContextOnlyForTheOperation() throws Exception {
+        // Act
+        Context bound = ContextHolder.callWith(mockContext, ContextHolder::context);
+
+        // Assert
+        assertSame(mockContext, bound);
+        assertNull(ContextHolder.context());
+    }
+
+    @Test
+    void callWith_WhenNested_ShouldRestoreOuterContext() throws Exception {
+        // Act
+        ContextHolder.callWith(mockContext, () -> {
+            assertSame(anotherMockContext, ContextHolder.callWith(anotherMockContext, ContextHolder::context));
+            assertSame(mockContext, ContextHolder.context());
+            return null;
+        });
+
+        // Assert
+        assertNull(ContextHolder.context());
+    }
+
+    @Test
+    void callWith_WhenOperationFails_ShouldStillClearContext() {
+        // Act
+        assertThrows(IllegalStateException.class, () -> ContextHolder.callWith(mockContext, () -> {
+            throw new IllegalStateException("Handler failed");
+        }));
+
+        // Assert
+        assertNull(ContextHolder.context());
+    }
+
     @Test
     void constructor_ShouldBeCreatable() {
         // Act
@@ -0,0 +1,81 @@
+package core.server;
+
+import io.github.renatompf.ember.core.http.SerializerRegistry;
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.core.server.ContextPool;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.URI;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContextPoolTest {
+
+    @Mock
+    private ServerExchange exchange;
+
+    @Test
+    void acquire_ShouldReuseReleasedContext() {
+        // Given
+        ContextPool pool = new ContextPool(4, 0);
+        Context first = pool.acquire(exchange, "a=1", "application/json", SerializerRegistry.defaults());
+        first.setPathParams(Map.of("id", "1"));
+        pool.release(first);
+
+        // When
+        Context second = pool.acquire(exchange, "b=2", "application/json", SerializerRegistry.defaults());
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, pool.getCreated());
+        assertEquals("2", second.queryParams().queryParam("b"));
+        assertNull(second.queryParams().queryParam("a"));
+        assertTrue(second.pathParams().pathParams().isEmpty());
+        assertNull(second.getRoute());
+    }
+
+    @Test
+    void release_ShouldDropContextsBeyondCapacity() {
+        // Given
+        ContextPool pool = new ContextPool(1, 0);
+        Context first = pool.acquire(exchange, null, "text/plain", SerializerRegistry.defaults());
+        Context second = pool.acquire(exchange, null, "text/plain", SerializerRegistry.defaults());
+
+        // When
+        pool.release(first);
+        pool.release(second);
+
+        // Then
+        assertEquals(1, pool.getIdle());
+        assertEquals(2, pool.getCreated());
+    }
+
+    @Test
+    void release_ShouldRetireContextsToDetectLeaks() throws Exception {
+        // Given
+        ContextPool pool = new ContextPool(4, 1);
+        when(exchange.getRequestMethod()).thenReturn("GET");
+        when(exchange.getRequestURI()).thenReturn(new URI("/users/1"));
+        Context leaked = pool.acquire(exchange, null, "text/plain", SerializerRegistry.defaults());
+
+        // When
+        pool.release(leaked);
+
+        // Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class, leaked::headers);
+        assertTrue(exception.getMessage().contains("GET /users/1"));
+        assertThrows(IllegalStateException.class, leaked::getRoute);
+        assertThrows(IllegalStateException.class, leaked::getDeadline);
+        assertThrows(IllegalStateException.class, leaked::getTrace);
+        assertEquals(1, pool.getRetired());
+        assertEquals(0, pool.getIdle());
+        assertNotSame(leaked, pool.acquire(exchange, null, "text/plain", SerializerRegistry.defaults()));
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,6 +52,14 @@ class ContextTest {
         context = new Context(exchange, query, body, contentType, pathParams);
     }
 
+    @Test
+    void constructor_ShouldNotTouchExchangeUntilManagersAreUsed() {
+        // Assert
+        verifyNoInteractions(exchange);
+        assertSame(context.headers(), context.headers());
+        assertSame(context.response(), context.response());
+    }
+
     @Test
     void constructor_ShouldInitializeAllManagers() {
         // Assert
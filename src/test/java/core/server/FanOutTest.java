@@ -0,0 +1,150 @@
+package core.server;
+
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.core.server.ContextHolder;
+import io.github.renatompf.ember.core.server.FanOut;
+import io.github.renatompf.ember.core.server.engine.ServerExchange;
+import io.github.renatompf.ember.enums.HttpStatusCode;
+import io.github.renatompf.ember.exceptions.HttpException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FanOutTest {
+
+    @Mock
+    private ServerExchange exchange;
+
+    private Context context;
+
+    @BeforeEach
+    void setUp() {
+        context = new Context(exchange, null, null, Map.of());
+    }
+
+    @Test
+    void join_ShouldCollectResultsAndPropagateContext() throws Exception {
+        try (FanOut fanOut = context.fanOut()) {
+            FanOut.Subtask<Context> first = fanOut.fork(ContextHolder::context);
+            FanOut.Subtask<Integer> second = fanOut.fork(() -> 42);
+
+            fanOut.join();
+
+            assertSame(context, first.get());
+            assertEquals(42, second.get());
+            assertEquals(FanOut.Subtask.State.SUCCESS, second.state());
+        }
+        assertNull(ContextHolder.context());
+    }
+
+    @Test
+    void join_ShouldThrowFirstFailureAndCancelSiblings() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("Backend failed");
+
+        FanOut.Subtask<Object> slow;
+        try (FanOut fanOut = context.fanOut()) {
+            slow = fanOut.fork(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    throw e;
+                }
+                return null;
+            });
+            fanOut.fork(() -> {
+                started.await();
+                throw failure;
+            });
+
+            Exception thrown = assertThrows(Exception.class, fanOut::join);
+            assertSame(failure, thrown);
+        }
+
+        // Closing the scope waited for the cancelled subtask
+        assertTrue(interrupted.get());
+        assertEquals(FanOut.Subtask.State.FAILED, slow.state());
+        assertThrows(IllegalStateException.class, slow::get);
+    }
+
+    @Test
+    void join_ShouldFailWithGatewayTimeoutAfterDeadline() {
+        try (FanOut fanOut = context.fanOut(Duration.ofMillis(50))) {
+            FanOut.Subtask<Object> slow = fanOut.fork(() -> {
+                Thread.sleep(10_000);
+                return null;
+            });
+
+            HttpException thrown = assertThrows(HttpException.class, fanOut::join);
+            assertEquals(HttpStatusCode.GATEWAY_TIMEOUT, thrown.getStatus());
+            assertNotEquals(FanOut.Subtask.State.SUCCESS, slow.state());
+        }
+    }
+
+    @Test
+    void fanOut_ShouldUseEarlierOfRequestDeadlineAndTimeout() {
+        Instant deadline = Instant.now().plusMillis(100);
+        context.setDeadline(deadline);
+
+        try (FanOut bounded = context.fanOut(Duration.ofMinutes(1))) {
+            assertEquals(deadline, bounded.getDeadline());
+        }
+        try (FanOut request = context.fanOut()) {
+            assertEquals(deadline, request.getDeadline());
+        }
+    }
+
+    @Test
+    void fork_ShouldShareManagersCreatedBySubtasks() throws Exception {
+        when(exchange.getRequestBody()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        int subtasks = 16;
+        CountDownLatch ready = new CountDownLatch(subtasks);
+        List<FanOut.Subtask<List<Object>>> forked = new ArrayList<>();
+
+        try (FanOut fanOut = context.fanOut()) {
+            for (int i = 0; i < subtasks; i++) {
+                forked.add(fanOut.fork(() -> {
+                    ready.countDown();
+                    ready.await();
+                    Context current = ContextHolder.context();
+                    return List.of(current.headers(), current.body());
+                }));
+            }
+            fanOut.join();
+        }
+
+        for (FanOut.Subtask<List<Object>> subtask : forked) {
+            assertSame(context.headers(), subtask.get().get(0));
+            assertSame(context.body(), subtask.get().get(1));
+        }
+        verify(exchange, times(1)).getRequestBody();
+    }
+
+    @Test
+    void fork_ShouldFailAfterClose() {
+        FanOut fanOut = context.fanOut();
+        fanOut.close();
+
+        assertThrows(IllegalStateException.class, () -> fanOut.fork(() -> 1));
+    }
+}
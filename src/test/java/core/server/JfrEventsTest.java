@@ -0,0 +1,188 @@
+package core.server;
+
+import core.di.mock.DependentService;
+import core.di.mock.SimpleService;
+import io.github.renatompf.ember.annotations.parameters.Validated;
+import io.github.renatompf.ember.core.di.ComponentRegistry;
+import io.github.renatompf.ember.core.exception.ExceptionHandlerMethod;
+import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.core.routing.Router;
+import io.github.renatompf.ember.core.server.Context;
+import io.github.renatompf.ember.core.server.Server;
+import io.github.renatompf.ember.core.server.engine.NioServerEngine;
+import io.github.renatompf.ember.core.validation.ValidationManager;
+import io.github.renatompf.ember.enums.HttpMethod;
+import io.github.renatompf.ember.enums.MediaType;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.constraints.NotNull;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JfrEventsTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void server_ShouldRecordRequestAndRouteMissEvents() throws Exception {
+        Router router = new Router();
+        router.register(HttpMethod.GET, "/users/:id", ctx -> ctx.response().handleResponse(
+                Response.ok().contentType(MediaType.TEXT_PLAIN).body("user").build()));
+        NioServerEngine engine = NioServerEngine.builder().selectorThreads(1).build();
+        Server server = new Server(router, List.of(), engine);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("ember.Request");
+            recording.enable("ember.RouteMiss");
+            recording.start();
+            server.start(0);
+            try {
+                HttpClient client = HttpClient.newHttpClient();
+                String base = "http://127.0.0.1:" + engine.getLocalAddress().getPort();
+                client.send(HttpRequest.newBuilder(URI.create(base + "/users/1")).build(), HttpResponse.BodyHandlers.discarding());
+                client.send(HttpRequest.newBuilder(URI.create(base + "/missing")).build(), HttpResponse.BodyHandlers.discarding());
+            } finally {
+                server.stop();
+            }
+            recording.stop();
+            events = dump(recording);
+        }
+
+        RecordedEvent matched = find(events, "ember.Request", "path", "/users/1");
+        assertEquals("GET", matched.getString("method"));
+        assertEquals("/users/:id", matched.getString("route"));
+        assertEquals(200, matched.getInt("status"));
+        assertEquals(4, matched.getLong("responseBytes"));
+
+        RecordedEvent unmatched = find(events, "ember.Request", "path", "/missing");
+        assertNull(unmatched.getString("route"));
+        assertEquals(404, unmatched.getInt("status"));
+
+        RecordedEvent miss = find(events, "ember.RouteMiss", "path", "/missing");
+        assertEquals("GET", miss.getString("method"));
+    }
+
+    @Test
+    void componentRegistry_ShouldRecordComponentCreationEvents() throws Exception {
+        ComponentRegistry registry = new ComponentRegistry();
+        registry.register(SimpleService.class);
+        registry.register(DependentService.class);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("ember.ComponentCreation");
+            recording.start();
+            registry.resolve(DependentService.class);
+            recording.stop();
+            events = dump(recording);
+        }
+
+        List<String> components = events.stream()
+                .filter(event -> event.getEventType().getName().equals("ember.ComponentCreation"))
+                .map(event -> event.getClass("component").getName())
+                .toList();
+        assertTrue(components.contains(SimpleService.class.getName()));
+        assertTrue(components.contains(DependentService.class.getName()));
+    }
+
+    @Test
+    void exceptionHandler_ShouldRecordDispatchEvent() throws Exception {
+        Method method = TestHandler.class.getMethod("handle", IllegalStateException.class);
+        ExceptionHandlerMethod handlerMethod = new ExceptionHandlerMethod(new TestHandler(), method);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("ember.ExceptionHandlerDispatch");
+            recording.start();
+            handlerMethod.invoke(new IllegalStateException("boom"), mock(Context.class));
+            recording.stop();
+            events = dump(recording);
+        }
+
+        RecordedEvent event = find(events, "ember.ExceptionHandlerDispatch", "handlerMethod", "handle");
+        assertEquals(IllegalStateException.class.getName(), event.getClass("exception").getName());
+        assertEquals(TestHandler.class.getName(), event.getClass("handler").getName());
+        assertFalse(event.getBoolean("failed"));
+    }
+
+    @Test
+    void validationManager_ShouldRecordFailureEvent() throws Exception {
+        ValidationManager validationManager = new ValidationManager();
+        Method method = TestController.class.getMethod("create", TestBody.class);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("ember.ValidationFailure");
+            recording.start();
+            assertThrows(ConstraintViolationException.class, () -> validationManager.validateMethodParameters(
+                    new TestController(), method, method.getParameters(), new Object[]{new TestBody()}));
+            recording.stop();
+            events = dump(recording);
+        }
+
+        RecordedEvent event = find(events, "ember.ValidationFailure", "method", "create");
+        assertEquals(TestController.class.getName(), event.getClass("controller").getName());
+        assertEquals(1, event.getInt("violations"));
+        assertTrue(event.getString("firstViolation").startsWith("name: "));
+    }
+
+    @Test
+    void events_ShouldNotBeRecordedWhenNotEnabled() throws Exception {
+        Router router = new Router();
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("ember.Request");
+            recording.start();
+            router.getRoute(HttpMethod.GET, "/missing");
+            recording.stop();
+            events = dump(recording);
+        }
+
+        assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().equals("ember.RouteMiss")));
+    }
+
+    private List<RecordedEvent> dump(Recording recording) throws Exception {
+        Path file = directory.resolve("recording-" + recording.getId() + ".jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name, String field, String value) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .filter(event -> value.equals(event.getString(field)))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + name + " event with " + field + "=" + value));
+    }
+
+    public static class TestHandler {
+        public String handle(IllegalStateException exception) {
+            return "handled";
+        }
+    }
+
+    public static class TestController {
+        public void create(@Validated TestBody body) {
+        }
+    }
+
+    public static class TestBody {
+        @NotNull String name;
+    }
+}
@@ -0,0 +1,219 @@
+package core.server;
+
+import io.github.renatompf.ember.core.http.CompressionMiddleware;
+import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.core.routing.Router;
+import io.github.renatompf.ember.core.server.Middleware;
+import io.github.renatompf.ember.core.server.Server;
+import io.github.renatompf.ember.core.server.engine.NioServerEngine;
+import io.github.renatompf.ember.core.server.execution.ExecutionConfig;
+import io.github.renatompf.ember.enums.HttpMethod;
+import io.github.renatompf.ember.enums.HttpStatusCode;
+import io.github.renatompf.ember.enums.MediaType;
+import io.github.renatompf.ember.exceptions.HttpException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimeoutsTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+    private final AtomicReference<Instant> deadline = new AtomicReference<>();
+    private NioServerEngine engine;
+    private Server server;
+
+    private void start(ExecutionConfig config) {
+        start(config, List.of());
+    }
+
+    private void start(ExecutionConfig config, List<Middleware> middleware) {
+        Router router = new Router();
+        router.register(HttpMethod.GET, "/hang", ctx -> {
+            deadline.set(ctx.getDeadline());
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        router.register(HttpMethod.GET, "/fast", ctx -> ctx.response().handleResponse(
+                Response.ok().contentType(MediaType.TEXT_PLAIN).body("done").build()));
+        router.register(HttpMethod.GET, "/bounded", ctx -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        }, null, Duration.ofMillis(100));
+
+        engine = NioServerEngine.builder().selectorThreads(1).build();
+        server = new Server(router, middleware, engine, config);
+        server.start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private HttpRequest request(String path, String timeoutHeader) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + engine.getLocalAddress().getPort() + path)).GET();
+        if (timeoutHeader != null) {
+            request.header("X-Request-Timeout", timeoutHeader);
+        }
+        return request.build();
+    }
+
+    private String exchangeRaw(String request) throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", engine.getLocalAddress().getPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.ISO_8859_1));
+            socket.getOutputStream().flush();
+            return new String(socket.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private HttpResponse<String> get(String path, String timeoutHeader) throws Exception {
+        return client.send(request(path, timeoutHeader), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void handle_WhenHandlerExceedsDefaultTimeout_ShouldAnswer504AndInterruptHandler() throws Exception {
+        start(ExecutionConfig.builder().requestTimeout(Duration.ofMillis(200)).build());
+
+        HttpResponse<String> response = get("/hang", null);
+
+        assertEquals(504, response.statusCode());
+        assertTrue(response.body().contains("Request timed out"));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertNotNull(deadline.get());
+        assertEquals(1, server.getRequestTimeouts().getTimedOutTotal());
+        assertEquals(0, server.getRequestTimeouts().getExpiredInQueueTotal());
+    }
+
+    @Test
+    void handle_WhenHandlerExceedsTimeout_ShouldAnswerThroughDecoratedExchange() throws Exception {
+        start(ExecutionConfig.builder().requestTimeout(Duration.ofMillis(200)).build(),
+                List.of(CompressionMiddleware.builder().minSize(1).build()));
+
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(
+                        URI.create("http://127.0.0.1:" + engine.getLocalAddress().getPort() + "/hang"))
+                .header("Accept-Encoding", "gzip").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(504, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+    }
+
+    @Test
+    void handle_WhenMiddlewareFailsAtDeadline_ShouldAnswerOnce() throws Exception {
+        Middleware failAtDeadline = ctx -> {
+            // Races the timer answering the request
+            while (Instant.now().isBefore(ctx.getDeadline())) {
+                Thread.onSpinWait();
+            }
+            throw new HttpException(HttpStatusCode.BAD_REQUEST, "Failed at the deadline");
+        };
+        start(ExecutionConfig.builder().requestTimeout(Duration.ofMillis(20)).build(), List.of(failAtDeadline));
+
+        for (int i = 0; i < 20; i++) {
+            String response = exchangeRaw("GET /fast HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+
+            assertTrue(response.startsWith("HTTP/1.1 504 ") || response.startsWith("HTTP/1.1 400 "), response);
+            assertEquals(1, response.split("HTTP/1\\.1 ", -1).length - 1, response);
+        }
+    }
+
+    @Test
+    void handle_WhenMiddlewareFails_ShouldAnswerThroughDecoratedExchange() throws Exception {
+        Middleware failing = ctx -> {
+            throw new HttpException(HttpStatusCode.BAD_REQUEST, "Invalid request");
+        };
+        start(ExecutionConfig.builder().requestTimeout(Duration.ofSeconds(5)).build(),
+                List.of(CompressionMiddleware.builder().minSize(1).build(), failing));
+
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(
+                        URI.create("http://127.0.0.1:" + engine.getLocalAddress().getPort() + "/fast"))
+                .header("Accept-Encoding", "gzip").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(400, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        String body = new String(new GZIPInputStream(new ByteArrayInputStream(response.body())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertTrue(body.contains("Invalid request"), body);
+    }
+
+    @Test
+    void handle_WithTimeoutHeader_ShouldShortenDeadline() throws Exception {
+        start(ExecutionConfig.builder().requestTimeout(Duration.ofSeconds(30)).build());
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = get("/hang", "100");
+
+        assertEquals(504, response.statusCode());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void handle_WithRouteTimeout_ShouldEnforceItWithoutDefault() throws Exception {
+        start(ExecutionConfig.defaults());
+
+        HttpResponse<String> response = get("/bounded", null);
+
+        assertEquals(504, response.statusCode());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestTimeouts().getTimedOutTotal());
+    }
+
+    @Test
+    void handle_WhenHandlerCompletesInTime_ShouldKeepItsResponse() throws Exception {
+        start(ExecutionConfig.builder().requestTimeout(Duration.ofSeconds(5)).build());
+
+        HttpResponse<String> response = get("/fast", null);
+        HttpResponse<String> second = get("/fast", null);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("done", response.body());
+        assertEquals(200, second.statusCode());
+        assertEquals(0, server.getRequestTimeouts().getTimedOutTotal());
+    }
+
+    @Test
+    void handle_WhenDeadlinePassesWhileQueued_ShouldAnswer503() throws Exception {
+        start(ExecutionConfig.builder().maxConcurrentRequests(1).maxQueuedRequests(1).build());
+
+        CompletableFuture<HttpResponse<String>> hanging =
+                client.sendAsync(request("/hang", "2000"), HttpResponse.BodyHandlers.ofString());
+        long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (deadline.get() == null && System.nanoTime() < waitUntil) {
+            Thread.sleep(10);
+        }
+
+        HttpResponse<String> queued = get("/fast", "100");
+
+        assertEquals(503, queued.statusCode());
+        assertEquals(1, server.getRequestTimeouts().getExpiredInQueueTotal());
+        assertEquals(504, hanging.get(5, TimeUnit.SECONDS).statusCode());
+    }
+}
@@ -21,7 +21,6 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -126,7 +125,6 @@ class ServerTest {
 
         when(exchange.getRequestMethod()).thenReturn("GET");
         when(exchange.getRequestURI()).thenReturn(new URI("http://localhost:8080/test"));
-        when(exchange.getRequestBody()).thenReturn(new ByteArrayInputStream(new byte[0]));
         when(exchange.getResponseBody()).thenReturn(mock(OutputStream.class));
         when(exchange.getRequestHeaders()).thenReturn(requestHeaders);
         when(exchange.getResponseHeaders()).thenReturn(responseHeaders);
@@ -157,7 +155,6 @@ class ServerTest {
 
         when(exchange.getRequestMethod()).thenReturn("GET");
         when(exchange.getRequestURI()).thenReturn(new URI("http://localhost:8080/test"));
-        when(exchange.getRequestBody()).thenReturn(new ByteArrayInputStream(new byte[0]));
         when(exchange.getResponseBody()).thenReturn(mock(OutputStream.class));
         when(exchange.getRequestHeaders()).thenReturn(requestHeaders);
         when(exchange.getResponseHeaders()).thenReturn(responseHeaders);
@@ -179,7 +176,6 @@ class ServerTest {
         when(exchange.getResponseBody()).thenReturn(responseBody);
         when(exchange.getRequestHeaders()).thenReturn(new Headers());
         when(exchange.getResponseHeaders()).thenReturn(new Headers());
-        when(exchange.getRequestBody()).thenReturn(new ByteArrayInputStream(new byte[0]));
 
         HttpException expectedException = new HttpException(HttpStatusCode.BAD_REQUEST, "Bad Request");
         when(router.getRoute(any(HttpMethod.class), anyString()))
@@ -207,7 +203,6 @@ class ServerTest {
         when(exchange.getResponseBody()).thenReturn(responseBody);
         when(exchange.getRequestHeaders()).thenReturn(new Headers());
         when(exchange.getResponseHeaders()).thenReturn(new Headers());
-        when(exchange.getRequestBody()).thenReturn(new ByteArrayInputStream(new byte[0]));
 
         RuntimeException unexpectedException = new RuntimeException("Unexpected error");
         when(router.getRoute(any(HttpMethod.class), anyString()))
@@ -296,7 +291,6 @@ class ServerTest {
 
         when(exchange.getRequestMethod()).thenReturn("GET");
         when(exchange.getRequestURI()).thenReturn(new URI("http://localhost:8080/test"));
-        when(exchange.getRequestBody()).thenReturn(new ByteArrayInputStream(new byte[0]));
         when(exchange.getRequestHeaders()).thenReturn(requestHeaders);
         when(exchange.getResponseBody()).thenReturn(mock(OutputStream.class));
 
@@ -309,6 +303,37 @@ class ServerTest {
         inOrder.verify(routeMiddleware).handle(any(Context.class));
     }
 
+    @Test
+    void start_ShouldBindContextForHandlerAndClearItAfterwards() throws Exception {
+        // Given
+        server = new Server(router, List.of());
+        Context[] handled = new Context[1];
+        Context[] bound = new Context[1];
+        MiddlewareChain middlewareChain = new MiddlewareChain(List.of(), ctx -> {
+            handled[0] = ctx;
+            bound[0] = ContextHolder.context();
+            ctx.response().handleResponse(Response.ok().build());
+        });
+        when(router.getRoute(eq(HttpMethod.GET), eq("/test"))).thenReturn(new RouteMatchResult(middlewareChain, Map.of()));
+
+        server.start(8080);
+        verify(httpServer).createContext(eq("/"), handlerCaptor.capture());
+        HttpExchange exchange = mock(HttpExchange.class);
+        when(exchange.getRequestMethod()).thenReturn("GET");
+        when(exchange.getRequestURI()).thenReturn(new URI("http://localhost:8080/test"));
+        when(exchange.getRequestHeaders()).thenReturn(new Headers());
+        when(exchange.getResponseBody()).thenReturn(mock(OutputStream.class));
+
+        // When
+        handlerCaptor.getValue().handle(exchange);
+
+        // Then
+        assertTrue(server.getMiddleware().isEmpty());
+        assertNotNull(handled[0]);
+        assertSame(handled[0], bound[0]);
+        assertNull(ContextHolder.context());
+    }
+
     @Test
     void start_ShouldHandleHttpExceptionInMiddleware() throws Exception {
         // Given
@@ -328,8 +353,8 @@ class ServerTest {
         HttpExchange exchange = mock(HttpExchange.class);
         when(exchange.getRequestMethod()).thenReturn("GET");
         when(exchange.getRequestURI()).thenReturn(new URI("http://localhost:8080/test"));
-        when(exchange.getRequestBody()).thenReturn(new ByteArrayInputStream(new byte[0]));
         when(exchange.getRequestHeaders()).thenReturn(new Headers());
+        when(exchange.getResponseHeaders()).thenReturn(new Headers());
         when(exchange.getResponseBody()).thenReturn(responseBody);
 
         // Execute handler
@@ -337,7 +362,7 @@ class ServerTest {
 
         // Then
         verify(exchange).sendResponseHeaders(eq(403), anyLong());
-        assertEquals("Access Denied", responseBody.toString());
+        assertTrue(responseBody.toString().contains("Access Denied"));
     }
 
     @Test
@@ -359,8 +384,8 @@ class ServerTest {
         HttpExchange exchange = mock(HttpExchange.class);
         when(exchange.getRequestMethod()).thenReturn("GET");
         when(exchange.getRequestURI()).thenReturn(new URI("http://localhost:8080/test"));
-        when(exchange.getRequestBody()).thenReturn(new ByteArrayInputStream(new byte[0]));
         when(exchange.getRequestHeaders()).thenReturn(new Headers());
+        when(exchange.getResponseHeaders()).thenReturn(new Headers());
         when(exchange.getResponseBody()).thenReturn(responseBody);
 
         // Execute handler
@@ -0,0 +1,279 @@
+package core.server.engine;
+
+import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.core.http.ResponseHandler;
+import io.github.renatompf.ember.core.routing.Router;
+import io.github.renatompf.ember.core.server.Server;
+import io.github.renatompf.ember.core.server.engine.ExchangeHandler;
+import io.github.renatompf.ember.core.server.engine.NioServerEngine;
+import io.github.renatompf.ember.enums.HttpMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NioServerEngineTest {
+
+    private NioServerEngine engine;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    private InetSocketAddress start(ExchangeHandler handler) throws IOException {
+        engine = NioServerEngine.builder().selectorThreads(1).bufferSize(1024).build();
+        engine.start(new InetSocketAddress("127.0.0.1", 0), handler);
+        return engine.getLocalAddress();
+    }
+
+    private static ExchangeHandler echo() {
+        return exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String text = exchange.getRequestMethod() + " " + exchange.getRequestURI() + " " + new String(body, StandardCharsets.UTF_8);
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            exchange.setResponseHeader("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        };
+    }
+
+    private static String exchangeRaw(InetSocketAddress address, String request) throws IOException {
+        try (Socket socket = new Socket(address.getAddress(), address.getPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.ISO_8859_1));
+            socket.getOutputStream().flush();
+            socket.shutdownOutput();
+            return new String(socket.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    @Test
+    void start_ShouldServeRequestsWithFixedLengthBody() throws Exception {
+        InetSocketAddress address = start(echo());
+
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + address.getPort() + "/items?id=1"))
+                        .POST(HttpRequest.BodyPublishers.ofString("hello"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("POST /items?id=1 hello", response.body());
+        assertEquals("text/plain", response.headers().firstValue("content-type").orElseThrow());
+        assertTrue(response.headers().firstValue("date").isPresent());
+    }
+
+    @Test
+    void start_ShouldSendChunkedBodyWhenLengthIsUnknown() throws Exception {
+        InetSocketAddress address = start(exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("first,".getBytes(StandardCharsets.UTF_8));
+                os.flush();
+                os.write("second".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        String response = exchangeRaw(address, "GET / HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 200 OK\r\n"));
+        assertTrue(response.contains("Transfer-Encoding: chunked\r\n"));
+        assertTrue(response.endsWith("6\r\nfirst,\r\n6\r\nsecond\r\n0\r\n\r\n"));
+    }
+
+    @Test
+    void start_ShouldServePipelinedRequestsOnOneConnection() throws Exception {
+        InetSocketAddress address = start(echo());
+
+        String response = exchangeRaw(address,
+                "POST /a HTTP/1.1\r\nHost: localhost\r\nContent-Length: 3\r\n\r\nabc"
+                        + "GET /b HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+
+        int first = response.indexOf("POST /a abc");
+        int second = response.indexOf("GET /b ");
+        assertTrue(first > 0, response);
+        assertTrue(second > first, response);
+        assertEquals(2, response.split("HTTP/1.1 200 OK").length - 1);
+    }
+
+    @Test
+    void start_ShouldKeepConnectionAliveBetweenRequests() throws Exception {
+        InetSocketAddress address = start(echo());
+
+        try (Socket socket = new Socket(address.getAddress(), address.getPort())) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+
+            out.write("GET /one HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            assertTrue(readResponse(in).endsWith("GET /one "));
+
+            out.write("GET /two HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            assertTrue(readResponse(in).endsWith("GET /two "));
+        }
+    }
+
+    @Test
+    void start_ShouldDecodeChunkedRequestBody() throws Exception {
+        InetSocketAddress address = start(echo());
+
+        String response = exchangeRaw(address,
+                "POST /upload HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\nConnection: close\r\n\r\n"
+                        + "5\r\nhello\r\n6;ext=1\r\n world\r\n0\r\n\r\n");
+
+        assertTrue(response.endsWith("POST /upload hello world"), response);
+    }
+
+    @Test
+    void start_ShouldRejectMalformedRequest() throws Exception {
+        InetSocketAddress address = start(echo());
+
+        String response = exchangeRaw(address, "NONSENSE\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 400 Bad Request\r\n"), response);
+    }
+
+    @Test
+    void start_ShouldRejectRequestHeadLargerThanBuffer() throws Exception {
+        InetSocketAddress address = start(echo());
+
+        String response = exchangeRaw(address,
+                "GET / HTTP/1.1\r\nX-Large: " + "a".repeat(2048) + "\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 431 Request Header Fields Too Large\r\n"), response);
+    }
+
+    @Test
+    void setResponseHeader_ShouldRejectLineBreaksInValues() throws Exception {
+        InetSocketAddress address = start(exchange -> {
+            int status = 200;
+            try {
+                exchange.setResponseHeader("X-Echo", "a\r\nSet-Cookie: evil=1");
+            } catch (IllegalArgumentException e) {
+                status = 500;
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+
+        String response = exchangeRaw(address, "GET / HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 500 Internal Server Error\r\n"), response);
+        assertFalse(response.contains("Set-Cookie"), response);
+    }
+
+    @Test
+    void start_ShouldRejectConflictingContentLengths() throws Exception {
+        InetSocketAddress address = start(echo());
+
+        String response = exchangeRaw(address,
+                "POST / HTTP/1.1\r\nHost: localhost\r\nContent-Length: 3\r\nContent-Length: 10\r\n\r\nabc");
+
+        assertTrue(response.startsWith("HTTP/1.1 400 Bad Request\r\n"), response);
+    }
+
+    @Test
+    void start_ShouldNotImplementTransferCodingsOtherThanChunked() throws Exception {
+        InetSocketAddress address = start(echo());
+
+        String response = exchangeRaw(address,
+                "POST / HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: gzip, chunked\r\n\r\n0\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 501 Not Implemented\r\n"), response);
+    }
+
+    @Test
+    void start_ShouldRejectNegativeChunkSize() throws Exception {
+        InetSocketAddress address = start(echo());
+
+        String response = exchangeRaw(address,
+                "POST / HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n-1\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 400 Bad Request\r\n"), response);
+    }
+
+    @Test
+    void handleResponse_WhenStreamFails_ShouldDropConnectionWithoutLastChunk() throws Exception {
+        Iterator<Integer> items = new Iterator<>() {
+            private boolean sent;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (sent) {
+                    throw new IllegalStateException("Source failed");
+                }
+                sent = true;
+                return 1;
+            }
+        };
+        InetSocketAddress address = start(exchange -> new ResponseHandler(exchange)
+                .handleResponse(Response.ok().body(items).build()));
+
+        String response = exchangeRaw(address, "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 200 OK\r\n"), response);
+        assertTrue(response.endsWith("\r\n[1\r\n"), response);
+        assertFalse(response.contains("\r\n0\r\n\r\n"), response);
+    }
+
+    @Test
+    void server_ShouldRouteRequestsThroughNioEngine() throws Exception {
+        Router router = new Router();
+        router.register(HttpMethod.GET, "/hello/:name", ctx -> ctx.response().handleResponse(
+                Response.ok().body("Hello " + ctx.pathParams().pathParam("name")).build()));
+        engine = NioServerEngine.builder().selectorThreads(1).build();
+        Server server = new Server(router, List.of(), engine);
+        server.start(0);
+
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + engine.getLocalAddress().getPort() + "/hello/ember"))
+                            .GET()
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertEquals("\"Hello ember\"", response.body());
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static String readResponse(InputStream in) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        while (!head.toString(StandardCharsets.ISO_8859_1).endsWith("\r\n\r\n")) {
+            int b = in.read();
+            assertNotEquals(-1, b);
+            head.write(b);
+        }
+        String headers = head.toString(StandardCharsets.ISO_8859_1);
+        int index = headers.indexOf("Content-Length: ") + "Content-Length: ".length();
+        int length = Integer.parseInt(headers.substring(index, headers.indexOf("\r\n", index)));
+        return headers + new String(in.readNBytes(length), StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,195 @@
+package core.server.execution;
+
+import io.github.renatompf.ember.core.server.execution.ExecutionConfig;
+import io.github.renatompf.ember.core.server.execution.RequestExecutor;
+import io.github.renatompf.ember.core.server.execution.ThreadModel;
+import io.github.renatompf.ember.enums.HttpStatusCode;
+import io.github.renatompf.ember.exceptions.HttpException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestExecutorTest {
+
+    private RequestExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    @Test
+    void execute_ShouldRunInlineByDefault() throws Exception {
+        // Given
+        executor = new RequestExecutor(ExecutionConfig.defaults());
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        // When
+        executor.execute(null, () -> thread.set(Thread.currentThread()));
+
+        // Then
+        assertSame(Thread.currentThread(), thread.get());
+        assertEquals(0, executor.getInFlight());
+    }
+
+    @Test
+    void execute_ShouldRunOnPlatformPool() throws Exception {
+        // Given
+        executor = new RequestExecutor(ExecutionConfig.builder()
+                .threadModel(ThreadModel.PLATFORM)
+                .parallelism(2)
+                .build());
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        // When
+        executor.execute(null, () -> thread.set(Thread.currentThread()));
+
+        // Then
+        assertNotSame(Thread.currentThread(), thread.get());
+        assertFalse(thread.get().isVirtual());
+    }
+
+    @Test
+    void execute_ShouldRunOnNamedExecutor() throws Exception {
+        // Given
+        ExecutorService cpu = Executors.newSingleThreadExecutor(r -> new Thread(r, "cpu-worker"));
+        executor = new RequestExecutor(ExecutionConfig.builder().executor("cpu", cpu).build());
+        AtomicReference<String> threadName = new AtomicReference<>();
+
+        try {
+            // When
+            executor.execute("cpu", () -> threadName.set(Thread.currentThread().getName()));
+
+            // Then
+            assertEquals("cpu-worker", threadName.get());
+            assertTrue(executor.hasExecutor("cpu"));
+            assertFalse(executor.hasExecutor("io"));
+        } finally {
+            cpu.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ShouldPropagateTaskException() {
+        // Given
+        executor = new RequestExecutor(ExecutionConfig.builder().threadModel(ThreadModel.PLATFORM).build());
+        HttpException failure = new HttpException(HttpStatusCode.BAD_REQUEST, "Bad Request");
+
+        // When
+        HttpException thrown = assertThrows(HttpException.class, () -> executor.execute(null, () -> {
+            throw failure;
+        }));
+
+        // Then
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void execute_ShouldRejectWhenLimitReachedWithoutQueue() throws Exception {
+        // Given
+        executor = new RequestExecutor(ExecutionConfig.builder().maxConcurrentRequests(1).build());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread busy = Thread.ofVirtual().start(() -> run(() -> {
+            started.countDown();
+            release.await();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        HttpException thrown = assertThrows(HttpException.class, () -> executor.execute(null, () -> {}));
+
+        // Then
+        assertEquals(HttpStatusCode.SERVICE_UNAVAILABLE, thrown.getStatus());
+        assertEquals(1, executor.getInFlight());
+        assertEquals(1, executor.getRejectedTotal());
+        release.countDown();
+        busy.join();
+        assertEquals(0, executor.getInFlight());
+    }
+
+    @Test
+    void execute_ShouldQueueUntilSlotIsFree() throws Exception {
+        // Given
+        executor = new RequestExecutor(ExecutionConfig.builder()
+                .maxConcurrentRequests(1)
+                .maxQueuedRequests(1)
+                .build());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch queuedDone = new CountDownLatch(1);
+        Thread busy = Thread.ofVirtual().start(() -> run(() -> {
+            started.countDown();
+            release.await();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread queued = Thread.ofVirtual().start(() -> run(queuedDone::countDown));
+        waitUntilQueued(1);
+
+        // When
+        HttpException thrown = assertThrows(HttpException.class, () -> executor.execute(null, () -> {}));
+        release.countDown();
+
+        // Then
+        assertEquals(HttpStatusCode.SERVICE_UNAVAILABLE, thrown.getStatus());
+        assertTrue(queuedDone.await(5, TimeUnit.SECONDS));
+        busy.join();
+        queued.join();
+        assertEquals(1, executor.getQueuedTotal());
+        assertTrue(executor.getQueueWaitNanosTotal() > 0);
+        assertEquals(0, executor.getQueued());
+    }
+
+    @Test
+    void execute_ShouldRejectAfterMaxQueueWait() throws Exception {
+        // Given
+        executor = new RequestExecutor(ExecutionConfig.builder()
+                .maxConcurrentRequests(1)
+                .maxQueuedRequests(1)
+                .maxQueueWait(Duration.ofMillis(20))
+                .build());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread busy = Thread.ofVirtual().start(() -> run(() -> {
+            started.countDown();
+            release.await();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        HttpException thrown = assertThrows(HttpException.class, () -> executor.execute(null, () -> {}));
+        release.countDown();
+        busy.join();
+
+        // Then
+        assertEquals(HttpStatusCode.SERVICE_UNAVAILABLE, thrown.getStatus());
+        assertEquals(1, executor.getQueuedTotal());
+        assertTrue(executor.getQueueWaitNanosTotal() >= Duration.ofMillis(20).toNanos());
+    }
+
+    private void run(RequestExecutor.Task task) {
+        try {
+            executor.execute(null, task);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void waitUntilQueued(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getQueued() < count) {
+            assertTrue(System.nanoTime() < deadline, "Request was not queued");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package core.session;
+
+import core.session.mock.ManualClock;
+import io.github.renatompf.ember.core.session.FileSessionStore;
+import io.github.renatompf.ember.core.session.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSessionStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private ManualClock clock;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock();
+        file = directory.resolve("sessions.db");
+    }
+
+    @Test
+    void find_ShouldReturnCopyOfSavedSession() {
+        // Arrange
+        try (FileSessionStore store = FileSessionStore.builder(file).clock(clock).build()) {
+            Session session = store.create();
+            session.setAttribute("user", "ada");
+            session.setAttribute("roles", new ArrayList<>(List.of("admin", "dev")));
+            store.save(session);
+
+            // Act
+            Session found = store.find(session.getId());
+
+            // Assert
+            assertNotSame(session, found);
+            assertEquals("ada", found.attribute("user"));
+            assertEquals(List.of("admin", "dev"), found.attribute("roles"));
+            assertFalse(found.isModified());
+        }
+    }
+
+    @Test
+    void build_ShouldRestoreSessionsOfExistingFile() {
+        // Arrange
+        String kept;
+        String invalidated;
+        try (FileSessionStore store = FileSessionStore.builder(file).clock(clock).build()) {
+            Session session = store.create();
+            session.setAttribute("user", "ada");
+            store.save(session);
+            session.setAttribute("user", "grace");
+            store.save(session);
+            kept = session.getId();
+
+            Session other = store.create();
+            store.save(other);
+            store.invalidate(other.getId());
+            invalidated = other.getId();
+        }
+
+        // Act
+        try (FileSessionStore store = FileSessionStore.builder(file).clock(clock).build()) {
+
+            // Assert
+            assertEquals(1, store.size());
+            assertEquals("grace", store.find(kept).attribute("user"));
+            assertNull(store.find(invalidated));
+        }
+    }
+
+    @Test
+    void build_ShouldSkipSessionsExpiredWhileStopped() {
+        // Arrange
+        String id;
+        try (FileSessionStore store = FileSessionStore.builder(file)
+                .idleTimeout(Duration.ofMinutes(30))
+                .clock(clock)
+                .build()) {
+            Session session = store.create();
+            store.save(session);
+            id = session.getId();
+            clock.advance(Duration.ofMinutes(20));
+            // The access is recorded in the file
+            assertNotNull(store.find(id));
+        }
+
+        // Act & Assert
+        clock.advance(Duration.ofMinutes(20));
+        try (FileSessionStore store = FileSessionStore.builder(file).idleTimeout(Duration.ofMinutes(30)).clock(clock).build()) {
+            assertNotNull(store.find(id));
+        }
+        clock.advance(Duration.ofMinutes(31));
+        try (FileSessionStore store = FileSessionStore.builder(file).idleTimeout(Duration.ofMinutes(30)).clock(clock).build()) {
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void save_ShouldSpanSegmentsAndCompactReplacedRecords() throws Exception {
+        // Arrange
+        try (FileSessionStore store = FileSessionStore.builder(file).segmentSize(4096).clock(clock).build()) {
+            List<Session> sessions = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Session session = store.create();
+                session.setAttribute("index", i);
+                store.save(session);
+                sessions.add(session);
+            }
+
+            // Act
+            for (int round = 0; round < 50; round++) {
+                for (Session session : sessions) {
+                    session.setAttribute("round", round);
+                    store.save(session);
+                }
+            }
+
+            // Assert
+            assertTrue(Files.size(file) < 10 * 4096, "size: " + Files.size(file));
+            for (int i = 0; i < sessions.size(); i++) {
+                Session found = store.find(sessions.get(i).getId());
+                assertEquals(i, found.attribute("index"));
+                assertEquals(49, found.attribute("round"));
+            }
+        }
+        try (FileSessionStore store = FileSessionStore.builder(file).clock(clock).build()) {
+            assertEquals(10, store.size());
+        }
+    }
+
+    @Test
+    void save_WhenAttributeNotSerializable_ShouldThrow() {
+        // Arrange
+        try (FileSessionStore store = FileSessionStore.builder(file).clock(clock).build()) {
+            Session session = store.create();
+            session.setAttribute("lock", new Object());
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> store.save(session));
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void build_WhenFileIsNotSessionFile_ShouldThrow() throws Exception {
+        // Arrange
+        Files.writeString(file, "not a session file");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> FileSessionStore.builder(file).build());
+    }
+}
@@ -0,0 +1,187 @@
+package core.session;
+
+import core.session.mock.ManualClock;
+import io.github.renatompf.ember.core.session.InMemorySessionStore;
+import io.github.renatompf.ember.core.session.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemorySessionStoreTest {
+
+    private ManualClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock();
+    }
+
+    @Test
+    void find_WhenUnknownId_ShouldReturnNullWithoutCreating() {
+        // Arrange
+        InMemorySessionStore store = InMemorySessionStore.builder().clock(clock).build();
+
+        // Act
+        Session session = store.find(Session.generateId());
+
+        // Assert
+        assertNull(session);
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void create_ShouldNotStoreUntilSaved() {
+        // Arrange
+        InMemorySessionStore store = InMemorySessionStore.builder().clock(clock).build();
+
+        // Act
+        Session session = store.create();
+
+        // Assert
+        assertEquals(43, session.getId().length());
+        assertTrue(session.isModified());
+        assertNull(store.find(session.getId()));
+
+        store.save(session);
+        assertSame(session, store.find(session.getId()));
+        assertFalse(session.isModified());
+    }
+
+    @Test
+    void find_WhenIdleTimeoutPassed_ShouldExpire() {
+        // Arrange
+        InMemorySessionStore store = InMemorySessionStore.builder()
+                .idleTimeout(Duration.ofMinutes(30))
+                .clock(clock)
+                .build();
+        Session session = store.create();
+        store.save(session);
+
+        // Act & Assert
+        clock.advance(Duration.ofMinutes(29));
+        assertNotNull(store.find(session.getId()));
+        clock.advance(Duration.ofMinutes(29));
+        assertNotNull(store.find(session.getId()));
+        clock.advance(Duration.ofMinutes(31));
+        assertNull(store.find(session.getId()));
+        assertEquals(0, store.size());
+        assertEquals(1, store.getExpiredTotal());
+    }
+
+    @Test
+    void find_WhenAbsoluteTimeoutPassed_ShouldExpireEvenIfUsed() {
+        // Arrange
+        InMemorySessionStore store = InMemorySessionStore.builder()
+                .idleTimeout(Duration.ofMinutes(30))
+                .absoluteTimeout(Duration.ofHours(1))
+                .clock(clock)
+                .build();
+        Session session = store.create();
+        store.save(session);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            clock.advance(Duration.ofMinutes(10));
+            assertNotNull(store.find(session.getId()));
+        }
+        clock.advance(Duration.ofMinutes(10));
+
+        // Assert
+        assertNull(store.find(session.getId()));
+    }
+
+    @Test
+    void expiry_ShouldRemoveUnusedSessionsWithoutLookingThemUp() {
+        // Arrange
+        InMemorySessionStore store = InMemorySessionStore.builder()
+                .idleTimeout(Duration.ofMinutes(5))
+                .clock(clock)
+                .build();
+        for (int i = 0; i < 100; i++) {
+            store.save(store.create());
+        }
+
+        // Act
+        clock.advance(Duration.ofMinutes(6));
+        store.save(store.create());
+
+        // Assert
+        assertEquals(1, store.size());
+        assertEquals(100, store.getExpiredTotal());
+    }
+
+    @Test
+    void save_WhenMaxSessionsReached_ShouldEvictSessionExpiringFirst() {
+        // Arrange
+        InMemorySessionStore store = InMemorySessionStore.builder()
+                .maxSessions(3)
+                .clock(clock)
+                .build();
+        Session first = store.create();
+        store.save(first);
+        clock.advance(Duration.ofMinutes(1));
+        Session second = store.create();
+        store.save(second);
+        clock.advance(Duration.ofMinutes(1));
+        Session third = store.create();
+        store.save(third);
+        clock.advance(Duration.ofMinutes(1));
+        store.find(first.getId());
+
+        // Act
+        Session fourth = store.create();
+        store.save(fourth);
+
+        // Assert
+        assertEquals(3, store.size());
+        assertEquals(1, store.getEvictedTotal());
+        assertNull(store.find(second.getId()));
+        assertNotNull(store.find(first.getId()));
+        assertNotNull(store.find(third.getId()));
+        assertNotNull(store.find(fourth.getId()));
+    }
+
+    @Test
+    void save_WhenMaxBytesReached_ShouldEvictOtherSessions() {
+        // Arrange
+        InMemorySessionStore store = InMemorySessionStore.builder()
+                .maxBytes(10_000)
+                .clock(clock)
+                .build();
+        for (int i = 0; i < 10; i++) {
+            Session session = store.create();
+            session.setAttribute("payload", "x".repeat(1_000));
+            store.save(session);
+            clock.advance(Duration.ofSeconds(2));
+        }
+
+        // Assert
+        assertTrue(store.getBytes() <= 10_000, "bytes: " + store.getBytes());
+        assertTrue(store.getEvictedTotal() > 0);
+
+        Session huge = store.create();
+        huge.setAttribute("payload", "x".repeat(10_000));
+        assertThrows(IllegalArgumentException.class, () -> store.save(huge));
+        assertNull(store.find(huge.getId()));
+    }
+
+    @Test
+    void invalidate_ShouldRemoveSession() {
+        // Arrange
+        InMemorySessionStore store = InMemorySessionStore.builder().clock(clock).build();
+        Session session = store.create();
+        session.setAttribute("user", "ada");
+        store.save(session);
+
+        // Act
+        store.invalidate(session.getId());
+
+        // Assert
+        assertNull(store.find(session.getId()));
+        assertEquals(0, store.size());
+        assertEquals(0, store.getBytes());
+    }
+}
@@ -0,0 +1,250 @@
+package core.session;
+
+import core.session.mock.ManualClock;
+import io.github.renatompf.ember.core.session.OffHeapSessionStore;
+import io.github.renatompf.ember.core.session.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapSessionStoreTest {
+
+    private ManualClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock();
+    }
+
+    @Test
+    void find_ShouldReturnCopyOfSavedSession() {
+        // Arrange
+        try (OffHeapSessionStore store = OffHeapSessionStore.builder().clock(clock).build()) {
+            Session session = store.create();
+            session.setAttribute("user", "adà");
+            session.setAttribute("visits", -42);
+            session.setAttribute("since", 1_700_000_000_000L);
+            session.setAttribute("score", 0.5);
+            session.setAttribute("admin", true);
+            session.setAttribute("token", new byte[]{1, 2, 3});
+            session.setAttribute("roles", new ArrayList<>(List.of("admin", "dev")));
+            store.save(session);
+
+            // Act
+            Session found = store.find(session.getId());
+
+            // Assert
+            assertNotSame(session, found);
+            assertEquals(session.getCreationTime(), found.getCreationTime());
+            assertEquals("adà", found.attribute("user"));
+            assertEquals(-42, found.attribute("visits"));
+            assertEquals(1_700_000_000_000L, found.attribute("since"));
+            assertEquals(0.5, found.attribute("score"));
+            assertEquals(true, found.attribute("admin"));
+            assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) found.attribute("token"));
+            assertEquals(List.of("admin", "dev"), found.attribute("roles"));
+            assertNull(found.attribute("missing"));
+            assertEquals(7, found.attributes().size());
+            assertFalse(found.isModified());
+        }
+    }
+
+    @Test
+    void save_WhenAttributesChangeSize_ShouldKeepLatestVersion() {
+        // Arrange
+        try (OffHeapSessionStore store = OffHeapSessionStore.builder().clock(clock).build()) {
+            Session session = store.create();
+            session.setAttribute("cart", "x");
+            store.save(session);
+
+            // Act
+            Session found = store.find(session.getId());
+            found.setAttribute("cart", "x".repeat(2_000));
+            store.save(found);
+            Session grown = store.find(session.getId());
+            grown.removeAttribute("cart");
+            store.save(grown);
+
+            // Assert
+            assertEquals(1, store.size());
+            assertEquals(Map.of(), store.find(session.getId()).attributes());
+            assertTrue(store.getBytes() < 128, "bytes: " + store.getBytes());
+        }
+    }
+
+    @Test
+    void save_ShouldKeepAttributesNeitherReadNorChanged() {
+        // Arrange
+        try (OffHeapSessionStore store = OffHeapSessionStore.builder().clock(clock).build()) {
+            Session session = store.create();
+            session.setAttribute("user", "ada");
+            session.setAttribute("roles", List.of("admin"));
+            session.setAttribute("visits", 1);
+            session.setAttribute("theme", "dark");
+            store.save(session);
+
+            // Act
+            Session found = store.find(session.getId());
+            found.setAttribute("visits", 2);
+            found.removeAttribute("theme");
+            found.removeAttribute("missing");
+            store.save(found);
+
+            // Assert
+            Session saved = store.find(session.getId());
+            assertEquals(Map.of("user", "ada", "roles", List.of("admin"), "visits", 2), saved.attributes());
+        }
+    }
+
+    @Test
+    void find_WhenIdleTimeoutPassed_ShouldExpire() {
+        // Arrange
+        try (OffHeapSessionStore store = OffHeapSessionStore.builder()
+                .idleTimeout(Duration.ofMinutes(30))
+                .clock(clock)
+                .build()) {
+            Session session = store.create();
+            store.save(session);
+
+            // Act & Assert
+            clock.advance(Duration.ofMinutes(29));
+            assertNotNull(store.find(session.getId()));
+            clock.advance(Duration.ofMinutes(29));
+            assertNotNull(store.find(session.getId()));
+            clock.advance(Duration.ofMinutes(31));
+            assertNull(store.find(session.getId()));
+            assertEquals(0, store.size());
+            assertEquals(0, store.getBytes());
+            assertEquals(1, store.getExpiredTotal());
+        }
+    }
+
+    @Test
+    void save_WhenMaxSessionsReached_ShouldEvictSessionExpiringFirst() {
+        // Arrange
+        try (OffHeapSessionStore store = OffHeapSessionStore.builder()
+                .maxSessions(3)
+                .clock(clock)
+                .build()) {
+            Session first = store.create();
+            store.save(first);
+            clock.advance(Duration.ofMinutes(1));
+            Session second = store.create();
+            store.save(second);
+            clock.advance(Duration.ofMinutes(1));
+            Session third = store.create();
+            store.save(third);
+            clock.advance(Duration.ofMinutes(1));
+            store.find(first.getId());
+
+            // Act
+            store.save(store.create());
+
+            // Assert
+            assertEquals(3, store.size());
+            assertEquals(1, store.getEvictedTotal());
+            assertNull(store.find(second.getId()));
+            assertNotNull(store.find(first.getId()));
+            assertNotNull(store.find(third.getId()));
+        }
+    }
+
+    @Test
+    void save_WhenSlabsFull_ShouldReuseChunksAcrossSizeClasses() {
+        // Arrange
+        try (OffHeapSessionStore store = OffHeapSessionStore.builder()
+                .slabSize(4096)
+                .maxBytes(4 * 4096)
+                .clock(clock)
+                .build()) {
+            Session last = null;
+
+            // Act
+            for (int i = 0; i < 500; i++) {
+                last = store.create();
+                last.setAttribute("payload", "x".repeat(i % 3 == 0 ? 40 : i % 3 == 1 ? 400 : 1_500));
+                store.save(last);
+                clock.advance(Duration.ofSeconds(1));
+            }
+
+            // Assert
+            assertEquals(4 * 4096, store.getOffHeapBytes());
+            assertTrue(store.getBytes() <= 4 * 4096, "bytes: " + store.getBytes());
+            assertEquals(500, store.size() + store.getEvictedTotal());
+            assertEquals(400, ((String) store.find(last.getId()).attribute("payload")).length());
+
+            Session huge = store.create();
+            huge.setAttribute("payload", "x".repeat(5_000));
+            assertThrows(IllegalArgumentException.class, () -> store.save(huge));
+            assertNull(store.find(huge.getId()));
+        }
+    }
+
+    @Test
+    void invalidate_ShouldKeepOtherSessionsReachable() {
+        // Arrange
+        try (OffHeapSessionStore store = OffHeapSessionStore.builder().clock(clock).build()) {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < 5_000; i++) {
+                Session session = store.create();
+                session.setAttribute("index", i);
+                store.save(session);
+                ids.add(session.getId());
+            }
+
+            // Act
+            for (int i = 0; i < ids.size(); i += 2) {
+                store.invalidate(ids.get(i));
+            }
+
+            // Assert
+            assertEquals(2_500, store.size());
+            for (int i = 0; i < ids.size(); i++) {
+                Session found = store.find(ids.get(i));
+                if (i % 2 == 0) {
+                    assertNull(found);
+                } else {
+                    assertEquals(i, found.attribute("index"));
+                }
+            }
+        }
+    }
+
+    @Test
+    void save_WhenAttributeNotSerializable_ShouldThrow() {
+        // Arrange
+        try (OffHeapSessionStore store = OffHeapSessionStore.builder().clock(clock).build()) {
+            Session session = store.create();
+            session.setAttribute("lock", new Object());
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> store.save(session));
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void close_ShouldRejectFurtherUse() {
+        // Arrange
+        OffHeapSessionStore store = OffHeapSessionStore.builder().clock(clock).build();
+        Session session = store.create();
+        store.save(session);
+
+        // Act
+        store.close();
+        store.close();
+
+        // Assert
+        assertThrows(IllegalStateException.class, () -> store.find(session.getId()));
+        assertThrows(IllegalStateException.class, () -> store.save(session));
+        assertThrows(IllegalStateException.class, () -> store.invalidate(session.getId()));
+        assertThrows(IllegalStateException.class, store::size);
+        assertEquals(0, store.getOffHeapBytes());
+    }
+}
@@ -0,0 +1,143 @@
+package core.tracing;
+
+import io.github.renatompf.ember.core.http.Response;
+import io.github.renatompf.ember.core.routing.Router;
+import io.github.renatompf.ember.core.server.Server;
+import io.github.renatompf.ember.core.server.engine.NioServerEngine;
+import io.github.renatompf.ember.core.tracing.JfrTraceSink;
+import io.github.renatompf.ember.core.tracing.Phase;
+import io.github.renatompf.ember.core.tracing.RequestTrace;
+import io.github.renatompf.ember.core.tracing.ServerTimingSink;
+import io.github.renatompf.ember.core.tracing.TraceSink;
+import io.github.renatompf.ember.core.tracing.Tracer;
+import io.github.renatompf.ember.enums.HttpMethod;
+import io.github.renatompf.ember.enums.MediaType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+
+    @Test
+    void sample_WithZeroRate_ShouldTraceNothing() {
+        Tracer tracer = Tracer.builder().sampleRate(0).sink(new ServerTimingSink()).build();
+
+        assertNull(tracer.sample("GET", "/"));
+    }
+
+    @Test
+    void sample_WithFullRate_ShouldTraceEveryRequest() {
+        Tracer tracer = Tracer.builder().sampleRate(1).sink(new ServerTimingSink()).build();
+
+        RequestTrace trace = tracer.sample("GET", "/users");
+
+        assertNotNull(trace);
+        assertEquals("GET", trace.getMethod());
+        assertEquals("/users", trace.getPath());
+    }
+
+    @Test
+    void builder_WithInvalidRate_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Tracer.builder().sampleRate(1.5));
+        assertThrows(IllegalArgumentException.class, () -> Tracer.builder().sampleRate(Double.NaN));
+    }
+
+    @Test
+    void enter_ShouldAccumulateTimePerPhase() throws Exception {
+        RequestTrace trace = new RequestTrace("GET", "/");
+
+        trace.enter(Phase.BINDING);
+        Thread.sleep(5);
+        trace.enter(Phase.HANDLER);
+        Thread.sleep(5);
+        trace.exit();
+        trace.enter(Phase.HANDLER);
+        trace.exit();
+
+        assertTrue(trace.getNanos(Phase.BINDING) >= 5_000_000);
+        assertTrue(trace.getNanos(Phase.HANDLER) >= 5_000_000);
+        assertFalse(trace.hasPhase(Phase.VALIDATION));
+        assertEquals(0, trace.getNanos(Phase.VALIDATION));
+        assertTrue(trace.toServerTiming().matches("binding;dur=\\d+\\.\\d{3}, handler;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"));
+    }
+
+    @Test
+    void jfrSink_ShouldCommitEventWhenRecording(@TempDir Path directory) throws Exception {
+        RequestTrace trace = new RequestTrace("POST", "/orders");
+        trace.setRoute("/orders");
+        trace.setStatus(201);
+        trace.enter(Phase.HANDLER);
+        Tracer tracer = Tracer.builder().sampleRate(1).sink(new JfrTraceSink()).build();
+
+        Path file = directory.resolve("trace.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("ember.RequestTrace");
+            recording.start();
+            tracer.complete(trace);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("ember.RequestTrace"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("/orders", events.getFirst().getString("route"));
+        assertEquals(201, events.getFirst().getInt("status"));
+    }
+
+    @Test
+    void server_ShouldAddServerTimingHeaderAndCompleteTrace() throws Exception {
+        List<RequestTrace> completed = new CopyOnWriteArrayList<>();
+        Tracer tracer = Tracer.builder()
+                .sampleRate(1)
+                .sink(new ServerTimingSink())
+                .sink(new TraceSink() {
+                    @Override
+                    public void onComplete(RequestTrace trace) {
+                        completed.add(trace);
+                    }
+                })
+                .build();
+        Router router = new Router();
+        router.register(HttpMethod.GET, "/items/:id", ctx -> ctx.response().handleResponse(
+                Response.ok().contentType(MediaType.TEXT_PLAIN).body("item").build()));
+        NioServerEngine engine = NioServerEngine.builder().selectorThreads(1).build();
+        Server server = new Server(router, List.of(), engine);
+        server.setTracer(tracer);
+        server.start(0);
+        try {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                            URI.create("http://127.0.0.1:" + engine.getLocalAddress().getPort() + "/items/7")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            String serverTiming = response.headers().firstValue("server-timing").orElseThrow();
+            assertTrue(serverTiming.startsWith("routing;dur="), serverTiming);
+            assertTrue(serverTiming.contains("total;dur="), serverTiming);
+            // The trace completes once the exchange is done, possibly after the client got the response
+            long waitUntil = System.nanoTime() + 5_000_000_000L;
+            while (completed.isEmpty() && System.nanoTime() < waitUntil) {
+                Thread.sleep(10);
+            }
+        } finally {
+            server.stop();
+        }
+
+        assertEquals(1, completed.size());
+        assertEquals("/items/:id", completed.getFirst().getRoute());
+        assertEquals(200, completed.getFirst().getStatus());
+    }
+}
@@ -0,0 +1,188 @@
+package processor;
+
+import io.github.renatompf.ember.annotations.controller.Controller;
+import io.github.renatompf.ember.annotations.service.Service;
+import io.github.renatompf.ember.core.controller.RouteTable;
+import io.github.renatompf.ember.core.di.ComponentIndex;
+import io.github.renatompf.ember.enums.HttpMethod;
+import io.github.renatompf.ember.processor.ComponentIndexProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentIndexProcessorTest {
+
+    @TempDir
+    Path directory;
+
+    private static final String SERVICE = """
+            package app;
+
+            import io.github.renatompf.ember.annotations.service.Service;
+
+            @Service
+            public class UserService {
+            }
+            """;
+
+    private static final String MIDDLEWARE = """
+            package app;
+
+            import io.github.renatompf.ember.core.server.Context;
+            import io.github.renatompf.ember.core.server.Middleware;
+
+            public class AuthMiddleware implements Middleware {
+                @Override
+                public void handle(Context context) {
+                }
+
+                public static class Audit implements Middleware {
+                    @Override
+                    public void handle(Context context) {
+                    }
+                }
+            }
+            """;
+
+    private static final String CONTROLLER = """
+            package app;
+
+            import io.github.renatompf.ember.annotations.controller.Controller;
+            import io.github.renatompf.ember.annotations.http.Get;
+            import io.github.renatompf.ember.annotations.http.Post;
+            import io.github.renatompf.ember.annotations.middleware.WithMiddleware;
+            import java.util.List;
+
+            @Controller("/users/")
+            @WithMiddleware(AuthMiddleware.class)
+            public class UserController {
+                @Get("{id}")
+                public String find(String id, int[] fields, List<String> expand) {
+                    return id;
+                }
+
+                @Post
+                @WithMiddleware(AuthMiddleware.Audit.class)
+                public void create(long id) {
+                }
+
+                public void helper() {
+                }
+            }
+            """;
+
+    @Test
+    void process_ShouldWriteComponentIndexAndRouteTable() throws Exception {
+        // Arrange
+        Path output = compile(List.of(), "UserService", SERVICE, "AuthMiddleware", MIDDLEWARE,
+                "UserController", CONTROLLER);
+
+        try (URLClassLoader loader = classLoader(output)) {
+            // Act
+            ComponentIndex index = ComponentIndex.load(loader);
+            RouteTable table = RouteTable.load(loader);
+
+            // Assert
+            assertNotNull(index);
+            assertEquals(2, index.size());
+            assertEquals(List.of("app.UserService"), names(index.findAnnotatedClasses("app", Service.class)));
+            assertEquals(List.of("app.UserController"), names(index.findAnnotatedClasses("", Controller.class)));
+            assertTrue(index.findAnnotatedClasses("other", Service.class).isEmpty());
+
+            Class<?> controller = loader.loadClass("app.UserController");
+            List<RouteTable.Route> routes = new ArrayList<>(table.routesOf(controller));
+            routes.sort((a, b) -> a.method().getName().compareTo(b.method().getName()));
+            assertEquals(2, routes.size());
+
+            RouteTable.Route create = routes.get(0);
+            assertEquals(HttpMethod.POST, create.httpMethod());
+            assertEquals("/users/", create.path());
+            assertEquals(List.of("app.AuthMiddleware", "app.AuthMiddleware$Audit"), names(create.middleware()));
+
+            RouteTable.Route find = routes.get(1);
+            assertEquals(HttpMethod.GET, find.httpMethod());
+            assertEquals("/users/{id}", find.path());
+            assertEquals(3, find.method().getParameterCount());
+            assertEquals(List.of("app.AuthMiddleware"), names(find.middleware()));
+
+            assertNull(table.routesOf(Object.class));
+        }
+    }
+
+    @Test
+    void process_WhenDisabled_ShouldWriteNothing() throws Exception {
+        // Arrange
+        Path output = compile(List.of("-A" + ComponentIndexProcessor.ENABLED_OPTION + "=false"),
+                "UserService", SERVICE);
+
+        try (URLClassLoader loader = classLoader(output)) {
+            // Act & Assert
+            assertNull(ComponentIndex.load(loader));
+            assertNull(RouteTable.load(loader));
+        }
+    }
+
+    @Test
+    void process_WhenRecompilingSomeClasses_ShouldKeepEntriesOfOthers() throws Exception {
+        // Arrange
+        Path output = compile(List.of(), "UserService", SERVICE, "AuthMiddleware", MIDDLEWARE,
+                "UserController", CONTROLLER);
+
+        // Act
+        compileInto(output, List.of("-classpath", System.getProperty("java.class.path")
+                + File.pathSeparator + output), "OrderService", SERVICE
+                .replace("UserService", "OrderService"));
+
+        // Assert
+        try (URLClassLoader loader = classLoader(output)) {
+            ComponentIndex index = ComponentIndex.load(loader);
+            assertEquals(List.of("app.OrderService", "app.UserService"),
+                    names(index.findAnnotatedClasses("app", Service.class)).stream().sorted().toList());
+            assertNotNull(RouteTable.load(loader).routesOf(loader.loadClass("app.UserController")));
+        }
+    }
+
+    private Path compile(List<String> options, String... sources) throws IOException {
+        Path output = Files.createDirectories(directory.resolve("classes"));
+        List<String> arguments = new ArrayList<>(options);
+        arguments.addAll(List.of("-classpath", System.getProperty("java.class.path")));
+        compileInto(output, arguments, sources);
+        return output;
+    }
+
+    private void compileInto(Path output, List<String> options, String... sources) throws IOException {
+        Path sourceDirectory = Files.createDirectories(directory.resolve("src").resolve("app"));
+        List<String> arguments = new ArrayList<>(options);
+        arguments.addAll(List.of("-d", output.toString(),
+                "-processor", ComponentIndexProcessor.class.getName()));
+        for (int i = 0; i < sources.length; i += 2) {
+            Path source = sourceDirectory.resolve(sources[i] + ".java");
+            Files.writeString(source, sources[i + 1]);
+            arguments.add(source.toString());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, arguments.toArray(String[]::new)));
+    }
+
+    private static URLClassLoader classLoader(Path output) throws IOException {
+        return new URLClassLoader(new URL[]{output.toUri().toURL()},
+                ComponentIndexProcessorTest.class.getClassLoader());
+    }
+
+    private static List<String> names(List<? extends Class<?>> classes) {
+        return classes.stream().map(Class::getName).toList();
+    }
+}